@@ -0,0 +1,112 @@
+package com.venikkin.vertx.ext.web.client.aws;
+
+import io.vertx.core.Vertx;
+import io.vertx.core.buffer.Buffer;
+import io.vertx.core.http.HttpHeaders;
+import io.vertx.core.http.HttpMethod;
+import io.vertx.core.http.HttpServer;
+import io.vertx.core.http.HttpServerRequest;
+import io.vertx.core.http.RequestOptions;
+import io.vertx.ext.web.client.WebClientOptions;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import software.amazon.awssdk.auth.credentials.AwsBasicCredentials;
+import software.amazon.awssdk.auth.credentials.StaticCredentialsProvider;
+import software.amazon.awssdk.regions.Region;
+
+import java.io.File;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+// Downloads a 64 MiB object from a local range server with a fixed delay per response, which stands in for the
+// round trip to S3. Throughput should grow with concurrency until the disk or the loopback is saturated.
+// Run with ./gradlew jmh -PjmhIncludes=AwsRangedDownloadBenchmark
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+public class AwsRangedDownloadBenchmark {
+
+    private static final int OBJECT_SIZE = 64 * 1024 * 1024;
+    private static final long RESPONSE_DELAY_MILLIS = 20;
+    private static final Pattern RANGE = Pattern.compile("bytes=(\\d+)-(\\d+)");
+
+    @Param({"1", "4", "16"})
+    public int concurrency;
+
+    @Param({"1048576", "8388608"})
+    public long rangeSize;
+
+    private Vertx vertx;
+    private HttpServer server;
+    private Buffer object;
+    private AwsSigningWebClient client;
+    private RequestOptions requestOptions;
+    private AwsRangedDownloadOptions downloadOptions;
+    private File file;
+
+    @Setup
+    public void setUp() throws Exception {
+        vertx = Vertx.vertx();
+        final byte[] bytes = new byte[OBJECT_SIZE];
+        new Random(42).nextBytes(bytes);
+        object = Buffer.buffer(bytes);
+        server = vertx.createHttpServer()
+                .requestHandler(this::serve)
+                .listen(0)
+                .toCompletionStage().toCompletableFuture().get();
+        // ranges beyond the connection pool size would just queue
+        client = AwsSigningWebClient.create(vertx, new WebClientOptions().setMaxPoolSize(concurrency),
+                new AwsSigningOptions()
+                        .setCredentialsProvider(StaticCredentialsProvider.create(
+                                AwsBasicCredentials.create("AKIDEXAMPLE", "wJalrXUtnFEMI/K7MDENG+bPxRfiCYEXAMPLEKEY")))
+                        .setRegion(Region.EU_WEST_1));
+        requestOptions = new RequestOptions()
+                .setHost("localhost")
+                .setPort(server.actualPort())
+                .setURI("/object");
+        downloadOptions = new AwsRangedDownloadOptions()
+                .setConcurrency(concurrency)
+                .setRangeSize(rangeSize);
+        file = File.createTempFile("ranged-download", ".bin");
+    }
+
+    @TearDown
+    public void tearDown() {
+        vertx.close();
+        file.delete();
+    }
+
+    // one operation is one download of the whole object
+    @Benchmark
+    public AwsRangedDownloadResult download() throws Exception {
+        return client.download(requestOptions, file.getPath(), downloadOptions)
+                .toCompletionStage().toCompletableFuture().get();
+    }
+
+    private void serve(final HttpServerRequest request) {
+        if (request.method() == HttpMethod.HEAD) {
+            request.response().putHeader(HttpHeaders.CONTENT_LENGTH, Integer.toString(OBJECT_SIZE)).end();
+            return;
+        }
+        final Matcher range = RANGE.matcher(request.getHeader(HttpHeaders.RANGE));
+        if (!range.matches()) {
+            request.response().setStatusCode(416).end();
+            return;
+        }
+        final int start = Integer.parseInt(range.group(1));
+        final int end = Integer.parseInt(range.group(2));
+        vertx.setTimer(RESPONSE_DELAY_MILLIS, id -> request.response()
+                .setStatusCode(206)
+                .putHeader(HttpHeaders.CONTENT_RANGE, "bytes " + start + '-' + end + '/' + OBJECT_SIZE)
+                .end(object.slice(start, end + 1)));
+    }
+}
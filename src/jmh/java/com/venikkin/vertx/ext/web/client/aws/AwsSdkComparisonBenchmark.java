@@ -0,0 +1,279 @@
+package com.venikkin.vertx.ext.web.client.aws;
+
+import io.vertx.core.Future;
+import io.vertx.core.Vertx;
+import io.vertx.core.buffer.Buffer;
+import io.vertx.core.http.HttpServer;
+import io.vertx.ext.web.client.HttpResponse;
+import io.vertx.ext.web.client.WebClientOptions;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.reactivestreams.Publisher;
+import org.reactivestreams.Subscriber;
+import org.reactivestreams.Subscription;
+import software.amazon.awssdk.auth.credentials.AwsBasicCredentials;
+import software.amazon.awssdk.auth.credentials.AwsCredentialsProvider;
+import software.amazon.awssdk.auth.credentials.StaticCredentialsProvider;
+import software.amazon.awssdk.auth.signer.Aws4Signer;
+import software.amazon.awssdk.auth.signer.params.Aws4SignerParams;
+import software.amazon.awssdk.http.SdkHttpFullRequest;
+import software.amazon.awssdk.http.SdkHttpMethod;
+import software.amazon.awssdk.http.SdkHttpResponse;
+import software.amazon.awssdk.http.async.AsyncExecuteRequest;
+import software.amazon.awssdk.http.async.SdkAsyncHttpClient;
+import software.amazon.awssdk.http.async.SdkAsyncHttpResponseHandler;
+import software.amazon.awssdk.http.async.SdkHttpContentPublisher;
+import software.amazon.awssdk.http.nio.netty.NettyNioAsyncHttpClient;
+import software.amazon.awssdk.regions.Region;
+
+import java.io.ByteArrayInputStream;
+import java.lang.management.ManagementFactory;
+import java.nio.ByteBuffer;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Optional;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+// The same signed workloads sent through the signing web client and through the AWS SDK netty async client signed
+// with the SDK signer, against one local echo server running on its own Vertx instance.
+// Throughput and p50/p99 come from the two benchmark modes, allocation per operation from the gc profiler, and CPU
+// per request of the whole process, echo server included, is printed after every iteration.
+// Run with ./gradlew jmh -PjmhIncludes=AwsSdkComparisonBenchmark -PjmhProfilers=gc
+@State(Scope.Benchmark)
+@BenchmarkMode({Mode.Throughput, Mode.SampleTime})
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+public class AwsSdkComparisonBenchmark {
+
+    private static final int BURST = 64;
+    private static final String HOST = "localhost";
+    private static final String PATH = "/dev/echo";
+    private static final AwsCredentialsProvider CREDENTIALS = StaticCredentialsProvider.create(
+            AwsBasicCredentials.create("AKIDEXAMPLE", "wJalrXUtnFEMI/K7MDENG+bPxRfiCYEXAMPLEKEY"));
+
+    @Param({"vertx", "sdk"})
+    public String client;
+
+    // a GET without body, or a POST of 1 MiB
+    @Param({"0", "1048576"})
+    public int bodySize;
+
+    private Vertx serverVertx;
+    private Vertx clientVertx;
+    private HttpServer server;
+    private AwsSigningWebClient signingClient;
+    private SdkAsyncHttpClient sdkClient;
+    private Aws4Signer sdkSigner;
+    private byte[] body;
+
+    private long requests;
+    private long cpuStartNanos;
+
+    @Setup
+    public void setUp() throws Exception {
+        serverVertx = Vertx.vertx();
+        server = serverVertx.createHttpServer()
+                .requestHandler(request -> request.body(ar -> request.response().end(ar.result())))
+                .listen(0)
+                .toCompletionStage().toCompletableFuture().get();
+        body = bodySize > 0 ? new byte[bodySize] : null;
+        if ("vertx".equals(client)) {
+            clientVertx = Vertx.vertx();
+            signingClient = AwsSigningWebClient.create(clientVertx, new WebClientOptions().setMaxPoolSize(BURST),
+                    new AwsSigningOptions()
+                            .setCredentialsProvider(CREDENTIALS)
+                            .setRegion(Region.EU_WEST_1));
+        } else {
+            sdkClient = NettyNioAsyncHttpClient.builder()
+                    .maxConcurrency(BURST)
+                    .build();
+            sdkSigner = Aws4Signer.create();
+        }
+    }
+
+    @TearDown
+    public void tearDown() {
+        if (signingClient != null) {
+            signingClient.close();
+            clientVertx.close();
+        }
+        if (sdkClient != null) {
+            sdkClient.close();
+        }
+        serverVertx.close();
+    }
+
+    @Setup(Level.Iteration)
+    public void startCpuClock() {
+        requests = 0;
+        cpuStartNanos = processCpuNanos();
+    }
+
+    @TearDown(Level.Iteration)
+    public void printCpuPerRequest() {
+        if (requests > 0) {
+            System.out.printf("%n%s, %d byte body: %.1f us CPU per request%n", client, bodySize,
+                    (processCpuNanos() - cpuStartNanos) / 1000.0 / requests);
+        }
+    }
+
+    @Benchmark
+    public int single() throws Exception {
+        requests++;
+        return send().get();
+    }
+
+    // one operation is BURST concurrent requests
+    @Benchmark
+    public int burst() throws Exception {
+        requests += BURST;
+        final List<CompletableFuture<Integer>> responses = new ArrayList<>(BURST);
+        for (int i = 0; i < BURST; i++) {
+            responses.add(send());
+        }
+        int length = 0;
+        for (final CompletableFuture<Integer> response : responses) {
+            length += response.get();
+        }
+        return length;
+    }
+
+    // completes with the length of the echoed body
+    private CompletableFuture<Integer> send() {
+        return "vertx".equals(client) ? sendWithVertx() : sendWithSdk();
+    }
+
+    // every request wraps the body in a buffer of its own and hashes it, like the SDK side does
+    private CompletableFuture<Integer> sendWithVertx() {
+        final Future<HttpResponse<Buffer>> response = body != null
+                ? signingClient.post(server.actualPort(), HOST, PATH).sendBuffer(Buffer.buffer(body))
+                : signingClient.get(server.actualPort(), HOST, PATH).send();
+        return response
+                .map(r -> r.body() != null ? r.body().length() : 0)
+                .toCompletionStage().toCompletableFuture();
+    }
+
+    private CompletableFuture<Integer> sendWithSdk() {
+        final SdkHttpFullRequest signed = sdkSigner.sign(SdkHttpFullRequest.builder()
+                .method(body != null ? SdkHttpMethod.POST : SdkHttpMethod.GET)
+                .protocol("http")
+                .host(HOST)
+                .port(server.actualPort())
+                .encodedPath(PATH)
+                .contentStreamProvider(body != null ? () -> new ByteArrayInputStream(body) : null)
+                .build(), Aws4SignerParams.builder()
+                .awsCredentials(CREDENTIALS.resolveCredentials())
+                .signingName("execute-api")
+                .signingRegion(Region.EU_WEST_1)
+                .build());
+        final CompletableFuture<Integer> length = new CompletableFuture<>();
+        sdkClient.execute(AsyncExecuteRequest.builder()
+                .request(signed)
+                .requestContentPublisher(new BodyPublisher(body))
+                .responseHandler(new LengthHandler(length))
+                .build())
+                .whenComplete((v, failure) -> {
+                    if (failure != null) {
+                        length.completeExceptionally(failure);
+                    }
+                });
+        return length;
+    }
+
+    private static long processCpuNanos() {
+        return ((com.sun.management.OperatingSystemMXBean) ManagementFactory.getOperatingSystemMXBean())
+                .getProcessCpuTime();
+    }
+
+    // publishes the whole body as one buffer, as the SDK does for bodies it already holds in memory
+    private static class BodyPublisher implements SdkHttpContentPublisher {
+
+        private final byte[] body;
+
+        private BodyPublisher(final byte[] body) {
+            this.body = body;
+        }
+
+        @Override
+        public Optional<Long> contentLength() {
+            return Optional.of(body != null ? (long) body.length : 0L);
+        }
+
+        @Override
+        public void subscribe(final Subscriber<? super ByteBuffer> subscriber) {
+            final AtomicBoolean done = new AtomicBoolean();
+            subscriber.onSubscribe(new Subscription() {
+                @Override
+                public void request(final long n) {
+                    if (n > 0 && done.compareAndSet(false, true)) {
+                        if (body != null) {
+                            subscriber.onNext(ByteBuffer.wrap(body));
+                        }
+                        subscriber.onComplete();
+                    }
+                }
+
+                @Override
+                public void cancel() {
+                    done.set(true);
+                }
+            });
+        }
+    }
+
+    // counts the response bytes as they arrive, the vertx client buffers them, which only favours the SDK here
+    private static class LengthHandler implements SdkAsyncHttpResponseHandler {
+
+        private final CompletableFuture<Integer> length;
+
+        private LengthHandler(final CompletableFuture<Integer> length) {
+            this.length = length;
+        }
+
+        @Override
+        public void onHeaders(final SdkHttpResponse headers) {
+        }
+
+        @Override
+        public void onStream(final Publisher<ByteBuffer> stream) {
+            stream.subscribe(new Subscriber<ByteBuffer>() {
+
+                private int received;
+
+                @Override
+                public void onSubscribe(final Subscription subscription) {
+                    subscription.request(Long.MAX_VALUE);
+                }
+
+                @Override
+                public void onNext(final ByteBuffer chunk) {
+                    received += chunk.remaining();
+                }
+
+                @Override
+                public void onError(final Throwable failure) {
+                    length.completeExceptionally(failure);
+                }
+
+                @Override
+                public void onComplete() {
+                    length.complete(received);
+                }
+            });
+        }
+
+        @Override
+        public void onError(final Throwable failure) {
+            length.completeExceptionally(failure);
+        }
+    }
+}
@@ -0,0 +1,117 @@
+package com.venikkin.vertx.ext.web.client.aws;
+
+import io.vertx.core.Vertx;
+import io.vertx.core.buffer.Buffer;
+import io.vertx.ext.web.client.HttpRequest;
+import io.vertx.ext.web.client.WebClient;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import software.amazon.awssdk.auth.credentials.AwsBasicCredentials;
+import software.amazon.awssdk.auth.credentials.StaticCredentialsProvider;
+import software.amazon.awssdk.auth.signer.Aws4Signer;
+import software.amazon.awssdk.auth.signer.params.Aws4SignerParams;
+import software.amazon.awssdk.http.SdkHttpFullRequest;
+import software.amazon.awssdk.http.SdkHttpMethod;
+import software.amazon.awssdk.regions.Region;
+
+import javax.crypto.Mac;
+import java.security.MessageDigest;
+import java.util.concurrent.TimeUnit;
+
+// Compares the SDK signer with the engine, and the engine's thread-confined digest and mac with
+// instances created per signature. Run with ./gradlew jmh
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+public class AwsSigningBenchmark {
+
+    private static final String HOST = "123456.execute-api.eu-west-1.amazonaws.com";
+    private static final String PATH = "/dev/secureEcho";
+    private static final String SECRET_ACCESS_KEY = "wJalrXUtnFEMI/K7MDENG+bPxRfiCYEXAMPLEKEY";
+    private static final String CANONICAL_REQUEST = "GET\n" + PATH + "\ntestParam=testValue\n"
+            + "host:" + HOST + "\nx-amz-date:20230120T123456Z\n\nhost;x-amz-date\n" + AwsSigV4.EMPTY_PAYLOAD_HASH;
+    private static final String SCOPE = AwsSigV4.scope("20230120", "eu-west-1", "execute-api");
+
+    // "jca" or the name of an installed security provider
+    @Param({"jca", JcaAwsSigningCrypto.CORRETTO_PROVIDER_NAME})
+    public String crypto;
+
+    private Vertx vertx;
+    private AwsSigningOptions signingOptions;
+    private AwsSigningEngine engine;
+    private HttpRequest<Buffer> request;
+    private Aws4Signer sdkSigner;
+    private Aws4SignerParams sdkSignerParams;
+    private SdkHttpFullRequest sdkRequest;
+    private AwsSigningCrypto signingCrypto;
+    private MessageDigest digest;
+    private Mac mac;
+    private byte[] signingKey;
+
+    @Setup
+    public void setUp() {
+        vertx = Vertx.vertx();
+        signingCrypto = "jca".equals(crypto) ? AwsSigningCrypto.jca() : AwsSigningCrypto.provider(crypto);
+        signingOptions = new AwsSigningOptions()
+                .setCredentialsProvider(StaticCredentialsProvider.create(
+                        AwsBasicCredentials.create("AKIDEXAMPLE", SECRET_ACCESS_KEY)))
+                .setRegion(Region.EU_WEST_1)
+                .setCrypto(signingCrypto);
+        engine = new AwsSigningEngine(signingCrypto);
+        request = WebClient.create(vertx).get(443, HOST, PATH).ssl(true).addQueryParam("testParam", "testValue");
+
+        sdkSigner = Aws4Signer.create();
+        sdkSignerParams = Aws4SignerParams.builder()
+                .awsCredentials(signingOptions.getCredentialsProvider().resolveCredentials())
+                .signingName(signingOptions.getServiceName())
+                .signingRegion(signingOptions.getRegion())
+                .build();
+        sdkRequest = SdkHttpFullRequest.builder()
+                .method(SdkHttpMethod.GET)
+                .protocol("https")
+                .host(HOST)
+                .encodedPath(PATH)
+                .appendRawQueryParameter("testParam", "testValue")
+                .build();
+
+        digest = signingCrypto.sha256();
+        mac = signingCrypto.hmacSha256();
+        signingKey = AwsSigV4.signingKey(mac, SECRET_ACCESS_KEY, "20230120", "eu-west-1", "execute-api");
+    }
+
+    @TearDown
+    public void tearDown() {
+        vertx.close();
+    }
+
+    @Benchmark
+    public SdkHttpFullRequest sdkSigner() {
+        return sdkSigner.sign(sdkRequest, sdkSignerParams);
+    }
+
+    @Benchmark
+    public HttpRequest<Buffer> engine() {
+        engine.sign(signingOptions, request, "https", AwsSigV4.EMPTY_PAYLOAD_HASH);
+        return request;
+    }
+
+    @Benchmark
+    public String signaturePooledCrypto() {
+        final String stringToSign = AwsSigV4.stringToSign(digest, "20230120T123456Z", SCOPE, CANONICAL_REQUEST);
+        return AwsSigV4.hex(AwsSigV4.hmac(mac, signingKey, stringToSign));
+    }
+
+    @Benchmark
+    public String signatureNewCrypto() {
+        final String stringToSign = AwsSigV4.stringToSign(
+                signingCrypto.sha256(), "20230120T123456Z", SCOPE, CANONICAL_REQUEST);
+        return AwsSigV4.hex(AwsSigV4.hmac(signingCrypto.hmacSha256(), signingKey, stringToSign));
+    }
+}
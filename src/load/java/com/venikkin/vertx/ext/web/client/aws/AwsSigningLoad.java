@@ -0,0 +1,305 @@
+package com.venikkin.vertx.ext.web.client.aws;
+
+import io.vertx.core.AsyncResult;
+import io.vertx.core.Context;
+import io.vertx.core.Handler;
+import io.vertx.core.Promise;
+import io.vertx.core.Vertx;
+import io.vertx.core.buffer.Buffer;
+import io.vertx.core.http.HttpMethod;
+import io.vertx.core.http.HttpServer;
+import io.vertx.ext.web.client.HttpRequest;
+import io.vertx.ext.web.client.HttpResponse;
+import io.vertx.ext.web.client.WebClient;
+import io.vertx.ext.web.client.WebClientOptions;
+import org.HdrHistogram.Histogram;
+import software.amazon.awssdk.auth.credentials.AwsBasicCredentials;
+import software.amazon.awssdk.auth.credentials.AwsCredentialsProvider;
+import software.amazon.awssdk.auth.credentials.DefaultCredentialsProvider;
+import software.amazon.awssdk.auth.credentials.StaticCredentialsProvider;
+import software.amazon.awssdk.auth.signer.Aws4Signer;
+import software.amazon.awssdk.auth.signer.params.Aws4SignerParams;
+import software.amazon.awssdk.http.SdkHttpFullRequest;
+import software.amazon.awssdk.http.SdkHttpMethod;
+import software.amazon.awssdk.regions.Region;
+
+import java.io.ByteArrayInputStream;
+import java.net.URI;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.TimeUnit;
+
+// End-to-end load against a local stand-in or a real endpoint, run with ./gradlew loadTest -PloadArgs="...".
+// Requests are scheduled at a fixed rate and their latency is measured from the time they were scheduled to start,
+// so a stalled client or server shows up in the histogram instead of silently lowering the rate (coordinated
+// omission). With concurrency set, at most that many requests are in flight and the rest wait for a slot.
+// Signing time is recorded separately: the engine through a tracer, the SDK signer around its sign call.
+// Scheduling, sending and recording all happen on one event loop, the histograms need no synchronization.
+public class AwsSigningLoad {
+
+    private static final String LOCAL_HOST = "localhost";
+    private static final long HIGHEST_TRACKABLE_MICROS = TimeUnit.MINUTES.toMicros(1);
+
+    private final Vertx vertx;
+    private final Map<String, String> args;
+    private final int rate;
+    private final int concurrency;
+    private final long durationNanos;
+    private final long warmUpNanos;
+    private final Buffer body;
+
+    private AwsSigningLoad(final Vertx vertx, final Map<String, String> args) {
+        this.vertx = vertx;
+        this.args = args;
+        this.rate = Integer.parseInt(args.getOrDefault("rate", "1000"));
+        // 0 sends every request on schedule however many are in flight (open loop)
+        this.concurrency = Integer.parseInt(args.getOrDefault("concurrency", "0"));
+        this.durationNanos = TimeUnit.SECONDS.toNanos(Long.parseLong(args.getOrDefault("duration", "30")));
+        this.warmUpNanos = TimeUnit.SECONDS.toNanos(Long.parseLong(args.getOrDefault("warmUp", "10")));
+        final int bodySize = Integer.parseInt(args.getOrDefault("bodySize", "0"));
+        this.body = bodySize > 0 ? Buffer.buffer(new byte[bodySize]) : null;
+    }
+
+    // key=value arguments:
+    //   url          endpoint to load, a local stand-in is started when not set
+    //   region       signing region, eu-west-1 by default
+    //   serverDelay  milliseconds the local stand-in waits before answering
+    //   rate         requests per second
+    //   concurrency  maximum requests in flight, 0 for open loop
+    //   duration     seconds recorded, after warmUp seconds that are not
+    //   bodySize     bytes POSTed with every request, GET when 0
+    //   signer       engine, sdk or both
+    public static void main(final String[] arguments) throws Exception {
+        final Map<String, String> args = new HashMap<>();
+        for (final String argument : arguments) {
+            final int separator = argument.indexOf('=');
+            if (separator < 0) {
+                throw new IllegalArgumentException("Arguments are key=value pairs: " + argument);
+            }
+            args.put(argument.substring(0, separator), argument.substring(separator + 1));
+        }
+        final Vertx vertx = Vertx.vertx();
+        try {
+            final AwsSigningLoad load = new AwsSigningLoad(vertx, args);
+            final URI uri = args.containsKey("url")
+                    ? URI.create(args.get("url"))
+                    : URI.create("http://" + LOCAL_HOST + ':' + load.startStandIn() + "/echo");
+            final String signer = args.getOrDefault("signer", "both");
+            if (!"sdk".equals(signer)) {
+                load.run("engine", uri);
+            }
+            if (!"engine".equals(signer)) {
+                load.run("sdk", uri);
+            }
+        } finally {
+            vertx.close();
+        }
+    }
+
+    private int startStandIn() throws Exception {
+        final long delay = Long.parseLong(args.getOrDefault("serverDelay", "0"));
+        final CompletableFuture<HttpServer> server = vertx.createHttpServer()
+                .requestHandler(request -> request.body(ar -> {
+                    if (delay > 0) {
+                        vertx.setTimer(delay, id -> request.response().end());
+                    } else {
+                        request.response().end();
+                    }
+                }))
+                .listen(0)
+                .toCompletionStage()
+                .toCompletableFuture();
+        return server.get().actualPort();
+    }
+
+    private void run(final String signer, final URI uri) throws Exception {
+        final Region region = Region.of(args.getOrDefault("region", "eu-west-1"));
+        final AwsCredentialsProvider credentialsProvider = args.containsKey("url")
+                ? DefaultCredentialsProvider.create()
+                : StaticCredentialsProvider.create(
+                AwsBasicCredentials.create("AKIDEXAMPLE", "wJalrXUtnFEMI/K7MDENG+bPxRfiCYEXAMPLEKEY"));
+        final boolean ssl = "https".equals(uri.getScheme());
+        final int port = uri.getPort() > 0 ? uri.getPort() : ssl ? 443 : 80;
+        final WebClientOptions webClientOptions = new WebClientOptions()
+                .setMaxPoolSize(concurrency > 0 ? concurrency : 256)
+                .setSsl(ssl);
+        final Recorder recorder = new Recorder();
+        final Sender sender;
+        final WebClient client;
+        if ("engine".equals(signer)) {
+            final AwsSigningWebClient signingClient = AwsSigningWebClient.create(vertx, webClientOptions,
+                    new AwsSigningOptions()
+                            .setCredentialsProvider(credentialsProvider)
+                            .setRegion(region)
+                            .setTracer(request -> recorder.signingTrace()));
+            client = signingClient;
+            sender = handler -> send(signingClient.request(method(), port, uri.getHost(), uri.getRawPath()), handler);
+        } else {
+            final WebClient plainClient = WebClient.create(vertx, webClientOptions);
+            final Aws4Signer sdkSigner = Aws4Signer.create();
+            client = plainClient;
+            sender = handler -> {
+                final long start = System.nanoTime();
+                final SdkHttpFullRequest signed = sdkSigner.sign(SdkHttpFullRequest.builder()
+                        .method(SdkHttpMethod.fromValue(method().name()))
+                        .protocol(uri.getScheme())
+                        .host(uri.getHost())
+                        .port(port)
+                        .encodedPath(uri.getRawPath())
+                        .contentStreamProvider(body != null ? () -> new ByteArrayInputStream(body.getBytes()) : null)
+                        .build(), Aws4SignerParams.builder()
+                        .awsCredentials(credentialsProvider.resolveCredentials())
+                        .signingName("execute-api")
+                        .signingRegion(region)
+                        .build());
+                final HttpRequest<Buffer> request = plainClient.request(method(), port, uri.getHost(), uri.getRawPath());
+                signed.headers().forEach((name, values) -> request.putHeader(name, values));
+                recorder.signed(System.nanoTime() - start);
+                send(request, handler);
+            };
+        }
+        final Promise<Void> done = Promise.promise();
+        final Context context = vertx.getOrCreateContext();
+        context.runOnContext(v -> new Schedule(sender, recorder, done).start());
+        done.future().toCompletionStage().toCompletableFuture().get();
+        client.close();
+        recorder.report(signer, durationNanos);
+    }
+
+    private HttpMethod method() {
+        return body != null ? HttpMethod.POST : HttpMethod.GET;
+    }
+
+    private void send(final HttpRequest<Buffer> request, final Handler<AsyncResult<HttpResponse<Buffer>>> handler) {
+        if (body != null) {
+            request.sendBuffer(body, handler);
+        } else {
+            request.send(handler);
+        }
+    }
+
+    private interface Sender {
+
+        void send(Handler<AsyncResult<HttpResponse<Buffer>>> handler);
+    }
+
+    private class Schedule {
+
+        private final Sender sender;
+        private final Recorder recorder;
+        private final Promise<Void> done;
+        private final double intervalNanos = TimeUnit.SECONDS.toNanos(1) / (double) rate;
+        private long startNanos;
+        private long scheduled;
+        private long completed;
+        private int inFlight;
+        private long timerId;
+
+        private Schedule(final Sender sender, final Recorder recorder, final Promise<Void> done) {
+            this.sender = sender;
+            this.recorder = recorder;
+            this.done = done;
+        }
+
+        private void start() {
+            startNanos = System.nanoTime();
+            timerId = vertx.setPeriodic(1, id -> sendDue());
+        }
+
+        private void sendDue() {
+            final long now = System.nanoTime();
+            final long total = (long) ((warmUpNanos + durationNanos) / intervalNanos);
+            while (scheduled < total && (concurrency <= 0 || inFlight < concurrency)) {
+                final long intendedNanos = startNanos + (long) (scheduled * intervalNanos);
+                if (intendedNanos > now) {
+                    break;
+                }
+                scheduled++;
+                inFlight++;
+                final boolean recorded = intendedNanos - startNanos >= warmUpNanos;
+                // both signers sign before send returns, so the flag covers exactly this request
+                recorder.recording = recorded;
+                sender.send(ar -> {
+                    inFlight--;
+                    completed++;
+                    if (recorded) {
+                        recorder.completed(System.nanoTime() - intendedNanos,
+                                ar.succeeded() && ar.result().statusCode() < 400);
+                    }
+                    if (scheduled == total && completed == total) {
+                        vertx.cancelTimer(timerId);
+                        done.complete();
+                    } else if (concurrency > 0) {
+                        sendDue();
+                    }
+                });
+            }
+        }
+    }
+
+    private static class Recorder {
+
+        private final Histogram total = new Histogram(HIGHEST_TRACKABLE_MICROS, 3);
+        private final Histogram signing = new Histogram(HIGHEST_TRACKABLE_MICROS, 3);
+        private long errors;
+        private boolean recording;
+
+        // spans from credentials resolution to the signature, the payload hash included
+        private AwsSigningTrace signingTrace() {
+            return new AwsSigningTrace() {
+
+                private long start;
+
+                @Override
+                public void credentials(final long startNanos, final long endNanos, final boolean cacheHit) {
+                    start = startNanos;
+                }
+
+                @Override
+                public void payloadHash(final long startNanos, final long endNanos, final long payloadSize) {
+                }
+
+                @Override
+                public void signature(final long startNanos, final long endNanos, final boolean signingKeyCacheHit) {
+                    signed(endNanos - start);
+                }
+
+                @Override
+                public void exchange(final HttpRequest<?> request) {
+                }
+
+                @Override
+                public void end(final int statusCode, final Throwable failure) {
+                }
+            };
+        }
+
+        private void signed(final long nanos) {
+            if (recording) {
+                signing.recordValue(Math.min(TimeUnit.NANOSECONDS.toMicros(nanos), HIGHEST_TRACKABLE_MICROS));
+            }
+        }
+
+        private void completed(final long nanos, final boolean succeeded) {
+            total.recordValue(Math.min(TimeUnit.NANOSECONDS.toMicros(nanos), HIGHEST_TRACKABLE_MICROS));
+            if (!succeeded) {
+                errors++;
+            }
+        }
+
+        private void report(final String signer, final long durationNanos) {
+            System.out.printf("%s: %d requests, %d errors, %.1f req/s%n", signer, total.getTotalCount(), errors,
+                    total.getTotalCount() / (durationNanos / (double) TimeUnit.SECONDS.toNanos(1)));
+            print("  total   (us)", total);
+            print("  signing (us)", signing);
+        }
+
+        private static void print(final String label, final Histogram histogram) {
+            System.out.printf("%s p50=%d p90=%d p99=%d p99.9=%d max=%d%n", label,
+                    histogram.getValueAtPercentile(50), histogram.getValueAtPercentile(90),
+                    histogram.getValueAtPercentile(99), histogram.getValueAtPercentile(99.9),
+                    histogram.getMaxValue());
+        }
+    }
+}
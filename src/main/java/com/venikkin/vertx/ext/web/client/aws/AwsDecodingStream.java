@@ -0,0 +1,152 @@
+package com.venikkin.vertx.ext.web.client.aws;
+
+import io.vertx.core.AsyncResult;
+import io.vertx.core.Future;
+import io.vertx.core.Handler;
+import io.vertx.core.Promise;
+import io.vertx.core.buffer.Buffer;
+import io.vertx.core.streams.WriteStream;
+import io.vertx.ext.web.codec.BodyCodec;
+import io.vertx.ext.web.codec.spi.BodyStream;
+
+// A read stream of items decoded from a response body as it arrives. The body is piped in through codec(), its
+// write queue is full while maxQueued items wait for demand, which pauses the response.
+abstract class AwsDecodingStream<T, S extends AwsDecodingStream<T, S>> extends AwsQueuedStream<T, S> {
+
+    private final int maxQueued;
+    private final String singleResponseMessage;
+    private final Promise<Void> result = Promise.promise();
+
+    private Handler<Void> drainHandler;
+
+    private boolean bound;
+    private boolean bodyEnded;
+    private boolean failed;
+
+    AwsDecodingStream(final int maxQueued, final String singleResponseMessage) {
+        this.maxQueued = maxQueued;
+        this.singleResponseMessage = singleResponseMessage;
+    }
+
+    // decodes a chunk of the body into pending
+    abstract void onChunk(Buffer chunk);
+
+    // throws when the body ended before a whole item
+    abstract void onBodyEnd();
+
+    // the response completes once the whole body is decoded, items are delivered to the handler as they arrive
+    public BodyCodec<Void> codec() {
+        return handler -> {
+            if (bound) {
+                handler.handle(Future.failedFuture(new IllegalStateException(singleResponseMessage)));
+                return;
+            }
+            bound = true;
+            handler.handle(Future.succeededFuture(new Body()));
+        };
+    }
+
+    @Override
+    final boolean done() {
+        return !failed && bodyEnded;
+    }
+
+    @Override
+    final void drained() {
+        if (drainHandler != null && pending.size() < maxQueued) {
+            final Handler<Void> drained = drainHandler;
+            drainHandler = null;
+            drained.handle(null);
+        }
+    }
+
+    final boolean failed() {
+        return failed;
+    }
+
+    final void fail(final Throwable cause) {
+        if (failed) {
+            return;
+        }
+        failed = true;
+        pending.clear();
+        result.tryFail(cause);
+        reportFailure(cause);
+    }
+
+    // the side of the stream the response body is piped into
+    private class Body implements BodyStream<Void> {
+
+        @Override
+        public Future<Void> result() {
+            return result.future();
+        }
+
+        @Override
+        public void handle(final Throwable cause) {
+            fail(cause);
+        }
+
+        @Override
+        public WriteStream<Buffer> exceptionHandler(final Handler<Throwable> handler) {
+            return this;
+        }
+
+        @Override
+        public Future<Void> write(final Buffer data) {
+            final Promise<Void> promise = Promise.promise();
+            write(data, promise);
+            return promise.future();
+        }
+
+        @Override
+        public void write(final Buffer data, final Handler<AsyncResult<Void>> handler) {
+            if (!failed) {
+                try {
+                    onChunk(data);
+                    drain();
+                } catch (RuntimeException e) {
+                    fail(e);
+                }
+            }
+            if (handler != null) {
+                handler.handle(failed ? result.future() : Future.succeededFuture());
+            }
+        }
+
+        @Override
+        public void end(final Handler<AsyncResult<Void>> handler) {
+            if (!failed) {
+                try {
+                    onBodyEnd();
+                    if (!failed) {
+                        bodyEnded = true;
+                        checkEnd();
+                        result.tryComplete();
+                    }
+                } catch (RuntimeException e) {
+                    fail(e);
+                }
+            }
+            if (handler != null) {
+                handler.handle(result.future());
+            }
+        }
+
+        @Override
+        public WriteStream<Buffer> setWriteQueueMaxSize(final int maxSize) {
+            return this;
+        }
+
+        @Override
+        public boolean writeQueueFull() {
+            return pending.size() >= maxQueued;
+        }
+
+        @Override
+        public WriteStream<Buffer> drainHandler(final Handler<Void> handler) {
+            drainHandler = handler;
+            return this;
+        }
+    }
+}
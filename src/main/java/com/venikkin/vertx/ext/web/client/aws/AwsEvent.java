@@ -0,0 +1,57 @@
+package com.venikkin.vertx.ext.web.client.aws;
+
+import io.vertx.core.buffer.Buffer;
+
+import java.util.Map;
+
+// One application/vnd.amazon.eventstream message. Header values are Boolean, Byte, Short, Integer, Long,
+// Buffer, String, Instant or UUID depending on their wire type.
+public class AwsEvent {
+
+    public static final String MESSAGE_TYPE = ":message-type";
+    public static final String EVENT_TYPE = ":event-type";
+    public static final String EXCEPTION_TYPE = ":exception-type";
+    public static final String ERROR_CODE = ":error-code";
+    public static final String ERROR_MESSAGE = ":error-message";
+    public static final String CONTENT_TYPE = ":content-type";
+
+    private final Map<String, Object> headers;
+    private final Buffer payload;
+
+    AwsEvent(final Map<String, Object> headers, final Buffer payload) {
+        this.headers = headers;
+        this.payload = payload;
+    }
+
+    public Map<String, Object> headers() {
+        return headers;
+    }
+
+    public Object header(final String name) {
+        return headers.get(name);
+    }
+
+    // null when the header is missing or is not a string
+    public String stringHeader(final String name) {
+        final Object value = headers.get(name);
+        return value instanceof String ? (String) value : null;
+    }
+
+    public Buffer payload() {
+        return payload;
+    }
+
+    // "event", "exception" or "error"
+    public String messageType() {
+        return stringHeader(MESSAGE_TYPE);
+    }
+
+    public String eventType() {
+        return stringHeader(EVENT_TYPE);
+    }
+
+    public boolean isError() {
+        final String messageType = messageType();
+        return "exception".equals(messageType) || "error".equals(messageType);
+    }
+}
@@ -0,0 +1,37 @@
+package com.venikkin.vertx.ext.web.client.aws;
+
+import io.vertx.core.buffer.Buffer;
+
+// Events of an application/vnd.amazon.eventstream response, decoded as the body arrives. Handlers are set before the
+// request is sent with codec(), the response is paused while maxQueuedEvents wait for demand.
+// A stream decodes a single response and is driven from its context, like any other Vert.x stream.
+public class AwsEventStream extends AwsDecodingStream<AwsEvent, AwsEventStream> {
+
+    private static final int DEFAULT_MAX_QUEUED_EVENTS = 16;
+
+    private final AwsEventStreamDecoder decoder = new AwsEventStreamDecoder();
+
+    private AwsEventStream(final int maxQueuedEvents) {
+        super(maxQueuedEvents, "An event stream decodes a single response");
+    }
+
+    public static AwsEventStream create() {
+        return new AwsEventStream(DEFAULT_MAX_QUEUED_EVENTS);
+    }
+
+    public static AwsEventStream create(final int maxQueuedEvents) {
+        return new AwsEventStream(maxQueuedEvents);
+    }
+
+    @Override
+    void onChunk(final Buffer chunk) {
+        decoder.decode(chunk, pending::add);
+    }
+
+    @Override
+    void onBodyEnd() {
+        if (decoder.hasPartialMessage()) {
+            throw new IllegalStateException("Event stream ended in the middle of a message");
+        }
+    }
+}
@@ -0,0 +1,184 @@
+package com.venikkin.vertx.ext.web.client.aws;
+
+import io.netty.buffer.ByteBuf;
+import io.netty.buffer.Unpooled;
+import io.vertx.core.VertxException;
+import io.vertx.core.buffer.Buffer;
+
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.time.Instant;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.UUID;
+import java.util.function.Consumer;
+import java.util.zip.CRC32;
+
+// Incremental decoder of application/vnd.amazon.eventstream messages. Messages contained in a chunk are decoded in
+// place and their payloads are slices of the chunk, only a message spanning chunks is copied, once, as it completes.
+final class AwsEventStreamDecoder {
+
+    // total length, headers length and prelude CRC
+    private static final int PRELUDE_LENGTH = 12;
+    private static final int MIN_MESSAGE_LENGTH = PRELUDE_LENGTH + 4;
+    // limits of the format
+    private static final int MAX_MESSAGE_LENGTH = 16 * 1024 * 1024;
+    private static final int MAX_HEADERS_LENGTH = 128 * 1024;
+
+    private static final byte TRUE = 0;
+    private static final byte FALSE = 1;
+    private static final byte BYTE = 2;
+    private static final byte SHORT = 3;
+    private static final byte INTEGER = 4;
+    private static final byte LONG = 5;
+    private static final byte BYTES = 6;
+    private static final byte STRING = 7;
+    private static final byte TIMESTAMP = 8;
+    private static final byte UUID_TYPE = 9;
+
+    private final CRC32 crc = new CRC32();
+    // bytes of a message that started in a previous chunk
+    private ByteBuf partial;
+
+    void decode(final Buffer chunk, final Consumer<AwsEvent> events) {
+        final ByteBuf in = chunk.getByteBuf();
+        if (partial != null) {
+            if (partial.writerIndex() < PRELUDE_LENGTH) {
+                partial.writeBytes(in, Math.min(PRELUDE_LENGTH - partial.writerIndex(), in.readableBytes()));
+                if (partial.writerIndex() < PRELUDE_LENGTH) {
+                    return;
+                }
+                partial.ensureWritable(checkPrelude(partial, 0) - PRELUDE_LENGTH);
+            }
+            final int totalLength = partial.getInt(0);
+            partial.writeBytes(in, Math.min(totalLength - partial.writerIndex(), in.readableBytes()));
+            if (partial.writerIndex() < totalLength) {
+                return;
+            }
+            final ByteBuf message = partial;
+            partial = null;
+            events.accept(message(message, 0));
+        }
+        while (in.readableBytes() >= PRELUDE_LENGTH) {
+            final int start = in.readerIndex();
+            final int totalLength = checkPrelude(in, start);
+            if (in.readableBytes() < totalLength) {
+                break;
+            }
+            in.skipBytes(totalLength);
+            events.accept(message(in, start));
+        }
+        if (in.isReadable()) {
+            partial = Unpooled.buffer(in.readableBytes() >= PRELUDE_LENGTH ? in.getInt(in.readerIndex()) : PRELUDE_LENGTH);
+            partial.writeBytes(in);
+        }
+    }
+
+    boolean hasPartialMessage() {
+        return partial != null;
+    }
+
+    private int checkPrelude(final ByteBuf buf, final int start) {
+        final int totalLength = buf.getInt(start);
+        final int headersLength = buf.getInt(start + 4);
+        if (crc(buf, start, 8) != buf.getUnsignedInt(start + 8)) {
+            throw new VertxException("Event stream prelude CRC mismatch", true);
+        }
+        if (totalLength < MIN_MESSAGE_LENGTH || totalLength > MAX_MESSAGE_LENGTH
+                || headersLength < 0 || headersLength > MAX_HEADERS_LENGTH
+                || headersLength > totalLength - MIN_MESSAGE_LENGTH) {
+            throw new VertxException("Invalid event stream prelude, total length " + totalLength
+                    + ", headers length " + headersLength, true);
+        }
+        return totalLength;
+    }
+
+    private AwsEvent message(final ByteBuf buf, final int start) {
+        final int totalLength = buf.getInt(start);
+        final int headersLength = buf.getInt(start + 4);
+        if (crc(buf, start, totalLength - 4) != buf.getUnsignedInt(start + totalLength - 4)) {
+            throw new VertxException("Event stream message CRC mismatch", true);
+        }
+        final int headersStart = start + PRELUDE_LENGTH;
+        final int payloadStart = headersStart + headersLength;
+        return new AwsEvent(headers(buf, headersStart, payloadStart),
+                Buffer.buffer(buf.slice(payloadStart, start + totalLength - 4 - payloadStart)));
+    }
+
+    private long crc(final ByteBuf buf, final int index, final int length) {
+        crc.reset();
+        if (buf.hasArray()) {
+            crc.update(buf.array(), buf.arrayOffset() + index, length);
+        } else {
+            for (final ByteBuffer nio : buf.nioBuffers(index, length)) {
+                crc.update(nio);
+            }
+        }
+        return crc.getValue();
+    }
+
+    private static Map<String, Object> headers(final ByteBuf buf, final int start, final int end) {
+        if (start == end) {
+            return Collections.emptyMap();
+        }
+        final Map<String, Object> headers = new LinkedHashMap<>();
+        int index = start;
+        while (index < end) {
+            final int nameLength = buf.getUnsignedByte(index++);
+            final String name = buf.toString(index, nameLength, StandardCharsets.UTF_8);
+            index += nameLength;
+            final byte type = buf.getByte(index++);
+            final Object value;
+            switch (type) {
+                case TRUE:
+                    value = Boolean.TRUE;
+                    break;
+                case FALSE:
+                    value = Boolean.FALSE;
+                    break;
+                case BYTE:
+                    value = buf.getByte(index);
+                    index += 1;
+                    break;
+                case SHORT:
+                    value = buf.getShort(index);
+                    index += 2;
+                    break;
+                case INTEGER:
+                    value = buf.getInt(index);
+                    index += 4;
+                    break;
+                case LONG:
+                    value = buf.getLong(index);
+                    index += 8;
+                    break;
+                case BYTES:
+                    final int bytesLength = buf.getUnsignedShort(index);
+                    value = Buffer.buffer(buf.slice(index + 2, bytesLength));
+                    index += 2 + bytesLength;
+                    break;
+                case STRING:
+                    final int stringLength = buf.getUnsignedShort(index);
+                    value = buf.toString(index + 2, stringLength, StandardCharsets.UTF_8);
+                    index += 2 + stringLength;
+                    break;
+                case TIMESTAMP:
+                    value = Instant.ofEpochMilli(buf.getLong(index));
+                    index += 8;
+                    break;
+                case UUID_TYPE:
+                    value = new UUID(buf.getLong(index), buf.getLong(index + 8));
+                    index += 16;
+                    break;
+                default:
+                    throw new VertxException("Unknown event stream header type " + type + " of " + name, true);
+            }
+            if (index > end) {
+                throw new VertxException("Event stream header " + name + " overflows the headers", true);
+            }
+            headers.put(name, value);
+        }
+        return headers;
+    }
+}
@@ -0,0 +1,91 @@
+package com.venikkin.vertx.ext.web.client.aws;
+
+import io.vertx.core.buffer.Buffer;
+import io.vertx.core.parsetools.JsonEvent;
+import io.vertx.core.parsetools.JsonEventType;
+import io.vertx.core.parsetools.JsonParser;
+
+// Elements of a JSON array response, parsed one by one as the body arrives: JsonObject, JsonArray, String, Number,
+// Boolean or null. The array is the whole document, or the value of a top-level field when one is given.
+// Handlers are set before the request is sent with codec(), the response is paused while maxQueuedElements
+// wait for demand. A stream parses a single response and is driven from its context, like any other Vert.x stream.
+public class AwsJsonArrayStream extends AwsDecodingStream<Object, AwsJsonArrayStream> {
+
+    private static final int DEFAULT_MAX_QUEUED_ELEMENTS = 64;
+    // stands for JSON null in the queue, which does not take nulls
+    private static final Object NULL = new Object();
+
+    private final String field;
+    private final JsonParser parser = JsonParser.newParser();
+
+    // nesting of the tokens read so far, the streamed array is entered at depth 1, or 2 inside the top-level object
+    private int depth;
+    private boolean streaming;
+    private boolean streamed;
+
+    private AwsJsonArrayStream(final String field, final int maxQueuedElements) {
+        super(maxQueuedElements, "A JSON array stream parses a single response");
+        this.field = field;
+        parser.handler(this::onEvent);
+        parser.exceptionHandler(this::fail);
+    }
+
+    public static AwsJsonArrayStream create() {
+        return new AwsJsonArrayStream(null, DEFAULT_MAX_QUEUED_ELEMENTS);
+    }
+
+    // streams the array of a top-level field, e.g. "items" of {"items": [...], "nextToken": "..."}
+    public static AwsJsonArrayStream create(final String field) {
+        return new AwsJsonArrayStream(field, DEFAULT_MAX_QUEUED_ELEMENTS);
+    }
+
+    public static AwsJsonArrayStream create(final String field, final int maxQueuedElements) {
+        return new AwsJsonArrayStream(field, maxQueuedElements);
+    }
+
+    @Override
+    void onChunk(final Buffer chunk) {
+        parser.handle(chunk);
+    }
+
+    @Override
+    void onBodyEnd() {
+        parser.end();
+        if (failed()) {
+            return;
+        }
+        if (!streamed) {
+            throw new IllegalStateException(field == null
+                    ? "Response is not a JSON array"
+                    : "Response has no JSON array in field " + field);
+        }
+    }
+
+    private void onEvent(final JsonEvent event) {
+        final JsonEventType type = event.type();
+        if (type == JsonEventType.START_OBJECT || type == JsonEventType.START_ARRAY) {
+            depth++;
+            if (type == JsonEventType.START_ARRAY && !streamed
+                    && (field == null ? depth == 1 : depth == 2 && field.equals(event.fieldName()))) {
+                // from here on every element arrives as one value, nested containers included
+                streaming = true;
+                parser.objectValueMode();
+                parser.arrayValueMode();
+            }
+        } else if (type == JsonEventType.END_OBJECT || type == JsonEventType.END_ARRAY) {
+            if (streaming && depth == (field == null ? 1 : 2)) {
+                streaming = false;
+                streamed = true;
+            }
+            depth--;
+        } else if (streaming && depth == (field == null ? 1 : 2)) {
+            final Object value = event.value();
+            pending.add(value != null ? value : NULL);
+        }
+    }
+
+    @Override
+    Object emitted(final Object queued) {
+        return queued != NULL ? queued : null;
+    }
+}
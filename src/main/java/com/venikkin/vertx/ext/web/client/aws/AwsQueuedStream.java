@@ -0,0 +1,122 @@
+package com.venikkin.vertx.ext.web.client.aws;
+
+import io.vertx.core.Handler;
+import io.vertx.core.streams.ReadStream;
+
+import java.util.ArrayDeque;
+import java.util.Deque;
+
+// Demand, pause/resume and end handling shared by the read streams of this package. Subclasses queue items in
+// pending, which are emitted while there is demand, the stream ends once done() holds and the queue is empty.
+// S is the subclass, so that the fluent methods return it. Driven from a single context, like any other Vert.x stream.
+abstract class AwsQueuedStream<T, S extends AwsQueuedStream<T, S>> implements ReadStream<T> {
+
+    final Deque<T> pending = new ArrayDeque<>();
+
+    private Handler<T> handler;
+    private Handler<Throwable> exceptionHandler;
+    private Handler<Void> endHandler;
+
+    private long demand = Long.MAX_VALUE;
+    private boolean emitting;
+    private boolean ended;
+
+    // nothing but the queued items is left to emit
+    abstract boolean done();
+
+    @Override
+    public S exceptionHandler(final Handler<Throwable> handler) {
+        this.exceptionHandler = handler;
+        return self();
+    }
+
+    @Override
+    public S handler(final Handler<T> handler) {
+        this.handler = handler;
+        demanded();
+        return self();
+    }
+
+    @Override
+    public S pause() {
+        demand = 0;
+        return self();
+    }
+
+    @Override
+    public S resume() {
+        return fetch(Long.MAX_VALUE);
+    }
+
+    @Override
+    public S fetch(final long amount) {
+        if (amount > 0) {
+            demand += amount;
+            if (demand < 0) {
+                demand = Long.MAX_VALUE;
+            }
+            demanded();
+        }
+        return self();
+    }
+
+    @Override
+    public S endHandler(final Handler<Void> endHandler) {
+        this.endHandler = endHandler;
+        checkEnd();
+        return self();
+    }
+
+    // a handler was set or demand grew
+    void demanded() {
+        drain();
+    }
+
+    // what the handler receives for a queued item
+    T emitted(final T queued) {
+        return queued;
+    }
+
+    // called after every drain, once the handler took what it asked for
+    void drained() {
+    }
+
+    final void drain() {
+        if (emitting) {
+            return;
+        }
+        emitting = true;
+        try {
+            while (demand > 0 && handler != null && !pending.isEmpty()) {
+                if (demand != Long.MAX_VALUE) {
+                    demand--;
+                }
+                handler.handle(emitted(pending.poll()));
+            }
+        } finally {
+            emitting = false;
+        }
+        drained();
+        checkEnd();
+    }
+
+    final void checkEnd() {
+        if (!ended && done() && pending.isEmpty()) {
+            ended = true;
+            if (endHandler != null) {
+                endHandler.handle(null);
+            }
+        }
+    }
+
+    final void reportFailure(final Throwable cause) {
+        if (exceptionHandler != null) {
+            exceptionHandler.handle(cause);
+        }
+    }
+
+    @SuppressWarnings("unchecked")
+    private S self() {
+        return (S) this;
+    }
+}
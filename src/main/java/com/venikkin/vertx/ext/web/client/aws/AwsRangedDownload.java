@@ -0,0 +1,273 @@
+package com.venikkin.vertx.ext.web.client.aws;
+
+import io.vertx.core.AsyncResult;
+import io.vertx.core.Future;
+import io.vertx.core.Handler;
+import io.vertx.core.Promise;
+import io.vertx.core.Vertx;
+import io.vertx.core.VertxException;
+import io.vertx.core.buffer.Buffer;
+import io.vertx.core.file.AsyncFile;
+import io.vertx.core.file.OpenOptions;
+import io.vertx.core.http.HttpHeaders;
+import io.vertx.core.http.HttpMethod;
+import io.vertx.core.http.RequestOptions;
+import io.vertx.core.streams.WriteStream;
+import io.vertx.ext.web.client.HttpResponse;
+import io.vertx.ext.web.client.predicate.ResponsePredicate;
+import io.vertx.ext.web.client.predicate.ResponsePredicateResult;
+import io.vertx.ext.web.codec.BodyCodec;
+
+// Object size and ETag come from a signed HEAD, ranges are then fetched with signed GETs and piped into positional
+// writes on the target file, so only the write queue of each range is held in memory. A range that fails is
+// retried from its start on its own once its pending writes have settled, including a response that breaks off
+// mid-body. If-Match pins all ranges to the same object version.
+// Runs on a single Vert.x context.
+class AwsRangedDownload {
+
+    private final Vertx vertx;
+    private final AwsSigningWebClient client;
+    private final AwsRangedDownloadOptions options;
+    private final RequestOptions requestOptions;
+    private final String path;
+    private final Promise<AwsRangedDownloadResult> promise = Promise.promise();
+
+    private AsyncFile file;
+    private long size;
+    private String eTag;
+    private int ranges;
+    private int next;
+    private int inFlight;
+    private int completed;
+    private int retries;
+    private boolean failed;
+
+    AwsRangedDownload(final Vertx vertx, final AwsSigningWebClient client, final AwsRangedDownloadOptions options,
+                      final RequestOptions requestOptions, final String path) {
+        this.vertx = vertx;
+        this.client = client;
+        this.options = options;
+        this.requestOptions = requestOptions;
+        this.path = path;
+    }
+
+    Future<AwsRangedDownloadResult> start() {
+        vertx.getOrCreateContext().runOnContext(v -> client.request(HttpMethod.HEAD, new RequestOptions(requestOptions))
+                .send()
+                .compose(head -> {
+                    final String length = head.getHeader(HttpHeaders.CONTENT_LENGTH.toString());
+                    if (head.statusCode() != 200 || length == null) {
+                        return Future.failedFuture(unexpected("HEAD", head.statusCode()));
+                    }
+                    size = Long.parseLong(length);
+                    eTag = head.getHeader(HttpHeaders.ETAG.toString());
+                    ranges = (int) ((size + options.getRangeSize() - 1) / options.getRangeSize());
+                    return vertx.fileSystem().open(path, new OpenOptions()
+                            .setWrite(true)
+                            .setCreate(true)
+                            .setTruncateExisting(true));
+                })
+                .onSuccess(opened -> {
+                    file = opened;
+                    if (ranges == 0) {
+                        finish();
+                    } else {
+                        dispatch();
+                    }
+                })
+                .onFailure(this::fail));
+        return promise.future();
+    }
+
+    private void dispatch() {
+        while (inFlight < options.getConcurrency() && next < ranges) {
+            inFlight++;
+            download(next++, 1);
+        }
+    }
+
+    private void download(final int index, final int attempt) {
+        final long start = index * options.getRangeSize();
+        final long end = Math.min(start + options.getRangeSize(), size) - 1;
+        final RangeSink sink = new RangeSink(start);
+        final AwsSigningHttpRequest<Buffer> request = client.request(HttpMethod.GET, new RequestOptions(requestOptions));
+        request.putHeader(HttpHeaders.RANGE.toString(), "bytes=" + start + '-' + end);
+        if (eTag != null) {
+            request.putHeader(HttpHeaders.IF_MATCH.toString(), eTag);
+        }
+        // checked before the body is piped, so error responses never reach the file
+        request.expect(ResponsePredicate.create(response -> {
+            sink.statusCode = response.statusCode();
+            final String contentRange = response.getHeader(HttpHeaders.CONTENT_RANGE.toString());
+            final boolean matches = response.statusCode() == 206
+                    ? contentRange != null && contentRange.startsWith("bytes " + start + '-' + end + '/')
+                    // a server ignoring ranges sends the whole object, which is fine for a single range
+                    : response.statusCode() == 200 && ranges == 1;
+            sink.receiving = matches;
+            return matches
+                    ? ResponsePredicateResult.success()
+                    : ResponsePredicateResult.failure("Unexpected response to range " + start + '-' + end
+                            + ": " + response.statusCode() + " " + contentRange);
+        }));
+        request.as(BodyCodec.pipe(sink)).send(ar -> onRange(index, attempt, sink, ar));
+    }
+
+    private void onRange(final int index, final int attempt, final RangeSink sink,
+                         final AsyncResult<HttpResponse<Void>> ar) {
+        if (failed) {
+            return;
+        }
+        if (ar.succeeded()) {
+            inFlight--;
+            completed++;
+            if (completed == ranges) {
+                finish();
+            } else {
+                dispatch();
+            }
+        } else if (attempt < options.getMaxAttempts() && isRetryable(sink)) {
+            retries++;
+            // a late write of the failed attempt must not overwrite the bytes of the retry
+            sink.whenIdle(v -> vertx.setTimer(options.getRetryDelay() * attempt, id -> {
+                if (!failed) {
+                    download(index, attempt + 1);
+                }
+            }));
+        } else {
+            fail(ar.cause());
+        }
+    }
+
+    private void finish() {
+        file.close(ar -> {
+            if (ar.failed()) {
+                fail(ar.cause());
+            } else {
+                promise.tryComplete(new AwsRangedDownloadResult(path, eTag, ranges, retries, size));
+            }
+        });
+    }
+
+    private void fail(final Throwable cause) {
+        if (failed) {
+            return;
+        }
+        failed = true;
+        if (file != null) {
+            file.close(ar -> vertx.fileSystem().delete(path));
+        }
+        promise.tryFail(cause);
+    }
+
+    // an accepted response failed while its body was received, e.g. the connection was reset, unless the file itself
+    // could not be written
+    private static boolean isRetryable(final RangeSink sink) {
+        return sink.receiving ? sink.failure == null : isRetryable(sink.statusCode);
+    }
+
+    // 0 when there was no response, e.g. a dropped connection
+    private static boolean isRetryable(final int statusCode) {
+        return statusCode == 0 || statusCode >= 500 || statusCode == 429;
+    }
+
+    private static VertxException unexpected(final String operation, final int statusCode) {
+        return new VertxException(operation + " failed with status " + statusCode, true);
+    }
+
+    private class RangeSink implements WriteStream<Buffer> {
+
+        private long position;
+        private long pendingBytes;
+        private int pendingWrites;
+        private int statusCode;
+        private boolean receiving;
+        private int writeQueueMaxSize = options.getWriteQueueMaxSize();
+        private Throwable failure;
+        private Handler<Throwable> exceptionHandler;
+        private Handler<Void> drainHandler;
+        private Handler<Void> idleHandler;
+
+        private RangeSink(final long position) {
+            this.position = position;
+        }
+
+        @Override
+        public WriteStream<Buffer> exceptionHandler(final Handler<Throwable> handler) {
+            this.exceptionHandler = handler;
+            return this;
+        }
+
+        @Override
+        public Future<Void> write(final Buffer data) {
+            final Promise<Void> promise = Promise.promise();
+            write(data, promise);
+            return promise.future();
+        }
+
+        @Override
+        public void write(final Buffer data, final Handler<AsyncResult<Void>> handler) {
+            final int length = data.length();
+            final long at = position;
+            position += length;
+            pendingBytes += length;
+            pendingWrites++;
+            file.write(data, at, ar -> {
+                pendingBytes -= length;
+                pendingWrites--;
+                if (ar.failed() && failure == null) {
+                    failure = ar.cause();
+                    if (exceptionHandler != null) {
+                        exceptionHandler.handle(failure);
+                    }
+                }
+                if (handler != null) {
+                    handler.handle(ar);
+                }
+                if (drainHandler != null && pendingBytes <= writeQueueMaxSize / 2) {
+                    final Handler<Void> drained = drainHandler;
+                    drainHandler = null;
+                    drained.handle(null);
+                }
+                if (pendingWrites == 0 && idleHandler != null) {
+                    final Handler<Void> idle = idleHandler;
+                    idleHandler = null;
+                    idle.handle(null);
+                }
+            });
+        }
+
+        @Override
+        public void end(final Handler<AsyncResult<Void>> handler) {
+            whenIdle(v -> {
+                if (handler != null) {
+                    handler.handle(failure == null ? Future.succeededFuture() : Future.failedFuture(failure));
+                }
+            });
+        }
+
+        @Override
+        public WriteStream<Buffer> setWriteQueueMaxSize(final int maxSize) {
+            this.writeQueueMaxSize = maxSize;
+            return this;
+        }
+
+        @Override
+        public boolean writeQueueFull() {
+            return pendingBytes >= writeQueueMaxSize;
+        }
+
+        @Override
+        public WriteStream<Buffer> drainHandler(final Handler<Void> handler) {
+            this.drainHandler = handler;
+            return this;
+        }
+
+        private void whenIdle(final Handler<Void> handler) {
+            if (pendingWrites == 0) {
+                handler.handle(null);
+            } else {
+                idleHandler = handler;
+            }
+        }
+    }
+}
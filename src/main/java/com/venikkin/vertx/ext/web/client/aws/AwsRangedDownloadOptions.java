@@ -0,0 +1,67 @@
+package com.venikkin.vertx.ext.web.client.aws;
+
+public class AwsRangedDownloadOptions {
+
+    private long rangeSize = 8 * 1024 * 1024;
+    // ranges downloaded at once
+    private int concurrency = 4;
+    private int maxAttempts = 3;
+    // milliseconds before retrying a range, multiplied by the number of the attempt
+    private long retryDelay = 200;
+    // bytes of a range waiting to be written to the file before its response is paused
+    private int writeQueueMaxSize = 1024 * 1024;
+
+    public long getRangeSize() {
+        return rangeSize;
+    }
+
+    public AwsRangedDownloadOptions setRangeSize(final long rangeSize) {
+        this.rangeSize = rangeSize;
+        return this;
+    }
+
+    public int getConcurrency() {
+        return concurrency;
+    }
+
+    public AwsRangedDownloadOptions setConcurrency(final int concurrency) {
+        this.concurrency = concurrency;
+        return this;
+    }
+
+    public int getMaxAttempts() {
+        return maxAttempts;
+    }
+
+    public AwsRangedDownloadOptions setMaxAttempts(final int maxAttempts) {
+        this.maxAttempts = maxAttempts;
+        return this;
+    }
+
+    public long getRetryDelay() {
+        return retryDelay;
+    }
+
+    public AwsRangedDownloadOptions setRetryDelay(final long retryDelay) {
+        this.retryDelay = retryDelay;
+        return this;
+    }
+
+    public int getWriteQueueMaxSize() {
+        return writeQueueMaxSize;
+    }
+
+    public AwsRangedDownloadOptions setWriteQueueMaxSize(final int writeQueueMaxSize) {
+        this.writeQueueMaxSize = writeQueueMaxSize;
+        return this;
+    }
+
+    public AwsRangedDownloadOptions copy() {
+        return new AwsRangedDownloadOptions()
+                .setRangeSize(rangeSize)
+                .setConcurrency(concurrency)
+                .setMaxAttempts(maxAttempts)
+                .setRetryDelay(retryDelay)
+                .setWriteQueueMaxSize(writeQueueMaxSize);
+    }
+}
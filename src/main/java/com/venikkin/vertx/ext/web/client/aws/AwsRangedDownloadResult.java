@@ -0,0 +1,40 @@
+package com.venikkin.vertx.ext.web.client.aws;
+
+public class AwsRangedDownloadResult {
+
+    private final String path;
+    private final String eTag;
+    private final int ranges;
+    private final int retries;
+    private final long size;
+
+    AwsRangedDownloadResult(final String path, final String eTag, final int ranges, final int retries,
+                            final long size) {
+        this.path = path;
+        this.eTag = eTag;
+        this.ranges = ranges;
+        this.retries = retries;
+        this.size = size;
+    }
+
+    public String getPath() {
+        return path;
+    }
+
+    // null when the server doesn't send one
+    public String getETag() {
+        return eTag;
+    }
+
+    public int getRanges() {
+        return ranges;
+    }
+
+    public int getRetries() {
+        return retries;
+    }
+
+    public long getSize() {
+        return size;
+    }
+}
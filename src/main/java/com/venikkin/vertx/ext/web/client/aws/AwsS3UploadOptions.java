@@ -0,0 +1,118 @@
+package com.venikkin.vertx.ext.web.client.aws;
+
+public class AwsS3UploadOptions {
+
+    // S3 wants at least 5 MiB for every part but the last one
+    public static final int MIN_PART_SIZE = 5 * 1024 * 1024;
+
+    private String bucket;
+    // bucket.s3.<region>.amazonaws.com when not set
+    private String host;
+    private int port = 443;
+    private boolean ssl = true;
+    // /bucket/key instead of a bucket host, for S3 compatible stores
+    private boolean pathStyle;
+    private int partSize = 8 * 1024 * 1024;
+    // parts uploaded at once, together with the part size this bounds the memory of an upload
+    private int concurrency = 4;
+    private int maxAttempts = 3;
+    // milliseconds before retrying a part, multiplied by the number of the attempt
+    private long retryDelay = 200;
+
+    public String getBucket() {
+        return bucket;
+    }
+
+    public AwsS3UploadOptions setBucket(final String bucket) {
+        this.bucket = bucket;
+        return this;
+    }
+
+    public String getHost() {
+        return host;
+    }
+
+    public AwsS3UploadOptions setHost(final String host) {
+        this.host = host;
+        return this;
+    }
+
+    public int getPort() {
+        return port;
+    }
+
+    public AwsS3UploadOptions setPort(final int port) {
+        this.port = port;
+        return this;
+    }
+
+    public boolean isSsl() {
+        return ssl;
+    }
+
+    public AwsS3UploadOptions setSsl(final boolean ssl) {
+        this.ssl = ssl;
+        return this;
+    }
+
+    public boolean isPathStyle() {
+        return pathStyle;
+    }
+
+    public AwsS3UploadOptions setPathStyle(final boolean pathStyle) {
+        this.pathStyle = pathStyle;
+        return this;
+    }
+
+    public int getPartSize() {
+        return partSize;
+    }
+
+    public AwsS3UploadOptions setPartSize(final int partSize) {
+        if (partSize < MIN_PART_SIZE) {
+            throw new IllegalArgumentException("partSize must be at least " + MIN_PART_SIZE + " bytes");
+        }
+        this.partSize = partSize;
+        return this;
+    }
+
+    public int getConcurrency() {
+        return concurrency;
+    }
+
+    public AwsS3UploadOptions setConcurrency(final int concurrency) {
+        this.concurrency = concurrency;
+        return this;
+    }
+
+    public int getMaxAttempts() {
+        return maxAttempts;
+    }
+
+    public AwsS3UploadOptions setMaxAttempts(final int maxAttempts) {
+        this.maxAttempts = maxAttempts;
+        return this;
+    }
+
+    public long getRetryDelay() {
+        return retryDelay;
+    }
+
+    public AwsS3UploadOptions setRetryDelay(final long retryDelay) {
+        this.retryDelay = retryDelay;
+        return this;
+    }
+
+    public AwsS3UploadOptions copy() {
+        return new AwsS3UploadOptions()
+                .setBucket(bucket)
+                .setHost(host)
+                .setPort(port)
+                .setSsl(ssl)
+                .setPathStyle(pathStyle)
+                .setPartSize(partSize)
+                .setConcurrency(concurrency)
+                .setMaxAttempts(maxAttempts)
+                .setRetryDelay(retryDelay);
+    }
+}
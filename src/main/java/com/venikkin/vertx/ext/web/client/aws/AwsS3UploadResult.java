@@ -0,0 +1,39 @@
+package com.venikkin.vertx.ext.web.client.aws;
+
+public class AwsS3UploadResult {
+
+    private final String key;
+    private final String uploadId;
+    private final String eTag;
+    private final int parts;
+    private final long size;
+
+    AwsS3UploadResult(final String key, final String uploadId, final String eTag, final int parts,
+                      final long size) {
+        this.key = key;
+        this.uploadId = uploadId;
+        this.eTag = eTag;
+        this.parts = parts;
+        this.size = size;
+    }
+
+    public String getKey() {
+        return key;
+    }
+
+    public String getUploadId() {
+        return uploadId;
+    }
+
+    public String getETag() {
+        return eTag;
+    }
+
+    public int getParts() {
+        return parts;
+    }
+
+    public long getSize() {
+        return size;
+    }
+}
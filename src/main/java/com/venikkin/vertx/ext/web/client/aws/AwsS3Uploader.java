@@ -0,0 +1,261 @@
+package com.venikkin.vertx.ext.web.client.aws;
+
+import io.vertx.core.AsyncResult;
+import io.vertx.core.Future;
+import io.vertx.core.Promise;
+import io.vertx.core.Vertx;
+import io.vertx.core.VertxException;
+import io.vertx.core.buffer.Buffer;
+import io.vertx.core.file.OpenOptions;
+import io.vertx.core.http.HttpMethod;
+import io.vertx.core.streams.ReadStream;
+import io.vertx.ext.web.client.HttpRequest;
+import io.vertx.ext.web.client.HttpResponse;
+
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Deque;
+import java.util.List;
+
+// S3 multipart upload on top of the signing client. The source is cut into parts which are signed and uploaded
+// in parallel, at most concurrency parts are in flight. Parts cut beyond that wait in a queue and the source stays
+// paused until they are sent, so an upload buffers about concurrency parts. Parts are sent uncompressed, whatever
+// the compression options of the client. Failed parts are retried on their own, an upload that cannot be completed
+// is aborted.
+public class AwsS3Uploader {
+
+    private final Vertx vertx;
+    private final AwsSigningWebClient client;
+    private final AwsS3UploadOptions options;
+    private final String host;
+
+    private AwsS3Uploader(final Vertx vertx, final AwsSigningWebClient client, final AwsS3UploadOptions options) {
+        this.vertx = vertx;
+        this.client = client;
+        this.options = options;
+        this.host = options.getHost() != null
+                ? options.getHost()
+                : options.getBucket() + ".s3." + client.signingOptions().getRegion().id() + ".amazonaws.com";
+    }
+
+    public static AwsS3Uploader create(final Vertx vertx, final AwsSigningWebClient client,
+                                       final AwsS3UploadOptions options) {
+        return new AwsS3Uploader(vertx, client, options.copy());
+    }
+
+    public Future<AwsS3UploadResult> upload(final String key, final String path) {
+        return vertx.fileSystem().open(path, new OpenOptions().setRead(true))
+                .compose(file -> upload(key, file).onComplete(ar -> file.close()));
+    }
+
+    public Future<AwsS3UploadResult> upload(final String key, final ReadStream<Buffer> source) {
+        return new Upload(key, source).start();
+    }
+
+    private HttpRequest<Buffer> request(final HttpMethod method, final String key) {
+        final String uri = options.isPathStyle()
+                ? '/' + options.getBucket() + '/' + AwsSigV4.urlEncode(key, true)
+                : '/' + AwsSigV4.urlEncode(key, true);
+        return client.request(method, options.getPort(), host, uri)
+                .serviceName(AwsSigV4.S3)
+                .compress(false)
+                .ssl(options.isSsl());
+    }
+
+    // the few elements needed from S3 responses, the documents are small and flat
+    private static String element(final String xml, final String name) {
+        final int start = xml.indexOf('<' + name + '>');
+        final int end = xml.indexOf("</" + name + '>');
+        if (start < 0 || end < start) {
+            return null;
+        }
+        return xml.substring(start + name.length() + 2, end);
+    }
+
+    private static boolean isRetryable(final AsyncResult<HttpResponse<Buffer>> ar) {
+        return ar.failed() || ar.result().statusCode() >= 500 || ar.result().statusCode() == 429;
+    }
+
+    private static VertxException unexpected(final String operation, final HttpResponse<Buffer> response) {
+        return new VertxException(operation + " failed with status " + response.statusCode()
+                + ": " + response.bodyAsString(), true);
+    }
+
+    private class Upload {
+
+        private final String key;
+        private final ReadStream<Buffer> source;
+        private final Promise<AwsS3UploadResult> promise = Promise.promise();
+        // indexed by part number - 1
+        private final List<String> eTags = new ArrayList<>();
+        private final Deque<Part> queued = new ArrayDeque<>();
+
+        private String uploadId;
+        private Buffer current = Buffer.buffer();
+        private long size;
+        private int inFlight;
+        private boolean paused;
+        private boolean ended;
+        private boolean completing;
+        private boolean failed;
+
+        private Upload(final String key, final ReadStream<Buffer> source) {
+            this.key = key;
+            this.source = source;
+        }
+
+        private Future<AwsS3UploadResult> start() {
+            source.pause();
+            request(HttpMethod.POST, key)
+                    .addQueryParam("uploads", "")
+                    .send(ar -> {
+                        if (ar.failed()) {
+                            fail(ar.cause());
+                            return;
+                        }
+                        uploadId = ar.result().statusCode() == 200 ? element(ar.result().bodyAsString(), "UploadId") : null;
+                        if (uploadId == null) {
+                            fail(unexpected("CreateMultipartUpload", ar.result()));
+                            return;
+                        }
+                        source.handler(this::chunk);
+                        source.exceptionHandler(this::fail);
+                        source.endHandler(v -> end());
+                        source.resume();
+                    });
+            return promise.future();
+        }
+
+        private void chunk(final Buffer chunk) {
+            if (failed) {
+                return;
+            }
+            current.appendBuffer(chunk);
+            size += chunk.length();
+            final int partSize = options.getPartSize();
+            while (current.length() >= partSize) {
+                final Buffer part = current.getBuffer(0, partSize);
+                current = current.getBuffer(partSize, current.length());
+                cut(part);
+            }
+            dispatch();
+        }
+
+        private void end() {
+            if (failed) {
+                return;
+            }
+            ended = true;
+            // an empty source still needs one part
+            if (current.length() > 0 || eTags.isEmpty()) {
+                cut(current);
+            }
+            dispatch();
+            completeIfDone();
+        }
+
+        private void cut(final Buffer part) {
+            eTags.add(null);
+            queued.add(new Part(eTags.size(), part));
+        }
+
+        // sends queued parts while there is room, the source is paused as long as any part has to wait
+        private void dispatch() {
+            while (!queued.isEmpty() && inFlight < options.getConcurrency() && !failed) {
+                final Part part = queued.poll();
+                inFlight++;
+                uploadPart(part.number, part.data, 1);
+            }
+            final boolean full = !queued.isEmpty() || inFlight >= options.getConcurrency();
+            if (!ended && !failed && full != paused) {
+                paused = full;
+                if (full) {
+                    source.pause();
+                } else {
+                    source.resume();
+                }
+            }
+        }
+
+        private void uploadPart(final int partNumber, final Buffer part, final int attempt) {
+            request(HttpMethod.PUT, key)
+                    .addQueryParam("partNumber", Integer.toString(partNumber))
+                    .addQueryParam("uploadId", uploadId)
+                    .sendBuffer(part, ar -> {
+                        if (failed) {
+                            return;
+                        }
+                        final String eTag = ar.succeeded() && ar.result().statusCode() == 200
+                                ? ar.result().getHeader("ETag")
+                                : null;
+                        if (eTag != null) {
+                            eTags.set(partNumber - 1, eTag);
+                            inFlight--;
+                            dispatch();
+                            completeIfDone();
+                        } else if (attempt < options.getMaxAttempts() && isRetryable(ar)) {
+                            vertx.setTimer(options.getRetryDelay() * attempt,
+                                    id -> uploadPart(partNumber, part, attempt + 1));
+                        } else {
+                            fail(ar.failed() ? ar.cause() : unexpected("UploadPart " + partNumber, ar.result()));
+                        }
+                    });
+        }
+
+        private void completeIfDone() {
+            if (!ended || inFlight > 0 || !queued.isEmpty() || completing || failed) {
+                return;
+            }
+            completing = true;
+            final StringBuilder body = new StringBuilder(64 + eTags.size() * 96).append("<CompleteMultipartUpload>");
+            for (int i = 0; i < eTags.size(); i++) {
+                body.append("<Part><PartNumber>").append(i + 1).append("</PartNumber>")
+                        .append("<ETag>").append(eTags.get(i)).append("</ETag></Part>");
+            }
+            body.append("</CompleteMultipartUpload>");
+            request(HttpMethod.POST, key)
+                    .addQueryParam("uploadId", uploadId)
+                    .sendBuffer(Buffer.buffer(body.toString()), ar -> {
+                        if (ar.failed()) {
+                            fail(ar.cause());
+                            return;
+                        }
+                        // S3 may report a failed completion with status 200 and an error document
+                        final String response = ar.result().bodyAsString();
+                        if (ar.result().statusCode() != 200 || response == null || response.contains("<Error>")) {
+                            fail(unexpected("CompleteMultipartUpload", ar.result()));
+                            return;
+                        }
+                        promise.complete(new AwsS3UploadResult(key, uploadId, element(response, "ETag"),
+                                eTags.size(), size));
+                    });
+        }
+
+        private void fail(final Throwable cause) {
+            if (failed) {
+                return;
+            }
+            failed = true;
+            queued.clear();
+            source.handler(null);
+            if (uploadId != null) {
+                // parts of an abandoned upload are billed until it is aborted
+                request(HttpMethod.DELETE, key)
+                        .addQueryParam("uploadId", uploadId)
+                        .send(ar -> { });
+            }
+            promise.fail(cause);
+        }
+    }
+
+    private static class Part {
+
+        private final int number;
+        private final Buffer data;
+
+        private Part(final int number, final Buffer data) {
+            this.number = number;
+            this.data = data;
+        }
+    }
+}
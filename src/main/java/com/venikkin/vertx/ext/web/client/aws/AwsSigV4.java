@@ -0,0 +1,155 @@
+package com.venikkin.vertx.ext.web.client.aws;
+
+import javax.crypto.Mac;
+import javax.crypto.spec.SecretKeySpec;
+import java.nio.charset.StandardCharsets;
+import java.security.InvalidKeyException;
+import java.security.MessageDigest;
+import java.time.ZoneOffset;
+import java.time.format.DateTimeFormatter;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+
+// Signature Version 4 primitives, canonicalization follows the rules of the AWS SDK Aws4Signer
+final class AwsSigV4 {
+
+    static final String ALGORITHM = "AWS4-HMAC-SHA256";
+    static final String SHA256 = "SHA-256";
+    static final String HMAC_SHA256 = "HmacSHA256";
+    static final String TERMINATOR = "aws4_request";
+    static final String UNSIGNED_PAYLOAD = "UNSIGNED-PAYLOAD";
+    static final String S3 = "s3";
+    static final String EMPTY_PAYLOAD_HASH = "e3b0c44298fc1c149afbf4c8996fb92427ae41e4649b934ca495991b7852b855";
+    static final DateTimeFormatter AMZ_DATE_FORMAT =
+            DateTimeFormatter.ofPattern("yyyyMMdd'T'HHmmss'Z'").withZone(ZoneOffset.UTC);
+
+    private static final char[] HEX = "0123456789abcdef".toCharArray();
+    private static final char[] UPPER_HEX = "0123456789ABCDEF".toCharArray();
+
+    private AwsSigV4() {
+    }
+
+    static String hex(final byte[] bytes) {
+        final char[] chars = new char[bytes.length * 2];
+        for (int i = 0; i < bytes.length; i++) {
+            chars[i * 2] = HEX[(bytes[i] >> 4) & 0xf];
+            chars[i * 2 + 1] = HEX[bytes[i] & 0xf];
+        }
+        return new String(chars);
+    }
+
+    static String sha256Hex(final MessageDigest digest, final String value) {
+        return hex(digest.digest(value.getBytes(StandardCharsets.UTF_8)));
+    }
+
+    static byte[] hmac(final Mac mac, final byte[] key, final String data) {
+        try {
+            mac.init(new SecretKeySpec(key, HMAC_SHA256));
+        } catch (InvalidKeyException e) {
+            throw new IllegalStateException(e);
+        }
+        return mac.doFinal(data.getBytes(StandardCharsets.UTF_8));
+    }
+
+    static byte[] signingKey(final Mac mac, final String secretAccessKey, final String dateStamp,
+                             final String region, final String service) {
+        final byte[] dateKey = hmac(mac, ("AWS4" + secretAccessKey).getBytes(StandardCharsets.UTF_8), dateStamp);
+        final byte[] regionKey = hmac(mac, dateKey, region);
+        final byte[] serviceKey = hmac(mac, regionKey, service);
+        return hmac(mac, serviceKey, TERMINATOR);
+    }
+
+    static String scope(final String dateStamp, final String region, final String service) {
+        return dateStamp + '/' + region + '/' + service + '/' + TERMINATOR;
+    }
+
+    static String stringToSign(final MessageDigest digest, final String amzDate, final String scope,
+                               final String canonicalRequest) {
+        return ALGORITHM + '\n' + amzDate + '\n' + scope + '\n' + sha256Hex(digest, canonicalRequest);
+    }
+
+    // host header value as the SDK sends it, the port is only included when it is not the default one
+    static String host(final String host, final int port, final String protocol) {
+        if (port <= 0 || "http".equals(protocol) && port == 80 || "https".equals(protocol) && port == 443) {
+            return host;
+        }
+        return host + ':' + port;
+    }
+
+    // trims the value and collapses inner runs of spaces, as the canonical header format requires
+    static String canonicalHeaderValue(final String value) {
+        final String trimmed = value.trim();
+        if (trimmed.indexOf("  ") < 0) {
+            return trimmed;
+        }
+        final StringBuilder sb = new StringBuilder(trimmed.length());
+        for (int i = 0; i < trimmed.length(); i++) {
+            final char c = trimmed.charAt(i);
+            if (c != ' ' || trimmed.charAt(i - 1) != ' ') {
+                sb.append(c);
+            }
+        }
+        return sb.toString();
+    }
+
+    static String canonicalPath(final String path, final boolean doubleEncode) {
+        if (path == null || path.isEmpty()) {
+            return "/";
+        }
+        final String value = doubleEncode ? urlEncode(path, true) : path;
+        return value.charAt(0) == '/' ? value : '/' + value;
+    }
+
+    static String canonicalQuery(final Iterable<Map.Entry<String, String>> parameters) {
+        final List<String[]> encoded = new ArrayList<>();
+        for (final Map.Entry<String, String> parameter : parameters) {
+            encoded.add(new String[]{urlEncode(parameter.getKey(), false), urlEncode(parameter.getValue(), false)});
+        }
+        if (encoded.isEmpty()) {
+            return "";
+        }
+        encoded.sort((a, b) -> {
+            final int byName = a[0].compareTo(b[0]);
+            return byName != 0 ? byName : a[1].compareTo(b[1]);
+        });
+        final StringBuilder sb = new StringBuilder();
+        for (final String[] parameter : encoded) {
+            if (sb.length() > 0) {
+                sb.append('&');
+            }
+            sb.append(parameter[0]).append('=').append(parameter[1]);
+        }
+        return sb.toString();
+    }
+
+    // RFC 3986 encoding, same output as URLEncoder with the replacements applied by SdkHttpUtils
+    static String urlEncode(final String value, final boolean keepSlashes) {
+        if (value == null) {
+            return "";
+        }
+        int i = 0;
+        while (i < value.length() && isUnreserved(value.charAt(i), keepSlashes)) {
+            i++;
+        }
+        if (i == value.length()) {
+            return value;
+        }
+        final StringBuilder sb = new StringBuilder(value.length() + 16).append(value, 0, i);
+        final byte[] bytes = value.substring(i).getBytes(StandardCharsets.UTF_8);
+        for (final byte b : bytes) {
+            final char c = (char) (b & 0xff);
+            if (c < 0x80 && isUnreserved(c, keepSlashes)) {
+                sb.append(c);
+            } else {
+                sb.append('%').append(UPPER_HEX[(b >> 4) & 0xf]).append(UPPER_HEX[b & 0xf]);
+            }
+        }
+        return sb.toString();
+    }
+
+    private static boolean isUnreserved(final char c, final boolean keepSlashes) {
+        return c >= 'a' && c <= 'z' || c >= 'A' && c <= 'Z' || c >= '0' && c <= '9'
+                || c == '-' || c == '_' || c == '.' || c == '~' || keepSlashes && c == '/';
+    }
+}
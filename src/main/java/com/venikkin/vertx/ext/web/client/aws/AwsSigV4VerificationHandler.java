@@ -0,0 +1,388 @@
+package com.venikkin.vertx.ext.web.client.aws;
+
+import io.netty.handler.codec.http.QueryStringDecoder;
+import io.vertx.core.Future;
+import io.vertx.core.Handler;
+import io.vertx.core.Vertx;
+import io.vertx.core.VertxException;
+import io.vertx.core.buffer.Buffer;
+import io.vertx.core.http.HttpServerRequest;
+import io.vertx.core.streams.ReadStream;
+import io.vertx.ext.web.RoutingContext;
+
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.time.Clock;
+import java.time.Duration;
+import java.time.Instant;
+import java.time.format.DateTimeParseException;
+import java.util.AbstractMap;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+// Verifies SigV4 signed requests with the canonicalization and signing key cache of the client. A body already
+// read by a BodyHandler is hashed as is, otherwise the body is hashed chunk by chunk as it arrives and then set
+// on the routing context, so no handler after this one sees an unverified body. With streamBody, a request declaring
+// its payload hash in X-Amz-Content-Sha256 is verified from its headers and passed on paused instead, its body is
+// hashed as the next handlers read it from BODY. Missing or malformed signatures fail with 401, wrong ones with 403.
+// Needs io.vertx:vertx-web on the classpath.
+public class AwsSigV4VerificationHandler implements Handler<RoutingContext> {
+
+    // routing context key of the access key id of a verified request
+    public static final String ACCESS_KEY_ID = "aws.accessKeyId";
+    // routing context key of the ReadStream<Buffer> to read the body of a verified request from, set with streamBody
+    // when the body was not read by the handler or a BodyHandler. Reading the request any other way skips the check
+    public static final String BODY = "aws.body";
+
+    private final AwsSigV4VerificationOptions options;
+    private final AwsSigningEngine engine;
+    private final AwsSigningLruCache<String, CachedSecret> secrets;
+    // lookup time of access key ids without a secret, apart from the secrets so forged ids cannot evict them
+    private final AwsSigningLruCache<String, Long> unknownKeys;
+    private final long secretCacheTtlNanos;
+    private final long unknownKeyCacheTtlNanos;
+    private final Clock clock;
+
+    private AwsSigV4VerificationHandler(final Vertx vertx, final AwsSigV4VerificationOptions options) {
+        this.options = options;
+        this.engine = AwsSigningEngine.shared(vertx, options.getCrypto() != null
+                ? options.getCrypto()
+                : AwsSigningCrypto.defaultCrypto());
+        this.secrets = new AwsSigningLruCache<>(options.getSecretCacheSize());
+        this.unknownKeys = new AwsSigningLruCache<>(options.getSecretCacheSize());
+        this.secretCacheTtlNanos = TimeUnit.MILLISECONDS.toNanos(options.getSecretCacheTtl());
+        this.unknownKeyCacheTtlNanos = TimeUnit.MILLISECONDS.toNanos(options.getUnknownKeyCacheTtl());
+        this.clock = options.getClock() != null ? options.getClock() : Clock.systemUTC();
+    }
+
+    public static AwsSigV4VerificationHandler create(final Vertx vertx, final AwsSigV4VerificationOptions options) {
+        return new AwsSigV4VerificationHandler(vertx, options.copy());
+    }
+
+    @Override
+    public void handle(final RoutingContext ctx) {
+        final HttpServerRequest request = ctx.request();
+        final Authorization authorization = Authorization.parse(request.getHeader("Authorization"));
+        if (authorization == null) {
+            ctx.fail(401);
+            return;
+        }
+        // everything checkable from the headers is checked before the body is read
+        final String amzDate = request.getHeader("X-Amz-Date");
+        if (!isAcceptable(authorization, amzDate)) {
+            ctx.fail(403);
+            return;
+        }
+        final String declaredHash = request.getHeader("X-Amz-Content-Sha256");
+        final boolean unsigned = AwsSigV4.UNSIGNED_PAYLOAD.equals(declaredHash);
+        if (unsigned && !options.isAllowUnsignedPayload()) {
+            ctx.fail(403);
+            return;
+        }
+        final boolean streamed = options.isStreamBody() && !ctx.body().available() && !request.isEnded();
+        if (unsigned && streamed) {
+            request.pause();
+            ctx.put(BODY, request);
+            verify(ctx, authorization, amzDate, declaredHash);
+            return;
+        }
+        if (declaredHash != null && streamed) {
+            // the signature covers the declared hash, the body is held back until a verified request reads it
+            request.pause();
+            ctx.put(BODY, new VerifiedBody(ctx, declaredHash));
+            verify(ctx, authorization, amzDate, declaredHash);
+            return;
+        }
+        payloadHash(ctx, payloadHash -> {
+            if (unsigned) {
+                verify(ctx, authorization, amzDate, declaredHash);
+            } else if (declaredHash != null && !declaredHash.equals(payloadHash)) {
+                ctx.fail(403);
+            } else {
+                verify(ctx, authorization, amzDate, payloadHash);
+            }
+        });
+    }
+
+    private boolean isAcceptable(final Authorization authorization, final String amzDate) {
+        if (amzDate == null || !amzDate.startsWith(authorization.dateStamp)
+                || options.getRegion() != null && !options.getRegion().id().equals(authorization.region)
+                || !options.getServiceName().equals(authorization.service)
+                || !authorization.signs("host") || !authorization.signs("x-amz-date")) {
+            return false;
+        }
+        try {
+            final Instant signedAt = Instant.from(AwsSigV4.AMZ_DATE_FORMAT.parse(amzDate));
+            return Math.abs(Duration.between(signedAt, clock.instant()).toMillis()) <= options.getMaxClockSkew();
+        } catch (DateTimeParseException e) {
+            return false;
+        }
+    }
+
+    private void payloadHash(final RoutingContext ctx, final Handler<String> handler) {
+        if (ctx.body().available()) {
+            handler.handle(engine.payloadHash(ctx.body().buffer()));
+            return;
+        }
+        final HttpServerRequest request = ctx.request();
+        if (request.isEnded()) {
+            handler.handle(AwsSigV4.EMPTY_PAYLOAD_HASH);
+            return;
+        }
+        final MessageDigest digest = engine.newDigest();
+        final Buffer body = Buffer.buffer();
+        request.handler(chunk -> {
+            if (body.length() + chunk.length() > options.getMaxBodySize()) {
+                request.handler(null);
+                if (!ctx.failed()) {
+                    ctx.fail(413);
+                }
+                return;
+            }
+            digest.update(chunk.getByteBuf().nioBuffer());
+            body.appendBuffer(chunk);
+        });
+        request.exceptionHandler(cause -> {
+            if (!ctx.failed()) {
+                ctx.fail(cause);
+            }
+        });
+        request.endHandler(v -> {
+            if (!ctx.failed()) {
+                ctx.setBody(body);
+                handler.handle(AwsSigV4.hex(digest.digest()));
+            }
+        });
+        request.resume();
+    }
+
+    private void verify(final RoutingContext ctx, final Authorization authorization, final String amzDate,
+                        final String payloadHash) {
+        secret(authorization.accessKeyId).onComplete(ar -> {
+            if (ar.failed() || ar.result() == null) {
+                ctx.fail(403);
+                return;
+            }
+            final String canonicalRequest = canonicalRequest(ctx.request(), authorization, payloadHash);
+            if (canonicalRequest == null) {
+                ctx.fail(403);
+                return;
+            }
+            final String signature = engine.signature(ar.result(), amzDate, authorization.region,
+                    authorization.service, canonicalRequest);
+            if (MessageDigest.isEqual(signature.getBytes(StandardCharsets.US_ASCII),
+                    authorization.signature.getBytes(StandardCharsets.US_ASCII))) {
+                ctx.put(ACCESS_KEY_ID, authorization.accessKeyId);
+                ctx.next();
+            } else {
+                ctx.fail(403);
+            }
+        });
+    }
+
+    private Future<String> secret(final String accessKeyId) {
+        final long now = System.nanoTime();
+        final CachedSecret cached = secrets.get(accessKeyId);
+        if (cached != null && now - cached.lookedUpAt < secretCacheTtlNanos) {
+            return Future.succeededFuture(cached.secretAccessKey);
+        }
+        final Long missedAt = unknownKeys.get(accessKeyId);
+        if (missedAt != null && now - missedAt < unknownKeyCacheTtlNanos) {
+            return Future.succeededFuture();
+        }
+        // only a definite miss is remembered, a failed lookup may be the secret store being unavailable
+        return options.getSecretLookup().apply(accessKeyId).onSuccess(secretAccessKey -> {
+            if (secretAccessKey != null) {
+                secrets.put(accessKeyId, new CachedSecret(secretAccessKey, now));
+            } else {
+                unknownKeys.put(accessKeyId, now);
+            }
+        });
+    }
+
+    // null when a signed header is missing from the request
+    private String canonicalRequest(final HttpServerRequest request, final Authorization authorization,
+                                    final String payloadHash) {
+        final StringBuilder canonicalRequest = new StringBuilder(256)
+                .append(request.method().name()).append('\n')
+                .append(engine.canonicalPath(request.path(), authorization.service)).append('\n')
+                .append(AwsSigV4.canonicalQuery(signedQuery(request))).append('\n');
+        for (final String name : authorization.signedHeaders) {
+            final List<String> values = request.headers().getAll(name);
+            if (values.isEmpty()) {
+                return null;
+            }
+            canonicalRequest.append(name).append(':');
+            for (int i = 0; i < values.size(); i++) {
+                if (i > 0) {
+                    canonicalRequest.append(',');
+                }
+                canonicalRequest.append(AwsSigV4.canonicalHeaderValue(values.get(i)));
+            }
+            canonicalRequest.append('\n');
+        }
+        return canonicalRequest.append('\n')
+                .append(authorization.signedHeadersValue).append('\n')
+                .append(payloadHash)
+                .toString();
+    }
+
+    // the query as the client sent and signed it, params() may hold entries the router added, like path params
+    private static List<Map.Entry<String, String>> signedQuery(final HttpServerRequest request) {
+        final List<Map.Entry<String, String>> parameters = new ArrayList<>();
+        if (request.query() == null) {
+            return parameters;
+        }
+        final QueryStringDecoder decoder = new QueryStringDecoder(request.query(), StandardCharsets.UTF_8, false,
+                Integer.MAX_VALUE, true);
+        for (final Map.Entry<String, List<String>> parameter : decoder.parameters().entrySet()) {
+            for (final String value : parameter.getValue()) {
+                parameters.add(new AbstractMap.SimpleImmutableEntry<>(parameter.getKey(), value));
+            }
+        }
+        return parameters;
+    }
+
+    private static class Authorization {
+
+        private final String accessKeyId;
+        private final String dateStamp;
+        private final String region;
+        private final String service;
+        private final String signedHeadersValue;
+        private final String[] signedHeaders;
+        private final String signature;
+
+        private Authorization(final String accessKeyId, final String dateStamp, final String region,
+                              final String service, final String signedHeadersValue, final String signature) {
+            this.accessKeyId = accessKeyId;
+            this.dateStamp = dateStamp;
+            this.region = region;
+            this.service = service;
+            this.signedHeadersValue = signedHeadersValue;
+            this.signedHeaders = signedHeadersValue.split(";");
+            this.signature = signature;
+        }
+
+        // AWS4-HMAC-SHA256 Credential=<key id>/<date>/<region>/<service>/aws4_request, SignedHeaders=..., Signature=...
+        private static Authorization parse(final String header) {
+            if (header == null || !header.startsWith(AwsSigV4.ALGORITHM + ' ')) {
+                return null;
+            }
+            String credential = null;
+            String signedHeaders = null;
+            String signature = null;
+            for (final String part : header.substring(AwsSigV4.ALGORITHM.length() + 1).split(",")) {
+                final String trimmed = part.trim();
+                if (trimmed.startsWith("Credential=")) {
+                    credential = trimmed.substring("Credential=".length());
+                } else if (trimmed.startsWith("SignedHeaders=")) {
+                    signedHeaders = trimmed.substring("SignedHeaders=".length());
+                } else if (trimmed.startsWith("Signature=")) {
+                    signature = trimmed.substring("Signature=".length());
+                }
+            }
+            if (credential == null || signedHeaders == null || signedHeaders.isEmpty() || signature == null) {
+                return null;
+            }
+            final String[] scope = credential.split("/");
+            if (scope.length != 5 || !AwsSigV4.TERMINATOR.equals(scope[4])) {
+                return null;
+            }
+            return new Authorization(scope[0], scope[1], scope[2], scope[3], signedHeaders, signature);
+        }
+
+        private boolean signs(final String header) {
+            for (final String signedHeader : signedHeaders) {
+                if (signedHeader.equals(header)) {
+                    return true;
+                }
+            }
+            return false;
+        }
+    }
+
+    // hashes the body as it is read, a body not matching the declared hash fails instead of ending
+    private class VerifiedBody implements ReadStream<Buffer> {
+
+        private final RoutingContext ctx;
+        private final String declaredHash;
+        private final MessageDigest digest = engine.newDigest();
+
+        private Handler<Buffer> handler;
+        private Handler<Throwable> exceptionHandler;
+
+        private VerifiedBody(final RoutingContext ctx, final String declaredHash) {
+            this.ctx = ctx;
+            this.declaredHash = declaredHash;
+            ctx.request().handler(chunk -> {
+                digest.update(chunk.getByteBuf().nioBuffer());
+                if (handler != null) {
+                    handler.handle(chunk);
+                }
+            });
+        }
+
+        @Override
+        public ReadStream<Buffer> exceptionHandler(final Handler<Throwable> handler) {
+            this.exceptionHandler = handler;
+            ctx.request().exceptionHandler(handler);
+            return this;
+        }
+
+        @Override
+        public ReadStream<Buffer> handler(final Handler<Buffer> handler) {
+            this.handler = handler;
+            return this;
+        }
+
+        @Override
+        public ReadStream<Buffer> pause() {
+            ctx.request().pause();
+            return this;
+        }
+
+        @Override
+        public ReadStream<Buffer> resume() {
+            ctx.request().resume();
+            return this;
+        }
+
+        @Override
+        public ReadStream<Buffer> fetch(final long amount) {
+            ctx.request().fetch(amount);
+            return this;
+        }
+
+        @Override
+        public ReadStream<Buffer> endHandler(final Handler<Void> endHandler) {
+            ctx.request().endHandler(endHandler == null ? null : v -> {
+                if (declaredHash.equals(AwsSigV4.hex(digest.digest()))) {
+                    endHandler.handle(null);
+                    return;
+                }
+                final VertxException mismatch = new VertxException(
+                        "Body does not match X-Amz-Content-Sha256 " + declaredHash, true);
+                if (exceptionHandler != null) {
+                    exceptionHandler.handle(mismatch);
+                } else if (!ctx.failed()) {
+                    ctx.fail(400, mismatch);
+                }
+            });
+            return this;
+        }
+    }
+
+    private static class CachedSecret {
+
+        private final String secretAccessKey;
+        private final long lookedUpAt;
+
+        private CachedSecret(final String secretAccessKey, final long lookedUpAt) {
+            this.secretAccessKey = secretAccessKey;
+            this.lookedUpAt = lookedUpAt;
+        }
+    }
+}
@@ -0,0 +1,157 @@
+package com.venikkin.vertx.ext.web.client.aws;
+
+import io.vertx.core.Future;
+import software.amazon.awssdk.regions.Region;
+
+import java.time.Clock;
+import java.util.function.Function;
+
+public class AwsSigV4VerificationOptions {
+
+    // secret access key of an access key id. A null result means the id is unknown, it is rejected without another
+    // lookup for unknownKeyCacheTtl. A failed result, e.g. an unavailable secret store, rejects only this request
+    private Function<String, Future<String>> secretLookup;
+    // only requests signed for this region are accepted, any region when not set
+    private Region region;
+    private String serviceName = "execute-api";
+    // milliseconds a looked up secret is reused
+    private long secretCacheTtl = 60000;
+    private int secretCacheSize = 1024;
+    // milliseconds an access key id without a secret is rejected without a lookup, 0 looks up every time
+    private long unknownKeyCacheTtl = 5000;
+    // milliseconds X-Amz-Date may differ from the server clock, AWS allows 5 minutes
+    private long maxClockSkew = 300000;
+    // bodies read by the handler itself, routes with a BodyHandler in front use its limit
+    private long maxBodySize = 10 * 1024 * 1024;
+    // X-Amz-Content-Sha256: UNSIGNED-PAYLOAD leaves the body unsigned, which S3 accepts and other services do not
+    private boolean allowUnsignedPayload;
+    // requests declaring X-Amz-Content-Sha256 are passed on before their body is read, which the next handlers must
+    // then read from AwsSigV4VerificationHandler.BODY, a BodyHandler or the request itself would skip the hash check
+    private boolean streamBody;
+    private Clock clock;
+    private AwsSigningCrypto crypto;
+
+    public Function<String, Future<String>> getSecretLookup() {
+        return secretLookup;
+    }
+
+    public AwsSigV4VerificationOptions setSecretLookup(final Function<String, Future<String>> secretLookup) {
+        this.secretLookup = secretLookup;
+        return this;
+    }
+
+    public Region getRegion() {
+        return region;
+    }
+
+    public AwsSigV4VerificationOptions setRegion(final Region region) {
+        this.region = region;
+        return this;
+    }
+
+    public String getServiceName() {
+        return serviceName;
+    }
+
+    public AwsSigV4VerificationOptions setServiceName(final String serviceName) {
+        this.serviceName = serviceName;
+        return this;
+    }
+
+    public long getSecretCacheTtl() {
+        return secretCacheTtl;
+    }
+
+    public AwsSigV4VerificationOptions setSecretCacheTtl(final long secretCacheTtl) {
+        this.secretCacheTtl = secretCacheTtl;
+        return this;
+    }
+
+    public int getSecretCacheSize() {
+        return secretCacheSize;
+    }
+
+    public AwsSigV4VerificationOptions setSecretCacheSize(final int secretCacheSize) {
+        this.secretCacheSize = secretCacheSize;
+        return this;
+    }
+
+    public long getUnknownKeyCacheTtl() {
+        return unknownKeyCacheTtl;
+    }
+
+    public AwsSigV4VerificationOptions setUnknownKeyCacheTtl(final long unknownKeyCacheTtl) {
+        this.unknownKeyCacheTtl = unknownKeyCacheTtl;
+        return this;
+    }
+
+    public long getMaxClockSkew() {
+        return maxClockSkew;
+    }
+
+    public AwsSigV4VerificationOptions setMaxClockSkew(final long maxClockSkew) {
+        this.maxClockSkew = maxClockSkew;
+        return this;
+    }
+
+    public long getMaxBodySize() {
+        return maxBodySize;
+    }
+
+    public AwsSigV4VerificationOptions setMaxBodySize(final long maxBodySize) {
+        this.maxBodySize = maxBodySize;
+        return this;
+    }
+
+    public boolean isAllowUnsignedPayload() {
+        return allowUnsignedPayload;
+    }
+
+    public AwsSigV4VerificationOptions setAllowUnsignedPayload(final boolean allowUnsignedPayload) {
+        this.allowUnsignedPayload = allowUnsignedPayload;
+        return this;
+    }
+
+    public boolean isStreamBody() {
+        return streamBody;
+    }
+
+    public AwsSigV4VerificationOptions setStreamBody(final boolean streamBody) {
+        this.streamBody = streamBody;
+        return this;
+    }
+
+    public Clock getClock() {
+        return clock;
+    }
+
+    public AwsSigV4VerificationOptions setClock(final Clock clock) {
+        this.clock = clock;
+        return this;
+    }
+
+    public AwsSigningCrypto getCrypto() {
+        return crypto;
+    }
+
+    public AwsSigV4VerificationOptions setCrypto(final AwsSigningCrypto crypto) {
+        this.crypto = crypto;
+        return this;
+    }
+
+    public AwsSigV4VerificationOptions copy() {
+        return new AwsSigV4VerificationOptions()
+                .setSecretLookup(secretLookup)
+                .setRegion(region)
+                .setServiceName(serviceName)
+                .setSecretCacheTtl(secretCacheTtl)
+                .setSecretCacheSize(secretCacheSize)
+                .setUnknownKeyCacheTtl(unknownKeyCacheTtl)
+                .setMaxClockSkew(maxClockSkew)
+                .setMaxBodySize(maxBodySize)
+                .setAllowUnsignedPayload(allowUnsignedPayload)
+                .setStreamBody(streamBody)
+                .setClock(clock)
+                .setCrypto(crypto);
+    }
+}
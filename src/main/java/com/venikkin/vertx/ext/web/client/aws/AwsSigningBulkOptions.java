@@ -0,0 +1,38 @@
+package com.venikkin.vertx.ext.web.client.aws;
+
+public class AwsSigningBulkOptions {
+
+    private int maxInFlightPerHost = 16;
+    // in-flight requests plus responses not yet consumed by the result stream
+    private int maxBufferedResults = 128;
+
+    public int getMaxInFlightPerHost() {
+        return maxInFlightPerHost;
+    }
+
+    public AwsSigningBulkOptions setMaxInFlightPerHost(final int maxInFlightPerHost) {
+        if (maxInFlightPerHost < 1) {
+            throw new IllegalArgumentException("maxInFlightPerHost must be positive");
+        }
+        this.maxInFlightPerHost = maxInFlightPerHost;
+        return this;
+    }
+
+    public int getMaxBufferedResults() {
+        return maxBufferedResults;
+    }
+
+    public AwsSigningBulkOptions setMaxBufferedResults(final int maxBufferedResults) {
+        if (maxBufferedResults < 1) {
+            throw new IllegalArgumentException("maxBufferedResults must be positive");
+        }
+        this.maxBufferedResults = maxBufferedResults;
+        return this;
+    }
+
+    public AwsSigningBulkOptions copy() {
+        return new AwsSigningBulkOptions()
+                .setMaxInFlightPerHost(maxInFlightPerHost)
+                .setMaxBufferedResults(maxBufferedResults);
+    }
+}
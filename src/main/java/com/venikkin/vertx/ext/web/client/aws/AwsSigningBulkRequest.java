@@ -0,0 +1,47 @@
+package com.venikkin.vertx.ext.web.client.aws;
+
+import io.vertx.core.buffer.Buffer;
+import io.vertx.core.http.HttpMethod;
+import io.vertx.core.http.RequestOptions;
+
+public class AwsSigningBulkRequest {
+
+    private HttpMethod method = HttpMethod.GET;
+    private RequestOptions requestOptions = new RequestOptions();
+    private Buffer body;
+
+    public AwsSigningBulkRequest() {
+    }
+
+    public AwsSigningBulkRequest(final HttpMethod method, final String requestURI) {
+        this.method = method;
+        this.requestOptions.setURI(requestURI);
+    }
+
+    public HttpMethod getMethod() {
+        return method;
+    }
+
+    public AwsSigningBulkRequest setMethod(final HttpMethod method) {
+        this.method = method;
+        return this;
+    }
+
+    public RequestOptions getRequestOptions() {
+        return requestOptions;
+    }
+
+    public AwsSigningBulkRequest setRequestOptions(final RequestOptions requestOptions) {
+        this.requestOptions = requestOptions;
+        return this;
+    }
+
+    public Buffer getBody() {
+        return body;
+    }
+
+    public AwsSigningBulkRequest setBody(final Buffer body) {
+        this.body = body;
+        return this;
+    }
+}
@@ -0,0 +1,38 @@
+package com.venikkin.vertx.ext.web.client.aws;
+
+import io.vertx.core.buffer.Buffer;
+import io.vertx.ext.web.client.HttpResponse;
+
+public class AwsSigningBulkResult {
+
+    private final AwsSigningBulkRequest request;
+    private final HttpResponse<Buffer> response;
+    private final Throwable cause;
+
+    AwsSigningBulkResult(final AwsSigningBulkRequest request, final HttpResponse<Buffer> response,
+                         final Throwable cause) {
+        this.request = request;
+        this.response = response;
+        this.cause = cause;
+    }
+
+    public AwsSigningBulkRequest request() {
+        return request;
+    }
+
+    public HttpResponse<Buffer> response() {
+        return response;
+    }
+
+    public Throwable cause() {
+        return cause;
+    }
+
+    public boolean succeeded() {
+        return cause == null;
+    }
+
+    public boolean failed() {
+        return cause != null;
+    }
+}
@@ -0,0 +1,204 @@
+package com.venikkin.vertx.ext.web.client.aws;
+
+import io.vertx.core.AsyncResult;
+import io.vertx.core.Future;
+import io.vertx.core.Handler;
+import io.vertx.core.buffer.Buffer;
+import io.vertx.core.streams.ReadStream;
+import io.vertx.ext.web.client.HttpRequest;
+import io.vertx.ext.web.client.HttpResponse;
+import io.vertx.ext.web.client.WebClient;
+
+import java.util.ArrayDeque;
+import java.util.Deque;
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+// Requests are pulled from the source one at a time and are only signed when they are dispatched.
+// A request whose host is at its in-flight limit is parked in a queue of that host, requests to other hosts keep
+// flowing as long as parked, in-flight and unconsumed results fit maxBufferedResults.
+// Expected to be driven from a single Vert.x context, like any other Vert.x stream.
+class AwsSigningBulkStream extends AwsQueuedStream<AwsSigningBulkResult, AwsSigningBulkStream> {
+
+    private final WebClient client;
+    private final AwsSigningBulkOptions options;
+    private final Iterator<AwsSigningBulkRequest> iterator;
+    private final ReadStream<AwsSigningBulkRequest> source;
+
+    private final Map<String, Integer> inFlightPerHost = new HashMap<>();
+
+    private int inFlight;
+
+    // requests waiting for their host to free a slot
+    private final Map<String, Deque<Parked>> parkedPerHost = new LinkedHashMap<>();
+    private int parked;
+
+    private boolean started;
+    private boolean fetching;
+    private boolean sourceEnded;
+    // requests can complete synchronously, e.g. when signing fails, progress loops instead of recursing
+    private boolean progressing;
+    private boolean progressAgain;
+
+    AwsSigningBulkStream(final WebClient client, final AwsSigningBulkOptions options,
+                         final Iterator<AwsSigningBulkRequest> requests) {
+        this.client = client;
+        this.options = options;
+        this.iterator = requests;
+        this.source = null;
+    }
+
+    AwsSigningBulkStream(final WebClient client, final AwsSigningBulkOptions options,
+                         final ReadStream<AwsSigningBulkRequest> requests) {
+        this.client = client;
+        this.options = options;
+        this.iterator = null;
+        this.source = requests;
+        requests.pause();
+        requests.handler(this::onSourceRequest);
+        requests.endHandler(v -> onSourceEnd());
+        requests.exceptionHandler(this::onSourceFailure);
+    }
+
+    @Override
+    public AwsSigningBulkStream handler(final Handler<AwsSigningBulkResult> handler) {
+        started |= handler != null;
+        return super.handler(handler);
+    }
+
+    @Override
+    void demanded() {
+        progress();
+    }
+
+    @Override
+    boolean done() {
+        return started && sourceEnded && parked == 0 && inFlight == 0;
+    }
+
+    private void progress() {
+        if (progressing) {
+            progressAgain = true;
+            return;
+        }
+        progressing = true;
+        try {
+            do {
+                progressAgain = false;
+                unpark();
+                drain();
+                pump();
+            } while (progressAgain);
+        } finally {
+            progressing = false;
+        }
+    }
+
+    private void pump() {
+        if (!started) {
+            return;
+        }
+        while (!sourceEnded && inFlight + parked + pending.size() < options.getMaxBufferedResults()) {
+            if (iterator != null) {
+                if (!iterator.hasNext()) {
+                    sourceEnded = true;
+                    break;
+                }
+                dispatch(iterator.next());
+            } else {
+                if (!fetching) {
+                    fetching = true;
+                    source.fetch(1);
+                }
+                break;
+            }
+        }
+        checkEnd();
+    }
+
+    private void onSourceRequest(final AwsSigningBulkRequest request) {
+        fetching = false;
+        dispatch(request);
+        progress();
+    }
+
+    private void onSourceEnd() {
+        fetching = false;
+        sourceEnded = true;
+        checkEnd();
+    }
+
+    private void onSourceFailure(final Throwable cause) {
+        onSourceEnd();
+        reportFailure(cause);
+    }
+
+    private void dispatch(final AwsSigningBulkRequest request) {
+        final HttpRequest<Buffer> httpRequest;
+        try {
+            httpRequest = client.request(request.getMethod(), request.getRequestOptions());
+        } catch (RuntimeException e) {
+            pending.add(new AwsSigningBulkResult(request, null, e));
+            progress();
+            return;
+        }
+        final String host = httpRequest.host() + ':' + httpRequest.port();
+        if (inFlightPerHost.getOrDefault(host, 0) >= options.getMaxInFlightPerHost()) {
+            parkedPerHost.computeIfAbsent(host, key -> new ArrayDeque<>()).add(new Parked(request, httpRequest));
+            parked++;
+            return;
+        }
+        send(request, httpRequest, host);
+    }
+
+    private void send(final AwsSigningBulkRequest request, final HttpRequest<Buffer> httpRequest, final String host) {
+        inFlight++;
+        inFlightPerHost.merge(host, 1, Integer::sum);
+        final Handler<AsyncResult<HttpResponse<Buffer>>> callback = ar -> {
+            inFlight--;
+            inFlightPerHost.computeIfPresent(host, (key, count) -> count > 1 ? count - 1 : null);
+            pending.add(new AwsSigningBulkResult(request, ar.result(), ar.cause()));
+            progress();
+        };
+        try {
+            if (request.getBody() != null) {
+                httpRequest.sendBuffer(request.getBody(), callback);
+            } else {
+                httpRequest.send(callback);
+            }
+        } catch (RuntimeException e) {
+            // signing failures, e.g. credentials that cannot be resolved, are reported per request
+            callback.handle(Future.failedFuture(e));
+        }
+    }
+
+    private void unpark() {
+        final Iterator<Map.Entry<String, Deque<Parked>>> hosts = parkedPerHost.entrySet().iterator();
+        while (hosts.hasNext()) {
+            final Map.Entry<String, Deque<Parked>> host = hosts.next();
+            final Deque<Parked> queue = host.getValue();
+            while (!queue.isEmpty()
+                    && inFlightPerHost.getOrDefault(host.getKey(), 0) < options.getMaxInFlightPerHost()) {
+                final Parked next = queue.poll();
+                parked--;
+                send(next.request, next.httpRequest, host.getKey());
+            }
+            if (queue.isEmpty()) {
+                hosts.remove();
+            }
+        }
+    }
+
+    private static class Parked {
+
+        private final AwsSigningBulkRequest request;
+        private final HttpRequest<Buffer> httpRequest;
+
+        private Parked(final AwsSigningBulkRequest request, final HttpRequest<Buffer> httpRequest) {
+            this.request = request;
+            this.httpRequest = httpRequest;
+        }
+    }
+}
@@ -0,0 +1,71 @@
+package com.venikkin.vertx.ext.web.client.aws;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicReferenceArray;
+
+// Ring of the most recent sampled signatures. Writers claim a slot with one atomic increment and never wait,
+// readers copy the ring without stopping writers. Not sampling costs a volatile read per request.
+public class AwsSigningCapture {
+
+    private final AtomicReferenceArray<AwsSigningCaptureEntry> entries;
+    private final AtomicLong sequence = new AtomicLong();
+    private final int mask;
+    private volatile double sampleRate;
+
+    AwsSigningCapture(final AwsSigningCaptureOptions options) {
+        final int capacity = Integer.highestOneBit(Math.max(1, options.getCapacity() - 1)) << 1;
+        this.entries = new AtomicReferenceArray<>(capacity);
+        this.mask = capacity - 1;
+        this.sampleRate = options.getSampleRate();
+    }
+
+    public double getSampleRate() {
+        return sampleRate;
+    }
+
+    // 0 turns capturing off, 1 captures every request
+    public AwsSigningCapture setSampleRate(final double sampleRate) {
+        this.sampleRate = sampleRate;
+        return this;
+    }
+
+    // oldest first, entries of requests still in flight have no outcome yet
+    public List<AwsSigningCaptureEntry> entries() {
+        final long end = sequence.get();
+        final long start = Math.max(0, end - entries.length());
+        final List<AwsSigningCaptureEntry> snapshot = new ArrayList<>((int) (end - start));
+        for (long i = start; i < end; i++) {
+            final AwsSigningCaptureEntry entry = entries.get((int) (i & mask));
+            // a slot may already hold a newer entry, or not hold its claimed one yet
+            if (entry != null && entry.sequence() == i) {
+                snapshot.add(entry);
+            }
+        }
+        return Collections.unmodifiableList(snapshot);
+    }
+
+    public void clear() {
+        for (int i = 0; i < entries.length(); i++) {
+            entries.set(i, null);
+        }
+    }
+
+    // null when the request is not sampled
+    AwsSigningCaptureEntry sample(final String method, final String host, final String uri) {
+        final double rate = sampleRate;
+        if (rate <= 0 || rate < 1 && ThreadLocalRandom.current().nextDouble() >= rate) {
+            return null;
+        }
+        return new AwsSigningCaptureEntry(method, host, uri);
+    }
+
+    void record(final AwsSigningCaptureEntry entry) {
+        final long claimed = sequence.getAndIncrement();
+        entry.sequence(claimed);
+        entries.set((int) (claimed & mask), entry);
+    }
+}
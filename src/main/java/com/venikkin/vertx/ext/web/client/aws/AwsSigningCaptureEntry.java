@@ -0,0 +1,100 @@
+package com.venikkin.vertx.ext.web.client.aws;
+
+import java.time.Instant;
+
+// What went into one signature and how the request went. Session tokens are redacted from the canonical
+// request, everything else is as signed, so it can be compared with what the service says it expected.
+public class AwsSigningCaptureEntry {
+
+    static final String REDACTED = "<redacted>";
+
+    private final String method;
+    private final String host;
+    private final String uri;
+    private long sequence;
+    private String accessKeyId;
+    private Instant signedAt;
+    private String canonicalRequest;
+    private String stringToSign;
+    // written by the thread completing the request
+    private volatile int statusCode;
+    private volatile Long clockSkew;
+    private volatile String failure;
+
+    AwsSigningCaptureEntry(final String method, final String host, final String uri) {
+        this.method = method;
+        this.host = host;
+        this.uri = uri;
+    }
+
+    public long sequence() {
+        return sequence;
+    }
+
+    public String method() {
+        return method;
+    }
+
+    public String host() {
+        return host;
+    }
+
+    public String uri() {
+        return uri;
+    }
+
+    public String accessKeyId() {
+        return accessKeyId;
+    }
+
+    public Instant signedAt() {
+        return signedAt;
+    }
+
+    public String canonicalRequest() {
+        return canonicalRequest;
+    }
+
+    public String stringToSign() {
+        return stringToSign;
+    }
+
+    // 0 while the request is in flight, -1 when it failed without a response
+    public int statusCode() {
+        return statusCode;
+    }
+
+    // milliseconds the server clock is ahead of the signing clock, from the Date response header, null without one
+    public Long clockSkew() {
+        return clockSkew;
+    }
+
+    public String failure() {
+        return failure;
+    }
+
+    void sequence(final long sequence) {
+        this.sequence = sequence;
+    }
+
+    void signed(final String accessKeyId, final Instant signedAt, final String canonicalRequest,
+                final String stringToSign) {
+        this.accessKeyId = accessKeyId;
+        this.signedAt = signedAt;
+        this.canonicalRequest = canonicalRequest;
+        this.stringToSign = stringToSign;
+    }
+
+    void completed(final int statusCode, final Long clockSkew, final Throwable failure) {
+        this.clockSkew = clockSkew;
+        this.failure = failure != null ? String.valueOf(failure.getMessage()) : null;
+        this.statusCode = statusCode;
+    }
+
+    @Override
+    public String toString() {
+        return method + ' ' + host + uri + " -> " + statusCode
+                + "\n--- canonical request\n" + canonicalRequest
+                + "\n--- string to sign\n" + stringToSign;
+    }
+}
@@ -0,0 +1,33 @@
+package com.venikkin.vertx.ext.web.client.aws;
+
+public class AwsSigningCaptureOptions {
+
+    // share of signed requests captured, can be changed at runtime with AwsSigningCapture.setSampleRate
+    private double sampleRate = 0.01;
+    // most recent captures kept, rounded up to a power of two
+    private int capacity = 256;
+
+    public double getSampleRate() {
+        return sampleRate;
+    }
+
+    public AwsSigningCaptureOptions setSampleRate(final double sampleRate) {
+        this.sampleRate = sampleRate;
+        return this;
+    }
+
+    public int getCapacity() {
+        return capacity;
+    }
+
+    public AwsSigningCaptureOptions setCapacity(final int capacity) {
+        this.capacity = capacity;
+        return this;
+    }
+
+    public AwsSigningCaptureOptions copy() {
+        return new AwsSigningCaptureOptions()
+                .setSampleRate(sampleRate)
+                .setCapacity(capacity);
+    }
+}
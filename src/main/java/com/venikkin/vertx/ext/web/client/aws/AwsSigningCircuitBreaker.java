@@ -0,0 +1,194 @@
+package com.venikkin.vertx.ext.web.client.aws;
+
+import io.vertx.core.Vertx;
+import io.vertx.core.shareddata.LocalMap;
+import io.vertx.core.shareddata.Shareable;
+import io.vertx.ext.web.client.HttpRequest;
+
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+// Consecutive failure breaker per endpoint. Closed circuits are checked without locking,
+// transitions and half-open probes are synchronized on the circuit. Once more than maxEndpoints circuits are
+// tracked, closed circuits without failures are evicted.
+public class AwsSigningCircuitBreaker implements Shareable {
+
+    private static final String SHARED_MAP_NAME = "__vertx.web.client.aws.circuitBreakers";
+
+    public enum State {
+        CLOSED, OPEN, HALF_OPEN
+    }
+
+    private final AwsSigningCircuitBreakerOptions options;
+    private final long resetTimeoutNanos;
+    private final ConcurrentMap<String, Circuit> circuits = new ConcurrentHashMap<>();
+
+    AwsSigningCircuitBreaker(final AwsSigningCircuitBreakerOptions options) {
+        this.options = options;
+        this.resetTimeoutNanos = TimeUnit.MILLISECONDS.toNanos(options.getResetTimeout());
+    }
+
+    // clients using a name already taken in the Vertx instance must use the same options
+    static AwsSigningCircuitBreaker shared(final Vertx vertx, final AwsSigningCircuitBreakerOptions options) {
+        final LocalMap<String, AwsSigningCircuitBreaker> breakers = vertx.sharedData().getLocalMap(SHARED_MAP_NAME);
+        final AwsSigningCircuitBreaker created = new AwsSigningCircuitBreaker(options.copy());
+        final AwsSigningCircuitBreaker existing = breakers.putIfAbsent(options.getName(), created);
+        if (existing == null) {
+            return created;
+        }
+        if (!sameOptions(existing.options, options)) {
+            throw new IllegalArgumentException("Circuit breaker " + options.getName()
+                    + " is already shared with different options");
+        }
+        return existing;
+    }
+
+    private static boolean sameOptions(final AwsSigningCircuitBreakerOptions shared,
+                                       final AwsSigningCircuitBreakerOptions options) {
+        return shared.getFailureThreshold() == options.getFailureThreshold()
+                && shared.getResetTimeout() == options.getResetTimeout()
+                && shared.getHalfOpenMaxProbes() == options.getHalfOpenMaxProbes()
+                && shared.getFailureStatusCodes().equals(options.getFailureStatusCodes())
+                && shared.getEndpointKeyFunction() == options.getEndpointKeyFunction()
+                && shared.getMaxEndpoints() == options.getMaxEndpoints();
+    }
+
+    public State state(final String endpoint) {
+        final Circuit circuit = circuits.get(endpoint);
+        return circuit != null ? circuit.state : State.CLOSED;
+    }
+
+    public Map<String, State> states() {
+        final Map<String, State> states = new HashMap<>();
+        circuits.forEach((endpoint, circuit) -> states.put(endpoint, circuit.state));
+        return Collections.unmodifiableMap(states);
+    }
+
+    String endpointKey(final HttpRequest<?> request) {
+        return options.getEndpointKeyFunction().apply(request);
+    }
+
+    // returns null when the call is not allowed
+    Call tryAcquire(final String endpoint) {
+        final Circuit circuit = circuit(endpoint);
+        if (circuit.state == State.CLOSED) {
+            return circuit.closedCall;
+        }
+        synchronized (circuit) {
+            switch (circuit.state) {
+                case CLOSED:
+                    return circuit.closedCall;
+                case OPEN:
+                    if (System.nanoTime() - circuit.openedAt < resetTimeoutNanos) {
+                        return null;
+                    }
+                    circuit.state = State.HALF_OPEN;
+                    circuit.probes = 0;
+                    // fall through
+                default:
+                    if (circuit.probes >= options.getHalfOpenMaxProbes()) {
+                        return null;
+                    }
+                    circuit.probes++;
+                    return new Call(circuit, true);
+            }
+        }
+    }
+
+    class Call {
+
+        private final Circuit circuit;
+        private final boolean probe;
+
+        private Call(final Circuit circuit, final boolean probe) {
+            this.circuit = circuit;
+            this.probe = probe;
+        }
+
+        void onResponse(final int statusCode) {
+            if (options.getFailureStatusCodes().contains(statusCode)) {
+                onFailure();
+            } else {
+                onSuccess();
+            }
+        }
+
+        void onSuccess() {
+            if (probe) {
+                synchronized (circuit) {
+                    circuit.probes--;
+                    if (circuit.state == State.HALF_OPEN) {
+                        circuit.failures.set(0);
+                        circuit.state = State.CLOSED;
+                    }
+                }
+            } else if (circuit.state == State.CLOSED && circuit.failures.get() != 0) {
+                circuit.failures.set(0);
+            }
+        }
+
+        void onFailure() {
+            if (probe) {
+                synchronized (circuit) {
+                    circuit.probes--;
+                    if (circuit.state == State.HALF_OPEN) {
+                        open(circuit);
+                    }
+                }
+            } else if (circuit.failures.incrementAndGet() >= options.getFailureThreshold()) {
+                synchronized (circuit) {
+                    if (circuit.state == State.CLOSED) {
+                        open(circuit);
+                    }
+                }
+            }
+        }
+
+        void cancel() {
+            if (probe) {
+                synchronized (circuit) {
+                    circuit.probes--;
+                }
+            }
+        }
+    }
+
+    private Circuit circuit(final String endpoint) {
+        final Circuit existing = circuits.get(endpoint);
+        if (existing != null) {
+            return existing;
+        }
+        if (circuits.size() >= options.getMaxEndpoints()) {
+            evictHealthy();
+        }
+        return circuits.computeIfAbsent(endpoint, key -> new Circuit());
+    }
+
+    // a closed circuit without failures holds nothing a new one would not, calls in flight on it are still recorded
+    private void evictHealthy() {
+        circuits.forEach((endpoint, circuit) -> {
+            if (circuit.state == State.CLOSED && circuit.failures.get() == 0) {
+                circuits.remove(endpoint, circuit);
+            }
+        });
+    }
+
+    private static void open(final Circuit circuit) {
+        circuit.state = State.OPEN;
+        circuit.openedAt = System.nanoTime();
+    }
+
+    private class Circuit {
+
+        private final AtomicInteger failures = new AtomicInteger();
+        private final Call closedCall = new Call(this, false);
+        private volatile State state = State.CLOSED;
+        private long openedAt;
+        private int probes;
+    }
+}
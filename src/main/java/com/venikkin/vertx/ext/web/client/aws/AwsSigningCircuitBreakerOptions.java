@@ -0,0 +1,106 @@
+package com.venikkin.vertx.ext.web.client.aws;
+
+import io.vertx.ext.web.client.HttpRequest;
+
+import java.util.Arrays;
+import java.util.HashSet;
+import java.util.Set;
+import java.util.function.Function;
+
+public class AwsSigningCircuitBreakerOptions {
+
+    // clients of the same Vertx instance using the same name share circuit state
+    private String name = "default";
+    private int failureThreshold = 5;
+    // time in milliseconds an open circuit waits before letting probes through
+    private long resetTimeout = 30_000;
+    private int halfOpenMaxProbes = 1;
+    private Set<Integer> failureStatusCodes = new HashSet<>(Arrays.asList(500, 502, 503, 504));
+    private Function<HttpRequest<?>, String> endpointKeyFunction = AwsSigningEndpoints::defaultKey;
+    // once more endpoints are tracked, closed circuits without failures are forgotten
+    private int maxEndpoints = 1024;
+
+    public String getName() {
+        return name;
+    }
+
+    public AwsSigningCircuitBreakerOptions setName(final String name) {
+        this.name = name;
+        return this;
+    }
+
+    public int getFailureThreshold() {
+        return failureThreshold;
+    }
+
+    public AwsSigningCircuitBreakerOptions setFailureThreshold(final int failureThreshold) {
+        if (failureThreshold < 1) {
+            throw new IllegalArgumentException("failureThreshold must be positive");
+        }
+        this.failureThreshold = failureThreshold;
+        return this;
+    }
+
+    public long getResetTimeout() {
+        return resetTimeout;
+    }
+
+    public AwsSigningCircuitBreakerOptions setResetTimeout(final long resetTimeout) {
+        this.resetTimeout = resetTimeout;
+        return this;
+    }
+
+    public int getHalfOpenMaxProbes() {
+        return halfOpenMaxProbes;
+    }
+
+    public AwsSigningCircuitBreakerOptions setHalfOpenMaxProbes(final int halfOpenMaxProbes) {
+        if (halfOpenMaxProbes < 1) {
+            throw new IllegalArgumentException("halfOpenMaxProbes must be positive");
+        }
+        this.halfOpenMaxProbes = halfOpenMaxProbes;
+        return this;
+    }
+
+    public Set<Integer> getFailureStatusCodes() {
+        return failureStatusCodes;
+    }
+
+    public AwsSigningCircuitBreakerOptions setFailureStatusCodes(final Set<Integer> failureStatusCodes) {
+        this.failureStatusCodes = failureStatusCodes;
+        return this;
+    }
+
+    public Function<HttpRequest<?>, String> getEndpointKeyFunction() {
+        return endpointKeyFunction;
+    }
+
+    public AwsSigningCircuitBreakerOptions setEndpointKeyFunction(
+            final Function<HttpRequest<?>, String> endpointKeyFunction) {
+        this.endpointKeyFunction = endpointKeyFunction;
+        return this;
+    }
+
+    public int getMaxEndpoints() {
+        return maxEndpoints;
+    }
+
+    public AwsSigningCircuitBreakerOptions setMaxEndpoints(final int maxEndpoints) {
+        if (maxEndpoints < 1) {
+            throw new IllegalArgumentException("maxEndpoints must be positive");
+        }
+        this.maxEndpoints = maxEndpoints;
+        return this;
+    }
+
+    public AwsSigningCircuitBreakerOptions copy() {
+        return new AwsSigningCircuitBreakerOptions()
+                .setName(name)
+                .setFailureThreshold(failureThreshold)
+                .setResetTimeout(resetTimeout)
+                .setHalfOpenMaxProbes(halfOpenMaxProbes)
+                .setFailureStatusCodes(new HashSet<>(failureStatusCodes))
+                .setEndpointKeyFunction(endpointKeyFunction)
+                .setMaxEndpoints(maxEndpoints);
+    }
+}
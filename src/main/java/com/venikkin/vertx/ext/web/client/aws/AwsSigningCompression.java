@@ -0,0 +1,121 @@
+package com.venikkin.vertx.ext.web.client.aws;
+
+import io.netty.buffer.ByteBuf;
+import io.netty.util.concurrent.FastThreadLocal;
+import io.vertx.core.buffer.Buffer;
+
+import java.security.MessageDigest;
+import java.util.zip.CRC32;
+import java.util.zip.Deflater;
+
+// Compresses a request body and hashes the compressed bytes as they are produced, so the payload hash costs
+// no second pass. Deflaters and chunk arrays are reused by the thread compressing with them.
+final class AwsSigningCompression {
+
+    private static final int CHUNK_SIZE = 64 * 1024;
+    // magic, deflate method, no flags, no modification time, no extra flags, unknown OS
+    private static final byte[] GZIP_HEADER = {0x1f, (byte) 0x8b, Deflater.DEFLATED, 0, 0, 0, 0, 0, 0, (byte) 0xff};
+
+    private static final FastThreadLocal<State> STATE = new FastThreadLocal<State>() {
+        @Override
+        protected State initialValue() {
+            return new State();
+        }
+    };
+
+    private AwsSigningCompression() {
+    }
+
+    static final class Compressed {
+
+        final Buffer body;
+        final String payloadHash;
+
+        private Compressed(final Buffer body, final String payloadHash) {
+            this.body = body;
+            this.payloadHash = payloadHash;
+        }
+    }
+
+    static boolean applies(final AwsSigningCompressionOptions options, final Buffer body) {
+        return options != null && body != null && body.length() >= options.getMinSize();
+    }
+
+    static Compressed compress(final AwsSigningCompressionOptions options, final Buffer body,
+                               final MessageDigest digest) {
+        final boolean gzip = AwsSigningCompressionOptions.GZIP.equals(options.getEncoding());
+        final State state = STATE.get();
+        // gzip frames raw deflate data itself, deflate is the zlib format
+        final Deflater deflater = gzip ? state.raw : state.zlib;
+        deflater.reset();
+        deflater.setLevel(options.getLevel());
+        final CRC32 crc = gzip ? state.crc : null;
+        if (crc != null) {
+            crc.reset();
+        }
+        digest.reset();
+
+        final Buffer compressed = Buffer.buffer(Math.max(256, body.length() / 4));
+        if (gzip) {
+            append(compressed, digest, GZIP_HEADER, GZIP_HEADER.length);
+        }
+        final ByteBuf input = body.getByteBuf();
+        if (input.hasArray()) {
+            deflate(state, deflater, crc, compressed, digest, input.array(),
+                    input.arrayOffset() + input.readerIndex(), input.readableBytes());
+        } else {
+            for (int offset = input.readerIndex(); offset < input.writerIndex(); offset += CHUNK_SIZE) {
+                final int length = Math.min(CHUNK_SIZE, input.writerIndex() - offset);
+                input.getBytes(offset, state.input, 0, length);
+                deflate(state, deflater, crc, compressed, digest, state.input, 0, length);
+            }
+        }
+        deflater.finish();
+        while (!deflater.finished()) {
+            append(compressed, digest, state.output, deflater.deflate(state.output, 0, CHUNK_SIZE));
+        }
+        if (gzip) {
+            final byte[] trailer = state.trailer;
+            littleEndian(trailer, 0, (int) crc.getValue());
+            littleEndian(trailer, 4, body.length());
+            append(compressed, digest, trailer, trailer.length);
+        }
+        return new Compressed(compressed, AwsSigV4.hex(digest.digest()));
+    }
+
+    private static void deflate(final State state, final Deflater deflater, final CRC32 crc, final Buffer compressed,
+                                final MessageDigest digest, final byte[] bytes, final int offset, final int length) {
+        if (crc != null) {
+            crc.update(bytes, offset, length);
+        }
+        deflater.setInput(bytes, offset, length);
+        while (!deflater.needsInput()) {
+            append(compressed, digest, state.output, deflater.deflate(state.output, 0, CHUNK_SIZE));
+        }
+    }
+
+    private static void append(final Buffer compressed, final MessageDigest digest, final byte[] bytes,
+                               final int length) {
+        if (length > 0) {
+            digest.update(bytes, 0, length);
+            compressed.appendBytes(bytes, 0, length);
+        }
+    }
+
+    private static void littleEndian(final byte[] bytes, final int offset, final int value) {
+        bytes[offset] = (byte) value;
+        bytes[offset + 1] = (byte) (value >>> 8);
+        bytes[offset + 2] = (byte) (value >>> 16);
+        bytes[offset + 3] = (byte) (value >>> 24);
+    }
+
+    private static final class State {
+
+        private final Deflater raw = new Deflater(Deflater.DEFAULT_COMPRESSION, true);
+        private final Deflater zlib = new Deflater(Deflater.DEFAULT_COMPRESSION, false);
+        private final CRC32 crc = new CRC32();
+        private final byte[] input = new byte[CHUNK_SIZE];
+        private final byte[] output = new byte[CHUNK_SIZE];
+        private final byte[] trailer = new byte[8];
+    }
+}
@@ -0,0 +1,54 @@
+package com.venikkin.vertx.ext.web.client.aws;
+
+import java.util.zip.Deflater;
+
+public class AwsSigningCompressionOptions {
+
+    public static final String GZIP = "gzip";
+    public static final String DEFLATE = "deflate";
+
+    private String encoding = GZIP;
+    // smaller bodies are sent as they are, the encoding overhead would outweigh the savings
+    private int minSize = 1024;
+    private int level = Deflater.DEFAULT_COMPRESSION;
+
+    public String getEncoding() {
+        return encoding;
+    }
+
+    public AwsSigningCompressionOptions setEncoding(final String encoding) {
+        if (!GZIP.equals(encoding) && !DEFLATE.equals(encoding)) {
+            throw new IllegalArgumentException("encoding must be gzip or deflate");
+        }
+        this.encoding = encoding;
+        return this;
+    }
+
+    public int getMinSize() {
+        return minSize;
+    }
+
+    public AwsSigningCompressionOptions setMinSize(final int minSize) {
+        this.minSize = minSize;
+        return this;
+    }
+
+    public int getLevel() {
+        return level;
+    }
+
+    public AwsSigningCompressionOptions setLevel(final int level) {
+        if (level != Deflater.DEFAULT_COMPRESSION && (level < Deflater.NO_COMPRESSION || level > Deflater.BEST_COMPRESSION)) {
+            throw new IllegalArgumentException("level must be between 0 and 9, or -1 for the default");
+        }
+        this.level = level;
+        return this;
+    }
+
+    public AwsSigningCompressionOptions copy() {
+        return new AwsSigningCompressionOptions()
+                .setEncoding(encoding)
+                .setMinSize(minSize)
+                .setLevel(level);
+    }
+}
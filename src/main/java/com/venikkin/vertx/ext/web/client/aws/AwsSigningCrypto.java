@@ -0,0 +1,33 @@
+package com.venikkin.vertx.ext.web.client.aws;
+
+import javax.crypto.Mac;
+import java.security.MessageDigest;
+import java.security.Provider;
+import java.security.Security;
+
+// Source of the SHA-256 digests and HMAC-SHA256 macs used for signing. Instances are created once
+// per thread and reused, so implementations only need to hand out fresh, independent objects.
+public interface AwsSigningCrypto {
+
+    // engines and their thread-confined state are shared between clients using the same name
+    String name();
+
+    MessageDigest sha256();
+
+    Mac hmacSha256();
+
+    static AwsSigningCrypto jca() {
+        return JcaAwsSigningCrypto.DEFAULT;
+    }
+
+    // falls back to the default JCA providers when the named one is not installed
+    static AwsSigningCrypto provider(final String providerName) {
+        final Provider provider = Security.getProvider(providerName);
+        return provider != null ? new JcaAwsSigningCrypto(provider) : jca();
+    }
+
+    // Amazon Corretto Crypto Provider when it is installed, the default JCA providers otherwise
+    static AwsSigningCrypto defaultCrypto() {
+        return provider(JcaAwsSigningCrypto.CORRETTO_PROVIDER_NAME);
+    }
+}
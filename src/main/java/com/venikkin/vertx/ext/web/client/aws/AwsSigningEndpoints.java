@@ -0,0 +1,23 @@
+package com.venikkin.vertx.ext.web.client.aws;
+
+import io.vertx.ext.web.client.HttpRequest;
+import io.vertx.uritemplate.UriTemplate;
+import io.vertx.uritemplate.Variables;
+
+final class AwsSigningEndpoints {
+
+    private AwsSigningEndpoints() {
+    }
+
+    // method, host and path, API Gateway throttles per stage and method. Requests sent from a URI template share one
+    // key, the template expanded without any of its variables
+    static String defaultKey(final HttpRequest<?> request) {
+        final UriTemplate template = request instanceof AwsSigningHttpRequest
+                ? ((AwsSigningHttpRequest<?>) request).uriTemplate()
+                : null;
+        final String uri = template != null ? template.expandToString(Variables.variables()) : request.uri();
+        final int queryStart = uri.indexOf('?');
+        return request.method().name() + ' ' + request.host() + ':' + request.port()
+                + (queryStart >= 0 ? uri.substring(0, queryStart) : uri);
+    }
+}
@@ -0,0 +1,455 @@
+package com.venikkin.vertx.ext.web.client.aws;
+
+import io.netty.util.concurrent.FastThreadLocal;
+import io.vertx.core.MultiMap;
+import io.vertx.core.Vertx;
+import io.vertx.core.buffer.Buffer;
+import io.vertx.core.shareddata.LocalMap;
+import io.vertx.core.shareddata.Shareable;
+import io.vertx.ext.web.client.HttpRequest;
+import io.vertx.uritemplate.UriTemplate;
+import io.vertx.uritemplate.Variables;
+import software.amazon.awssdk.auth.credentials.AwsCredentials;
+import software.amazon.awssdk.auth.credentials.AwsCredentialsProvider;
+import software.amazon.awssdk.auth.credentials.AwsSessionCredentials;
+import software.amazon.awssdk.regions.Region;
+
+import javax.crypto.Mac;
+import javax.crypto.spec.SecretKeySpec;
+import java.nio.charset.StandardCharsets;
+import java.security.InvalidKeyException;
+import java.security.MessageDigest;
+import java.time.Instant;
+import java.util.AbstractMap;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.TimeUnit;
+
+// Signs requests and holds the caches worth sharing between clients: resolved credentials,
+// derived signing keys, canonical paths and parsed uri templates. One engine is shared by all clients
+// of a Vertx instance using the same crypto. Digests and macs are confined to the thread signing with them,
+// event loop and worker threads of Vertx are FastThreadLocalThreads, so getting them is an indexed array read.
+final class AwsSigningEngine implements Shareable {
+
+    private static final String SHARED_MAP_NAME = "__vertx.web.client.aws.signingEngines";
+    // sized for a client signing on behalf of a few hundred tenants
+    private static final int MAX_CREDENTIALS = 1024;
+    private static final int MAX_SIGNING_KEYS = 1024;
+    private static final int MAX_CANONICAL_PATHS = 4096;
+    private static final int MAX_URI_TEMPLATES = 1024;
+
+    // one thread local for every engine, so engines that are not shared leave nothing behind on the threads
+    private static final FastThreadLocal<CryptoStates> CRYPTO_STATES = new FastThreadLocal<CryptoStates>() {
+        @Override
+        protected CryptoStates initialValue() {
+            return new CryptoStates();
+        }
+    };
+
+    private final AwsSigningLruCache<AwsCredentialsProvider, ResolvedCredentials> credentials =
+            new AwsSigningLruCache<>(MAX_CREDENTIALS);
+    private final AwsSigningLruCache<SigningKeyId, byte[]> signingKeys = new AwsSigningLruCache<>(MAX_SIGNING_KEYS);
+    private final ConcurrentMap<String, String> canonicalPaths = new ConcurrentHashMap<>();
+    private final ConcurrentMap<String, AwsSigningUriTemplate> uriTemplates = new ConcurrentHashMap<>();
+    private final AwsSigningCrypto crypto;
+
+    AwsSigningEngine(final AwsSigningCrypto crypto) {
+        this.crypto = crypto;
+    }
+
+    static AwsSigningEngine shared(final Vertx vertx, final AwsSigningCrypto crypto) {
+        final LocalMap<String, AwsSigningEngine> engines = vertx.sharedData().getLocalMap(SHARED_MAP_NAME);
+        final AwsSigningEngine existing = engines.get(crypto.name());
+        if (existing != null) {
+            return existing;
+        }
+        final AwsSigningEngine created = new AwsSigningEngine(crypto);
+        final AwsSigningEngine raced = engines.putIfAbsent(crypto.name(), created);
+        return raced != null ? raced : created;
+    }
+
+    AwsSigningCrypto crypto() {
+        return crypto;
+    }
+
+    void sign(final AwsSigningOptions options, final HttpRequest<?> request, final String protocol,
+              final String payloadHash) {
+        sign(options, options.getCredentialsProvider(), options.getRegion(), options.getServiceName(),
+                request, protocol, payloadHash, null);
+    }
+
+    void sign(final AwsSigningOptions options, final AwsCredentialsProvider credentialsProvider,
+              final Region signingRegion, final String service, final HttpRequest<?> request, final String protocol,
+              final String payloadHash, final AwsSigningTrace trace) {
+        sign(options, credentialsProvider, signingRegion, service, request, null, protocol, payloadHash, trace, null);
+    }
+
+    // credentials provider, region and service may differ from the options for requests signed on behalf of a tenant,
+    // template is the uri template of the request if it has one, trace and capture are null for requests which
+    // are not traced or captured
+    void sign(final AwsSigningOptions options, final AwsCredentialsProvider credentialsProvider,
+              final Region signingRegion, final String service, final HttpRequest<?> request,
+              final UriTemplate template, final String protocol, final String payloadHash,
+              final AwsSigningTrace trace, final AwsSigningCaptureEntry capture) {
+        final long credentialsStart = System.nanoTime();
+        final AwsCredentials cachedCredentials =
+                cachedCredentials(credentialsProvider, options.getCredentialsCacheTtl(), credentialsStart);
+        final AwsCredentials awsCredentials = cachedCredentials != null
+                ? cachedCredentials
+                : refreshCredentials(credentialsProvider, options.getCredentialsCacheTtl());
+        if (trace != null) {
+            trace.credentials(credentialsStart, System.nanoTime(), cachedCredentials != null);
+        }
+        final long signatureStart = trace != null ? System.nanoTime() : 0L;
+        final String region = signingRegion.id();
+        final Instant signedAt = signingInstant(options);
+        final AwsSigningHeaders.AmzDate signingDate = AwsSigningHeaders.AmzDate.of(signedAt);
+        final String amzDate = signingDate.value;
+        final String dateStamp = signingDate.dateStamp;
+        final String host = AwsSigV4.host(request.host(), request.port(), protocol);
+        final String sessionToken = awsCredentials instanceof AwsSessionCredentials
+                ? ((AwsSessionCredentials) awsCredentials).sessionToken()
+                : null;
+        // S3 wants the payload hash as a signed header
+        final boolean s3 = AwsSigV4.S3.equals(service);
+        final String signedHeaders = AwsSigningHeaders.signedHeaders(s3, sessionToken != null);
+
+        // query parameters first, vertx moves a query string given in the uri into them
+        final MultiMap queryParams = request.queryParams();
+        final String canonicalPath;
+        final String canonicalQuery;
+        if (template == null) {
+            canonicalPath = canonicalPath(request.uri(), service);
+            canonicalQuery = AwsSigV4.canonicalQuery(queryParams);
+        } else {
+            final AwsSigningUriTemplate signingTemplate = uriTemplate(template);
+            final Variables variables = request.templateParams();
+            canonicalPath = signingTemplate.canonicalPath(variables, !s3);
+            canonicalQuery = AwsSigV4.canonicalQuery(signingTemplate.queryParams(variables, queryParams));
+        }
+        final CryptoState state = cryptoState();
+        final StringBuilder canonicalRequest = state.canonicalRequest()
+                .append(request.method().name()).append('\n')
+                .append(canonicalPath).append('\n')
+                .append(canonicalQuery).append('\n')
+                .append("host:").append(host).append('\n');
+        if (s3) {
+            canonicalRequest.append("x-amz-content-sha256:").append(payloadHash).append('\n');
+        }
+        canonicalRequest.append("x-amz-date:").append(amzDate).append('\n');
+        if (sessionToken != null) {
+            canonicalRequest.append("x-amz-security-token:").append(sessionToken).append('\n');
+        }
+        canonicalRequest.append('\n')
+                .append(signedHeaders).append('\n')
+                .append(payloadHash);
+
+        final String scope = AwsSigV4.scope(dateStamp, region, service);
+        final String canonical = canonicalRequest.toString();
+        final String stringToSign = AwsSigV4.stringToSign(state.digest, amzDate, scope, canonical);
+        final SigningKeyId signingKeyId =
+                new SigningKeyId(awsCredentials.secretAccessKey(), dateStamp, region, service);
+        final byte[] cachedSigningKey = signingKeys.get(signingKeyId);
+        final byte[] signingKey = cachedSigningKey != null ? cachedSigningKey : deriveSigningKey(state, signingKeyId);
+        final byte[] signature = state.hmac(signingKey, stringToSign);
+
+        final MultiMap headers = request.headers();
+        headers.set(AwsSigningHeaders.HOST, host);
+        if (s3) {
+            headers.set(AwsSigningHeaders.X_AMZ_CONTENT_SHA256, payloadHash);
+        }
+        headers.set(AwsSigningHeaders.X_AMZ_DATE, signingDate.header);
+        if (sessionToken != null) {
+            headers.set(AwsSigningHeaders.X_AMZ_SECURITY_TOKEN, sessionToken);
+        }
+        headers.set(AwsSigningHeaders.AUTHORIZATION,
+                AwsSigningHeaders.authorization(awsCredentials.accessKeyId(), scope, signedHeaders, signature));
+        if (trace != null) {
+            trace.signature(signatureStart, System.nanoTime(), cachedSigningKey != null);
+        }
+        if (capture != null) {
+            capture.signed(awsCredentials.accessKeyId(), signedAt, sessionToken != null
+                    ? canonical.replace(sessionToken, AwsSigningCaptureEntry.REDACTED)
+                    : canonical, stringToSign);
+        }
+    }
+
+    // query string SigV4, for requests that cannot carry signing headers such as WebSocket handshakes.
+    // Returns the X-Amz-* parameters to append to the query of the request.
+    String presign(final AwsSigningOptions options, final AwsCredentials awsCredentials,
+                   final Region signingRegion, final String service, final String method, final String host,
+                   final String path, final Iterable<Map.Entry<String, String>> queryParams,
+                   final long expiresSeconds) {
+        final String region = signingRegion.id();
+        final String amzDate = AwsSigV4.AMZ_DATE_FORMAT.format(signingInstant(options));
+        final String dateStamp = amzDate.substring(0, 8);
+        final String scope = AwsSigV4.scope(dateStamp, region, service);
+
+        final List<Map.Entry<String, String>> signingParams = new ArrayList<>();
+        signingParams.add(new AbstractMap.SimpleImmutableEntry<>("X-Amz-Algorithm", AwsSigV4.ALGORITHM));
+        signingParams.add(new AbstractMap.SimpleImmutableEntry<>("X-Amz-Credential",
+                awsCredentials.accessKeyId() + '/' + scope));
+        signingParams.add(new AbstractMap.SimpleImmutableEntry<>("X-Amz-Date", amzDate));
+        signingParams.add(new AbstractMap.SimpleImmutableEntry<>("X-Amz-Expires", Long.toString(expiresSeconds)));
+        signingParams.add(new AbstractMap.SimpleImmutableEntry<>("X-Amz-SignedHeaders", "host"));
+        if (awsCredentials instanceof AwsSessionCredentials) {
+            signingParams.add(new AbstractMap.SimpleImmutableEntry<>("X-Amz-Security-Token",
+                    ((AwsSessionCredentials) awsCredentials).sessionToken()));
+        }
+        final List<Map.Entry<String, String>> allParams = new ArrayList<>(signingParams);
+        queryParams.forEach(allParams::add);
+
+        final String canonicalRequest = method + '\n'
+                + canonicalPath(path, service) + '\n'
+                + AwsSigV4.canonicalQuery(allParams) + '\n'
+                + "host:" + host + '\n'
+                + '\n'
+                + "host" + '\n'
+                + (AwsSigV4.S3.equals(service) ? AwsSigV4.UNSIGNED_PAYLOAD : AwsSigV4.EMPTY_PAYLOAD_HASH);
+        final String signature = signature(awsCredentials.secretAccessKey(), amzDate, region, service,
+                canonicalRequest);
+
+        final StringBuilder query = new StringBuilder(512);
+        for (final Map.Entry<String, String> param : signingParams) {
+            query.append(param.getKey()).append('=').append(AwsSigV4.urlEncode(param.getValue(), false)).append('&');
+        }
+        return query.append("X-Amz-Signature=").append(signature).toString();
+    }
+
+    // resolves credentials, derives today's signing key and runs the whole signing path a few times
+    void warmUp(final AwsSigningOptions options, final HttpRequest<?> request, final int signatures) {
+        resolveCredentials(options.getCredentialsProvider(), options.getCredentialsCacheTtl());
+        for (int i = 0; i < signatures; i++) {
+            sign(options, request, "https", payloadHash(null));
+        }
+    }
+
+    String payloadHash(final Buffer body) {
+        if (body == null || body.length() == 0) {
+            return AwsSigV4.EMPTY_PAYLOAD_HASH;
+        }
+        final MessageDigest digest = cryptoState().digest;
+        digest.update(body.getByteBuf().nioBuffer());
+        return AwsSigV4.hex(digest.digest());
+    }
+
+    // confined to the calling thread, must not be held across event loop turns
+    MessageDigest digest() {
+        return cryptoState().digest;
+    }
+
+    // for bodies hashed chunk by chunk across event loop turns, the thread-confined digest cannot be held that long
+    MessageDigest newDigest() {
+        return crypto.sha256();
+    }
+
+    // signature of a canonical request built by the caller, used to verify incoming requests
+    String signature(final String secretAccessKey, final String amzDate, final String region, final String service,
+                     final String canonicalRequest) {
+        final CryptoState state = cryptoState();
+        final String dateStamp = amzDate.substring(0, 8);
+        final String stringToSign = AwsSigV4.stringToSign(state.digest, amzDate,
+                AwsSigV4.scope(dateStamp, region, service), canonicalRequest);
+        final SigningKeyId id = new SigningKeyId(secretAccessKey, dateStamp, region, service);
+        final byte[] cached = signingKeys.get(id);
+        return AwsSigV4.hex(state.hmac(cached != null ? cached : deriveSigningKey(state, id), stringToSign));
+    }
+
+    AwsCredentials resolveCredentials(final AwsCredentialsProvider provider, final long ttlMillis) {
+        final AwsCredentials cached = cachedCredentials(provider, ttlMillis, System.nanoTime());
+        return cached != null ? cached : refreshCredentials(provider, ttlMillis);
+    }
+
+    byte[] signingKey(final AwsCredentials awsCredentials, final String dateStamp, final String region,
+                      final String service) {
+        final SigningKeyId id = new SigningKeyId(awsCredentials.secretAccessKey(), dateStamp, region, service);
+        final byte[] cached = signingKeys.get(id);
+        return cached != null ? cached : deriveSigningKey(cryptoState(), id);
+    }
+
+    private AwsCredentials cachedCredentials(final AwsCredentialsProvider provider, final long ttlMillis,
+                                             final long now) {
+        if (ttlMillis <= 0) {
+            return null;
+        }
+        final ResolvedCredentials cached = credentials.get(provider);
+        if (cached != null && now - cached.resolvedAt < TimeUnit.MILLISECONDS.toNanos(ttlMillis)) {
+            return cached.credentials;
+        }
+        return null;
+    }
+
+    private AwsCredentials refreshCredentials(final AwsCredentialsProvider provider, final long ttlMillis) {
+        final long now = System.nanoTime();
+        final AwsCredentials resolved = provider.resolveCredentials();
+        if (ttlMillis > 0) {
+            credentials.put(provider, new ResolvedCredentials(resolved, now));
+        }
+        return resolved;
+    }
+
+    private byte[] deriveSigningKey(final CryptoState state, final SigningKeyId id) {
+        final byte[] key = AwsSigV4.signingKey(state.mac, id.secretAccessKey, id.dateStamp, id.region, id.service);
+        // the derivation left the mac keyed with an intermediate key
+        state.macKey = null;
+        signingKeys.put(id, key);
+        return key;
+    }
+
+    // S3 signs the path as it is sent, other services sign it encoded once more
+    String canonicalPath(final String path, final String service) {
+        return AwsSigV4.S3.equals(service) ? AwsSigV4.canonicalPath(path, false) : canonicalPath(path);
+    }
+
+    String canonicalPath(final String path) {
+        final String cached = canonicalPaths.get(path);
+        if (cached != null) {
+            return cached;
+        }
+        final String canonical = AwsSigV4.canonicalPath(path, true);
+        if (canonicalPaths.size() >= MAX_CANONICAL_PATHS) {
+            canonicalPaths.clear();
+        }
+        canonicalPaths.put(path, canonical);
+        return canonical;
+    }
+
+    // UriTemplate keeps its source as its string form, templates built per request share the parsed one
+    AwsSigningUriTemplate uriTemplate(final UriTemplate template) {
+        final String source = template.toString();
+        final AwsSigningUriTemplate cached = uriTemplates.get(source);
+        if (cached != null) {
+            return cached;
+        }
+        final AwsSigningUriTemplate parsed = AwsSigningUriTemplate.parse(source);
+        if (uriTemplates.size() >= MAX_URI_TEMPLATES) {
+            uriTemplates.clear();
+        }
+        uriTemplates.put(source, parsed);
+        return parsed;
+    }
+
+    // like the SDK signer, a clock override wins and the time offset only corrects the system clock
+    private static Instant signingInstant(final AwsSigningOptions options) {
+        if (options.getClock() != null) {
+            return options.getClock().instant();
+        }
+        final Integer timeOffset = options.getTimeOffset();
+        final Instant now = Instant.now();
+        return timeOffset != null ? now.minusSeconds(timeOffset) : now;
+    }
+
+    private CryptoState cryptoState() {
+        return CRYPTO_STATES.get().of(crypto);
+    }
+
+    // states of a thread by crypto name, the one used last is checked first
+    private static class CryptoStates {
+
+        private final Map<String, CryptoState> byName = new HashMap<>(4);
+        private String lastName;
+        private CryptoState last;
+
+        private CryptoState of(final AwsSigningCrypto crypto) {
+            final String name = crypto.name();
+            if (name.equals(lastName)) {
+                return last;
+            }
+            CryptoState state = byName.get(name);
+            if (state == null) {
+                state = new CryptoState(crypto.sha256(), crypto.hmacSha256());
+                byName.put(name, state);
+            }
+            lastName = name;
+            last = state;
+            return state;
+        }
+    }
+
+    private static class CryptoState {
+
+        private final MessageDigest digest;
+        private final Mac mac;
+        // the signing key the mac is initialized with, doFinal resets the mac to it
+        private byte[] macKey;
+        // canonical requests are built in the same builder, it grows to the largest one signed on the thread
+        private final StringBuilder canonicalRequest = new StringBuilder(512);
+
+        private CryptoState(final MessageDigest digest, final Mac mac) {
+            this.digest = digest;
+            this.mac = mac;
+        }
+
+        private StringBuilder canonicalRequest() {
+            canonicalRequest.setLength(0);
+            return canonicalRequest;
+        }
+
+        private byte[] hmac(final byte[] key, final String data) {
+            if (key != macKey) {
+                macKey = null;
+                try {
+                    mac.init(new SecretKeySpec(key, AwsSigV4.HMAC_SHA256));
+                } catch (InvalidKeyException e) {
+                    throw new IllegalStateException(e);
+                }
+                macKey = key;
+            }
+            return mac.doFinal(data.getBytes(StandardCharsets.UTF_8));
+        }
+    }
+
+    private static class ResolvedCredentials {
+
+        private final AwsCredentials credentials;
+        private final long resolvedAt;
+
+        private ResolvedCredentials(final AwsCredentials credentials, final long resolvedAt) {
+            this.credentials = credentials;
+            this.resolvedAt = resolvedAt;
+        }
+    }
+
+    private static class SigningKeyId {
+
+        private final String secretAccessKey;
+        private final String dateStamp;
+        private final String region;
+        private final String service;
+        private final int hash;
+
+        private SigningKeyId(final String secretAccessKey, final String dateStamp, final String region,
+                             final String service) {
+            this.secretAccessKey = secretAccessKey;
+            this.dateStamp = dateStamp;
+            this.region = region;
+            this.service = service;
+            this.hash = Objects.hash(secretAccessKey, dateStamp, region, service);
+        }
+
+        @Override
+        public boolean equals(final Object o) {
+            if (this == o) {
+                return true;
+            }
+            if (!(o instanceof SigningKeyId)) {
+                return false;
+            }
+            final SigningKeyId that = (SigningKeyId) o;
+            return secretAccessKey.equals(that.secretAccessKey)
+                    && dateStamp.equals(that.dateStamp)
+                    && region.equals(that.region)
+                    && service.equals(that.service);
+        }
+
+        @Override
+        public int hashCode() {
+            return hash;
+        }
+    }
+}
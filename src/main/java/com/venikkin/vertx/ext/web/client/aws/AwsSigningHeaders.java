@@ -0,0 +1,99 @@
+package com.venikkin.vertx.ext.web.client.aws;
+
+import io.netty.util.AsciiString;
+
+import java.nio.charset.StandardCharsets;
+import java.time.Instant;
+
+// Header names written by the signer, as AsciiString constants the http codec copies without encoding,
+// and the values that only change once a second
+final class AwsSigningHeaders {
+
+    static final AsciiString HOST = AsciiString.cached("Host");
+    static final AsciiString X_AMZ_CONTENT_SHA256 = AsciiString.cached("X-Amz-Content-Sha256");
+    static final AsciiString X_AMZ_DATE = AsciiString.cached("X-Amz-Date");
+    static final AsciiString X_AMZ_SECURITY_TOKEN = AsciiString.cached("X-Amz-Security-Token");
+    static final AsciiString AUTHORIZATION = AsciiString.cached("Authorization");
+    static final AsciiString X_API_KEY = AsciiString.cached("x-api-key");
+
+    // signed header lists of the four shapes a request can take
+    static final String SIGNED_HEADERS = "host;x-amz-date";
+    static final String SIGNED_HEADERS_SESSION = "host;x-amz-date;x-amz-security-token";
+    static final String SIGNED_HEADERS_S3 = "host;x-amz-content-sha256;x-amz-date";
+    static final String SIGNED_HEADERS_S3_SESSION = "host;x-amz-content-sha256;x-amz-date;x-amz-security-token";
+
+    private static final String CREDENTIAL = AwsSigV4.ALGORITHM + " Credential=";
+    private static final String SIGNED_HEADERS_PREFIX = ", SignedHeaders=";
+    private static final String SIGNATURE_PREFIX = ", Signature=";
+    private static final byte[] HEX = "0123456789abcdef".getBytes(StandardCharsets.US_ASCII);
+
+    private AwsSigningHeaders() {
+    }
+
+    static String signedHeaders(final boolean s3, final boolean session) {
+        if (s3) {
+            return session ? SIGNED_HEADERS_S3_SESSION : SIGNED_HEADERS_S3;
+        }
+        return session ? SIGNED_HEADERS_SESSION : SIGNED_HEADERS;
+    }
+
+    // the Authorization value written straight into its ascii bytes, the signature is hex encoded in place
+    static AsciiString authorization(final String accessKeyId, final String scope, final String signedHeaders,
+                                     final byte[] signature) {
+        final byte[] value = new byte[CREDENTIAL.length() + accessKeyId.length() + 1 + scope.length()
+                + SIGNED_HEADERS_PREFIX.length() + signedHeaders.length()
+                + SIGNATURE_PREFIX.length() + signature.length * 2];
+        int i = ascii(CREDENTIAL, value, 0);
+        i = ascii(accessKeyId, value, i);
+        value[i++] = '/';
+        i = ascii(scope, value, i);
+        i = ascii(SIGNED_HEADERS_PREFIX, value, i);
+        i = ascii(signedHeaders, value, i);
+        i = ascii(SIGNATURE_PREFIX, value, i);
+        for (final byte b : signature) {
+            value[i++] = HEX[(b >> 4) & 0xf];
+            value[i++] = HEX[b & 0xf];
+        }
+        return new AsciiString(value, false);
+    }
+
+    private static int ascii(final String value, final byte[] bytes, final int offset) {
+        final int length = value.length();
+        for (int i = 0; i < length; i++) {
+            bytes[offset + i] = (byte) value.charAt(i);
+        }
+        return offset + length;
+    }
+
+    // X-Amz-Date and date stamp of one second, every request signed within that second shares them
+    static final class AmzDate {
+
+        private static volatile AmzDate current = new AmzDate(Long.MIN_VALUE, null);
+
+        final long epochSecond;
+        final String value;
+        final String dateStamp;
+        final AsciiString header;
+
+        private AmzDate(final long epochSecond, final String value) {
+            this.epochSecond = epochSecond;
+            this.value = value;
+            this.dateStamp = value != null ? value.substring(0, 8) : null;
+            this.header = value != null ? new AsciiString(value) : null;
+        }
+
+        static AmzDate of(final Instant instant) {
+            final AmzDate cached = current;
+            final long epochSecond = instant.getEpochSecond();
+            if (cached.epochSecond == epochSecond) {
+                return cached;
+            }
+            final AmzDate formatted = new AmzDate(epochSecond, AwsSigV4.AMZ_DATE_FORMAT.format(instant));
+            // requests signed with a skewed clock or an offset should not evict the second everybody else is in
+            if (epochSecond > cached.epochSecond) {
+                current = formatted;
+            }
+            return formatted;
+        }
+    }
+}
@@ -0,0 +1,189 @@
+package com.venikkin.vertx.ext.web.client.aws;
+
+import io.vertx.core.AsyncResult;
+import io.vertx.core.Context;
+import io.vertx.core.Handler;
+import io.vertx.core.Vertx;
+import io.vertx.core.buffer.Buffer;
+import io.vertx.core.http.HttpClientRequest;
+import io.vertx.ext.web.client.HttpResponse;
+import io.vertx.ext.web.client.WebClient;
+import io.vertx.ext.web.client.impl.ClientPhase;
+import io.vertx.ext.web.client.impl.HttpContext;
+import io.vertx.ext.web.client.impl.WebClientInternal;
+import io.vertx.ext.web.codec.impl.BodyCodecImpl;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.TimeUnit;
+
+class AwsSigningHedging {
+
+    private static final int SAMPLE_WINDOW = 1024;
+    private static final int RECOMPUTE_INTERVAL = 64;
+    private static final double BUDGET_CAPACITY = 10;
+
+    private final AwsSigningHedgingOptions options;
+    // attempts in flight by their vertx request, so the interceptor can find the connection to cancel
+    private final ConcurrentMap<Object, Attempt> attempts = new ConcurrentHashMap<>();
+
+    private final long[] samples = new long[SAMPLE_WINDOW];
+    private int sampleCount;
+    private int sampleIndex;
+    private int samplesSinceRecompute;
+    private long delayMillis;
+    private double budget = BUDGET_CAPACITY;
+
+    // the interceptor resetting losing connections is only added to a delegate the signing client created itself,
+    // a caller's web client is left as it is and a losing attempt there is discarded once it completes
+    AwsSigningHedging(final AwsSigningHedgingOptions options, final WebClient ownDelegate) {
+        this.options = options;
+        this.delayMillis = options.getInitialDelay();
+        if (ownDelegate instanceof WebClientInternal) {
+            ((WebClientInternal) ownDelegate).addInterceptor(this::intercept);
+        }
+    }
+
+    // only buffering codecs can take two responses, a pipe or streaming codec would see both attempts
+    boolean isHedgeable(final AwsSigningHttpRequest<?> request) {
+        return Vertx.currentContext() != null
+                && request.bodyCodec() instanceof BodyCodecImpl
+                && (request.idempotent() || options.getIdempotentMethods().contains(request.method()));
+    }
+
+    <T> void send(final AwsSigningHttpRequest<T> request, final Buffer body,
+                  final Handler<AsyncResult<HttpResponse<T>>> handler) {
+        final Context context = Vertx.currentContext();
+        final Exchange<T> exchange = new Exchange<>(context.owner(), handler);
+        deposit();
+        exchange.timerId = exchange.vertx.setTimer(hedgeDelay(), id -> {
+            if (!exchange.done && tryWithdraw()) {
+                start(exchange, request.hedgeCopy(), body);
+            }
+        });
+        start(exchange, request, body);
+    }
+
+    private <T> void start(final Exchange<T> exchange, final AwsSigningHttpRequest<T> request, final Buffer body) {
+        final Object key = request.unwrap();
+        final Attempt attempt = new Attempt(request);
+        attempts.put(key, attempt);
+        exchange.attempts.add(attempt);
+        exchange.outstanding++;
+        final long start = System.nanoTime();
+        request.execute(body, ar -> {
+            attempts.remove(key);
+            exchange.outstanding--;
+            if (ar.succeeded() && !attempt.cancelled) {
+                record(System.nanoTime() - start);
+            }
+            complete(exchange, attempt, ar);
+        });
+    }
+
+    private <T> void complete(final Exchange<T> exchange, final Attempt attempt,
+                              final AsyncResult<HttpResponse<T>> ar) {
+        if (exchange.done || ar.failed() && exchange.outstanding > 0) {
+            return;
+        }
+        exchange.done = true;
+        exchange.vertx.cancelTimer(exchange.timerId);
+        for (final Attempt other : exchange.attempts) {
+            if (other != attempt) {
+                other.cancel();
+            }
+        }
+        exchange.handler.handle(ar);
+    }
+
+    private void intercept(final HttpContext<?> context) {
+        if (context.phase() == ClientPhase.SEND_REQUEST) {
+            final Attempt attempt = attempts.get(context.request());
+            if (attempt != null) {
+                attempt.attach(context.clientRequest());
+            }
+        }
+        context.next();
+    }
+
+    private synchronized long hedgeDelay() {
+        if (sampleCount < options.getMinSamples()) {
+            return options.getInitialDelay();
+        }
+        if (samplesSinceRecompute >= RECOMPUTE_INTERVAL) {
+            samplesSinceRecompute = 0;
+            final long[] sorted = Arrays.copyOf(samples, sampleCount);
+            Arrays.sort(sorted);
+            final int index = (int) Math.ceil(options.getDelayPercentile() / 100 * sampleCount) - 1;
+            delayMillis = Math.max(options.getMinDelay(),
+                    TimeUnit.NANOSECONDS.toMillis(sorted[Math.max(0, index)]));
+        }
+        return delayMillis;
+    }
+
+    private synchronized void record(final long latencyNanos) {
+        samples[sampleIndex] = latencyNanos;
+        sampleIndex = (sampleIndex + 1) % SAMPLE_WINDOW;
+        if (sampleCount < SAMPLE_WINDOW) {
+            sampleCount++;
+        }
+        samplesSinceRecompute++;
+    }
+
+    private synchronized void deposit() {
+        budget = Math.min(BUDGET_CAPACITY, budget + options.getMaxHedgeRatio());
+    }
+
+    private synchronized boolean tryWithdraw() {
+        if (budget >= 1) {
+            budget -= 1;
+            return true;
+        }
+        return false;
+    }
+
+    private static class Exchange<T> {
+
+        private final Vertx vertx;
+        private final Handler<AsyncResult<HttpResponse<T>>> handler;
+        private final List<Attempt> attempts = new ArrayList<>(2);
+        private long timerId;
+        private int outstanding;
+        private boolean done;
+
+        private Exchange(final Vertx vertx, final Handler<AsyncResult<HttpResponse<T>>> handler) {
+            this.vertx = vertx;
+            this.handler = handler;
+        }
+    }
+
+    private static class Attempt {
+
+        private final AwsSigningHttpRequest<?> request;
+        private volatile HttpClientRequest clientRequest;
+        private volatile boolean cancelled;
+
+        private Attempt(final AwsSigningHttpRequest<?> request) {
+            this.request = request;
+        }
+
+        private void attach(final HttpClientRequest clientRequest) {
+            this.clientRequest = clientRequest;
+            if (cancelled) {
+                clientRequest.reset();
+            }
+        }
+
+        private void cancel() {
+            cancelled = true;
+            request.cancel();
+            final HttpClientRequest sent = clientRequest;
+            if (sent != null) {
+                sent.reset();
+            }
+        }
+    }
+}
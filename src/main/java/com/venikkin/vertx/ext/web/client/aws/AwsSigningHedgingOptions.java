@@ -0,0 +1,91 @@
+package com.venikkin.vertx.ext.web.client.aws;
+
+import io.vertx.core.http.HttpMethod;
+
+import java.util.Arrays;
+import java.util.HashSet;
+import java.util.Set;
+
+public class AwsSigningHedgingOptions {
+
+    // a hedge is sent once the primary request is slower than this percentile of observed latencies
+    private double delayPercentile = 95.0;
+    // delay in milliseconds used until enough latencies are observed
+    private long initialDelay = 100;
+    private long minDelay = 5;
+    private int minSamples = 100;
+    // share of requests that may be hedged, caps the extra load
+    private double maxHedgeRatio = 0.1;
+    private Set<HttpMethod> idempotentMethods =
+            new HashSet<>(Arrays.asList(HttpMethod.GET, HttpMethod.HEAD, HttpMethod.OPTIONS));
+
+    public double getDelayPercentile() {
+        return delayPercentile;
+    }
+
+    public AwsSigningHedgingOptions setDelayPercentile(final double delayPercentile) {
+        if (delayPercentile <= 0 || delayPercentile > 100) {
+            throw new IllegalArgumentException("delayPercentile must be between 0 and 100");
+        }
+        this.delayPercentile = delayPercentile;
+        return this;
+    }
+
+    public long getInitialDelay() {
+        return initialDelay;
+    }
+
+    public AwsSigningHedgingOptions setInitialDelay(final long initialDelay) {
+        this.initialDelay = initialDelay;
+        return this;
+    }
+
+    public long getMinDelay() {
+        return minDelay;
+    }
+
+    public AwsSigningHedgingOptions setMinDelay(final long minDelay) {
+        this.minDelay = minDelay;
+        return this;
+    }
+
+    public int getMinSamples() {
+        return minSamples;
+    }
+
+    public AwsSigningHedgingOptions setMinSamples(final int minSamples) {
+        this.minSamples = minSamples;
+        return this;
+    }
+
+    public double getMaxHedgeRatio() {
+        return maxHedgeRatio;
+    }
+
+    public AwsSigningHedgingOptions setMaxHedgeRatio(final double maxHedgeRatio) {
+        if (maxHedgeRatio < 0 || maxHedgeRatio > 1) {
+            throw new IllegalArgumentException("maxHedgeRatio must be between 0 and 1");
+        }
+        this.maxHedgeRatio = maxHedgeRatio;
+        return this;
+    }
+
+    public Set<HttpMethod> getIdempotentMethods() {
+        return idempotentMethods;
+    }
+
+    public AwsSigningHedgingOptions setIdempotentMethods(final Set<HttpMethod> idempotentMethods) {
+        this.idempotentMethods = idempotentMethods;
+        return this;
+    }
+
+    public AwsSigningHedgingOptions copy() {
+        return new AwsSigningHedgingOptions()
+                .setDelayPercentile(delayPercentile)
+                .setInitialDelay(initialDelay)
+                .setMinDelay(minDelay)
+                .setMinSamples(minSamples)
+                .setMaxHedgeRatio(maxHedgeRatio)
+                .setIdempotentMethods(new HashSet<>(idempotentMethods));
+    }
+}
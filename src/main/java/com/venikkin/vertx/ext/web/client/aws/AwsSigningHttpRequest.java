@@ -1,8 +1,13 @@
 package com.venikkin.vertx.ext.web.client.aws;
 
 import io.vertx.core.AsyncResult;
+import io.vertx.core.Context;
+import io.vertx.core.Future;
 import io.vertx.core.Handler;
 import io.vertx.core.MultiMap;
+import io.vertx.core.Promise;
+import io.vertx.core.Vertx;
+import io.vertx.core.WorkerExecutor;
 import io.vertx.core.buffer.Buffer;
 import io.vertx.core.http.HttpMethod;
 import io.vertx.core.json.Json;
@@ -16,38 +21,59 @@ import io.vertx.ext.web.client.impl.HttpRequestImpl;
 import io.vertx.ext.web.client.predicate.ResponsePredicate;
 import io.vertx.ext.web.codec.BodyCodec;
 import io.vertx.ext.web.multipart.MultipartForm;
+import io.vertx.uritemplate.UriTemplate;
 import io.vertx.uritemplate.Variables;
-import software.amazon.awssdk.auth.signer.Aws4Signer;
-import software.amazon.awssdk.auth.signer.params.Aws4SignerParams;
-import software.amazon.awssdk.http.ContentStreamProvider;
-import software.amazon.awssdk.http.SdkHttpFullRequest;
-import software.amazon.awssdk.http.SdkHttpMethod;
+import software.amazon.awssdk.auth.credentials.AwsCredentialsProvider;
+import software.amazon.awssdk.regions.Region;
 
-import java.io.ByteArrayInputStream;
 import java.io.UnsupportedEncodingException;
 import java.net.URLEncoder;
 import java.nio.charset.StandardCharsets;
+import java.time.Instant;
+import java.time.format.DateTimeFormatter;
+import java.time.format.DateTimeParseException;
 import java.util.List;
 import java.util.Map;
 
+import static io.vertx.core.http.HttpHeaders.CONTENT_ENCODING;
 import static io.vertx.core.http.HttpHeaders.CONTENT_TYPE;
 
 public class AwsSigningHttpRequest<T> implements HttpRequest<T> {
 
     private final HttpRequestImpl<T> delegate;
+    private final AwsSigningWebClient client;
     private final AwsSigningOptions signingOptions;
-    private final Aws4Signer signer = Aws4Signer.create();
 
     private String protocol;
-
-    AwsSigningHttpRequest(final HttpRequest<T> delegate, final AwsSigningOptions signingOptions) {
+    private boolean idempotent;
+    // per-request overrides of the client signing options, used when one client signs for many tenants
+    private AwsCredentialsProvider credentialsProvider;
+    private Region region;
+    private String serviceName;
+    // signed from the template and its params, vertx only expands it when the request is sent
+    private UriTemplate uriTemplate;
+    // set when a routing client picked the regional endpoint, attempts feed its latency and error averages
+    private AwsSigningRoutingClient.Route route;
+    private boolean hedge;
+    // the Content-Encoding header was set by compression, not by the caller
+    private boolean compressed;
+    // false sends the body as it is, whatever the compression options of the client
+    private boolean compress = true;
+    // the body signed last, sending the same buffer again reuses its hash and compressed bytes
+    private volatile AwsSigningPayload payload;
+    private volatile boolean cancelled;
+    // the last attempt got past signing, failures before that are local and say nothing about the endpoint
+    private boolean sent;
+
+    AwsSigningHttpRequest(final HttpRequest<T> delegate, final AwsSigningWebClient client) {
         if (delegate instanceof HttpRequestImpl) {
             this.delegate = (HttpRequestImpl<T>) delegate;
         } else {
             throw new ClassCastException(
                     "Internal vertx implementation has drifted and is not compatible with this interceptor");
         }
-        this.signingOptions = signingOptions;
+        this.client = client;
+        this.signingOptions = client.signingOptions();
     }
 
     @Override
@@ -74,7 +100,7 @@ public class AwsSigningHttpRequest<T> implements HttpRequest<T> {
 
     @Override
     public <U> HttpRequest<U> as(BodyCodec<U> responseCodec) {
-        return new AwsSigningHttpRequest<>(delegate.as(responseCodec), signingOptions);
+        return copyState(new AwsSigningHttpRequest<>(delegate.as(responseCodec), client));
     }
 
     @Override
@@ -107,6 +133,7 @@ public class AwsSigningHttpRequest<T> implements HttpRequest<T> {
     @Override
     public HttpRequest<T> uri(String value) {
         delegate.uri(value);
+        uriTemplate = null;
         return this;
     }
 
@@ -180,17 +207,20 @@ public class AwsSigningHttpRequest<T> implements HttpRequest<T> {
 
     @Override
     public HttpRequest<T> setTemplateParam(String paramName, String paramValue) {
-        return delegate.setTemplateParam(paramName, paramValue);
+        delegate.setTemplateParam(paramName, paramValue);
+        return this;
     }
 
     @Override
     public HttpRequest<T> setTemplateParam(String paramName, List<String> paramValue) {
-        return delegate.setTemplateParam(paramName, paramValue);
+        delegate.setTemplateParam(paramName, paramValue);
+        return this;
     }
 
     @Override
     public HttpRequest<T> setTemplateParam(String paramName, Map<String, String> paramValue) {
-        return delegate.setTemplateParam(paramName, paramValue);
+        delegate.setTemplateParam(paramName, paramValue);
+        return this;
     }
 
     @Override
@@ -206,7 +236,8 @@ public class AwsSigningHttpRequest<T> implements HttpRequest<T> {
 
     @Override
     public HttpRequest<T> proxy(ProxyOptions proxyOptions) {
-        return delegate.proxy(proxyOptions);
+        delegate.proxy(proxyOptions);
+        return this;
     }
 
     @Override
@@ -237,7 +268,21 @@ public class AwsSigningHttpRequest<T> implements HttpRequest<T> {
 
     @Override
     public HttpRequest<T> copy() {
-        return new AwsSigningHttpRequest<>(delegate.copy(), signingOptions);
+        return copyState(new AwsSigningHttpRequest<>(delegate.copy(), client));
+    }
+
+    private <U> AwsSigningHttpRequest<U> copyState(final AwsSigningHttpRequest<U> copy) {
+        copy.protocol = protocol;
+        copy.idempotent = idempotent;
+        copy.credentialsProvider = credentialsProvider;
+        copy.region = region;
+        copy.serviceName = serviceName;
+        copy.uriTemplate = uriTemplate;
+        copy.route = route;
+        copy.compressed = compressed;
+        copy.compress = compress;
+        copy.payload = payload;
+        return copy;
     }
 
     @Override
@@ -253,7 +298,8 @@ public class AwsSigningHttpRequest<T> implements HttpRequest<T> {
 
     @Override
     public HttpRequest<T> traceOperation(String traceOperation) {
-        return delegate.traceOperation(traceOperation);
+        delegate.traceOperation(traceOperation);
+        return this;
     }
 
     @Override
@@ -270,6 +316,66 @@ public class AwsSigningHttpRequest<T> implements HttpRequest<T> {
         return protocol;
     }
 
+    // marks a request with a non-idempotent method as safe to hedge
+    public HttpRequest<T> idempotent(final boolean idempotent) {
+        this.idempotent = idempotent;
+        return this;
+    }
+
+    public boolean idempotent() {
+        return idempotent;
+    }
+
+    public AwsSigningHttpRequest<T> compress(final boolean compress) {
+        this.compress = compress;
+        return this;
+    }
+
+    public boolean compress() {
+        return compress;
+    }
+
+    AwsSigningHttpRequest<T> uriTemplate(final UriTemplate uriTemplate) {
+        this.uriTemplate = uriTemplate;
+        return this;
+    }
+
+    UriTemplate uriTemplate() {
+        return uriTemplate;
+    }
+
+    // the body signed last, null until the request was signed with one
+    AwsSigningPayload payload() {
+        return payload;
+    }
+
+    public AwsSigningHttpRequest<T> credentialsProvider(final AwsCredentialsProvider credentialsProvider) {
+        this.credentialsProvider = credentialsProvider;
+        return this;
+    }
+
+    public AwsCredentialsProvider credentialsProvider() {
+        return credentialsProvider != null ? credentialsProvider : signingOptions.getCredentialsProvider();
+    }
+
+    public AwsSigningHttpRequest<T> region(final Region region) {
+        this.region = region;
+        return this;
+    }
+
+    public Region region() {
+        return region != null ? region : signingOptions.getRegion();
+    }
+
+    public AwsSigningHttpRequest<T> serviceName(final String serviceName) {
+        this.serviceName = serviceName;
+        return this;
+    }
+
+    public String serviceName() {
+        return serviceName != null ? serviceName : signingOptions.getServiceName();
+    }
+
     // SigV4 has not been supported yet.
     @Override
     public void sendStream(ReadStream<Buffer> body, Handler<AsyncResult<HttpResponse<T>>> handler) {
@@ -278,9 +384,7 @@ public class AwsSigningHttpRequest<T> implements HttpRequest<T> {
 
     @Override
     public void sendBuffer(Buffer body, Handler<AsyncResult<HttpResponse<T>>> handler) {
-        prepareRequest();
-        sign(bufferContentStreamProvider(body));
-        delegate.sendBuffer(body, handler);
+        dispatch(body, handler);
     }
 
     @Override
@@ -319,43 +423,224 @@ public class AwsSigningHttpRequest<T> implements HttpRequest<T> {
 
     @Override
     public void send(Handler<AsyncResult<HttpResponse<T>>> handler) {
-        prepareRequest();
-        sign(null);
-        delegate.send(handler);
-    }
-
-    private void sign(final ContentStreamProvider contentStreamProvider) {
-        final Aws4SignerParams aws4SignerParams = Aws4SignerParams.builder()
-                .awsCredentials(signingOptions.getCredentialsProvider().resolveCredentials())
-                .signingName(signingOptions.getServiceName())
-                .signingRegion(signingOptions.getRegion())
-                .timeOffset(signingOptions.getTimeOffset())
-                .signingClockOverride(signingOptions.getClock())
-                .build();
-
-        final SdkHttpFullRequest.Builder requestBuilder = SdkHttpFullRequest.builder()
-                .host(delegate.host())
-                .port(delegate.port())
-                .method(SdkHttpMethod.fromValue(delegate.method().name()))
-                .protocol(protocol)
-                .encodedPath(delegate.uri())
-                .contentStreamProvider(contentStreamProvider);
-        delegate.queryParams().forEach(entry ->
-                requestBuilder.appendRawQueryParameter(entry.getKey(), entry.getValue())
-        );
+        dispatch(null, handler);
+    }
 
-        final SdkHttpFullRequest signedRequest = signer.sign(requestBuilder.build(), aws4SignerParams);
+    private void dispatch(final Buffer body, final Handler<AsyncResult<HttpResponse<T>>> handler) {
+        final AwsSigningHedging hedging = client.hedging();
+        if (hedging != null && !hedge && hedging.isHedgeable(this)) {
+            hedging.send(this, body, handler);
+        } else {
+            execute(body, handler);
+        }
+    }
 
-        signedRequest.headers().forEach((key, values) ->
-                values.forEach(value -> delegate.putHeader(key, value))
-        );
+    void execute(final Buffer body, final Handler<AsyncResult<HttpResponse<T>>> handler) {
+        if (route == null) {
+            protect(body, handler);
+            return;
+        }
+        final AwsSigningRoutingClient.Route attemptRoute = route;
+        final long start = System.nanoTime();
+        protect(body, ar -> {
+            // requests rejected locally or cancelled never measured the region
+            if (!cancelled && !(ar.failed() && ar.cause() instanceof AwsSigningRejectedException)) {
+                attemptRoute.record(start, ar);
+            }
+            handler.handle(ar);
+        });
+    }
+
+    private void protect(final Buffer body, final Handler<AsyncResult<HttpResponse<T>>> handler) {
+        final AwsSigningCircuitBreaker circuitBreaker = client.circuitBreaker();
+        if (circuitBreaker == null) {
+            limit(body, handler);
+            return;
+        }
+        // an open circuit fails fast, before credentials are resolved and the request is signed
+        final String endpoint = circuitBreaker.endpointKey(this);
+        final AwsSigningCircuitBreaker.Call call = circuitBreaker.tryAcquire(endpoint);
+        if (call == null) {
+            handler.handle(Future.failedFuture(new AwsSigningRejectedException(endpoint, "Circuit breaker is open")));
+            return;
+        }
+        sent = false;
+        limit(body, ar -> {
+            // cancelled requests and requests rejected by the limiter or failing to sign say nothing about the endpoint
+            if (cancelled || !sent) {
+                call.cancel();
+            } else if (ar.succeeded()) {
+                call.onResponse(ar.result().statusCode());
+            } else {
+                call.onFailure();
+            }
+            handler.handle(ar);
+        });
+    }
+
+    private void limit(final Buffer body, final Handler<AsyncResult<HttpResponse<T>>> handler) {
+        final AwsSigningLimiter limiter = client.limiter();
+        if (limiter == null) {
+            signAndSend(body, handler);
+            return;
+        }
+        // the permit is acquired before signing, so requests over the limit never pay for it
+        limiter.acquire(limiter.endpointKey(this), permit -> signAndSend(body, ar -> {
+            if (ar.succeeded()) {
+                permit.onResponse(ar.result().statusCode());
+            } else {
+                permit.onFailure(ar.cause());
+            }
+            handler.handle(ar);
+        }), cause -> handler.handle(Future.failedFuture(cause)));
+    }
+
+    // signed but neither hedged, limited nor counted by the circuit breaker, e.g. warm-up requests opening connections
+    Future<HttpResponse<T>> sendDirect() {
+        final Promise<HttpResponse<T>> promise = Promise.promise();
+        signAndSend(null, promise);
+        return promise.future();
+    }
+
+    AwsSigningHttpRequest<T> hedgeCopy() {
+        final AwsSigningHttpRequest<T> copy = (AwsSigningHttpRequest<T>) copy();
+        copy.hedge = true;
+        return copy;
+    }
+
+    void route(final AwsSigningRoutingClient.Route route) {
+        this.route = route;
+    }
+
+    HttpRequestImpl<T> unwrap() {
+        return delegate;
+    }
+
+    // outcome of a cancelled request, e.g. a hedging loser, says nothing about endpoint health
+    void cancel() {
+        cancelled = true;
+    }
+
+    private void signAndSend(final Buffer body, final Handler<AsyncResult<HttpResponse<T>>> handler) {
+        final AwsSigningTracer tracer = signingOptions.getTracer();
+        final AwsSigningTrace trace = tracer != null ? tracer.start(this) : null;
+        final AwsSigningCapture capture = client.capture();
+        final AwsSigningCaptureEntry captured = capture != null
+                ? capture.sample(delegate.method().name(), delegate.host(), delegate.uri())
+                : null;
+        final Handler<AsyncResult<HttpResponse<T>>> traced = trace == null ? handler : ar -> {
+            trace.end(ar.succeeded() ? ar.result().statusCode() : -1, ar.cause());
+            handler.handle(ar);
+        };
+        final Handler<AsyncResult<HttpResponse<T>>> completion = captured == null ? traced : ar -> {
+            captured.completed(ar.succeeded() ? ar.result().statusCode() : -1,
+                    ar.succeeded() ? clockSkew(captured, ar.result()) : null, ar.cause());
+            traced.handle(ar);
+        };
+        final Context context = Vertx.currentContext();
+        final int blockingThreshold = signingOptions.getBlockingSigningThreshold();
+        if (context != null && body != null && blockingThreshold >= 0 && body.length() >= blockingThreshold) {
+            signBlockingAndSend(context, body, trace, captured, completion);
+            return;
+        }
+        final Buffer signedBody;
+        try {
+            prepareRequest();
+            signedBody = sign(body, trace, captured);
+        } catch (RuntimeException e) {
+            completion.handle(Future.failedFuture(e));
+            return;
+        }
+        sendSigned(signedBody, trace, completion);
+    }
+
+    // hashing a large payload would hold the event loop, the send resumes on the calling context
+    private void signBlockingAndSend(final Context context, final Buffer body, final AwsSigningTrace trace,
+                                     final AwsSigningCaptureEntry captured,
+                                     final Handler<AsyncResult<HttpResponse<T>>> handler) {
+        try {
+            prepareRequest();
+        } catch (RuntimeException e) {
+            handler.handle(Future.failedFuture(e));
+            return;
+        }
+        final Handler<Promise<Buffer>> signing = promise -> promise.complete(sign(body, trace, captured));
+        final Handler<AsyncResult<Buffer>> resume = ar -> {
+            if (ar.succeeded()) {
+                sendSigned(ar.result(), trace, handler);
+            } else {
+                handler.handle(Future.failedFuture(ar.cause()));
+            }
+        };
+        final WorkerExecutor executor = client.signingExecutor(context.owner());
+        if (executor != null) {
+            executor.executeBlocking(signing, false, resume);
+        } else {
+            context.executeBlocking(signing, false, resume);
+        }
+    }
+
+    private void sendSigned(final Buffer body, final AwsSigningTrace trace,
+                            final Handler<AsyncResult<HttpResponse<T>>> handler) {
+        if (trace != null) {
+            trace.exchange(delegate);
+        }
+        sent = true;
+        if (body != null) {
+            delegate.sendBuffer(body, handler);
+        } else {
+            delegate.send(handler);
+        }
     }
 
-    private ContentStreamProvider bufferContentStreamProvider(final Buffer buffer) {
-        if (buffer == null) {
+    // returns the body to send, compressed when compression applies to it
+    private Buffer sign(final Buffer body, final AwsSigningTrace trace, final AwsSigningCaptureEntry captured) {
+        final AwsSigningEngine engine = client.engine();
+        final long hashStart = trace != null ? System.nanoTime() : 0L;
+        final AwsSigningCompressionOptions compressionOptions = compress ? signingOptions.getCompressionOptions() : null;
+        // a body the caller encoded already is left alone, copies of a compressed request compress again
+        final String encoding = AwsSigningCompression.applies(compressionOptions, body)
+                && (compressed || !delegate.headers().contains(CONTENT_ENCODING))
+                ? compressionOptions.getEncoding()
+                : null;
+        AwsSigningPayload signedPayload = payload;
+        if (signedPayload == null || !signedPayload.isFor(body, encoding)) {
+            if (encoding != null) {
+                final AwsSigningCompression.Compressed compressedBody =
+                        AwsSigningCompression.compress(compressionOptions, body, engine.digest());
+                signedPayload = new AwsSigningPayload(body, encoding, compressedBody.body, compressedBody.payloadHash);
+            } else {
+                signedPayload = new AwsSigningPayload(body, null, body, engine.payloadHash(body));
+            }
+            payload = signedPayload;
+        }
+        if (encoding != null) {
+            delegate.headers().set(CONTENT_ENCODING, encoding);
+            compressed = true;
+        }
+        if (trace != null) {
+            trace.payloadHash(hashStart, System.nanoTime(), body != null ? body.length() : 0);
+        }
+        engine.sign(signingOptions, credentialsProvider(), region(), serviceName(),
+                delegate, uriTemplate, protocol, signedPayload.hash, trace, captured);
+        if (captured != null) {
+            client.capture().record(captured);
+        }
+        return signedPayload.body;
+    }
+
+    // null when the response has no usable Date header
+    private static Long clockSkew(final AwsSigningCaptureEntry captured, final HttpResponse<?> response) {
+        final String date = response.getHeader("Date");
+        if (date == null || captured.signedAt() == null) {
+            return null;
+        }
+        try {
+            final Instant serverTime = DateTimeFormatter.RFC_1123_DATE_TIME.parse(date, Instant::from);
+            return serverTime.toEpochMilli() - captured.signedAt().toEpochMilli();
+        } catch (DateTimeParseException e) {
             return null;
         }
-        return () -> new ByteArrayInputStream(buffer.getBytes());
     }
 
     private void prepareRequest() {
@@ -363,7 +648,7 @@ public class AwsSigningHttpRequest<T> implements HttpRequest<T> {
             protocol = delegate.ssl() != null && delegate.ssl() ? "https" : "http";
         }
         if (signingOptions.getApiKey() != null) {
-            delegate.putHeader("x-api-key", signingOptions.getApiKey());
+            delegate.headers().set(AwsSigningHeaders.X_API_KEY, signingOptions.getApiKey());
         }
     }
 
@@ -0,0 +1,224 @@
+package com.venikkin.vertx.ext.web.client.aws;
+
+import io.vertx.core.Context;
+import io.vertx.core.Handler;
+import io.vertx.core.Vertx;
+import io.vertx.ext.web.client.HttpRequest;
+
+import java.util.ArrayDeque;
+import java.util.Collections;
+import java.util.Deque;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.TimeoutException;
+
+// AIMD concurrency limit per endpoint: every successful response grows the limit by one per window,
+// throttling responses and timeouts shrink it by the backoff ratio. Idle endpoints are evicted once more than
+// maxEndpoints are tracked.
+public class AwsSigningLimiter {
+
+    private static final int ACQUIRED = 0;
+    private static final int QUEUED = 1;
+    private static final int REJECTED = 2;
+    private static final int EVICTED = 3;
+
+    private final AwsSigningLimiterOptions options;
+    private final ConcurrentMap<String, Endpoint> endpoints = new ConcurrentHashMap<>();
+
+    AwsSigningLimiter(final AwsSigningLimiterOptions options) {
+        // checked here, so that the limits can be set in any order
+        if (options.getInitialLimit() < options.getMinLimit() || options.getInitialLimit() > options.getMaxLimit()) {
+            throw new IllegalArgumentException("initialLimit must be between minLimit and maxLimit");
+        }
+        this.options = options;
+    }
+
+    public Map<String, EndpointMetrics> metrics() {
+        final Map<String, EndpointMetrics> metrics = new HashMap<>();
+        endpoints.forEach((key, endpoint) -> metrics.put(key, endpoint.metrics()));
+        return Collections.unmodifiableMap(metrics);
+    }
+
+    String endpointKey(final HttpRequest<?> request) {
+        return options.getEndpointKeyFunction().apply(request);
+    }
+
+    void acquire(final String key, final Handler<Permit> onAcquired, final Handler<Throwable> onRejected) {
+        Endpoint endpoint;
+        int outcome;
+        do {
+            endpoint = endpoint(key);
+            outcome = tryAcquire(endpoint, onAcquired);
+        } while (outcome == EVICTED);
+        if (outcome == ACQUIRED) {
+            onAcquired.handle(new Permit(endpoint));
+        } else if (outcome == REJECTED) {
+            onRejected.handle(new AwsSigningRejectedException(key, "Concurrency limit exceeded"));
+        }
+    }
+
+    private int tryAcquire(final Endpoint endpoint, final Handler<Permit> onAcquired) {
+        synchronized (endpoint) {
+            if (endpoint.evicted) {
+                // evicted between the lookup and the lock, the key is looked up again
+                return EVICTED;
+            }
+            if (endpoint.inFlight < (int) endpoint.limit) {
+                endpoint.inFlight++;
+                return ACQUIRED;
+            }
+            if (endpoint.queue.size() < options.getMaxQueueSize()) {
+                endpoint.queue.add(new Waiter(onAcquired, Vertx.currentContext()));
+                return QUEUED;
+            }
+            endpoint.rejected++;
+            return REJECTED;
+        }
+    }
+
+    private Endpoint endpoint(final String key) {
+        final Endpoint existing = endpoints.get(key);
+        if (existing != null) {
+            return existing;
+        }
+        if (endpoints.size() >= options.getMaxEndpoints()) {
+            evictIdle();
+        }
+        return endpoints.computeIfAbsent(key, k -> new Endpoint(options.getInitialLimit()));
+    }
+
+    // endpoints without requests in flight or queued lose their limit, it is learned again from the initial one
+    private void evictIdle() {
+        endpoints.forEach((key, endpoint) -> {
+            synchronized (endpoint) {
+                if (endpoint.inFlight == 0 && endpoint.queue.isEmpty() && endpoints.remove(key, endpoint)) {
+                    endpoint.evicted = true;
+                }
+            }
+        });
+    }
+
+    private void release(final Endpoint endpoint, final boolean throttled, final boolean succeeded) {
+        final Waiter next;
+        synchronized (endpoint) {
+            endpoint.inFlight--;
+            if (throttled) {
+                endpoint.throttled++;
+                endpoint.limit = Math.max(options.getMinLimit(), endpoint.limit * options.getBackoffRatio());
+            } else if (succeeded) {
+                endpoint.limit = Math.min(options.getMaxLimit(), endpoint.limit + 1.0 / endpoint.limit);
+            }
+            if (!endpoint.queue.isEmpty() && endpoint.inFlight < (int) endpoint.limit) {
+                endpoint.inFlight++;
+                next = endpoint.queue.poll();
+            } else {
+                next = null;
+            }
+        }
+        if (next != null) {
+            next.grant(new Permit(endpoint));
+        }
+    }
+
+    class Permit {
+
+        private final Endpoint endpoint;
+        private boolean released;
+
+        private Permit(final Endpoint endpoint) {
+            this.endpoint = endpoint;
+        }
+
+        void onResponse(final int statusCode) {
+            release(options.getThrottledStatusCodes().contains(statusCode), true);
+        }
+
+        void onFailure(final Throwable cause) {
+            release(cause instanceof TimeoutException, false);
+        }
+
+        private void release(final boolean throttled, final boolean succeeded) {
+            if (!released) {
+                released = true;
+                AwsSigningLimiter.this.release(endpoint, throttled, succeeded);
+            }
+        }
+    }
+
+    public static class EndpointMetrics {
+
+        private final double limit;
+        private final int inFlight;
+        private final int queued;
+        private final long rejected;
+        private final long throttled;
+
+        EndpointMetrics(final double limit, final int inFlight, final int queued, final long rejected,
+                        final long throttled) {
+            this.limit = limit;
+            this.inFlight = inFlight;
+            this.queued = queued;
+            this.rejected = rejected;
+            this.throttled = throttled;
+        }
+
+        public double getLimit() {
+            return limit;
+        }
+
+        public int getInFlight() {
+            return inFlight;
+        }
+
+        public int getQueued() {
+            return queued;
+        }
+
+        public long getRejected() {
+            return rejected;
+        }
+
+        public long getThrottled() {
+            return throttled;
+        }
+    }
+
+    private static class Endpoint {
+
+        private final Deque<Waiter> queue = new ArrayDeque<>();
+        private double limit;
+        private int inFlight;
+        private long rejected;
+        private long throttled;
+        private boolean evicted;
+
+        private Endpoint(final double limit) {
+            this.limit = limit;
+        }
+
+        private synchronized EndpointMetrics metrics() {
+            return new EndpointMetrics(limit, inFlight, queue.size(), rejected, throttled);
+        }
+    }
+
+    private static class Waiter {
+
+        private final Handler<Permit> handler;
+        private final Context context;
+
+        private Waiter(final Handler<Permit> handler, final Context context) {
+            this.handler = handler;
+            this.context = context;
+        }
+
+        private void grant(final Permit permit) {
+            if (context != null && context != Vertx.currentContext()) {
+                context.runOnContext(v -> handler.handle(permit));
+            } else {
+                handler.handle(permit);
+            }
+        }
+    }
+}
@@ -0,0 +1,116 @@
+package com.venikkin.vertx.ext.web.client.aws;
+
+import io.vertx.ext.web.client.HttpRequest;
+
+import java.util.Arrays;
+import java.util.HashSet;
+import java.util.Set;
+import java.util.function.Function;
+
+public class AwsSigningLimiterOptions {
+
+    private int initialLimit = 20;
+    private int minLimit = 1;
+    private int maxLimit = 200;
+    private double backoffRatio = 0.7;
+    // requests above the limit wait in a queue of this size, the rest are rejected
+    private int maxQueueSize = 64;
+    private Set<Integer> throttledStatusCodes = new HashSet<>(Arrays.asList(429, 503));
+    // endpoints are keyed by method, host and path by default, map paths with parameters to their template here
+    private Function<HttpRequest<?>, String> endpointKeyFunction = AwsSigningEndpoints::defaultKey;
+    // once more endpoints are tracked, idle ones are forgotten and start over from the initial limit
+    private int maxEndpoints = 1024;
+
+    public int getInitialLimit() {
+        return initialLimit;
+    }
+
+    public AwsSigningLimiterOptions setInitialLimit(final int initialLimit) {
+        this.initialLimit = initialLimit;
+        return this;
+    }
+
+    public int getMinLimit() {
+        return minLimit;
+    }
+
+    public AwsSigningLimiterOptions setMinLimit(final int minLimit) {
+        if (minLimit < 1) {
+            throw new IllegalArgumentException("minLimit must be positive");
+        }
+        this.minLimit = minLimit;
+        return this;
+    }
+
+    public int getMaxLimit() {
+        return maxLimit;
+    }
+
+    public AwsSigningLimiterOptions setMaxLimit(final int maxLimit) {
+        this.maxLimit = maxLimit;
+        return this;
+    }
+
+    public double getBackoffRatio() {
+        return backoffRatio;
+    }
+
+    public AwsSigningLimiterOptions setBackoffRatio(final double backoffRatio) {
+        if (backoffRatio <= 0 || backoffRatio >= 1) {
+            throw new IllegalArgumentException("backoffRatio must be between 0 and 1");
+        }
+        this.backoffRatio = backoffRatio;
+        return this;
+    }
+
+    public int getMaxQueueSize() {
+        return maxQueueSize;
+    }
+
+    public AwsSigningLimiterOptions setMaxQueueSize(final int maxQueueSize) {
+        this.maxQueueSize = maxQueueSize;
+        return this;
+    }
+
+    public Set<Integer> getThrottledStatusCodes() {
+        return throttledStatusCodes;
+    }
+
+    public AwsSigningLimiterOptions setThrottledStatusCodes(final Set<Integer> throttledStatusCodes) {
+        this.throttledStatusCodes = throttledStatusCodes;
+        return this;
+    }
+
+    public Function<HttpRequest<?>, String> getEndpointKeyFunction() {
+        return endpointKeyFunction;
+    }
+
+    public AwsSigningLimiterOptions setEndpointKeyFunction(final Function<HttpRequest<?>, String> endpointKeyFunction) {
+        this.endpointKeyFunction = endpointKeyFunction;
+        return this;
+    }
+
+    public int getMaxEndpoints() {
+        return maxEndpoints;
+    }
+
+    public AwsSigningLimiterOptions setMaxEndpoints(final int maxEndpoints) {
+        if (maxEndpoints < 1) {
+            throw new IllegalArgumentException("maxEndpoints must be positive");
+        }
+        this.maxEndpoints = maxEndpoints;
+        return this;
+    }
+
+    public AwsSigningLimiterOptions copy() {
+        return new AwsSigningLimiterOptions()
+                .setInitialLimit(initialLimit)
+                .setMinLimit(minLimit)
+                .setMaxLimit(maxLimit)
+                .setBackoffRatio(backoffRatio)
+                .setMaxQueueSize(maxQueueSize)
+                .setThrottledStatusCodes(new HashSet<>(throttledStatusCodes))
+                .setEndpointKeyFunction(endpointKeyFunction)
+                .setMaxEndpoints(maxEndpoints);
+    }
+}
@@ -0,0 +1,32 @@
+package com.venikkin.vertx.ext.web.client.aws;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+// Bounded cache evicting the least recently used entry. An access ordered LinkedHashMap keeps the order, so
+// lookups and evictions are constant time. The lock is held only for the map operation itself.
+final class AwsSigningLruCache<K, V> {
+
+    private final LinkedHashMap<K, V> entries;
+
+    AwsSigningLruCache(final int capacity) {
+        this.entries = new LinkedHashMap<K, V>(16, 0.75f, true) {
+            @Override
+            protected boolean removeEldestEntry(final Map.Entry<K, V> eldest) {
+                return size() > capacity;
+            }
+        };
+    }
+
+    synchronized V get(final K key) {
+        return entries.get(key);
+    }
+
+    synchronized void put(final K key, final V value) {
+        entries.put(key, value);
+    }
+
+    synchronized int size() {
+        return entries.size();
+    }
+}
@@ -12,8 +12,26 @@ public class AwsSigningOptions {
     private Clock clock;
     private Integer timeOffset;
     private String apiKey;
-    // alternative service name had not supported yet
+    // s3 is signed the S3 way, other services the way API Gateway expects
     private String serviceName = "execute-api";
+    // milliseconds resolved credentials are reused before the provider is asked again
+    private long credentialsCacheTtl = 1000;
+    // payloads of at least this many bytes are hashed and signed on a worker thread, negative disables it
+    private int blockingSigningThreshold = -1;
+    // dedicated worker pool for blocking signing, the context worker pool is used when not set
+    private String signingWorkerPoolName;
+    private int signingWorkerPoolSize = 4;
+    // digest and mac implementations, AwsSigningCrypto.defaultCrypto() when not set
+    private AwsSigningCrypto crypto;
+    // e.g. OpenTelemetryAwsSigningTracer, requests are not traced when not set
+    private AwsSigningTracer tracer;
+    private AwsSigningLimiterOptions limiterOptions;
+    private AwsSigningHedgingOptions hedgingOptions;
+    private AwsSigningCircuitBreakerOptions circuitBreakerOptions;
+    // canonical requests are not captured when not set
+    private AwsSigningCaptureOptions captureOptions;
+    // request bodies are sent uncompressed when not set
+    private AwsSigningCompressionOptions compressionOptions;
 
     public AwsCredentialsProvider getCredentialsProvider() {
         return credentialsProvider;
@@ -69,6 +87,105 @@ public class AwsSigningOptions {
         return this;
     }
 
+    public long getCredentialsCacheTtl() {
+        return credentialsCacheTtl;
+    }
+
+    public AwsSigningOptions setCredentialsCacheTtl(final long credentialsCacheTtl) {
+        this.credentialsCacheTtl = credentialsCacheTtl;
+        return this;
+    }
+
+    public int getBlockingSigningThreshold() {
+        return blockingSigningThreshold;
+    }
+
+    public AwsSigningOptions setBlockingSigningThreshold(final int blockingSigningThreshold) {
+        this.blockingSigningThreshold = blockingSigningThreshold;
+        return this;
+    }
+
+    public String getSigningWorkerPoolName() {
+        return signingWorkerPoolName;
+    }
+
+    public AwsSigningOptions setSigningWorkerPoolName(final String signingWorkerPoolName) {
+        this.signingWorkerPoolName = signingWorkerPoolName;
+        return this;
+    }
+
+    public int getSigningWorkerPoolSize() {
+        return signingWorkerPoolSize;
+    }
+
+    public AwsSigningOptions setSigningWorkerPoolSize(final int signingWorkerPoolSize) {
+        this.signingWorkerPoolSize = signingWorkerPoolSize;
+        return this;
+    }
+
+    public AwsSigningCrypto getCrypto() {
+        return crypto;
+    }
+
+    public AwsSigningOptions setCrypto(final AwsSigningCrypto crypto) {
+        this.crypto = crypto;
+        return this;
+    }
+
+    public AwsSigningTracer getTracer() {
+        return tracer;
+    }
+
+    public AwsSigningOptions setTracer(final AwsSigningTracer tracer) {
+        this.tracer = tracer;
+        return this;
+    }
+
+    public AwsSigningLimiterOptions getLimiterOptions() {
+        return limiterOptions;
+    }
+
+    public AwsSigningOptions setLimiterOptions(final AwsSigningLimiterOptions limiterOptions) {
+        this.limiterOptions = limiterOptions;
+        return this;
+    }
+
+    public AwsSigningHedgingOptions getHedgingOptions() {
+        return hedgingOptions;
+    }
+
+    public AwsSigningOptions setHedgingOptions(final AwsSigningHedgingOptions hedgingOptions) {
+        this.hedgingOptions = hedgingOptions;
+        return this;
+    }
+
+    public AwsSigningCircuitBreakerOptions getCircuitBreakerOptions() {
+        return circuitBreakerOptions;
+    }
+
+    public AwsSigningOptions setCircuitBreakerOptions(final AwsSigningCircuitBreakerOptions circuitBreakerOptions) {
+        this.circuitBreakerOptions = circuitBreakerOptions;
+        return this;
+    }
+
+    public AwsSigningCaptureOptions getCaptureOptions() {
+        return captureOptions;
+    }
+
+    public AwsSigningOptions setCaptureOptions(final AwsSigningCaptureOptions captureOptions) {
+        this.captureOptions = captureOptions;
+        return this;
+    }
+
+    public AwsSigningCompressionOptions getCompressionOptions() {
+        return compressionOptions;
+    }
+
+    public AwsSigningOptions setCompressionOptions(final AwsSigningCompressionOptions compressionOptions) {
+        this.compressionOptions = compressionOptions;
+        return this;
+    }
+
     public AwsSigningOptions copy() {
         return new AwsSigningOptions()
                 .setApiKey(apiKey)
@@ -76,6 +193,17 @@ public class AwsSigningOptions {
                 .setRegion(region)
                 .setCredentialsProvider(credentialsProvider)
                 .setTimeOffset(timeOffset)
-                .setServiceName(serviceName);
+                .setServiceName(serviceName)
+                .setCredentialsCacheTtl(credentialsCacheTtl)
+                .setBlockingSigningThreshold(blockingSigningThreshold)
+                .setSigningWorkerPoolName(signingWorkerPoolName)
+                .setSigningWorkerPoolSize(signingWorkerPoolSize)
+                .setCrypto(crypto)
+                .setTracer(tracer)
+                .setLimiterOptions(limiterOptions != null ? limiterOptions.copy() : null)
+                .setHedgingOptions(hedgingOptions != null ? hedgingOptions.copy() : null)
+                .setCircuitBreakerOptions(circuitBreakerOptions != null ? circuitBreakerOptions.copy() : null)
+                .setCaptureOptions(captureOptions != null ? captureOptions.copy() : null)
+                .setCompressionOptions(compressionOptions != null ? compressionOptions.copy() : null);
     }
 }
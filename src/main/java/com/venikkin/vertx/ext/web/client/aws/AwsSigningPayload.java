@@ -0,0 +1,31 @@
+package com.venikkin.vertx.ext.web.client.aws;
+
+import io.vertx.core.buffer.Buffer;
+
+import java.util.Objects;
+
+// A body as it was signed: the buffer the caller sent, the bytes put on the wire, compressed when encoding is set,
+// and their payload hash. Kept on the request, so retries, hedges and copies sending the same buffer again only
+// sign again. Buffers are matched by identity and length, a body modified in place must be sent as a new buffer.
+final class AwsSigningPayload {
+
+    final Buffer source;
+    final int sourceLength;
+    final String encoding;
+    final Buffer body;
+    final String hash;
+
+    AwsSigningPayload(final Buffer source, final String encoding, final Buffer body, final String hash) {
+        this.source = source;
+        this.sourceLength = source != null ? source.length() : 0;
+        this.encoding = encoding;
+        this.body = body;
+        this.hash = hash;
+    }
+
+    boolean isFor(final Buffer source, final String encoding) {
+        return this.source == source
+                && (source == null || sourceLength == source.length())
+                && Objects.equals(this.encoding, encoding);
+    }
+}
@@ -0,0 +1,56 @@
+package com.venikkin.vertx.ext.web.client.aws;
+
+import software.amazon.awssdk.regions.Region;
+
+public class AwsSigningRegionEndpoint {
+
+    // requests sent to the endpoint are signed with the scope of this region
+    private Region region;
+    private String host;
+    private int port = 443;
+    private boolean ssl = true;
+
+    public Region getRegion() {
+        return region;
+    }
+
+    public AwsSigningRegionEndpoint setRegion(final Region region) {
+        this.region = region;
+        return this;
+    }
+
+    public String getHost() {
+        return host;
+    }
+
+    public AwsSigningRegionEndpoint setHost(final String host) {
+        this.host = host;
+        return this;
+    }
+
+    public int getPort() {
+        return port;
+    }
+
+    public AwsSigningRegionEndpoint setPort(final int port) {
+        this.port = port;
+        return this;
+    }
+
+    public boolean isSsl() {
+        return ssl;
+    }
+
+    public AwsSigningRegionEndpoint setSsl(final boolean ssl) {
+        this.ssl = ssl;
+        return this;
+    }
+
+    public AwsSigningRegionEndpoint copy() {
+        return new AwsSigningRegionEndpoint()
+                .setRegion(region)
+                .setHost(host)
+                .setPort(port)
+                .setSsl(ssl);
+    }
+}
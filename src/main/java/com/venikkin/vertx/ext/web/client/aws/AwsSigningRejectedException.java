@@ -0,0 +1,18 @@
+package com.venikkin.vertx.ext.web.client.aws;
+
+import io.vertx.core.VertxException;
+
+// Raised when a request is refused locally, before it is signed or sent
+public class AwsSigningRejectedException extends VertxException {
+
+    private final String endpoint;
+
+    public AwsSigningRejectedException(final String endpoint, final String reason) {
+        super(reason + ": " + endpoint, true);
+        this.endpoint = endpoint;
+    }
+
+    public String getEndpoint() {
+        return endpoint;
+    }
+}
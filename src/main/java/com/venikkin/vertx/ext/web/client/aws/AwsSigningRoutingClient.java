@@ -0,0 +1,183 @@
+package com.venikkin.vertx.ext.web.client.aws;
+
+import io.vertx.core.AsyncResult;
+import io.vertx.core.Vertx;
+import io.vertx.core.buffer.Buffer;
+import io.vertx.core.http.HttpMethod;
+import io.vertx.ext.web.client.HttpResponse;
+import io.vertx.ext.web.client.WebClient;
+import io.vertx.ext.web.client.WebClientOptions;
+import software.amazon.awssdk.regions.Region;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+
+// Routes each request to the regional endpoint with the lowest score, the moving average of its latency
+// plus a penalty proportional to its moving error rate. Every endpoint has its own signing client scoped
+// to its region, signing keys of all regions are cached side by side in the shared signing engine.
+public class AwsSigningRoutingClient {
+
+    private final AwsSigningRoutingOptions routingOptions;
+    private final List<Route> routes;
+
+    public static AwsSigningRoutingClient create(final Vertx vertx, final AwsSigningOptions signingOptions,
+                                                 final AwsSigningRoutingOptions routingOptions) {
+        return create(vertx, new WebClientOptions(), signingOptions, routingOptions);
+    }
+
+    public static AwsSigningRoutingClient create(final Vertx vertx, final WebClientOptions webClientOptions,
+                                                 final AwsSigningOptions signingOptions,
+                                                 final AwsSigningRoutingOptions routingOptions) {
+        return new AwsSigningRoutingClient(vertx, webClientOptions, signingOptions, routingOptions.copy());
+    }
+
+    private AwsSigningRoutingClient(final Vertx vertx, final WebClientOptions webClientOptions,
+                                    final AwsSigningOptions signingOptions,
+                                    final AwsSigningRoutingOptions routingOptions) {
+        if (routingOptions.getEndpoints().isEmpty()) {
+            throw new IllegalArgumentException("At least one endpoint is required");
+        }
+        this.routingOptions = routingOptions;
+        final List<Route> created = new ArrayList<>();
+        for (final AwsSigningRegionEndpoint endpoint : routingOptions.getEndpoints()) {
+            for (final Route route : created) {
+                if (route.endpoint.getRegion().equals(endpoint.getRegion())) {
+                    throw new IllegalArgumentException("Duplicate endpoint for region " + endpoint.getRegion());
+                }
+            }
+            // a client per region keeps connection pools apart, the signing engine is still shared through vertx
+            created.add(new Route(endpoint, AwsSigningWebClient.create(vertx,
+                    WebClient.create(vertx, new WebClientOptions(webClientOptions)),
+                    signingOptions.copy().setRegion(endpoint.getRegion()))));
+        }
+        this.routes = Collections.unmodifiableList(created);
+    }
+
+    public AwsSigningHttpRequest<Buffer> request(final HttpMethod method, final String requestURI) {
+        return request(select(), method, requestURI);
+    }
+
+    // bypasses routing, the outcome still counts towards the region score
+    public AwsSigningHttpRequest<Buffer> request(final Region region, final HttpMethod method,
+                                                 final String requestURI) {
+        return request(route(region), method, requestURI);
+    }
+
+    public AwsSigningHttpRequest<Buffer> get(final String requestURI) {
+        return request(HttpMethod.GET, requestURI);
+    }
+
+    public AwsSigningHttpRequest<Buffer> post(final String requestURI) {
+        return request(HttpMethod.POST, requestURI);
+    }
+
+    public AwsSigningHttpRequest<Buffer> put(final String requestURI) {
+        return request(HttpMethod.PUT, requestURI);
+    }
+
+    public AwsSigningHttpRequest<Buffer> delete(final String requestURI) {
+        return request(HttpMethod.DELETE, requestURI);
+    }
+
+    public AwsSigningHttpRequest<Buffer> head(final String requestURI) {
+        return request(HttpMethod.HEAD, requestURI);
+    }
+
+    // region the next request is routed to, unless it is sent somewhere else to explore
+    public Region preferredRegion() {
+        return best().endpoint.getRegion();
+    }
+
+    // moving average latency in milliseconds, NaN until a request to the region completed
+    public double latency(final Region region) {
+        return route(region).latencyMillis;
+    }
+
+    public double errorRate(final Region region) {
+        return route(region).errorRate;
+    }
+
+    public Map<Region, Double> scores() {
+        final Map<Region, Double> scores = new LinkedHashMap<>();
+        routes.forEach(route -> scores.put(route.endpoint.getRegion(), route.score));
+        return Collections.unmodifiableMap(scores);
+    }
+
+    public void close() {
+        routes.forEach(route -> route.client.close());
+    }
+
+    private AwsSigningHttpRequest<Buffer> request(final Route route, final HttpMethod method,
+                                                  final String requestURI) {
+        final AwsSigningRegionEndpoint endpoint = route.endpoint;
+        final AwsSigningHttpRequest<Buffer> request =
+                route.client.request(method, endpoint.getPort(), endpoint.getHost(), requestURI);
+        request.ssl(endpoint.isSsl());
+        request.route(route);
+        return request;
+    }
+
+    private Route select() {
+        final double explorationRate = routingOptions.getExplorationRate();
+        if (routes.size() > 1 && explorationRate > 0 && ThreadLocalRandom.current().nextDouble() < explorationRate) {
+            return routes.get(ThreadLocalRandom.current().nextInt(routes.size()));
+        }
+        return best();
+    }
+
+    private Route best() {
+        Route best = routes.get(0);
+        for (int i = 1; i < routes.size(); i++) {
+            final Route route = routes.get(i);
+            if (route.score < best.score) {
+                best = route;
+            }
+        }
+        return best;
+    }
+
+    private Route route(final Region region) {
+        for (final Route route : routes) {
+            if (route.endpoint.getRegion().equals(region)) {
+                return route;
+            }
+        }
+        throw new IllegalArgumentException("No endpoint for region " + region);
+    }
+
+    class Route {
+
+        private final AwsSigningRegionEndpoint endpoint;
+        private final AwsSigningWebClient client;
+        // written under the route lock, read without it when routing
+        private volatile double latencyMillis = Double.NaN;
+        private volatile double errorRate;
+        // endpoints without samples score 0, so each one is tried before the averages decide
+        private volatile double score;
+
+        private Route(final AwsSigningRegionEndpoint endpoint, final AwsSigningWebClient client) {
+            this.endpoint = endpoint;
+            this.client = client;
+        }
+
+        synchronized void record(final long startNanos, final AsyncResult<? extends HttpResponse<?>> ar) {
+            final double sample = (System.nanoTime() - startNanos) / (double) TimeUnit.MILLISECONDS.toNanos(1);
+            final double error = ar.failed()
+                    || routingOptions.getFailureStatusCodes().contains(ar.result().statusCode()) ? 1 : 0;
+            final double decay = routingOptions.getDecay();
+            if (Double.isNaN(latencyMillis)) {
+                latencyMillis = sample;
+                errorRate = error;
+            } else {
+                latencyMillis += decay * (sample - latencyMillis);
+                errorRate += decay * (error - errorRate);
+            }
+            score = latencyMillis + errorRate * routingOptions.getErrorPenalty();
+        }
+    }
+}
@@ -0,0 +1,86 @@
+package com.venikkin.vertx.ext.web.client.aws;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+
+public class AwsSigningRoutingOptions {
+
+    private List<AwsSigningRegionEndpoint> endpoints = new ArrayList<>();
+    // weight of the newest sample in the moving averages of latency and error rate
+    private double decay = 0.2;
+    // milliseconds added to the latency score of an endpoint failing every request
+    private long errorPenalty = 1000;
+    // share of requests sent to a random endpoint, so a region that recovered gets measured again
+    private double explorationRate = 0.05;
+    private Set<Integer> failureStatusCodes = new HashSet<>(Arrays.asList(429, 500, 502, 503, 504));
+
+    public List<AwsSigningRegionEndpoint> getEndpoints() {
+        return endpoints;
+    }
+
+    public AwsSigningRoutingOptions setEndpoints(final List<AwsSigningRegionEndpoint> endpoints) {
+        this.endpoints = endpoints;
+        return this;
+    }
+
+    public AwsSigningRoutingOptions addEndpoint(final AwsSigningRegionEndpoint endpoint) {
+        endpoints.add(endpoint);
+        return this;
+    }
+
+    public double getDecay() {
+        return decay;
+    }
+
+    public AwsSigningRoutingOptions setDecay(final double decay) {
+        if (decay <= 0 || decay > 1) {
+            throw new IllegalArgumentException("decay must be between 0 and 1");
+        }
+        this.decay = decay;
+        return this;
+    }
+
+    public long getErrorPenalty() {
+        return errorPenalty;
+    }
+
+    public AwsSigningRoutingOptions setErrorPenalty(final long errorPenalty) {
+        this.errorPenalty = errorPenalty;
+        return this;
+    }
+
+    public double getExplorationRate() {
+        return explorationRate;
+    }
+
+    public AwsSigningRoutingOptions setExplorationRate(final double explorationRate) {
+        if (explorationRate < 0 || explorationRate > 1) {
+            throw new IllegalArgumentException("explorationRate must be between 0 and 1");
+        }
+        this.explorationRate = explorationRate;
+        return this;
+    }
+
+    public Set<Integer> getFailureStatusCodes() {
+        return failureStatusCodes;
+    }
+
+    public AwsSigningRoutingOptions setFailureStatusCodes(final Set<Integer> failureStatusCodes) {
+        this.failureStatusCodes = failureStatusCodes;
+        return this;
+    }
+
+    public AwsSigningRoutingOptions copy() {
+        final List<AwsSigningRegionEndpoint> endpointsCopy = new ArrayList<>();
+        endpoints.forEach(endpoint -> endpointsCopy.add(endpoint.copy()));
+        return new AwsSigningRoutingOptions()
+                .setEndpoints(endpointsCopy)
+                .setDecay(decay)
+                .setErrorPenalty(errorPenalty)
+                .setExplorationRate(explorationRate)
+                .setFailureStatusCodes(new HashSet<>(failureStatusCodes));
+    }
+}
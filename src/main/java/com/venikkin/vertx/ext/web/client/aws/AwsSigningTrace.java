@@ -0,0 +1,19 @@
+package com.venikkin.vertx.ext.web.client.aws;
+
+import io.vertx.ext.web.client.HttpRequest;
+
+// Phases of a traced request, times are System.nanoTime() readings. Calls come from one thread at a time.
+public interface AwsSigningTrace {
+
+    void credentials(long startNanos, long endNanos, boolean cacheHit);
+
+    void payloadHash(long startNanos, long endNanos, long payloadSize);
+
+    void signature(long startNanos, long endNanos, boolean signingKeyCacheHit);
+
+    // right before the signed request is sent, headers added here are not signed
+    void exchange(HttpRequest<?> request);
+
+    // status code is -1 when the request failed
+    void end(int statusCode, Throwable failure);
+}
@@ -0,0 +1,8 @@
+package com.venikkin.vertx.ext.web.client.aws;
+
+// Decides whether a request is traced. Returning null is the fast path for unsampled requests,
+// nothing is measured or recorded for them.
+public interface AwsSigningTracer {
+
+    AwsSigningTrace start(AwsSigningHttpRequest<?> request);
+}
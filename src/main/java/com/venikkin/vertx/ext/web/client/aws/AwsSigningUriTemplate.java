@@ -0,0 +1,106 @@
+package com.venikkin.vertx.ext.web.client.aws;
+
+import io.netty.handler.codec.http.QueryStringDecoder;
+import io.vertx.uritemplate.UriTemplate;
+import io.vertx.uritemplate.Variables;
+
+import java.nio.charset.StandardCharsets;
+import java.util.AbstractMap;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+
+// A request URI template split into path literals and expressions. Literals are expanded and canonicalized once,
+// per request only the expressions are expanded and encoded. The query, from the first literal '?' or {?...}
+// expression on, is expanded as a whole and parsed like vertx parses a query string given in the uri.
+final class AwsSigningUriTemplate {
+
+    private final String[] canonicalLiterals;
+    private final String[] doubleEncodedLiterals;
+    // expression i is expanded between literal i and literal i + 1
+    private final UriTemplate[] expressions;
+    private final UriTemplate query;
+
+    private AwsSigningUriTemplate(final List<String> literals, final List<String> expressions, final String query) {
+        this.canonicalLiterals = new String[literals.size()];
+        this.doubleEncodedLiterals = new String[literals.size()];
+        for (int i = 0; i < literals.size(); i++) {
+            // literals are expanded too, vertx percent-encodes the characters a URI cannot hold
+            final String literal = literals.get(i).isEmpty()
+                    ? ""
+                    : UriTemplate.of(literals.get(i)).expandToString(Variables.variables());
+            canonicalLiterals[i] = literal;
+            doubleEncodedLiterals[i] = AwsSigV4.urlEncode(literal, true);
+        }
+        this.expressions = new UriTemplate[expressions.size()];
+        for (int i = 0; i < expressions.size(); i++) {
+            this.expressions[i] = UriTemplate.of(expressions.get(i));
+        }
+        this.query = query != null ? UriTemplate.of(query) : null;
+    }
+
+    static AwsSigningUriTemplate parse(final String template) {
+        final List<String> literals = new ArrayList<>();
+        final List<String> expressions = new ArrayList<>();
+        // the scheme and authority of an absolute template are not part of the path
+        int start = 0;
+        final int scheme = template.indexOf("://");
+        if (scheme >= 0) {
+            final int path = template.indexOf('/', scheme + 3);
+            if (template.lastIndexOf('{', path < 0 ? template.length() : path) > scheme) {
+                throw new IllegalArgumentException("Templated hosts cannot be signed: " + template);
+            }
+            start = path < 0 ? template.length() : path;
+        }
+        int literalStart = start;
+        int i = start;
+        while (i < template.length()) {
+            final char c = template.charAt(i);
+            if (c == '?' || c == '{' && i + 1 < template.length() && template.charAt(i + 1) == '?') {
+                break;
+            }
+            if (c == '{') {
+                final int end = template.indexOf('}', i);
+                if (end < 0) {
+                    throw new IllegalArgumentException("Unterminated expression in " + template);
+                }
+                literals.add(template.substring(literalStart, i));
+                expressions.add(template.substring(i, end + 1));
+                i = end + 1;
+                literalStart = i;
+            } else {
+                i++;
+            }
+        }
+        literals.add(template.substring(literalStart, i));
+        return new AwsSigningUriTemplate(literals, expressions, i < template.length() ? template.substring(i) : null);
+    }
+
+    // encoded once more for services which sign the path encoded twice
+    String canonicalPath(final Variables variables, final boolean doubleEncode) {
+        final String[] literals = doubleEncode ? doubleEncodedLiterals : canonicalLiterals;
+        final StringBuilder path = new StringBuilder(64).append(literals[0]);
+        for (int i = 0; i < expressions.length; i++) {
+            final String expanded = expressions[i].expandToString(variables);
+            path.append(doubleEncode ? AwsSigV4.urlEncode(expanded, true) : expanded).append(literals[i + 1]);
+        }
+        if (path.length() == 0 || path.charAt(0) != '/') {
+            path.insert(0, '/');
+        }
+        return path.toString();
+    }
+
+    // parameters of the expanded query followed by the ones added to the request
+    List<Map.Entry<String, String>> queryParams(final Variables variables,
+                                                final Iterable<Map.Entry<String, String>> requestParams) {
+        final List<Map.Entry<String, String>> params = new ArrayList<>();
+        if (query != null) {
+            final QueryStringDecoder decoder = new QueryStringDecoder(query.expandToString(variables),
+                    StandardCharsets.UTF_8, true);
+            decoder.parameters().forEach((name, values) -> values.forEach(value ->
+                    params.add(new AbstractMap.SimpleImmutableEntry<>(name, value))));
+        }
+        requestParams.forEach(params::add);
+        return params;
+    }
+}
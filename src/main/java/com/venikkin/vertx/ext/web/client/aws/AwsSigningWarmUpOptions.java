@@ -0,0 +1,57 @@
+package com.venikkin.vertx.ext.web.client.aws;
+
+import io.vertx.core.http.HttpMethod;
+
+public class AwsSigningWarmUpOptions {
+
+    // connections are opened by sending this many concurrent signed requests to the default host, they bypass
+    // hedging, the limiter and the circuit breaker
+    private int connections = 4;
+    private HttpMethod method = HttpMethod.HEAD;
+    private String requestURI = "/";
+    private int signatures = 16;
+
+    public int getConnections() {
+        return connections;
+    }
+
+    public AwsSigningWarmUpOptions setConnections(final int connections) {
+        this.connections = connections;
+        return this;
+    }
+
+    public HttpMethod getMethod() {
+        return method;
+    }
+
+    public AwsSigningWarmUpOptions setMethod(final HttpMethod method) {
+        this.method = method;
+        return this;
+    }
+
+    public String getRequestURI() {
+        return requestURI;
+    }
+
+    public AwsSigningWarmUpOptions setRequestURI(final String requestURI) {
+        this.requestURI = requestURI;
+        return this;
+    }
+
+    public int getSignatures() {
+        return signatures;
+    }
+
+    public AwsSigningWarmUpOptions setSignatures(final int signatures) {
+        this.signatures = signatures;
+        return this;
+    }
+
+    public AwsSigningWarmUpOptions copy() {
+        return new AwsSigningWarmUpOptions()
+                .setConnections(connections)
+                .setMethod(method)
+                .setRequestURI(requestURI)
+                .setSignatures(signatures);
+    }
+}
@@ -1,234 +1,392 @@
 package com.venikkin.vertx.ext.web.client.aws;
 
+import io.vertx.core.CompositeFuture;
+import io.vertx.core.Context;
+import io.vertx.core.Future;
 import io.vertx.core.Vertx;
+import io.vertx.core.WorkerExecutor;
 import io.vertx.core.buffer.Buffer;
 import io.vertx.core.http.HttpMethod;
 import io.vertx.core.http.RequestOptions;
 import io.vertx.core.net.SocketAddress;
+import io.vertx.core.streams.ReadStream;
 import io.vertx.ext.web.client.HttpRequest;
 import io.vertx.ext.web.client.WebClient;
 import io.vertx.ext.web.client.WebClientOptions;
 import io.vertx.uritemplate.UriTemplate;
 
+import java.util.ArrayList;
+import java.util.Iterator;
+import java.util.List;
+
 public class AwsSigningWebClient implements WebClient {
 
+    private final Vertx vertx;
     private final WebClient delegate;
     private final AwsSigningOptions signingOptions;
+    private final AwsSigningEngine engine;
+    private final AwsSigningLimiter limiter;
+    private final AwsSigningHedging hedging;
+    private final AwsSigningCircuitBreaker circuitBreaker;
+    private final AwsSigningCapture capture;
+    private WorkerExecutor signingExecutor;
 
     public static AwsSigningWebClient create(final Vertx vertx, final AwsSigningOptions signingOptions) {
-        return new AwsSigningWebClient(WebClient.create(vertx), signingOptions);
+        return new AwsSigningWebClient(vertx, WebClient.create(vertx), true, signingOptions);
     }
 
     public static AwsSigningWebClient create(final Vertx vertx, final WebClientOptions webClientOptions,
                                       final AwsSigningOptions signingOptions) {
-        return new AwsSigningWebClient(WebClient.create(vertx, webClientOptions), signingOptions);
+        return new AwsSigningWebClient(vertx, WebClient.create(vertx, webClientOptions), true, signingOptions);
+    }
+
+    public static AwsSigningWebClient create(final Vertx vertx, final WebClient webClient,
+                                             final AwsSigningOptions signingOptions) {
+        return new AwsSigningWebClient(vertx, webClient, false, signingOptions);
     }
 
+    // without Vertx instance, state such as signing caches and circuit breakers is not shared with other clients
     public static AwsSigningWebClient create(final WebClient webClient, final AwsSigningOptions signingOptions) {
-        return new AwsSigningWebClient(webClient, signingOptions);
+        return new AwsSigningWebClient(null, webClient, false, signingOptions);
     }
 
-    private AwsSigningWebClient(final WebClient delegate, final AwsSigningOptions signingOptions) {
+    // ownDelegate tells a web client created here from one passed in by the caller, which is never modified
+    private AwsSigningWebClient(final Vertx vertx, final WebClient delegate, final boolean ownDelegate,
+                                final AwsSigningOptions signingOptions) {
+        this.vertx = vertx;
         this.delegate = delegate;
         this.signingOptions = signingOptions;
-    }
-
-    @Override
-    public HttpRequest<Buffer> request(HttpMethod method, int port, String host, String requestURI) {
+        final AwsSigningCrypto crypto = signingOptions.getCrypto() != null
+                ? signingOptions.getCrypto()
+                : AwsSigningCrypto.defaultCrypto();
+        this.engine = vertx != null ? AwsSigningEngine.shared(vertx, crypto) : new AwsSigningEngine(crypto);
+        this.limiter = signingOptions.getLimiterOptions() != null
+                ? new AwsSigningLimiter(signingOptions.getLimiterOptions())
+                : null;
+        this.hedging = signingOptions.getHedgingOptions() != null
+                ? new AwsSigningHedging(signingOptions.getHedgingOptions(), ownDelegate ? delegate : null)
+                : null;
+        if (signingOptions.getCircuitBreakerOptions() == null) {
+            this.circuitBreaker = null;
+        } else if (vertx != null) {
+            this.circuitBreaker = AwsSigningCircuitBreaker.shared(vertx, signingOptions.getCircuitBreakerOptions());
+        } else {
+            this.circuitBreaker = new AwsSigningCircuitBreaker(signingOptions.getCircuitBreakerOptions().copy());
+        }
+        this.capture = signingOptions.getCaptureOptions() != null
+                ? new AwsSigningCapture(signingOptions.getCaptureOptions())
+                : null;
+    }
+
+    @Override
+    public AwsSigningHttpRequest<Buffer> request(HttpMethod method, int port, String host, String requestURI) {
         return wrap(delegate.request(method, port, host, requestURI));
     }
 
     @Override
-    public HttpRequest<Buffer> request(HttpMethod method, SocketAddress serverAddress, int port, String host, String requestURI) {
+    public AwsSigningHttpRequest<Buffer> request(HttpMethod method, SocketAddress serverAddress, int port, String host, String requestURI) {
         return wrap(delegate.request(method, serverAddress, port, host, requestURI));
     }
 
     @Override
-    public HttpRequest<Buffer> request(HttpMethod method, SocketAddress serverAddress, int port, String host, UriTemplate requestURI) {
-        return wrap(delegate.request(method, serverAddress, port, host, requestURI));
+    public AwsSigningHttpRequest<Buffer> request(HttpMethod method, SocketAddress serverAddress, int port, String host, UriTemplate requestURI) {
+        return wrap(delegate.request(method, serverAddress, port, host, requestURI)).uriTemplate(requestURI);
     }
 
     @Override
-    public HttpRequest<Buffer> request(HttpMethod method, String host, String requestURI) {
+    public AwsSigningHttpRequest<Buffer> request(HttpMethod method, String host, String requestURI) {
         return wrap(delegate.request(method, host, requestURI));
     }
 
     @Override
-    public HttpRequest<Buffer> request(HttpMethod method, SocketAddress serverAddress, String host, String requestURI) {
+    public AwsSigningHttpRequest<Buffer> request(HttpMethod method, SocketAddress serverAddress, String host, String requestURI) {
         return wrap(delegate.request(method, serverAddress, host, requestURI));
     }
 
     @Override
-    public HttpRequest<Buffer> request(HttpMethod method, SocketAddress serverAddress, String host, UriTemplate requestURI) {
-        return wrap(delegate.request(method, serverAddress, host, requestURI));
+    public AwsSigningHttpRequest<Buffer> request(HttpMethod method, SocketAddress serverAddress, String host, UriTemplate requestURI) {
+        return wrap(delegate.request(method, serverAddress, host, requestURI)).uriTemplate(requestURI);
     }
 
     @Override
-    public HttpRequest<Buffer> request(HttpMethod method, String requestURI) {
+    public AwsSigningHttpRequest<Buffer> request(HttpMethod method, String requestURI) {
         return wrap(delegate.request(method, requestURI));
     }
 
     @Override
-    public HttpRequest<Buffer> request(HttpMethod method, SocketAddress serverAddress, String requestURI) {
+    public AwsSigningHttpRequest<Buffer> request(HttpMethod method, SocketAddress serverAddress, String requestURI) {
         return wrap(delegate.request(method, serverAddress, requestURI));
     }
 
     @Override
-    public HttpRequest<Buffer> request(HttpMethod method, SocketAddress serverAddress, UriTemplate requestURI) {
-        return wrap(delegate.request(method, serverAddress, requestURI));
+    public AwsSigningHttpRequest<Buffer> request(HttpMethod method, SocketAddress serverAddress, UriTemplate requestURI) {
+        return wrap(delegate.request(method, serverAddress, requestURI)).uriTemplate(requestURI);
     }
 
     @Override
-    public HttpRequest<Buffer> request(HttpMethod method, RequestOptions options) {
+    public AwsSigningHttpRequest<Buffer> request(HttpMethod method, RequestOptions options) {
         return wrap(delegate.request(method, options));
     }
 
     @Override
-    public HttpRequest<Buffer> request(HttpMethod method, SocketAddress serverAddress, RequestOptions options) {
+    public AwsSigningHttpRequest<Buffer> request(HttpMethod method, SocketAddress serverAddress, RequestOptions options) {
         return wrap(delegate.request(method, serverAddress, options));
     }
 
     @Override
-    public HttpRequest<Buffer> requestAbs(HttpMethod method, String absoluteURI) {
+    public AwsSigningHttpRequest<Buffer> requestAbs(HttpMethod method, String absoluteURI) {
         return wrap(delegate.requestAbs(method, absoluteURI));
     }
 
     @Override
-    public HttpRequest<Buffer> requestAbs(HttpMethod method, SocketAddress serverAddress, String absoluteURI) {
+    public AwsSigningHttpRequest<Buffer> requestAbs(HttpMethod method, SocketAddress serverAddress, String absoluteURI) {
         return wrap(delegate.requestAbs(method, serverAddress, absoluteURI));
     }
 
     @Override
-    public HttpRequest<Buffer> requestAbs(HttpMethod method, SocketAddress serverAddress, UriTemplate absoluteURI) {
-        return wrap(delegate.requestAbs(method, serverAddress, absoluteURI));
+    public AwsSigningHttpRequest<Buffer> requestAbs(HttpMethod method, SocketAddress serverAddress, UriTemplate absoluteURI) {
+        return wrap(delegate.requestAbs(method, serverAddress, absoluteURI)).uriTemplate(absoluteURI);
     }
 
     @Override
-    public HttpRequest<Buffer> get(String requestURI) {
+    public AwsSigningHttpRequest<Buffer> get(String requestURI) {
         return wrap(delegate.get(requestURI));
     }
 
     @Override
-    public HttpRequest<Buffer> get(int port, String host, String requestURI) {
+    public AwsSigningHttpRequest<Buffer> get(int port, String host, String requestURI) {
         return wrap(delegate.get(port, host, requestURI));
     }
 
     @Override
-    public HttpRequest<Buffer> get(String host, String requestURI) {
+    public AwsSigningHttpRequest<Buffer> get(String host, String requestURI) {
         return wrap(delegate.get(host, requestURI));
     }
 
     @Override
-    public HttpRequest<Buffer> getAbs(String absoluteURI) {
+    public AwsSigningHttpRequest<Buffer> getAbs(String absoluteURI) {
         return wrap(delegate.getAbs(absoluteURI));
     }
 
     @Override
-    public HttpRequest<Buffer> post(String requestURI) {
+    public AwsSigningHttpRequest<Buffer> post(String requestURI) {
         return wrap(delegate.post(requestURI));
     }
 
     @Override
-    public HttpRequest<Buffer> post(int port, String host, String requestURI) {
+    public AwsSigningHttpRequest<Buffer> post(int port, String host, String requestURI) {
         return wrap(delegate.post(port, host, requestURI));
     }
 
     @Override
-    public HttpRequest<Buffer> post(String host, String requestURI) {
+    public AwsSigningHttpRequest<Buffer> post(String host, String requestURI) {
         return wrap(delegate.post(host, requestURI));
     }
 
     @Override
-    public HttpRequest<Buffer> postAbs(String absoluteURI) {
+    public AwsSigningHttpRequest<Buffer> postAbs(String absoluteURI) {
         return wrap(delegate.postAbs(absoluteURI));
     }
 
     @Override
-    public HttpRequest<Buffer> put(String requestURI) {
+    public AwsSigningHttpRequest<Buffer> put(String requestURI) {
         return wrap(delegate.put(requestURI));
     }
 
     @Override
-    public HttpRequest<Buffer> put(int port, String host, String requestURI) {
+    public AwsSigningHttpRequest<Buffer> put(int port, String host, String requestURI) {
         return wrap(delegate.put(port, host, requestURI));
     }
 
     @Override
-    public HttpRequest<Buffer> put(String host, String requestURI) {
+    public AwsSigningHttpRequest<Buffer> put(String host, String requestURI) {
         return wrap(delegate.put(host, requestURI));
     }
 
     @Override
-    public HttpRequest<Buffer> putAbs(String absoluteURI) {
+    public AwsSigningHttpRequest<Buffer> putAbs(String absoluteURI) {
         return wrap(delegate.putAbs(absoluteURI));
     }
 
     @Override
-    public HttpRequest<Buffer> delete(String requestURI) {
+    public AwsSigningHttpRequest<Buffer> delete(String requestURI) {
         return wrap(delegate.delete(requestURI));
     }
 
     @Override
-    public HttpRequest<Buffer> delete(int port, String host, String requestURI) {
+    public AwsSigningHttpRequest<Buffer> delete(int port, String host, String requestURI) {
         return wrap(delegate.delete(port, host, requestURI));
     }
 
     @Override
-    public HttpRequest<Buffer> delete(String host, String requestURI) {
+    public AwsSigningHttpRequest<Buffer> delete(String host, String requestURI) {
         return wrap(delegate.delete(host, requestURI));
     }
 
     @Override
-    public HttpRequest<Buffer> deleteAbs(String absoluteURI) {
+    public AwsSigningHttpRequest<Buffer> deleteAbs(String absoluteURI) {
         return wrap(delegate.deleteAbs(absoluteURI));
     }
 
     @Override
-    public HttpRequest<Buffer> patch(String requestURI) {
+    public AwsSigningHttpRequest<Buffer> patch(String requestURI) {
         return wrap(delegate.patch(requestURI));
     }
 
     @Override
-    public HttpRequest<Buffer> patch(int port, String host, String requestURI) {
+    public AwsSigningHttpRequest<Buffer> patch(int port, String host, String requestURI) {
         return wrap(delegate.patch(port, host, requestURI));
     }
 
     @Override
-    public HttpRequest<Buffer> patch(String host, String requestURI) {
+    public AwsSigningHttpRequest<Buffer> patch(String host, String requestURI) {
         return wrap(delegate.patch(host, requestURI));
     }
 
     @Override
-    public HttpRequest<Buffer> patchAbs(String absoluteURI) {
+    public AwsSigningHttpRequest<Buffer> patchAbs(String absoluteURI) {
         return wrap(delegate.patchAbs(absoluteURI));
     }
 
     @Override
-    public HttpRequest<Buffer> head(String requestURI) {
+    public AwsSigningHttpRequest<Buffer> head(String requestURI) {
         return wrap(delegate.head(requestURI));
     }
 
     @Override
-    public HttpRequest<Buffer> head(int port, String host, String requestURI) {
+    public AwsSigningHttpRequest<Buffer> head(int port, String host, String requestURI) {
         return wrap(delegate.head(port, host, requestURI));
     }
 
     @Override
-    public HttpRequest<Buffer> head(String host, String requestURI) {
+    public AwsSigningHttpRequest<Buffer> head(String host, String requestURI) {
         return wrap(delegate.head(host, requestURI));
     }
 
     @Override
-    public HttpRequest<Buffer> headAbs(String absoluteURI) {
+    public AwsSigningHttpRequest<Buffer> headAbs(String absoluteURI) {
         return wrap(delegate.headAbs(absoluteURI));
     }
 
+    public ReadStream<AwsSigningBulkResult> bulk(final Iterator<AwsSigningBulkRequest> requests) {
+        return bulk(requests, new AwsSigningBulkOptions());
+    }
+
+    public ReadStream<AwsSigningBulkResult> bulk(final Iterator<AwsSigningBulkRequest> requests,
+                                                 final AwsSigningBulkOptions bulkOptions) {
+        return new AwsSigningBulkStream(this, bulkOptions, requests);
+    }
+
+    public ReadStream<AwsSigningBulkResult> bulk(final ReadStream<AwsSigningBulkRequest> requests) {
+        return bulk(requests, new AwsSigningBulkOptions());
+    }
+
+    public ReadStream<AwsSigningBulkResult> bulk(final ReadStream<AwsSigningBulkRequest> requests,
+                                                 final AwsSigningBulkOptions bulkOptions) {
+        return new AwsSigningBulkStream(this, bulkOptions, requests);
+    }
+
+    public Future<AwsRangedDownloadResult> download(final RequestOptions requestOptions, final String path) {
+        return download(requestOptions, path, new AwsRangedDownloadOptions());
+    }
+
+    // Signed Range GETs are downloaded in parallel straight into the file at their offsets, without holding the
+    // object in memory. The file is overwritten, and deleted when the download fails.
+    public Future<AwsRangedDownloadResult> download(final RequestOptions requestOptions, final String path,
+                                                    final AwsRangedDownloadOptions downloadOptions) {
+        final Context context = vertx == null ? Vertx.currentContext() : null;
+        if (vertx == null && context == null) {
+            return Future.failedFuture(new IllegalStateException(
+                    "Downloads need a client created with a Vertx instance or a Vert.x context"));
+        }
+        return new AwsRangedDownload(vertx != null ? vertx : context.owner(), this, downloadOptions.copy(),
+                new RequestOptions(requestOptions), path).start();
+    }
+
+    public Future<Void> warmUp() {
+        return warmUp(new AwsSigningWarmUpOptions());
+    }
+
+    // Credentials resolution and synthetic signatures run on a worker thread, then pooled connections
+    // to the default host are opened with signed requests. Any HTTP response counts as an established connection.
+    @SuppressWarnings("rawtypes")
+    public Future<Void> warmUp(final AwsSigningWarmUpOptions warmUpOptions) {
+        return executeBlocking(() -> engine.warmUp(signingOptions,
+                delegate.request(warmUpOptions.getMethod(), warmUpOptions.getRequestURI()),
+                warmUpOptions.getSignatures())
+        ).compose(v -> {
+            final List<Future> connections = new ArrayList<>();
+            for (int i = 0; i < warmUpOptions.getConnections(); i++) {
+                connections.add(request(warmUpOptions.getMethod(), warmUpOptions.getRequestURI()).sendDirect());
+            }
+            return CompositeFuture.all(connections).mapEmpty();
+        });
+    }
+
+    // null unless limiter options are configured
+    public AwsSigningLimiter limiter() {
+        return limiter;
+    }
+
+    // null unless circuit breaker options are configured
+    public AwsSigningCircuitBreaker circuitBreaker() {
+        return circuitBreaker;
+    }
+
+    // null unless capture options are configured
+    public AwsSigningCapture capture() {
+        return capture;
+    }
+
     @Override
     public void close() {
+        synchronized (this) {
+            if (signingExecutor != null) {
+                signingExecutor.close();
+                signingExecutor = null;
+            }
+        }
         delegate.close();
     }
 
+    AwsSigningOptions signingOptions() {
+        return signingOptions;
+    }
+
+    AwsSigningEngine engine() {
+        return engine;
+    }
+
+    // null when no dedicated signing worker pool is configured
+    synchronized WorkerExecutor signingExecutor(final Vertx owner) {
+        if (signingExecutor == null && signingOptions.getSigningWorkerPoolName() != null) {
+            signingExecutor = (vertx != null ? vertx : owner).createSharedWorkerExecutor(
+                    signingOptions.getSigningWorkerPoolName(), signingOptions.getSigningWorkerPoolSize());
+        }
+        return signingExecutor;
+    }
+
+    AwsSigningHedging hedging() {
+        return hedging;
+    }
+
+    private Future<Void> executeBlocking(final Runnable task) {
+        final Context context = vertx != null ? vertx.getOrCreateContext() : Vertx.currentContext();
+        if (context == null) {
+            try {
+                task.run();
+                return Future.succeededFuture();
+            } catch (RuntimeException e) {
+                return Future.failedFuture(e);
+            }
+        }
+        return context.<Void>executeBlocking(promise -> {
+            task.run();
+            promise.complete();
+        });
+    }
+
     private <T> AwsSigningHttpRequest<T> wrap(final HttpRequest<T> request) {
-        return new AwsSigningHttpRequest<>(request, signingOptions);
+        return new AwsSigningHttpRequest<>(request, this);
     }
 }
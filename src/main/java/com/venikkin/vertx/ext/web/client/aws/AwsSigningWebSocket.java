@@ -0,0 +1,254 @@
+package com.venikkin.vertx.ext.web.client.aws;
+
+import io.netty.handler.codec.http.QueryStringDecoder;
+import io.vertx.core.Context;
+import io.vertx.core.Future;
+import io.vertx.core.Handler;
+import io.vertx.core.Promise;
+import io.vertx.core.Vertx;
+import io.vertx.core.buffer.Buffer;
+import io.vertx.core.http.HttpClient;
+import io.vertx.core.http.WebSocket;
+import io.vertx.core.http.WebSocketConnectOptions;
+import software.amazon.awssdk.auth.credentials.AwsCredentials;
+import software.amazon.awssdk.auth.credentials.AwsSessionCredentials;
+
+import java.util.AbstractMap;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+
+// WebSocket that stays connected: it reconnects with backoff when the connection drops, and opens a connection
+// signed with the new credentials when they rotate, closing the old one only once the new one is up.
+// Messages are written to and received from whichever connection is current. Connecting, reconnecting and
+// credential checks run on the context the socket was created on, only current and closed are read elsewhere.
+public class AwsSigningWebSocket {
+
+    private final Vertx vertx;
+    private final Context context;
+    private final HttpClient client;
+    private final AwsSigningEngine engine;
+    private final AwsSigningOptions signingOptions;
+    private final WebSocketConnectOptions connectOptions;
+    private final AwsSigningWebSocketOptions webSocketOptions;
+
+    private volatile WebSocket current;
+    private AwsCredentials signedWith;
+    private Handler<String> textMessageHandler;
+    private Handler<Buffer> binaryMessageHandler;
+    private Handler<Throwable> exceptionHandler;
+    private Handler<WebSocket> connectHandler;
+    private long credentialsTimer = -1;
+    private boolean reconnecting;
+    private volatile boolean closed;
+
+    AwsSigningWebSocket(final Vertx vertx, final HttpClient client, final AwsSigningEngine engine,
+                        final AwsSigningOptions signingOptions, final WebSocketConnectOptions connectOptions,
+                        final AwsSigningWebSocketOptions webSocketOptions) {
+        this.vertx = vertx;
+        this.context = vertx.getOrCreateContext();
+        this.client = client;
+        this.engine = engine;
+        this.signingOptions = signingOptions;
+        this.connectOptions = connectOptions;
+        this.webSocketOptions = webSocketOptions;
+    }
+
+    public AwsSigningWebSocket textMessageHandler(final Handler<String> handler) {
+        this.textMessageHandler = handler;
+        return this;
+    }
+
+    public AwsSigningWebSocket binaryMessageHandler(final Handler<Buffer> handler) {
+        this.binaryMessageHandler = handler;
+        return this;
+    }
+
+    public AwsSigningWebSocket exceptionHandler(final Handler<Throwable> handler) {
+        this.exceptionHandler = handler;
+        return this;
+    }
+
+    // called with every new connection after the first one, e.g. to re-subscribe
+    public AwsSigningWebSocket connectHandler(final Handler<WebSocket> handler) {
+        this.connectHandler = handler;
+        return this;
+    }
+
+    public Future<Void> writeTextMessage(final String text) {
+        final WebSocket webSocket = current;
+        return webSocket != null ? webSocket.writeTextMessage(text) : Future.failedFuture("WebSocket is not connected");
+    }
+
+    public Future<Void> writeBinaryMessage(final Buffer data) {
+        final WebSocket webSocket = current;
+        return webSocket != null ? webSocket.writeBinaryMessage(data) : Future.failedFuture("WebSocket is not connected");
+    }
+
+    // the current connection, null while reconnecting
+    public WebSocket webSocket() {
+        return current;
+    }
+
+    public Future<Void> close() {
+        closed = true;
+        final Promise<Void> promise = Promise.promise();
+        context.runOnContext(v -> {
+            if (credentialsTimer >= 0) {
+                vertx.cancelTimer(credentialsTimer);
+            }
+            final WebSocket webSocket = current;
+            current = null;
+            (webSocket != null ? webSocket.close() : Future.<Void>succeededFuture()).onComplete(promise);
+        });
+        return promise.future();
+    }
+
+    Future<Void> connect() {
+        final Promise<Void> promise = Promise.promise();
+        context.runOnContext(v -> open().<Void>map(webSocket -> {
+            if (webSocketOptions.getCredentialsCheckInterval() > 0) {
+                credentialsTimer = vertx.setPeriodic(webSocketOptions.getCredentialsCheckInterval(),
+                        id -> checkCredentials());
+            }
+            return null;
+        }).onComplete(promise));
+        return promise.future();
+    }
+
+    private Future<WebSocket> open() {
+        final AwsCredentials credentials;
+        final WebSocketConnectOptions signed;
+        try {
+            credentials = engine.resolveCredentials(signingOptions.getCredentialsProvider(),
+                    signingOptions.getCredentialsCacheTtl());
+            signed = sign(credentials);
+        } catch (RuntimeException e) {
+            return Future.failedFuture(e);
+        }
+        return client.webSocket(signed).map(webSocket -> {
+            if (closed) {
+                webSocket.close();
+                return webSocket;
+            }
+            final WebSocket previous = current;
+            final boolean reconnected = signedWith != null;
+            current = webSocket;
+            signedWith = credentials;
+            webSocket.textMessageHandler(text -> {
+                if (textMessageHandler != null) {
+                    textMessageHandler.handle(text);
+                }
+            });
+            webSocket.binaryMessageHandler(data -> {
+                if (binaryMessageHandler != null) {
+                    binaryMessageHandler.handle(data);
+                }
+            });
+            webSocket.exceptionHandler(cause -> {
+                if (exceptionHandler != null) {
+                    exceptionHandler.handle(cause);
+                }
+            });
+            webSocket.closeHandler(v -> {
+                if (current == webSocket) {
+                    current = null;
+                    reconnect(webSocketOptions.getReconnectDelay());
+                }
+            });
+            if (previous != null) {
+                previous.close();
+            }
+            if (reconnected && connectHandler != null) {
+                connectHandler.handle(webSocket);
+            }
+            return webSocket;
+        });
+    }
+
+    private WebSocketConnectOptions sign(final AwsCredentials credentials) {
+        if (connectOptions.getHost() == null) {
+            throw new IllegalArgumentException("Host of a signed WebSocket must be set in the connect options");
+        }
+        final boolean ssl = Boolean.TRUE.equals(connectOptions.isSsl());
+        final int port = connectOptions.getPort() != null ? connectOptions.getPort() : ssl ? 443 : 80;
+        final String host = AwsSigV4.host(connectOptions.getHost(), port, ssl ? "https" : "http");
+        final String uri = connectOptions.getURI() != null ? connectOptions.getURI() : "/";
+        final QueryStringDecoder decoder = new QueryStringDecoder(uri);
+        final List<Map.Entry<String, String>> queryParams = new ArrayList<>();
+        decoder.parameters().forEach((name, values) -> values.forEach(value ->
+                queryParams.add(new AbstractMap.SimpleImmutableEntry<>(name, value))));
+        final String signingQuery = engine.presign(signingOptions, credentials, signingOptions.getRegion(),
+                signingOptions.getServiceName(), "GET", host, decoder.rawPath(), queryParams,
+                webSocketOptions.getExpires());
+        return new WebSocketConnectOptions(connectOptions)
+                .setURI(uri + (uri.indexOf('?') >= 0 ? '&' : '?') + signingQuery);
+    }
+
+    private void checkCredentials() {
+        if (closed || reconnecting || current == null) {
+            return;
+        }
+        final AwsCredentials credentials;
+        try {
+            credentials = engine.resolveCredentials(signingOptions.getCredentialsProvider(),
+                    signingOptions.getCredentialsCacheTtl());
+        } catch (RuntimeException e) {
+            if (exceptionHandler != null) {
+                exceptionHandler.handle(e);
+            }
+            return;
+        }
+        if (!sameCredentials(credentials, signedWith)) {
+            // make before break, the old connection keeps serving until the new one is up
+            reconnecting = true;
+            open().onComplete(ar -> {
+                reconnecting = false;
+                if (ar.failed()) {
+                    if (exceptionHandler != null) {
+                        exceptionHandler.handle(ar.cause());
+                    }
+                    // the old connection dropped while this one was opened, its reconnect was skipped
+                    if (current == null) {
+                        reconnect(webSocketOptions.getReconnectDelay());
+                    }
+                }
+            });
+        }
+    }
+
+    private void reconnect(final long delay) {
+        if (closed || !webSocketOptions.isReconnect() || reconnecting) {
+            return;
+        }
+        reconnecting = true;
+        vertx.setTimer(delay, id -> open().onComplete(ar -> {
+            reconnecting = false;
+            if (ar.failed()) {
+                if (exceptionHandler != null) {
+                    exceptionHandler.handle(ar.cause());
+                }
+                reconnect(Math.min(delay * 2, webSocketOptions.getMaxReconnectDelay()));
+            }
+        }));
+    }
+
+    private static boolean sameCredentials(final AwsCredentials a, final AwsCredentials b) {
+        if (a == b) {
+            return true;
+        }
+        if (a == null || b == null) {
+            return false;
+        }
+        return a.accessKeyId().equals(b.accessKeyId())
+                && a.secretAccessKey().equals(b.secretAccessKey())
+                && Objects.equals(sessionToken(a), sessionToken(b));
+    }
+
+    private static String sessionToken(final AwsCredentials credentials) {
+        return credentials instanceof AwsSessionCredentials
+                ? ((AwsSessionCredentials) credentials).sessionToken()
+                : null;
+    }
+}
@@ -0,0 +1,55 @@
+package com.venikkin.vertx.ext.web.client.aws;
+
+import io.vertx.core.Future;
+import io.vertx.core.Vertx;
+import io.vertx.core.http.HttpClient;
+import io.vertx.core.http.HttpClientOptions;
+import io.vertx.core.http.WebSocketConnectOptions;
+
+// Opens WebSockets signed with query string SigV4, e.g. to IAM protected API Gateway WebSocket APIs
+public class AwsSigningWebSocketClient {
+
+    private final Vertx vertx;
+    private final HttpClient delegate;
+    private final AwsSigningOptions signingOptions;
+    private final AwsSigningEngine engine;
+
+    private AwsSigningWebSocketClient(final Vertx vertx, final HttpClient delegate,
+                                      final AwsSigningOptions signingOptions) {
+        this.vertx = vertx;
+        this.delegate = delegate;
+        this.signingOptions = signingOptions;
+        this.engine = AwsSigningEngine.shared(vertx, signingOptions.getCrypto() != null
+                ? signingOptions.getCrypto()
+                : AwsSigningCrypto.defaultCrypto());
+    }
+
+    public static AwsSigningWebSocketClient create(final Vertx vertx, final AwsSigningOptions signingOptions) {
+        return create(vertx, new HttpClientOptions(), signingOptions);
+    }
+
+    public static AwsSigningWebSocketClient create(final Vertx vertx, final HttpClientOptions options,
+                                                   final AwsSigningOptions signingOptions) {
+        return new AwsSigningWebSocketClient(vertx, vertx.createHttpClient(options), signingOptions);
+    }
+
+    public static AwsSigningWebSocketClient create(final Vertx vertx, final HttpClient httpClient,
+                                                   final AwsSigningOptions signingOptions) {
+        return new AwsSigningWebSocketClient(vertx, httpClient, signingOptions);
+    }
+
+    public Future<AwsSigningWebSocket> connect(final WebSocketConnectOptions connectOptions) {
+        return connect(connectOptions, new AwsSigningWebSocketOptions());
+    }
+
+    public Future<AwsSigningWebSocket> connect(final WebSocketConnectOptions connectOptions,
+                                               final AwsSigningWebSocketOptions webSocketOptions) {
+        final AwsSigningWebSocket webSocket = new AwsSigningWebSocket(vertx, delegate, engine, signingOptions,
+                new WebSocketConnectOptions(connectOptions), webSocketOptions.copy());
+        return webSocket.connect().map(webSocket);
+    }
+
+    public Future<Void> close() {
+        return delegate.close();
+    }
+}
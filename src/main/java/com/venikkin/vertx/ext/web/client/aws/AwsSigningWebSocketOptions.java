@@ -0,0 +1,67 @@
+package com.venikkin.vertx.ext.web.client.aws;
+
+public class AwsSigningWebSocketOptions {
+
+    // seconds the signed handshake URL is valid, only the handshake itself is checked by AWS
+    private long expires = 60;
+    // milliseconds between checks of the credentials provider, the connection is re-signed when they rotate
+    private long credentialsCheckInterval = 60000;
+    private boolean reconnect = true;
+    // reconnect delays in milliseconds, doubled after each failed attempt
+    private long reconnectDelay = 500;
+    private long maxReconnectDelay = 30000;
+
+    public long getExpires() {
+        return expires;
+    }
+
+    public AwsSigningWebSocketOptions setExpires(final long expires) {
+        this.expires = expires;
+        return this;
+    }
+
+    public long getCredentialsCheckInterval() {
+        return credentialsCheckInterval;
+    }
+
+    public AwsSigningWebSocketOptions setCredentialsCheckInterval(final long credentialsCheckInterval) {
+        this.credentialsCheckInterval = credentialsCheckInterval;
+        return this;
+    }
+
+    public boolean isReconnect() {
+        return reconnect;
+    }
+
+    public AwsSigningWebSocketOptions setReconnect(final boolean reconnect) {
+        this.reconnect = reconnect;
+        return this;
+    }
+
+    public long getReconnectDelay() {
+        return reconnectDelay;
+    }
+
+    public AwsSigningWebSocketOptions setReconnectDelay(final long reconnectDelay) {
+        this.reconnectDelay = reconnectDelay;
+        return this;
+    }
+
+    public long getMaxReconnectDelay() {
+        return maxReconnectDelay;
+    }
+
+    public AwsSigningWebSocketOptions setMaxReconnectDelay(final long maxReconnectDelay) {
+        this.maxReconnectDelay = maxReconnectDelay;
+        return this;
+    }
+
+    public AwsSigningWebSocketOptions copy() {
+        return new AwsSigningWebSocketOptions()
+                .setExpires(expires)
+                .setCredentialsCheckInterval(credentialsCheckInterval)
+                .setReconnect(reconnect)
+                .setReconnectDelay(reconnectDelay)
+                .setMaxReconnectDelay(maxReconnectDelay);
+    }
+}
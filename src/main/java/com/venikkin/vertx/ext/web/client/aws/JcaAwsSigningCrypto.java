@@ -0,0 +1,50 @@
+package com.venikkin.vertx.ext.web.client.aws;
+
+import javax.crypto.Mac;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.security.Provider;
+
+final class JcaAwsSigningCrypto implements AwsSigningCrypto {
+
+    static final String CORRETTO_PROVIDER_NAME = "AmazonCorrettoCryptoProvider";
+    static final JcaAwsSigningCrypto DEFAULT = new JcaAwsSigningCrypto(null);
+
+    private final Provider provider;
+
+    JcaAwsSigningCrypto(final Provider provider) {
+        this.provider = provider;
+    }
+
+    @Override
+    public String name() {
+        return provider != null ? "jca:" + provider.getName() : "jca";
+    }
+
+    @Override
+    public MessageDigest sha256() {
+        try {
+            return provider != null
+                    ? MessageDigest.getInstance(AwsSigV4.SHA256, provider)
+                    : MessageDigest.getInstance(AwsSigV4.SHA256);
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException(e);
+        }
+    }
+
+    @Override
+    public Mac hmacSha256() {
+        try {
+            return provider != null
+                    ? Mac.getInstance(AwsSigV4.HMAC_SHA256, provider)
+                    : Mac.getInstance(AwsSigV4.HMAC_SHA256);
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException(e);
+        }
+    }
+
+    @Override
+    public String toString() {
+        return name();
+    }
+}
@@ -0,0 +1,156 @@
+package com.venikkin.vertx.ext.web.client.aws;
+
+import io.opentelemetry.api.OpenTelemetry;
+import io.opentelemetry.api.common.AttributeKey;
+import io.opentelemetry.api.trace.Span;
+import io.opentelemetry.api.trace.SpanContext;
+import io.opentelemetry.api.trace.SpanKind;
+import io.opentelemetry.api.trace.StatusCode;
+import io.opentelemetry.api.trace.Tracer;
+import io.opentelemetry.context.Context;
+import io.opentelemetry.context.propagation.TextMapSetter;
+import io.vertx.ext.web.client.HttpRequest;
+
+import java.time.Instant;
+import java.util.concurrent.TimeUnit;
+
+// Records a span per signed request with child spans for credentials, payload hash, signature and the HTTP
+// exchange. Needs io.opentelemetry:opentelemetry-api on the classpath, the library does not bring it.
+public class OpenTelemetryAwsSigningTracer implements AwsSigningTracer {
+
+    static final String INSTRUMENTATION_NAME = "com.venikkin.vertx-web-client-4aws";
+    static final AttributeKey<String> HTTP_METHOD = AttributeKey.stringKey("http.method");
+    static final AttributeKey<Long> HTTP_STATUS_CODE = AttributeKey.longKey("http.status_code");
+    static final AttributeKey<String> NET_PEER_NAME = AttributeKey.stringKey("net.peer.name");
+    static final AttributeKey<String> AWS_REGION = AttributeKey.stringKey("aws.region");
+    static final AttributeKey<String> AWS_SERVICE = AttributeKey.stringKey("aws.service");
+    static final AttributeKey<Long> PAYLOAD_SIZE = AttributeKey.longKey("aws.payload.size");
+    static final AttributeKey<Boolean> CREDENTIALS_CACHE_HIT = AttributeKey.booleanKey("aws.credentials.cache_hit");
+    static final AttributeKey<Boolean> SIGNING_KEY_CACHE_HIT = AttributeKey.booleanKey("aws.signing_key.cache_hit");
+
+    private static final TextMapSetter<HttpRequest<?>> HEADER_SETTER =
+            (request, key, value) -> request.putHeader(key, value);
+
+    private final OpenTelemetry openTelemetry;
+    private final Tracer tracer;
+
+    public OpenTelemetryAwsSigningTracer(final OpenTelemetry openTelemetry) {
+        this.openTelemetry = openTelemetry;
+        this.tracer = openTelemetry.getTracer(INSTRUMENTATION_NAME);
+    }
+
+    @Override
+    public AwsSigningTrace start(final AwsSigningHttpRequest<?> request) {
+        final Context parent = Context.current();
+        final SpanContext parentSpanContext = Span.fromContext(parent).getSpanContext();
+        // a sampled out parent decides for its children, no span is built at all
+        if (parentSpanContext.isValid() && !parentSpanContext.isSampled()) {
+            return null;
+        }
+        final long startNanos = System.nanoTime();
+        final long startEpochNanos = epochNanos(Instant.now());
+        final Span span = tracer.spanBuilder(request.traceOperation() != null
+                        ? request.traceOperation()
+                        : request.method().name())
+                .setParent(parent)
+                .setStartTimestamp(startEpochNanos, TimeUnit.NANOSECONDS)
+                .setAttribute(HTTP_METHOD, request.method().name())
+                .setAttribute(NET_PEER_NAME, request.host())
+                .setAttribute(AWS_REGION, request.region().id())
+                .setAttribute(AWS_SERVICE, request.serviceName())
+                .startSpan();
+        if (!span.isRecording()) {
+            return null;
+        }
+        return new Trace(span, parent.with(span), startNanos, startEpochNanos);
+    }
+
+    private static long epochNanos(final Instant instant) {
+        return TimeUnit.SECONDS.toNanos(instant.getEpochSecond()) + instant.getNano();
+    }
+
+    private class Trace implements AwsSigningTrace {
+
+        private final Span span;
+        private final Context context;
+        // child span times are taken with nanoTime and anchored to the start of the request span
+        private final long anchorNanos;
+        private final long anchorEpochNanos;
+        private Span exchange;
+
+        private Trace(final Span span, final Context context, final long anchorNanos, final long anchorEpochNanos) {
+            this.span = span;
+            this.context = context;
+            this.anchorNanos = anchorNanos;
+            this.anchorEpochNanos = anchorEpochNanos;
+        }
+
+        @Override
+        public void credentials(final long startNanos, final long endNanos, final boolean cacheHit) {
+            tracer.spanBuilder("aws.credentials.resolve")
+                    .setParent(context)
+                    .setStartTimestamp(epochNanos(startNanos), TimeUnit.NANOSECONDS)
+                    .setAttribute(CREDENTIALS_CACHE_HIT, cacheHit)
+                    .startSpan()
+                    .end(epochNanos(endNanos), TimeUnit.NANOSECONDS);
+        }
+
+        @Override
+        public void payloadHash(final long startNanos, final long endNanos, final long payloadSize) {
+            tracer.spanBuilder("aws.payload.hash")
+                    .setParent(context)
+                    .setStartTimestamp(epochNanos(startNanos), TimeUnit.NANOSECONDS)
+                    .setAttribute(PAYLOAD_SIZE, payloadSize)
+                    .startSpan()
+                    .end(epochNanos(endNanos), TimeUnit.NANOSECONDS);
+        }
+
+        @Override
+        public void signature(final long startNanos, final long endNanos, final boolean signingKeyCacheHit) {
+            tracer.spanBuilder("aws.signature")
+                    .setParent(context)
+                    .setStartTimestamp(epochNanos(startNanos), TimeUnit.NANOSECONDS)
+                    .setAttribute(SIGNING_KEY_CACHE_HIT, signingKeyCacheHit)
+                    .startSpan()
+                    .end(epochNanos(endNanos), TimeUnit.NANOSECONDS);
+        }
+
+        @Override
+        public void exchange(final HttpRequest<?> request) {
+            exchange = tracer.spanBuilder("aws.http.exchange")
+                    .setParent(context)
+                    .setSpanKind(SpanKind.CLIENT)
+                    .setStartTimestamp(epochNanos(System.nanoTime()), TimeUnit.NANOSECONDS)
+                    .startSpan();
+            openTelemetry.getPropagators().getTextMapPropagator()
+                    .inject(context.with(exchange), request, HEADER_SETTER);
+        }
+
+        @Override
+        public void end(final int statusCode, final Throwable failure) {
+            final long endEpochNanos = epochNanos(System.nanoTime());
+            if (exchange != null) {
+                record(exchange, statusCode, failure);
+                exchange.end(endEpochNanos, TimeUnit.NANOSECONDS);
+            }
+            record(span, statusCode, failure);
+            span.end(endEpochNanos, TimeUnit.NANOSECONDS);
+        }
+
+        private void record(final Span target, final int statusCode, final Throwable failure) {
+            if (failure != null) {
+                target.recordException(failure);
+                target.setStatus(StatusCode.ERROR);
+            } else {
+                target.setAttribute(HTTP_STATUS_CODE, (long) statusCode);
+                if (statusCode >= 500) {
+                    target.setStatus(StatusCode.ERROR);
+                }
+            }
+        }
+
+        private long epochNanos(final long nanos) {
+            return anchorEpochNanos + nanos - anchorNanos;
+        }
+    }
+}
@@ -0,0 +1,42 @@
+package com.venikkin.vertx.ext.web.client.aws;
+
+import io.vertx.core.Vertx;
+import io.vertx.core.buffer.Buffer;
+import io.vertx.ext.web.client.HttpRequest;
+import software.amazon.awssdk.auth.credentials.AwsBasicCredentials;
+import software.amazon.awssdk.auth.credentials.StaticCredentialsProvider;
+import software.amazon.awssdk.regions.Region;
+
+import java.time.Clock;
+import java.time.Instant;
+import java.time.ZoneOffset;
+import java.util.concurrent.TimeUnit;
+
+// Creates Vertx and a signing client and signs one request, the way a short-lived function does on a cold start.
+// Run by startup-benchmark/run.sh on the JVM and as a native image. With "verify" it signs at a fixed instant and
+// prints only the Authorization header, so the signatures of both can be compared.
+public class AwsSigningStartup {
+
+    public static void main(final String[] args) {
+        final boolean verify = args.length > 0 && "verify".equals(args[0]);
+        final long start = System.nanoTime();
+        final Vertx vertx = Vertx.vertx();
+        final AwsSigningOptions signingOptions = new AwsSigningOptions()
+                .setCredentialsProvider(StaticCredentialsProvider.create(
+                        AwsBasicCredentials.create("AKIDEXAMPLE", "wJalrXUtnFEMI/K7MDENG+bPxRfiCYEXAMPLEKEY")))
+                .setRegion(Region.EU_WEST_1)
+                .setClock(verify ? Clock.fixed(Instant.parse("2023-01-20T12:34:56Z"), ZoneOffset.UTC) : null);
+        final AwsSigningWebClient client = AwsSigningWebClient.create(vertx, signingOptions);
+        final HttpRequest<Buffer> request = client.get(443, "123456.execute-api.eu-west-1.amazonaws.com", "/dev/echo")
+                .ssl(true);
+        client.engine().sign(signingOptions, request, "https", AwsSigV4.EMPTY_PAYLOAD_HASH);
+        final long signed = System.nanoTime();
+        if (verify) {
+            System.out.println(request.headers().get("Authorization"));
+        } else {
+            System.out.println("first signature after " + TimeUnit.NANOSECONDS.toMillis(signed - start) + " ms: "
+                    + request.headers().get("Authorization"));
+        }
+        vertx.close();
+    }
+}
@@ -0,0 +1,190 @@
+package com.venikkin.vertx.ext.web.client.aws;
+
+import io.vertx.core.Future;
+import io.vertx.core.Vertx;
+import io.vertx.core.buffer.Buffer;
+import io.vertx.core.http.HttpServerResponse;
+import io.vertx.ext.web.client.HttpResponse;
+import io.vertx.junit5.Timeout;
+import io.vertx.junit5.VertxExtension;
+import io.vertx.junit5.VertxTestContext;
+import org.assertj.core.api.SoftAssertions;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.ValueSource;
+
+import java.nio.charset.StandardCharsets;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.UUID;
+import java.util.concurrent.TimeUnit;
+import java.util.zip.CRC32;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.junit.jupiter.params.ParameterizedTest.ARGUMENTS_PLACEHOLDER;
+import static org.junit.jupiter.params.ParameterizedTest.DISPLAY_NAME_PLACEHOLDER;
+
+@ExtendWith(VertxExtension.class)
+class AwsEventStreamTest {
+
+    private final static int TEST_TIMEOUT_SECS = 30;
+
+    private static final Instant TIMESTAMP = Instant.parse("2023-01-20T12:34:56.789Z");
+    private static final UUID ID = UUID.fromString("0c9a2b8e-3f64-4f7e-9d1e-6b5b4a3c2d1e");
+    private static final Buffer EVENTS = Buffer.buffer()
+            .appendBuffer(message(Buffer.buffer()
+                    .appendBuffer(stringHeader(AwsEvent.MESSAGE_TYPE, "event"))
+                    .appendBuffer(stringHeader(AwsEvent.EVENT_TYPE, "PayloadChunk"))
+                    .appendBuffer(header("flag", (byte) 0, Buffer.buffer()))
+                    .appendBuffer(header("count", (byte) 4, Buffer.buffer().appendInt(42)))
+                    .appendBuffer(header("at", (byte) 8, Buffer.buffer().appendLong(TIMESTAMP.toEpochMilli())))
+                    .appendBuffer(header("id", (byte) 9, Buffer.buffer()
+                            .appendLong(ID.getMostSignificantBits())
+                            .appendLong(ID.getLeastSignificantBits()))),
+                    Buffer.buffer("{\"chunk\":1}")))
+            .appendBuffer(message(stringHeader(AwsEvent.MESSAGE_TYPE, "event"), Buffer.buffer()))
+            .appendBuffer(message(Buffer.buffer(), Buffer.buffer(new byte[70_000])));
+
+    private static Vertx vertx;
+    private static AwsSigningWebClient signingClient;
+    private static int port;
+
+    @BeforeAll
+    static void init(final Vertx vertx, final VertxTestContext testContext) {
+        AwsEventStreamTest.vertx = vertx;
+        signingClient = AwsSigningWebClient.create(vertx, AwsSigningTestFixture.signingOptions());
+        vertx.createHttpServer()
+                .requestHandler(request -> {
+                    final HttpServerResponse response = request.response()
+                            .setChunked(true)
+                            .putHeader("content-type", "application/vnd.amazon.eventstream");
+                    final Buffer body = body(request.path());
+                    final int chunkSize = Integer.parseInt(request.getParam("chunkSize", "65536"));
+                    for (int start = 0; start < body.length(); start += chunkSize) {
+                        response.write(body.getBuffer(start, Math.min(start + chunkSize, body.length())));
+                    }
+                    response.end();
+                })
+                .listen(0, testContext.succeeding(server -> {
+                    port = server.actualPort();
+                    testContext.completeNow();
+                }));
+    }
+
+    @ParameterizedTest(name = DISPLAY_NAME_PLACEHOLDER + "[" + ARGUMENTS_PLACEHOLDER + "]")
+    @ValueSource(ints = {1, 7, 16, 100, 65536})
+    @Timeout(value = TEST_TIMEOUT_SECS, timeUnit = TimeUnit.SECONDS)
+    void eventStreamDecodesMessagesAcrossChunks(final int chunkSize, final VertxTestContext testContext) {
+        final List<AwsEvent> events = new ArrayList<>();
+        final AwsEventStream stream = AwsEventStream.create().handler(events::add);
+        signingClient.get(port, "localhost", "/events")
+                .addQueryParam("chunkSize", Integer.toString(chunkSize))
+                .as(stream.codec())
+                .send(testContext.succeeding(response -> testContext.verify(() -> {
+                    final SoftAssertions soft = new SoftAssertions();
+                    soft.assertThat(events).as("events").hasSize(3);
+                    final AwsEvent first = events.get(0);
+                    soft.assertThat(first.messageType()).as("message type").isEqualTo("event");
+                    soft.assertThat(first.eventType()).as("event type").isEqualTo("PayloadChunk");
+                    soft.assertThat(first.header("flag")).as("boolean header").isEqualTo(true);
+                    soft.assertThat(first.header("count")).as("integer header").isEqualTo(42);
+                    soft.assertThat(first.header("at")).as("timestamp header").isEqualTo(TIMESTAMP);
+                    soft.assertThat(first.header("id")).as("uuid header").isEqualTo(ID);
+                    soft.assertThat(first.payload().toString()).as("payload").isEqualTo("{\"chunk\":1}");
+                    soft.assertThat(events.get(1).payload().length()).as("empty payload").isZero();
+                    soft.assertThat(events.get(2).headers()).as("no headers").isEmpty();
+                    soft.assertThat(events.get(2).payload().length()).as("large payload").isEqualTo(70_000);
+                    soft.assertAll();
+                    testContext.completeNow();
+                })));
+    }
+
+    @Test
+    @Timeout(value = TEST_TIMEOUT_SECS, timeUnit = TimeUnit.SECONDS)
+    void eventStreamFailsOnCorruptedMessage(final VertxTestContext testContext) {
+        final List<Throwable> failures = new ArrayList<>();
+        final AwsEventStream stream = AwsEventStream.create()
+                .handler(event -> { })
+                .exceptionHandler(failures::add);
+        signingClient.get(port, "localhost", "/corrupted")
+                .as(stream.codec())
+                .send(testContext.failing(cause -> testContext.verify(() -> {
+                    assertThat(cause).as("cause").hasMessageContaining("CRC mismatch");
+                    assertThat(failures).as("stream failures").singleElement()
+                            .satisfies(failure -> assertThat(failure).hasMessageContaining("CRC mismatch"));
+                    testContext.completeNow();
+                })));
+    }
+
+    @Test
+    @Timeout(value = TEST_TIMEOUT_SECS, timeUnit = TimeUnit.SECONDS)
+    void eventStreamPausesResponseUntilEventsAreConsumed(final VertxTestContext testContext) {
+        final List<AwsEvent> events = new ArrayList<>();
+        final AwsEventStream stream = AwsEventStream.create(4).handler(events::add);
+        stream.pause();
+        final Future<HttpResponse<Void>> response = signingClient.get(port, "localhost", "/many")
+                .as(stream.codec())
+                .send();
+        vertx.setTimer(200, id -> {
+            testContext.verify(() -> {
+                assertThat(events).as("events while paused").isEmpty();
+                assertThat(response.isComplete()).as("response complete while paused").isFalse();
+            });
+            stream.endHandler(v -> testContext.verify(() -> {
+                assertThat(events).as("events").hasSize(10_000);
+                assertThat(response.succeeded()).as("response succeeded").isTrue();
+                testContext.completeNow();
+            }));
+            stream.resume();
+        });
+    }
+
+    private static Buffer body(final String path) {
+        switch (path) {
+            case "/corrupted":
+                final Buffer corrupted = EVENTS.copy();
+                corrupted.setByte(40, (byte) (corrupted.getByte(40) ^ 1));
+                return corrupted;
+            case "/many":
+                final Buffer many = Buffer.buffer();
+                for (int i = 0; i < 10_000; i++) {
+                    many.appendBuffer(message(stringHeader(AwsEvent.EVENT_TYPE, "Event"), Buffer.buffer(new byte[64])));
+                }
+                return many;
+            default:
+                return EVENTS;
+        }
+    }
+
+    private static Buffer stringHeader(final String name, final String value) {
+        final byte[] bytes = value.getBytes(StandardCharsets.UTF_8);
+        return header(name, (byte) 7, Buffer.buffer().appendUnsignedShort(bytes.length).appendBytes(bytes));
+    }
+
+    private static Buffer header(final String name, final byte type, final Buffer value) {
+        final byte[] nameBytes = name.getBytes(StandardCharsets.UTF_8);
+        return Buffer.buffer()
+                .appendUnsignedByte((short) nameBytes.length)
+                .appendBytes(nameBytes)
+                .appendByte(type)
+                .appendBuffer(value);
+    }
+
+    private static Buffer message(final Buffer headers, final Buffer payload) {
+        final Buffer prelude = Buffer.buffer()
+                .appendInt(16 + headers.length() + payload.length())
+                .appendInt(headers.length());
+        prelude.appendUnsignedInt(crc(prelude));
+        final Buffer message = prelude.appendBuffer(headers).appendBuffer(payload);
+        return message.appendUnsignedInt(crc(message));
+    }
+
+    private static long crc(final Buffer buffer) {
+        final CRC32 crc = new CRC32();
+        crc.update(buffer.getBytes());
+        return crc.getValue();
+    }
+}
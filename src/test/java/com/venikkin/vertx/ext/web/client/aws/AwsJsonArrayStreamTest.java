@@ -0,0 +1,165 @@
+package com.venikkin.vertx.ext.web.client.aws;
+
+import io.vertx.core.Future;
+import io.vertx.core.Vertx;
+import io.vertx.core.buffer.Buffer;
+import io.vertx.core.http.HttpServerResponse;
+import io.vertx.core.json.JsonArray;
+import io.vertx.core.json.JsonObject;
+import io.vertx.ext.web.client.HttpResponse;
+import io.vertx.junit5.Timeout;
+import io.vertx.junit5.VertxExtension;
+import io.vertx.junit5.VertxTestContext;
+import org.assertj.core.api.SoftAssertions;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.ValueSource;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.junit.jupiter.params.ParameterizedTest.ARGUMENTS_PLACEHOLDER;
+import static org.junit.jupiter.params.ParameterizedTest.DISPLAY_NAME_PLACEHOLDER;
+
+@ExtendWith(VertxExtension.class)
+class AwsJsonArrayStreamTest {
+
+    private final static int TEST_TIMEOUT_SECS = 30;
+
+    private static final Buffer ELEMENTS = Buffer.buffer("[{\"id\":1,\"tags\":[\"a\",\"b\"],\"owner\":{\"name\":\"x\"}},"
+            + "[1,[2,3]],\"text\",42,true,null,{}]");
+    private static final Buffer PAGE = Buffer.buffer("{\"count\":2,\"filters\":{\"items\":[0]},"
+            + "\"items\":[{\"id\":1},{\"id\":2}],\"nextToken\":\"abc\"}");
+
+    private static Vertx vertx;
+    private static AwsSigningWebClient signingClient;
+    private static int port;
+
+    @BeforeAll
+    static void init(final Vertx vertx, final VertxTestContext testContext) {
+        AwsJsonArrayStreamTest.vertx = vertx;
+        signingClient = AwsSigningWebClient.create(vertx, AwsSigningTestFixture.signingOptions());
+        vertx.createHttpServer()
+                .requestHandler(request -> {
+                    final HttpServerResponse response = request.response()
+                            .setChunked(true)
+                            .putHeader("content-type", "application/json");
+                    final Buffer body = body(request.path());
+                    final int chunkSize = Integer.parseInt(request.getParam("chunkSize", "65536"));
+                    for (int start = 0; start < body.length(); start += chunkSize) {
+                        response.write(body.getBuffer(start, Math.min(start + chunkSize, body.length())));
+                    }
+                    response.end();
+                })
+                .listen(0, testContext.succeeding(server -> {
+                    port = server.actualPort();
+                    testContext.completeNow();
+                }));
+    }
+
+    @ParameterizedTest(name = DISPLAY_NAME_PLACEHOLDER + "[" + ARGUMENTS_PLACEHOLDER + "]")
+    @ValueSource(ints = {1, 7, 65536})
+    @Timeout(value = TEST_TIMEOUT_SECS, timeUnit = TimeUnit.SECONDS)
+    void streamParsesElementsAcrossChunks(final int chunkSize, final VertxTestContext testContext) {
+        final List<Object> elements = new ArrayList<>();
+        final AwsJsonArrayStream stream = AwsJsonArrayStream.create().handler(elements::add);
+        signingClient.get(port, "localhost", "/elements")
+                .addQueryParam("chunkSize", Integer.toString(chunkSize))
+                .as(stream.codec())
+                .send(testContext.succeeding(response -> testContext.verify(() -> {
+                    assertThat(elements).as("elements").containsExactly(
+                            new JsonObject("{\"id\":1,\"tags\":[\"a\",\"b\"],\"owner\":{\"name\":\"x\"}}"),
+                            new JsonArray("[1,[2,3]]"),
+                            "text", 42, true, null, new JsonObject());
+                    testContext.completeNow();
+                })));
+    }
+
+    @Test
+    @Timeout(value = TEST_TIMEOUT_SECS, timeUnit = TimeUnit.SECONDS)
+    void streamParsesArrayOfTopLevelField(final VertxTestContext testContext) {
+        final List<Object> elements = new ArrayList<>();
+        final AwsJsonArrayStream stream = AwsJsonArrayStream.create("items").handler(elements::add);
+        signingClient.get(port, "localhost", "/page")
+                .addQueryParam("chunkSize", "5")
+                .as(stream.codec())
+                .send(testContext.succeeding(response -> testContext.verify(() -> {
+                    assertThat(elements).as("elements").containsExactly(
+                            new JsonObject().put("id", 1), new JsonObject().put("id", 2));
+                    testContext.completeNow();
+                })));
+    }
+
+    @Test
+    @Timeout(value = TEST_TIMEOUT_SECS, timeUnit = TimeUnit.SECONDS)
+    void streamFailsWithoutArray(final VertxTestContext testContext) {
+        final List<Throwable> failures = new ArrayList<>();
+        final AwsJsonArrayStream stream = AwsJsonArrayStream.create("missing")
+                .handler(element -> { })
+                .exceptionHandler(failures::add);
+        signingClient.get(port, "localhost", "/page")
+                .as(stream.codec())
+                .send(testContext.failing(cause -> testContext.verify(() -> {
+                    final SoftAssertions soft = new SoftAssertions();
+                    soft.assertThat(cause).as("cause").hasMessageContaining("no JSON array in field missing");
+                    soft.assertThat(failures).as("stream failures").hasSize(1);
+                    soft.assertAll();
+                    testContext.completeNow();
+                })));
+    }
+
+    @Test
+    @Timeout(value = TEST_TIMEOUT_SECS, timeUnit = TimeUnit.SECONDS)
+    void streamFailsOnTruncatedJson(final VertxTestContext testContext) {
+        final AwsJsonArrayStream stream = AwsJsonArrayStream.create().handler(element -> { });
+        signingClient.get(port, "localhost", "/truncated")
+                .as(stream.codec())
+                .send(testContext.failing(cause -> testContext.completeNow()));
+    }
+
+    @Test
+    @Timeout(value = TEST_TIMEOUT_SECS, timeUnit = TimeUnit.SECONDS)
+    void streamPausesResponseUntilElementsAreConsumed(final VertxTestContext testContext) {
+        final List<Object> elements = new ArrayList<>();
+        final AwsJsonArrayStream stream = AwsJsonArrayStream.create(null, 4).handler(elements::add);
+        stream.pause();
+        final Future<HttpResponse<Void>> response = signingClient.get(port, "localhost", "/many")
+                .as(stream.codec())
+                .send();
+        vertx.setTimer(200, id -> {
+            testContext.verify(() -> {
+                assertThat(elements).as("elements while paused").isEmpty();
+                assertThat(response.isComplete()).as("response complete while paused").isFalse();
+            });
+            stream.endHandler(v -> testContext.verify(() -> {
+                assertThat(elements).as("elements").hasSize(100_000);
+                assertThat(response.succeeded()).as("response succeeded").isTrue();
+                testContext.completeNow();
+            }));
+            stream.resume();
+        });
+    }
+
+    private static Buffer body(final String path) {
+        switch (path) {
+            case "/elements":
+                return ELEMENTS;
+            case "/page":
+                return PAGE;
+            case "/truncated":
+                return ELEMENTS.getBuffer(0, ELEMENTS.length() - 5);
+            case "/many":
+                final Buffer many = Buffer.buffer("[");
+                for (int i = 0; i < 100_000; i++) {
+                    many.appendString(i == 0 ? "" : ",").appendString("{\"id\":" + i + ",\"values\":[1,2,3]}");
+                }
+                return many.appendString("]");
+            default:
+                return Buffer.buffer("[]");
+        }
+    }
+}
@@ -0,0 +1,172 @@
+package com.venikkin.vertx.ext.web.client.aws;
+
+import io.vertx.core.Vertx;
+import io.vertx.core.buffer.Buffer;
+import io.vertx.core.http.HttpHeaders;
+import io.vertx.core.http.HttpMethod;
+import io.vertx.core.http.RequestOptions;
+import io.vertx.ext.web.Router;
+import io.vertx.ext.web.RoutingContext;
+import io.vertx.junit5.Timeout;
+import io.vertx.junit5.VertxExtension;
+import io.vertx.junit5.VertxTestContext;
+import org.assertj.core.api.SoftAssertions;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Random;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+// the stand-in serves single byte ranges of an in-memory object and verifies every request signature
+@ExtendWith(VertxExtension.class)
+class AwsRangedDownloadTest {
+
+    private final static int TEST_TIMEOUT_SECS = 30;
+
+    private static final String ETAG = "\"object-v1\"";
+    private static final Pattern RANGE = Pattern.compile("bytes=(\\d+)-(\\d+)");
+    private static final byte[] OBJECT = new byte[1024 * 1024 + 17];
+
+    private static final Set<String> failedOnce = ConcurrentHashMap.newKeySet();
+    private static final AtomicInteger rangesInFlight = new AtomicInteger();
+    private static final AtomicInteger maxRangesInFlight = new AtomicInteger();
+
+    private static int port;
+    private static AwsSigningWebClient signingClient;
+
+    @BeforeAll
+    static void init(final Vertx vertx, final VertxTestContext testContext) {
+        new Random(42).nextBytes(OBJECT);
+        final Router router = AwsSigningTestFixture.verifyingRouter(vertx);
+        router.route("/objects/:name").handler(AwsRangedDownloadTest::serve);
+
+        signingClient = AwsSigningWebClient.create(vertx, AwsSigningTestFixture.signingOptions());
+
+        AwsSigningTestFixture.listen(vertx, router).onComplete(testContext.succeeding(server -> {
+            port = server.actualPort();
+            testContext.completeNow();
+        }));
+    }
+
+    @Test
+    @Timeout(value = TEST_TIMEOUT_SECS, timeUnit = TimeUnit.SECONDS)
+    void clientDownloadsRangesInParallel(final VertxTestContext testContext) throws IOException {
+        final Path file = Files.createTempFile("ranged-download", ".bin");
+        file.toFile().deleteOnExit();
+
+        signingClient.download(requestOptions("flaky"), file.toString(), downloadOptions())
+                .onComplete(testContext.succeeding(result -> testContext.verify(() -> {
+                    final SoftAssertions soft = new SoftAssertions();
+                    soft.assertThat(result.getSize()).as("size").isEqualTo(OBJECT.length);
+                    soft.assertThat(result.getRanges()).as("ranges").isEqualTo(17);
+                    soft.assertThat(result.getRetries()).as("retries").isEqualTo(1);
+                    soft.assertThat(result.getETag()).as("etag").isEqualTo(ETAG);
+                    soft.assertThat(Files.readAllBytes(file)).as("file").isEqualTo(OBJECT);
+                    soft.assertThat(maxRangesInFlight.get()).as("max ranges in flight").isBetween(2, 4);
+                    soft.assertAll();
+                    testContext.completeNow();
+                })));
+    }
+
+    @Test
+    @Timeout(value = TEST_TIMEOUT_SECS, timeUnit = TimeUnit.SECONDS)
+    void clientRetriesRangeDroppedMidBody(final VertxTestContext testContext) throws IOException {
+        final Path file = Files.createTempFile("ranged-download", ".bin");
+        file.toFile().deleteOnExit();
+
+        signingClient.download(requestOptions("dropping"), file.toString(), downloadOptions())
+                .onComplete(testContext.succeeding(result -> testContext.verify(() -> {
+                    final SoftAssertions soft = new SoftAssertions();
+                    soft.assertThat(result.getRanges()).as("ranges").isEqualTo(17);
+                    soft.assertThat(result.getRetries()).as("retries").isEqualTo(1);
+                    soft.assertThat(Files.readAllBytes(file)).as("file").isEqualTo(OBJECT);
+                    soft.assertAll();
+                    testContext.completeNow();
+                })));
+    }
+
+    @Test
+    @Timeout(value = TEST_TIMEOUT_SECS, timeUnit = TimeUnit.SECONDS)
+    void clientDeletesFileWhenObjectChanges(final Vertx vertx, final VertxTestContext testContext)
+            throws IOException {
+        final Path file = Files.createTempFile("ranged-download", ".bin");
+        file.toFile().deleteOnExit();
+
+        signingClient.download(requestOptions("changing"), file.toString(), downloadOptions())
+                .onComplete(testContext.failing(cause -> vertx.setTimer(200, id -> testContext.verify(() -> {
+                    assertThat(file).as("file").doesNotExist();
+                    testContext.completeNow();
+                }))));
+    }
+
+    private static RequestOptions requestOptions(final String name) {
+        return new RequestOptions()
+                .setHost("localhost")
+                .setPort(port)
+                .setURI("/objects/" + name);
+    }
+
+    private static AwsRangedDownloadOptions downloadOptions() {
+        return new AwsRangedDownloadOptions()
+                .setRangeSize(64 * 1024)
+                .setConcurrency(4)
+                .setRetryDelay(10);
+    }
+
+    private static void serve(final RoutingContext ctx) {
+        final String name = ctx.pathParam("name");
+        if (ctx.request().method() == HttpMethod.HEAD) {
+            ctx.response()
+                    .putHeader(HttpHeaders.CONTENT_LENGTH, Integer.toString(OBJECT.length))
+                    .putHeader(HttpHeaders.ETAG, ETAG)
+                    .end();
+            return;
+        }
+        final Matcher range = RANGE.matcher(ctx.request().getHeader(HttpHeaders.RANGE));
+        if (!range.matches()) {
+            ctx.response().setStatusCode(416).end();
+            return;
+        }
+        final int start = Integer.parseInt(range.group(1));
+        final int end = Integer.parseInt(range.group(2));
+        // the flaky object fails the second range once, the dropping one resets the connection half way through the
+        // third range once, the changing one is replaced after the first range
+        final String eTag = "changing".equals(name) && start > 0 ? "\"object-v2\"" : ETAG;
+        if (!eTag.equals(ctx.request().getHeader(HttpHeaders.IF_MATCH))) {
+            ctx.response().setStatusCode(412).end();
+            return;
+        }
+        if ("flaky".equals(name) && start == 64 * 1024 && failedOnce.add(name)) {
+            ctx.response().setStatusCode(503).end();
+            return;
+        }
+        if ("dropping".equals(name) && start == 2 * 64 * 1024 && failedOnce.add(name)) {
+            ctx.response()
+                    .setStatusCode(206)
+                    .putHeader(HttpHeaders.CONTENT_RANGE, "bytes " + start + '-' + end + '/' + OBJECT.length)
+                    .putHeader(HttpHeaders.CONTENT_LENGTH, Integer.toString(end - start + 1))
+                    .write(Buffer.buffer(OBJECT).getBuffer(start, start + (end - start + 1) / 2))
+                    .onComplete(ar -> ctx.request().connection().close());
+            return;
+        }
+        maxRangesInFlight.accumulateAndGet(rangesInFlight.incrementAndGet(), Math::max);
+        ctx.addEndHandler(v -> rangesInFlight.decrementAndGet());
+        // a small delay keeps several ranges in flight at once
+        ctx.vertx().setTimer(5, id -> ctx.response()
+                .setStatusCode(206)
+                .putHeader(HttpHeaders.CONTENT_RANGE, "bytes " + start + '-' + end + '/' + OBJECT.length)
+                .putHeader(HttpHeaders.ETAG, ETAG)
+                .end(Buffer.buffer(OBJECT).getBuffer(start, end + 1)));
+    }
+}
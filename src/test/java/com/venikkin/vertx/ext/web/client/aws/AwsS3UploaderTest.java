@@ -0,0 +1,175 @@
+package com.venikkin.vertx.ext.web.client.aws;
+
+import io.vertx.core.Vertx;
+import io.vertx.core.buffer.Buffer;
+import io.vertx.core.http.HttpMethod;
+import io.vertx.ext.web.Router;
+import io.vertx.ext.web.RoutingContext;
+import io.vertx.junit5.Timeout;
+import io.vertx.junit5.VertxExtension;
+import io.vertx.junit5.VertxTestContext;
+import org.assertj.core.api.SoftAssertions;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Map;
+import java.util.Random;
+import java.util.Set;
+import java.util.TreeMap;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+// the stand-in implements just enough of the S3 multipart API and verifies every request signature
+@ExtendWith(VertxExtension.class)
+class AwsS3UploaderTest {
+
+    private final static int TEST_TIMEOUT_SECS = 30;
+
+    private static final String BUCKET = "examplebucket";
+    private static final int PART_SIZE = AwsS3UploadOptions.MIN_PART_SIZE;
+    private static final int CONCURRENCY = 2;
+    private static final Pattern PART_NUMBER = Pattern.compile("<PartNumber>(\\d+)</PartNumber>");
+
+    private static final Map<String, Map<Integer, Buffer>> uploads = new ConcurrentHashMap<>();
+    private static final Map<String, Buffer> objects = new ConcurrentHashMap<>();
+    private static final Set<String> aborted = ConcurrentHashMap.newKeySet();
+    private static final Set<String> failedOnce = ConcurrentHashMap.newKeySet();
+    private static final AtomicInteger partsInFlight = new AtomicInteger();
+    private static final AtomicInteger maxPartsInFlight = new AtomicInteger();
+
+    private static int port;
+    private static AwsSigningWebClient signingClient;
+
+    @BeforeAll
+    static void init(final Vertx vertx, final VertxTestContext testContext) {
+        final Router router = Router.router(vertx);
+        router.route().handler(ctx -> {
+            if (ctx.request().method() == HttpMethod.PUT) {
+                maxPartsInFlight.accumulateAndGet(partsInFlight.incrementAndGet(), Math::max);
+                ctx.addEndHandler(v -> partsInFlight.decrementAndGet());
+            }
+            ctx.next();
+        });
+        router.route().handler(AwsSigV4VerificationHandler.create(vertx, AwsSigningTestFixture.verificationOptions()
+                .setServiceName("s3")));
+        router.route("/" + BUCKET + "/:key").handler(AwsS3UploaderTest::s3);
+
+        signingClient = AwsSigningWebClient.create(vertx, AwsSigningTestFixture.signingOptions()
+                // the uploader sends parts as they are, the stand-in would store compressed bytes otherwise
+                .setCompressionOptions(new AwsSigningCompressionOptions()));
+
+        AwsSigningTestFixture.listen(vertx, router).onComplete(testContext.succeeding(server -> {
+            port = server.actualPort();
+            testContext.completeNow();
+        }));
+    }
+
+    @Test
+    @Timeout(value = TEST_TIMEOUT_SECS, timeUnit = TimeUnit.SECONDS)
+    void uploaderUploadsFileInParallelParts(final Vertx vertx, final VertxTestContext testContext) throws IOException {
+        final byte[] content = new byte[3 * PART_SIZE + 17];
+        new Random(42).nextBytes(content);
+        final Path file = Files.createTempFile("s3-upload", ".bin");
+        Files.write(file, content);
+        file.toFile().deleteOnExit();
+
+        uploader(vertx, 3).upload("some file.bin", file.toString())
+                .onComplete(testContext.succeeding(result -> testContext.verify(() -> {
+                    final SoftAssertions soft = new SoftAssertions();
+                    soft.assertThat(result.getParts()).as("parts").isEqualTo(4);
+                    soft.assertThat(result.getSize()).as("size").isEqualTo(content.length);
+                    soft.assertThat(result.getETag()).as("etag").isEqualTo("\"complete\"");
+                    soft.assertThat(objects.get("some file.bin").getBytes()).as("object").isEqualTo(content);
+                    soft.assertThat(failedOnce).as("retried parts").contains(result.getUploadId());
+                    soft.assertThat(maxPartsInFlight.get()).as("max parts in flight").isBetween(1, CONCURRENCY);
+                    soft.assertAll();
+                    testContext.completeNow();
+                })));
+    }
+
+    @Test
+    @Timeout(value = TEST_TIMEOUT_SECS, timeUnit = TimeUnit.SECONDS)
+    void uploaderAbortsWhenPartKeepsFailing(final Vertx vertx, final VertxTestContext testContext) throws IOException {
+        final Path file = Files.createTempFile("s3-upload", ".bin");
+        Files.write(file, new byte[PART_SIZE + 1]);
+        file.toFile().deleteOnExit();
+
+        uploader(vertx, 1).upload("broken", file.toString())
+                .onComplete(testContext.failing(cause -> vertx.setTimer(200, id -> testContext.verify(() -> {
+                    assertThat(aborted).as("aborted uploads").hasSize(1);
+                    assertThat(objects).as("objects").doesNotContainKey("broken");
+                    testContext.completeNow();
+                }))));
+    }
+
+    @Test
+    void partSizeBelowS3MinimumIsRejected() {
+        assertThatThrownBy(() -> new AwsS3UploadOptions().setPartSize(PART_SIZE - 1))
+                .isInstanceOf(IllegalArgumentException.class);
+    }
+
+    private static AwsS3Uploader uploader(final Vertx vertx, final int maxAttempts) {
+        return AwsS3Uploader.create(vertx, signingClient, new AwsS3UploadOptions()
+                .setBucket(BUCKET)
+                .setHost("localhost")
+                .setPort(port)
+                .setSsl(false)
+                .setPathStyle(true)
+                .setPartSize(PART_SIZE)
+                .setConcurrency(CONCURRENCY)
+                .setMaxAttempts(maxAttempts)
+                .setRetryDelay(10));
+    }
+
+    private static void s3(final RoutingContext ctx) {
+        final String key = ctx.pathParam("key");
+        final String uploadId = ctx.request().getParam("uploadId");
+        switch (ctx.request().method().name()) {
+            case "POST":
+                if (uploadId == null) {
+                    final String id = "upload-" + uploads.size();
+                    uploads.put(id, new TreeMap<>());
+                    ctx.response().end("<InitiateMultipartUploadResult><Bucket>" + BUCKET + "</Bucket><Key>" + key
+                            + "</Key><UploadId>" + id + "</UploadId></InitiateMultipartUploadResult>");
+                    return;
+                }
+                final Map<Integer, Buffer> parts = uploads.remove(uploadId);
+                final Buffer object = Buffer.buffer();
+                final Matcher matcher = PART_NUMBER.matcher(ctx.body().asString());
+                while (matcher.find()) {
+                    object.appendBuffer(parts.get(Integer.parseInt(matcher.group(1))));
+                }
+                objects.put(key, object);
+                ctx.response().end("<CompleteMultipartUploadResult><Key>" + key
+                        + "</Key><ETag>\"complete\"</ETag></CompleteMultipartUploadResult>");
+                return;
+            case "PUT":
+                final int partNumber = Integer.parseInt(ctx.request().getParam("partNumber"));
+                // every other part of the broken object fails, the second part of others fails once
+                if ("broken".equals(key) && partNumber % 2 == 0 || partNumber == 2 && failedOnce.add(uploadId)) {
+                    ctx.response().setStatusCode(500).end("<Error><Code>InternalError</Code></Error>");
+                    return;
+                }
+                uploads.get(uploadId).put(partNumber, ctx.body().buffer());
+                ctx.response().putHeader("ETag", "\"part-" + partNumber + "\"").end();
+                return;
+            case "DELETE":
+                uploads.remove(uploadId);
+                aborted.add(uploadId);
+                ctx.response().setStatusCode(204).end();
+                return;
+            default:
+                ctx.response().setStatusCode(405).end();
+        }
+    }
+}
@@ -0,0 +1,282 @@
+package com.venikkin.vertx.ext.web.client.aws;
+
+import io.vertx.core.Future;
+import io.vertx.core.Vertx;
+import io.vertx.core.buffer.Buffer;
+import io.vertx.core.http.HttpServer;
+import io.vertx.core.streams.ReadStream;
+import io.vertx.ext.web.Router;
+import io.vertx.ext.web.client.HttpRequest;
+import io.vertx.ext.web.client.HttpResponse;
+import io.vertx.ext.web.client.WebClient;
+import io.vertx.ext.web.handler.BodyHandler;
+import io.vertx.junit5.Timeout;
+import io.vertx.junit5.VertxExtension;
+import io.vertx.junit5.VertxTestContext;
+import org.assertj.core.api.SoftAssertions;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.MethodSource;
+import software.amazon.awssdk.auth.credentials.AwsBasicCredentials;
+import software.amazon.awssdk.auth.credentials.AwsCredentialsProvider;
+import software.amazon.awssdk.auth.credentials.AwsSessionCredentials;
+import software.amazon.awssdk.auth.credentials.StaticCredentialsProvider;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Supplier;
+
+import static com.venikkin.vertx.ext.web.client.aws.AwsSigningTestFixture.ACCESS_KEY_ID;
+import static com.venikkin.vertx.ext.web.client.aws.AwsSigningTestFixture.SECRET_ACCESS_KEY;
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.junit.jupiter.params.ParameterizedTest.ARGUMENTS_PLACEHOLDER;
+import static org.junit.jupiter.params.ParameterizedTest.DISPLAY_NAME_PLACEHOLDER;
+
+@ExtendWith(VertxExtension.class)
+class AwsSigV4VerificationHandlerTest {
+
+    private final static int TEST_TIMEOUT_SECS = 30;
+
+    private static final String FORGED_ACCESS_KEY_ID = "AKIDFORGED";
+    private static final String UNAVAILABLE_ACCESS_KEY_ID = "AKIDUNAVAILABLE";
+
+    private static final AtomicInteger forgedLookups = new AtomicInteger();
+    private static final AtomicInteger unavailableLookups = new AtomicInteger();
+
+    private static int port;
+    private static AwsSigningWebClient signingClient;
+    private static AwsSigningWebClient sessionClient;
+    private static AwsSigningWebClient wrongSecretClient;
+    private static AwsSigningWebClient unknownKeyClient;
+    private static WebClient vanillaClient;
+
+    @BeforeAll
+    static void init(final Vertx vertx, final VertxTestContext testContext) {
+        final Router router = Router.router(vertx);
+        router.route("/buffered/*").handler(BodyHandler.create());
+        final AwsSigV4VerificationHandler verificationHandler = AwsSigV4VerificationHandler.create(vertx,
+                AwsSigningTestFixture.verificationOptions().setSecretLookup(AwsSigV4VerificationHandlerTest::lookup));
+        router.route().handler(verificationHandler);
+        // path params end up in the parsed params of the request, the signature only covers the query sent
+        router.route("/tenants/:tenant/*").handler(verificationHandler);
+        router.route("/read-after/*").handler(BodyHandler.create());
+        router.route().handler(ctx -> ctx.response().end(ctx.get(AwsSigV4VerificationHandler.ACCESS_KEY_ID)
+                + ":" + (ctx.body().buffer() != null ? ctx.body().asString() : "")));
+
+        signingClient = client(vertx, AwsSigningTestFixture.CREDENTIALS);
+        sessionClient = client(vertx, StaticCredentialsProvider.create(
+                AwsSessionCredentials.create(ACCESS_KEY_ID, SECRET_ACCESS_KEY, "session/token=")));
+        wrongSecretClient = client(vertx, StaticCredentialsProvider.create(
+                AwsBasicCredentials.create(ACCESS_KEY_ID, "not-the-secret")));
+        unknownKeyClient = client(vertx, StaticCredentialsProvider.create(
+                AwsBasicCredentials.create("AKIDUNKNOWN", SECRET_ACCESS_KEY)));
+        vanillaClient = WebClient.create(vertx);
+
+        AwsSigningTestFixture.listen(vertx, router).onComplete(testContext.succeeding(server -> {
+            port = server.actualPort();
+            testContext.completeNow();
+        }));
+    }
+
+    static List<Example> requests() {
+        final List<Example> examples = new ArrayList<>();
+        examples.add(example("signed GET", 200, ACCESS_KEY_ID + ":", null, () ->
+                signingClient.get(port, "localhost", "/dev/echo")));
+        examples.add(example("signed GET with query", 200, ACCESS_KEY_ID + ":", null, () ->
+                signingClient.get(port, "localhost", "/dev/some%20path?b=2&a=1")
+                        .addQueryParam("c d", "e/f*g~h")));
+        examples.add(example("signed POST with streamed body", 200, ACCESS_KEY_ID + ":Hello", "Hello", () ->
+                signingClient.post(port, "localhost", "/dev/echo")));
+        examples.add(example("signed GET under a route with path params", 200, ACCESS_KEY_ID + ":", null, () ->
+                signingClient.get(port, "localhost", "/tenants/acme/echo").addQueryParam("a", "1")));
+        examples.add(example("signed POST with buffered body", 200, ACCESS_KEY_ID + ":Hello", "Hello", () ->
+                signingClient.post(port, "localhost", "/buffered/echo")));
+        examples.add(example("session credentials", 200, ACCESS_KEY_ID + ":", null, () ->
+                sessionClient.get(port, "localhost", "/dev/echo")));
+        examples.add(example("wrong secret", 403, null, null, () ->
+                wrongSecretClient.get(port, "localhost", "/dev/echo")));
+        examples.add(example("unknown access key id", 403, null, "Hello", () ->
+                unknownKeyClient.post(port, "localhost", "/dev/echo")));
+        examples.add(example("unsigned", 401, null, null, () ->
+                vanillaClient.get(port, "localhost", "/dev/echo")));
+        return examples;
+    }
+
+    @ParameterizedTest(name = DISPLAY_NAME_PLACEHOLDER + "[" + ARGUMENTS_PLACEHOLDER + "]")
+    @MethodSource("requests")
+    @Timeout(value = TEST_TIMEOUT_SECS, timeUnit = TimeUnit.SECONDS)
+    void handlerVerifiesSignature(final Example example, final VertxTestContext testContext) {
+        final HttpRequest<Buffer> request = example.requestSupplier.get();
+        final Future<HttpResponse<Buffer>> response = example.body != null
+                ? request.sendBuffer(Buffer.buffer(example.body))
+                : request.send();
+        response.onComplete(testContext.succeeding(r -> {
+            final SoftAssertions soft = new SoftAssertions();
+            soft.assertThat(r.statusCode()).as("status code").isEqualTo(example.expectedStatus);
+            if (example.expectedBody != null) {
+                soft.assertThat(r.bodyAsString()).as("body").isEqualTo(example.expectedBody);
+            }
+            soft.assertAll();
+            testContext.completeNow();
+        }));
+    }
+
+    @Test
+    @Timeout(value = TEST_TIMEOUT_SECS, timeUnit = TimeUnit.SECONDS)
+    void handlerRejectsTamperedBody(final Vertx vertx, final VertxTestContext testContext) {
+        final AwsSigningOptions signingOptions = AwsSigningTestFixture.signingOptions();
+        final AwsSigningEngine engine = AwsSigningEngine.shared(vertx, AwsSigningCrypto.defaultCrypto());
+        final HttpRequest<Buffer> request = vanillaClient.post(port, "localhost", "/dev/echo");
+        engine.sign(signingOptions, request, "http", engine.payloadHash(Buffer.buffer("signed")));
+        request.sendBuffer(Buffer.buffer("tampered"), testContext.succeeding(r -> {
+            testContext.verify(() -> assertThat(r.statusCode()).as("status code").isEqualTo(403));
+            testContext.completeNow();
+        }));
+    }
+
+    @Test
+    @Timeout(value = TEST_TIMEOUT_SECS, timeUnit = TimeUnit.SECONDS)
+    void unknownAccessKeyIsLookedUpOnceAndFailedLookupsAreRetried(final Vertx vertx,
+                                                                   final VertxTestContext testContext) {
+        final AwsSigningWebClient forgedClient = client(vertx, StaticCredentialsProvider.create(
+                AwsBasicCredentials.create(FORGED_ACCESS_KEY_ID, SECRET_ACCESS_KEY)));
+        final AwsSigningWebClient unavailableClient = client(vertx, StaticCredentialsProvider.create(
+                AwsBasicCredentials.create(UNAVAILABLE_ACCESS_KEY_ID, SECRET_ACCESS_KEY)));
+        sendTwice(forgedClient)
+                .compose(forged -> sendTwice(unavailableClient).map(unavailable -> forged + "," + unavailable))
+                .onComplete(testContext.succeeding(statusCodes -> testContext.verify(() -> {
+                    final SoftAssertions soft = new SoftAssertions();
+                    soft.assertThat(statusCodes).as("status codes").isEqualTo("403,403,403,403");
+                    soft.assertThat(forgedLookups).as("lookups of an unknown key").hasValue(1);
+                    soft.assertThat(unavailableLookups).as("failed lookups").hasValue(2);
+                    soft.assertAll();
+                    testContext.completeNow();
+                })));
+    }
+
+    @Test
+    @Timeout(value = TEST_TIMEOUT_SECS, timeUnit = TimeUnit.SECONDS)
+    void tamperedBodyIsRejectedBeforeBodyHandler(final Vertx vertx, final VertxTestContext testContext) {
+        final Buffer signed = Buffer.buffer("signed");
+        sendWithDeclaredHash(vertx, signed, signed)
+                .compose(matching -> sendWithDeclaredHash(vertx, signed, Buffer.buffer("tampered"))
+                        .map(tampered -> matching.statusCode() + "," + tampered.statusCode()))
+                .onComplete(testContext.succeeding(statusCodes -> testContext.verify(() -> {
+                    assertThat(statusCodes).as("status codes").isEqualTo("200,403");
+                    testContext.completeNow();
+                })));
+    }
+
+    @Test
+    @Timeout(value = TEST_TIMEOUT_SECS, timeUnit = TimeUnit.SECONDS)
+    void handlerRejectsUnsignedPayloadByDefault(final Vertx vertx, final VertxTestContext testContext) {
+        final AwsSigningEngine engine = AwsSigningEngine.shared(vertx, AwsSigningCrypto.defaultCrypto());
+        final HttpRequest<Buffer> request = vanillaClient.post(port, "localhost", "/dev/echo");
+        engine.sign(AwsSigningTestFixture.signingOptions(), request, "http", AwsSigV4.UNSIGNED_PAYLOAD);
+        request.putHeader("X-Amz-Content-Sha256", AwsSigV4.UNSIGNED_PAYLOAD)
+                .sendBuffer(Buffer.buffer("Hello"), testContext.succeeding(r -> {
+                    testContext.verify(() -> assertThat(r.statusCode()).as("status code").isEqualTo(403));
+                    testContext.completeNow();
+                }));
+    }
+
+    @Test
+    @Timeout(value = TEST_TIMEOUT_SECS, timeUnit = TimeUnit.SECONDS)
+    void declaredPayloadHashIsVerifiedAsBodyIsRead(final Vertx vertx, final VertxTestContext testContext) {
+        final AwsSigningOptions signingOptions = AwsSigningTestFixture.signingOptions().setServiceName("s3");
+        final AwsSigningEngine engine = AwsSigningEngine.shared(vertx, AwsSigningCrypto.defaultCrypto());
+        streamingS3StandIn(vertx).compose(server -> {
+            final AwsSigningWebClient s3Client = AwsSigningWebClient.create(vertx, signingOptions);
+            final HttpRequest<Buffer> tampered = vanillaClient.put(server.actualPort(), "localhost", "/bucket/key");
+            engine.sign(signingOptions, tampered, "http", engine.payloadHash(Buffer.buffer("signed")));
+            return s3Client.put(server.actualPort(), "localhost", "/bucket/key").sendBuffer(Buffer.buffer("Hello"))
+                    .compose(signed -> tampered.sendBuffer(Buffer.buffer("tampered"))
+                            .map(r -> signed.statusCode() + ":" + signed.bodyAsString() + "," + r.statusCode()));
+        }).onComplete(testContext.succeeding(received -> testContext.verify(() -> {
+            assertThat(received).as("responses").isEqualTo("200:Hello,400");
+            testContext.completeNow();
+        })));
+    }
+
+    private static Future<String> sendTwice(final AwsSigningWebClient client) {
+        return client.get(port, "localhost", "/dev/echo").send()
+                .compose(first -> client.get(port, "localhost", "/dev/echo").send()
+                        .map(second -> first.statusCode() + "," + second.statusCode()));
+    }
+
+    // signed for one body with its hash declared, a BodyHandler after the verification handler reads what is sent
+    private static Future<HttpResponse<Buffer>> sendWithDeclaredHash(final Vertx vertx, final Buffer signed,
+                                                                   final Buffer sent) {
+        final AwsSigningEngine engine = AwsSigningEngine.shared(vertx, AwsSigningCrypto.defaultCrypto());
+        final String payloadHash = engine.payloadHash(signed);
+        final HttpRequest<Buffer> request = vanillaClient.post(port, "localhost", "/read-after/echo");
+        engine.sign(AwsSigningTestFixture.signingOptions(), request, "http", payloadHash);
+        return request.putHeader("X-Amz-Content-Sha256", payloadHash).sendBuffer(sent);
+    }
+
+    // reads the body through the verifying stream, which fails when it does not match the declared hash
+    private static Future<HttpServer> streamingS3StandIn(final Vertx vertx) {
+        final Router router = AwsSigningTestFixture.verifyingRouter(vertx, AwsSigningTestFixture.verificationOptions()
+                .setServiceName("s3")
+                .setStreamBody(true)
+                .setSecretLookup(AwsSigV4VerificationHandlerTest::lookup));
+        router.route().handler(ctx -> {
+            final ReadStream<Buffer> body = ctx.get(AwsSigV4VerificationHandler.BODY);
+            final Buffer received = Buffer.buffer();
+            body.exceptionHandler(cause -> ctx.fail(400, cause))
+                    .handler(received::appendBuffer)
+                    .endHandler(v -> ctx.response().end(received))
+                    .resume();
+        });
+        return AwsSigningTestFixture.listen(vertx, router);
+    }
+
+    // the example key, a key known not to exist and a secret store failing for another one
+    private static Future<String> lookup(final String accessKeyId) {
+        if (FORGED_ACCESS_KEY_ID.equals(accessKeyId)) {
+            forgedLookups.incrementAndGet();
+            return Future.succeededFuture();
+        }
+        if (UNAVAILABLE_ACCESS_KEY_ID.equals(accessKeyId)) {
+            unavailableLookups.incrementAndGet();
+            return Future.failedFuture("Secret store unavailable");
+        }
+        return AwsSigningTestFixture.secretLookup(accessKeyId);
+    }
+
+    private static AwsSigningWebClient client(final Vertx vertx, final AwsCredentialsProvider credentialsProvider) {
+        return AwsSigningWebClient.create(vertx, AwsSigningTestFixture.signingOptions()
+                .setCredentialsProvider(credentialsProvider));
+    }
+
+    private static Example example(final String description, final int expectedStatus, final String expectedBody,
+                                   final String body, final Supplier<HttpRequest<Buffer>> requestSupplier) {
+        return new Example(description, expectedStatus, expectedBody, body, requestSupplier);
+    }
+
+    private static class Example {
+        private final String description;
+        private final int expectedStatus;
+        private final String expectedBody;
+        private final String body;
+        private final Supplier<HttpRequest<Buffer>> requestSupplier;
+
+        public Example(final String description, final int expectedStatus, final String expectedBody,
+                       final String body, final Supplier<HttpRequest<Buffer>> requestSupplier) {
+            this.description = description;
+            this.expectedStatus = expectedStatus;
+            this.expectedBody = expectedBody;
+            this.body = body;
+            this.requestSupplier = requestSupplier;
+        }
+
+        @Override
+        public String toString() {
+            return description;
+        }
+    }
+}
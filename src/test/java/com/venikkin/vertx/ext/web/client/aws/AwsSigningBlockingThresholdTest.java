@@ -0,0 +1,68 @@
+package com.venikkin.vertx.ext.web.client.aws;
+
+import io.vertx.core.Vertx;
+import io.vertx.core.buffer.Buffer;
+import io.vertx.core.http.HttpServer;
+import io.vertx.ext.web.client.WebClientOptions;
+import io.vertx.junit5.Timeout;
+import io.vertx.junit5.VertxExtension;
+import io.vertx.junit5.VertxTestContext;
+import org.assertj.core.api.SoftAssertions;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import software.amazon.awssdk.regions.Region;
+
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.TimeUnit;
+
+// credentials are resolved on every signature, so the thread calling the provider is the thread signing
+@ExtendWith(VertxExtension.class)
+class AwsSigningBlockingThresholdTest {
+
+    private final static int TEST_TIMEOUT_SECS = 30;
+    private static final int THRESHOLD = 64 * 1024;
+
+    private final List<String> signingThreads = new CopyOnWriteArrayList<>();
+
+    @Test
+    @Timeout(value = TEST_TIMEOUT_SECS, timeUnit = TimeUnit.SECONDS)
+    void largeBodiesAreSignedOffTheEventLoop(final Vertx vertx, final VertxTestContext testContext) {
+        vertx.createHttpServer()
+                .requestHandler(request -> request.body(ar -> request.response().end(
+                        Integer.toString(ar.succeeded() ? ar.result().length() : -1))))
+                .listen(0)
+                .compose(server -> {
+                    final AwsSigningWebClient client = client(vertx, server);
+                    return client.post("/small").sendBuffer(Buffer.buffer(new byte[THRESHOLD - 1]))
+                            .compose(small -> client.post("/large").sendBuffer(Buffer.buffer(new byte[THRESHOLD]))
+                                    .map(large -> small.bodyAsString() + "," + large.bodyAsString()));
+                })
+                .onComplete(testContext.succeeding(received -> testContext.verify(() -> {
+                    final SoftAssertions soft = new SoftAssertions();
+                    soft.assertThat(received).as("received bodies").isEqualTo((THRESHOLD - 1) + "," + THRESHOLD);
+                    soft.assertThat(signingThreads).as("signing threads").hasSize(2);
+                    if (signingThreads.size() == 2) {
+                        soft.assertThat(signingThreads.get(0)).as("small body").startsWith("vert.x-eventloop-thread");
+                        soft.assertThat(signingThreads.get(1)).as("large body").startsWith("aws-signing");
+                    }
+                    soft.assertAll();
+                    testContext.completeNow();
+                })));
+    }
+
+    private AwsSigningWebClient client(final Vertx vertx, final HttpServer server) {
+        return AwsSigningWebClient.create(vertx, new WebClientOptions()
+                .setDefaultHost("localhost")
+                .setDefaultPort(server.actualPort()), new AwsSigningOptions()
+                .setCredentialsProvider(() -> {
+                    signingThreads.add(Thread.currentThread().getName());
+                    return AwsSigningTestFixture.CREDENTIALS.resolveCredentials();
+                })
+                .setCredentialsCacheTtl(0)
+                .setRegion(Region.EU_WEST_1)
+                .setBlockingSigningThreshold(THRESHOLD)
+                .setSigningWorkerPoolName("aws-signing")
+                .setSigningWorkerPoolSize(1));
+    }
+}
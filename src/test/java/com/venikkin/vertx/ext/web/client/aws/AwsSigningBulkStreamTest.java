@@ -0,0 +1,135 @@
+package com.venikkin.vertx.ext.web.client.aws;
+
+import io.vertx.core.CompositeFuture;
+import io.vertx.core.Future;
+import io.vertx.core.Vertx;
+import io.vertx.core.http.HttpMethod;
+import io.vertx.core.http.HttpServer;
+import io.vertx.core.http.RequestOptions;
+import io.vertx.core.streams.ReadStream;
+import io.vertx.junit5.Timeout;
+import io.vertx.junit5.VertxExtension;
+import io.vertx.junit5.VertxTestContext;
+import org.assertj.core.api.SoftAssertions;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import software.amazon.awssdk.regions.Region;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.stream.Collectors;
+import java.util.stream.IntStream;
+
+@ExtendWith(VertxExtension.class)
+class AwsSigningBulkStreamTest {
+
+    private final static int TEST_TIMEOUT_SECS = 30;
+
+    @Test
+    @Timeout(value = TEST_TIMEOUT_SECS, timeUnit = TimeUnit.SECONDS)
+    void pausedStreamStopsDispatchingOnceResultsAreBuffered(final Vertx vertx, final VertxTestContext testContext) {
+        final AtomicInteger received = new AtomicInteger();
+        standIn(vertx, 0, received).onComplete(testContext.succeeding(server -> {
+            final List<AwsSigningBulkResult> results = new ArrayList<>();
+            final ReadStream<AwsSigningBulkResult> stream = client(vertx).bulk(requests(server, 20).iterator(),
+                    new AwsSigningBulkOptions().setMaxBufferedResults(4));
+            stream.pause();
+            stream.endHandler(v -> testContext.verify(() -> {
+                final SoftAssertions soft = new SoftAssertions();
+                soft.assertThat(results).as("results").hasSize(20);
+                soft.assertThat(results).as("succeeded").allMatch(AwsSigningBulkResult::succeeded);
+                soft.assertThat(received).as("received requests").hasValue(20);
+                soft.assertAll();
+                testContext.completeNow();
+            }));
+            stream.handler(results::add);
+            vertx.setTimer(300, id -> testContext.verify(() -> {
+                final SoftAssertions soft = new SoftAssertions();
+                soft.assertThat(received).as("requests received while paused").hasValue(4);
+                soft.assertThat(results).as("results emitted while paused").isEmpty();
+                soft.assertAll();
+                stream.resume();
+            }));
+        }));
+    }
+
+    @Test
+    @Timeout(value = TEST_TIMEOUT_SECS, timeUnit = TimeUnit.SECONDS)
+    void busyHostDoesNotHoldBackOtherHosts(final Vertx vertx, final VertxTestContext testContext) {
+        CompositeFuture.all(standIn(vertx, 300, new AtomicInteger()), standIn(vertx, 0, new AtomicInteger()))
+                .onComplete(testContext.succeeding(servers -> {
+                    final HttpServer slow = servers.resultAt(0);
+                    final HttpServer fast = servers.resultAt(1);
+                    final List<AwsSigningBulkRequest> requests = new ArrayList<>(requests(slow, 3));
+                    requests.addAll(requests(fast, 3));
+                    final List<Integer> ports = new ArrayList<>();
+                    final ReadStream<AwsSigningBulkResult> stream = client(vertx).bulk(requests.iterator(),
+                            new AwsSigningBulkOptions().setMaxInFlightPerHost(1).setMaxBufferedResults(8));
+                    stream.endHandler(v -> testContext.verify(() -> {
+                        final SoftAssertions soft = new SoftAssertions();
+                        soft.assertThat(ports).as("completion order").containsExactly(
+                                fast.actualPort(), fast.actualPort(), fast.actualPort(),
+                                slow.actualPort(), slow.actualPort(), slow.actualPort());
+                        soft.assertAll();
+                        testContext.completeNow();
+                    }));
+                    stream.handler(result -> ports.add(result.request().getRequestOptions().getPort()));
+                }));
+    }
+
+    @Test
+    @Timeout(value = TEST_TIMEOUT_SECS, timeUnit = TimeUnit.SECONDS)
+    void synchronousFailuresDoNotGrowTheStack(final Vertx vertx, final VertxTestContext testContext) {
+        final int count = 10_000;
+        final AwsSigningWebClient client = AwsSigningWebClient.create(vertx, new AwsSigningOptions()
+                .setCredentialsProvider(() -> {
+                    throw new IllegalStateException("no credentials");
+                })
+                .setRegion(Region.EU_WEST_1));
+        vertx.runOnContext(ignored -> {
+            final AtomicInteger failed = new AtomicInteger();
+            final ReadStream<AwsSigningBulkResult> stream = client.bulk(IntStream.range(0, count)
+                    .mapToObj(i -> new AwsSigningBulkRequest(HttpMethod.GET, "/item/" + i))
+                    .iterator());
+            stream.endHandler(v -> testContext.verify(() -> {
+                final SoftAssertions soft = new SoftAssertions();
+                soft.assertThat(failed).as("failed requests").hasValue(count);
+                soft.assertAll();
+                testContext.completeNow();
+            }));
+            stream.handler(result -> {
+                if (result.failed()) {
+                    failed.incrementAndGet();
+                }
+            });
+        });
+    }
+
+    private AwsSigningWebClient client(final Vertx vertx) {
+        return AwsSigningWebClient.create(vertx, AwsSigningTestFixture.signingOptions());
+    }
+
+    private List<AwsSigningBulkRequest> requests(final HttpServer server, final int count) {
+        return IntStream.range(0, count)
+                .mapToObj(i -> new AwsSigningBulkRequest().setRequestOptions(new RequestOptions()
+                        .setHost("localhost")
+                        .setPort(server.actualPort())
+                        .setURI("/item/" + i)))
+                .collect(Collectors.toList());
+    }
+
+    private Future<HttpServer> standIn(final Vertx vertx, final long delay, final AtomicInteger received) {
+        return vertx.createHttpServer()
+                .requestHandler(request -> {
+                    received.incrementAndGet();
+                    if (delay > 0) {
+                        vertx.setTimer(delay, id -> request.response().end());
+                    } else {
+                        request.response().end();
+                    }
+                })
+                .listen(0);
+    }
+}
@@ -0,0 +1,109 @@
+package com.venikkin.vertx.ext.web.client.aws;
+
+import io.vertx.core.CompositeFuture;
+import io.vertx.core.Future;
+import io.vertx.core.Vertx;
+import io.vertx.junit5.Timeout;
+import io.vertx.junit5.VertxExtension;
+import io.vertx.junit5.VertxTestContext;
+import org.assertj.core.api.SoftAssertions;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import software.amazon.awssdk.auth.credentials.AwsSessionCredentials;
+import software.amazon.awssdk.auth.credentials.StaticCredentialsProvider;
+import software.amazon.awssdk.regions.Region;
+
+import java.time.Instant;
+import java.time.ZoneOffset;
+import java.time.format.DateTimeFormatter;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+import static com.venikkin.vertx.ext.web.client.aws.AwsSigningTestFixture.ACCESS_KEY_ID;
+import static com.venikkin.vertx.ext.web.client.aws.AwsSigningTestFixture.SECRET_ACCESS_KEY;
+import static org.assertj.core.api.Assertions.assertThat;
+
+@ExtendWith(VertxExtension.class)
+class AwsSigningCaptureTest {
+
+    private final static int TEST_TIMEOUT_SECS = 30;
+
+    private static final String SESSION_TOKEN = "session/token=";
+    private static final long SERVER_CLOCK_AHEAD_MILLIS = 90_000;
+
+    private static int port;
+
+    @BeforeAll
+    static void init(final Vertx vertx, final VertxTestContext testContext) {
+        vertx.createHttpServer()
+                .requestHandler(request -> request.response()
+                        .setStatusCode(request.path().startsWith("/forbidden") ? 403 : 200)
+                        .putHeader("Date", DateTimeFormatter.RFC_1123_DATE_TIME.format(
+                                Instant.now().plusMillis(SERVER_CLOCK_AHEAD_MILLIS).atOffset(ZoneOffset.UTC)))
+                        .end())
+                .listen(0, testContext.succeeding(server -> {
+                    port = server.actualPort();
+                    testContext.completeNow();
+                }));
+    }
+
+    @Test
+    @Timeout(value = TEST_TIMEOUT_SECS, timeUnit = TimeUnit.SECONDS)
+    void captureKeepsMostRecentSignatures(final Vertx vertx, final VertxTestContext testContext) {
+        final AwsSigningWebClient client = client(vertx, 1.0);
+        send(client, "/ok", 5)
+                .compose(v -> send(client, "/forbidden", 1))
+                .onComplete(testContext.succeeding(v -> testContext.verify(() -> {
+                    final List<AwsSigningCaptureEntry> entries = client.capture().entries();
+                    final SoftAssertions soft = new SoftAssertions();
+                    soft.assertThat(entries).extracting(AwsSigningCaptureEntry::sequence)
+                            .as("sequences").containsExactly(2L, 3L, 4L, 5L);
+                    final AwsSigningCaptureEntry last = entries.get(3);
+                    soft.assertThat(last.uri()).as("uri").isEqualTo("/forbidden");
+                    soft.assertThat(last.statusCode()).as("status code").isEqualTo(403);
+                    soft.assertThat(last.accessKeyId()).as("access key id").isEqualTo(ACCESS_KEY_ID);
+                    soft.assertThat(last.canonicalRequest()).as("canonical request")
+                            .startsWith("GET\n/forbidden\n")
+                            .contains("x-amz-security-token:" + AwsSigningCaptureEntry.REDACTED)
+                            .doesNotContain(SESSION_TOKEN);
+                    soft.assertThat(last.stringToSign()).as("string to sign").startsWith(AwsSigV4.ALGORITHM + "\n");
+                    soft.assertThat(last.clockSkew()).as("clock skew")
+                            .isBetween(SERVER_CLOCK_AHEAD_MILLIS - 2_000, SERVER_CLOCK_AHEAD_MILLIS + 2_000);
+                    soft.assertAll();
+                    testContext.completeNow();
+                })));
+    }
+
+    @Test
+    @Timeout(value = TEST_TIMEOUT_SECS, timeUnit = TimeUnit.SECONDS)
+    void captureCanBeTurnedOffAtRuntime(final Vertx vertx, final VertxTestContext testContext) {
+        final AwsSigningWebClient client = client(vertx, 1.0);
+        client.capture().setSampleRate(0);
+        send(client, "/ok", 3)
+                .onComplete(testContext.succeeding(v -> testContext.verify(() -> {
+                    assertThat(client.capture().entries()).as("entries").isEmpty();
+                    testContext.completeNow();
+                })));
+    }
+
+    private static AwsSigningWebClient client(final Vertx vertx, final double sampleRate) {
+        return AwsSigningWebClient.create(vertx, new AwsSigningOptions()
+                .setCredentialsProvider(StaticCredentialsProvider.create(
+                        AwsSessionCredentials.create(ACCESS_KEY_ID, SECRET_ACCESS_KEY, SESSION_TOKEN)))
+                .setRegion(Region.EU_WEST_1)
+                .setCaptureOptions(new AwsSigningCaptureOptions()
+                        .setSampleRate(sampleRate)
+                        .setCapacity(4)));
+    }
+
+    @SuppressWarnings("rawtypes")
+    private static Future<Void> send(final AwsSigningWebClient client, final String path, final int count) {
+        final List<Future> responses = new ArrayList<>();
+        for (int i = 0; i < count; i++) {
+            responses.add(client.get(port, "localhost", path).send());
+        }
+        return CompositeFuture.all(responses).mapEmpty();
+    }
+}
@@ -0,0 +1,123 @@
+package com.venikkin.vertx.ext.web.client.aws;
+
+import com.venikkin.vertx.ext.web.client.aws.AwsSigningCircuitBreaker.State;
+import io.vertx.core.Vertx;
+import io.vertx.ext.web.client.WebClient;
+import io.vertx.junit5.Timeout;
+import io.vertx.junit5.VertxExtension;
+import io.vertx.junit5.VertxTestContext;
+import org.assertj.core.api.SoftAssertions;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import software.amazon.awssdk.regions.Region;
+
+import java.util.concurrent.TimeUnit;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+@ExtendWith(VertxExtension.class)
+class AwsSigningCircuitBreakerTest {
+
+    private final static int TEST_TIMEOUT_SECS = 30;
+    private static final String ENDPOINT = "GET localhost:443/pets";
+
+    @Test
+    void circuitOpensThenClosesAfterSuccessfulProbe() throws InterruptedException {
+        final AwsSigningCircuitBreaker breaker = new AwsSigningCircuitBreaker(new AwsSigningCircuitBreakerOptions()
+                .setFailureThreshold(2)
+                .setResetTimeout(50));
+        final SoftAssertions soft = new SoftAssertions();
+
+        breaker.tryAcquire(ENDPOINT).onResponse(503);
+        soft.assertThat(breaker.state(ENDPOINT)).as("after one failure").isEqualTo(State.CLOSED);
+        breaker.tryAcquire(ENDPOINT).onFailure();
+        soft.assertThat(breaker.state(ENDPOINT)).as("after two failures").isEqualTo(State.OPEN);
+        soft.assertThat(breaker.tryAcquire(ENDPOINT)).as("call while open").isNull();
+
+        Thread.sleep(60);
+        final AwsSigningCircuitBreaker.Call probe = breaker.tryAcquire(ENDPOINT);
+        soft.assertThat(probe).as("probe").isNotNull();
+        soft.assertThat(breaker.state(ENDPOINT)).as("probing").isEqualTo(State.HALF_OPEN);
+        soft.assertThat(breaker.tryAcquire(ENDPOINT)).as("call beyond probe limit").isNull();
+
+        probe.onResponse(200);
+        soft.assertThat(breaker.state(ENDPOINT)).as("after probe").isEqualTo(State.CLOSED);
+        soft.assertThat(breaker.tryAcquire(ENDPOINT)).as("call after close").isNotNull();
+        soft.assertAll();
+    }
+
+    @Test
+    void failedProbeReopensCircuit() throws InterruptedException {
+        final AwsSigningCircuitBreaker breaker = new AwsSigningCircuitBreaker(new AwsSigningCircuitBreakerOptions()
+                .setFailureThreshold(1)
+                .setResetTimeout(50)
+                .setHalfOpenMaxProbes(2));
+        breaker.tryAcquire(ENDPOINT).onFailure();
+        Thread.sleep(60);
+        final SoftAssertions soft = new SoftAssertions();
+
+        final AwsSigningCircuitBreaker.Call first = breaker.tryAcquire(ENDPOINT);
+        final AwsSigningCircuitBreaker.Call second = breaker.tryAcquire(ENDPOINT);
+        soft.assertThat(first).as("first probe").isNotNull();
+        soft.assertThat(second).as("second probe").isNotNull();
+        soft.assertThat(breaker.tryAcquire(ENDPOINT)).as("third probe").isNull();
+
+        // a cancelled probe frees its slot
+        second.cancel();
+        soft.assertThat(breaker.tryAcquire(ENDPOINT)).as("probe after cancel").isNotNull();
+
+        first.onResponse(500);
+        soft.assertThat(breaker.state(ENDPOINT)).as("after failed probe").isEqualTo(State.OPEN);
+        soft.assertThat(breaker.tryAcquire(ENDPOINT)).as("call after reopen").isNull();
+        soft.assertAll();
+    }
+
+    @Test
+    void healthyCircuitsAreEvicted() {
+        final AwsSigningCircuitBreaker breaker = new AwsSigningCircuitBreaker(new AwsSigningCircuitBreakerOptions()
+                .setMaxEndpoints(2));
+        breaker.tryAcquire("failing").onFailure();
+        for (int i = 0; i < 100; i++) {
+            breaker.tryAcquire("healthy-" + i).onSuccess();
+        }
+        assertThat(breaker.states()).as("circuits").hasSize(2).containsKey("failing");
+    }
+
+    @Test
+    void sharedBreakerRejectsDifferentOptions(final Vertx vertx) {
+        final AwsSigningCircuitBreaker breaker = AwsSigningCircuitBreaker.shared(vertx,
+                new AwsSigningCircuitBreakerOptions().setName("pets"));
+        assertThat(AwsSigningCircuitBreaker.shared(vertx, new AwsSigningCircuitBreakerOptions().setName("pets")))
+                .as("same options")
+                .isSameAs(breaker);
+        assertThatThrownBy(() -> AwsSigningCircuitBreaker.shared(vertx, new AwsSigningCircuitBreakerOptions()
+                .setName("pets")
+                .setFailureThreshold(1)))
+                .as("different options")
+                .isInstanceOf(IllegalArgumentException.class);
+    }
+
+    @Test
+    @Timeout(value = TEST_TIMEOUT_SECS, timeUnit = TimeUnit.SECONDS)
+    void signingFailuresDoNotOpenCircuit(final Vertx vertx, final VertxTestContext testContext) {
+        final AwsSigningWebClient client = AwsSigningWebClient.create(vertx, WebClient.create(vertx),
+                new AwsSigningOptions()
+                        .setCredentialsProvider(() -> {
+                            throw new IllegalStateException("no credentials");
+                        })
+                        .setRegion(Region.EU_WEST_1)
+                        .setCircuitBreakerOptions(new AwsSigningCircuitBreakerOptions().setFailureThreshold(1)));
+        client.get(443, "localhost", "/pets").send()
+                .recover(cause -> client.get(443, "localhost", "/pets").send())
+                .onComplete(testContext.failing(cause -> testContext.verify(() -> {
+                    final SoftAssertions soft = new SoftAssertions();
+                    soft.assertThat(cause).as("second failure").isNotInstanceOf(AwsSigningRejectedException.class);
+                    soft.assertThat(client.circuitBreaker().state("GET localhost:443/pets"))
+                            .as("circuit")
+                            .isEqualTo(State.CLOSED);
+                    soft.assertAll();
+                    testContext.completeNow();
+                })));
+    }
+}
@@ -0,0 +1,138 @@
+package com.venikkin.vertx.ext.web.client.aws;
+
+import io.vertx.core.Vertx;
+import io.vertx.core.buffer.Buffer;
+import io.vertx.core.json.JsonArray;
+import io.vertx.core.json.JsonObject;
+import io.vertx.ext.web.Router;
+import io.vertx.ext.web.RoutingContext;
+import io.vertx.junit5.Timeout;
+import io.vertx.junit5.VertxExtension;
+import io.vertx.junit5.VertxTestContext;
+import org.assertj.core.api.SoftAssertions;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.MethodSource;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import java.util.zip.GZIPInputStream;
+import java.util.zip.InflaterInputStream;
+
+import static org.junit.jupiter.params.ParameterizedTest.ARGUMENTS_PLACEHOLDER;
+import static org.junit.jupiter.params.ParameterizedTest.DISPLAY_NAME_PLACEHOLDER;
+
+// the stand-in verifies the signature over the bytes on the wire, then decodes them like API Gateway would
+@ExtendWith(VertxExtension.class)
+class AwsSigningCompressionTest {
+
+    private final static int TEST_TIMEOUT_SECS = 30;
+
+    private static int port;
+
+    @BeforeAll
+    static void init(final Vertx vertx, final VertxTestContext testContext) {
+        final Router router = AwsSigningTestFixture.verifyingRouter(vertx);
+        router.route("/echo").handler(AwsSigningCompressionTest::echo);
+        AwsSigningTestFixture.listen(vertx, router).onComplete(testContext.succeeding(server -> {
+            port = server.actualPort();
+            testContext.completeNow();
+        }));
+    }
+
+    static List<Example> bodies() {
+        final JsonArray orders = new JsonArray();
+        for (int i = 0; i < 2_000; i++) {
+            orders.add(new JsonObject().put("id", i).put("status", "SHIPPED").put("currency", "EUR"));
+        }
+        final JsonObject large = new JsonObject().put("orders", orders);
+        final JsonObject small = new JsonObject().put("id", 1);
+        final List<Example> examples = new ArrayList<>();
+        examples.add(new Example("gzip", AwsSigningCompressionOptions.GZIP, large, true));
+        examples.add(new Example("deflate", AwsSigningCompressionOptions.DEFLATE, large, true));
+        examples.add(new Example("body below min size", AwsSigningCompressionOptions.GZIP, small, false));
+        return examples;
+    }
+
+    @ParameterizedTest(name = DISPLAY_NAME_PLACEHOLDER + "[" + ARGUMENTS_PLACEHOLDER + "]")
+    @MethodSource("bodies")
+    @Timeout(value = TEST_TIMEOUT_SECS, timeUnit = TimeUnit.SECONDS)
+    void clientSignsCompressedBody(final Example example, final Vertx vertx, final VertxTestContext testContext) {
+        final AwsSigningWebClient client = AwsSigningWebClient.create(vertx, AwsSigningTestFixture.signingOptions()
+                .setCompressionOptions(new AwsSigningCompressionOptions().setEncoding(example.encoding)));
+        final Buffer body = example.body.toBuffer();
+
+        client.post(port, "localhost", "/echo")
+                .sendJsonObject(example.body)
+                .onComplete(testContext.succeeding(response -> testContext.verify(() -> {
+                    final JsonObject echo = response.bodyAsJsonObject();
+                    final SoftAssertions soft = new SoftAssertions();
+                    soft.assertThat(response.statusCode()).as("status code").isEqualTo(200);
+                    soft.assertThat(echo.getString("encoding")).as("encoding")
+                            .isEqualTo(example.compressed ? example.encoding : null);
+                    soft.assertThat(echo.getString("body")).as("decoded body").isEqualTo(body.toString());
+                    if (example.compressed) {
+                        soft.assertThat(echo.getInteger("length")).as("length on the wire")
+                                .isLessThan(body.length() / 5);
+                    }
+                    soft.assertAll();
+                    client.close();
+                    testContext.completeNow();
+                })));
+    }
+
+    private static void echo(final RoutingContext ctx) {
+        final String encoding = ctx.request().getHeader("Content-Encoding");
+        final Buffer body = ctx.body().buffer();
+        try {
+            ctx.json(new JsonObject()
+                    .put("encoding", encoding)
+                    .put("length", body.length())
+                    .put("body", decode(encoding, body.getBytes())));
+        } catch (IOException e) {
+            ctx.fail(400, e);
+        }
+    }
+
+    private static String decode(final String encoding, final byte[] bytes) throws IOException {
+        if (encoding == null) {
+            return new String(bytes, "UTF-8");
+        }
+        final InputStream input = AwsSigningCompressionOptions.GZIP.equals(encoding)
+                ? new GZIPInputStream(new ByteArrayInputStream(bytes))
+                : new InflaterInputStream(new ByteArrayInputStream(bytes));
+        final ByteArrayOutputStream output = new ByteArrayOutputStream();
+        final byte[] chunk = new byte[8192];
+        int read;
+        while ((read = input.read(chunk)) > 0) {
+            output.write(chunk, 0, read);
+        }
+        return new String(output.toByteArray(), "UTF-8");
+    }
+
+    private static class Example {
+        private final String description;
+        private final String encoding;
+        private final JsonObject body;
+        private final boolean compressed;
+
+        public Example(final String description, final String encoding, final JsonObject body,
+                       final boolean compressed) {
+            this.description = description;
+            this.encoding = encoding;
+            this.body = body;
+            this.compressed = compressed;
+        }
+
+        @Override
+        public String toString() {
+            return description;
+        }
+    }
+}
@@ -0,0 +1,403 @@
+package com.venikkin.vertx.ext.web.client.aws;
+
+import io.netty.handler.codec.http.QueryStringDecoder;
+import io.vertx.core.Vertx;
+import io.vertx.core.buffer.Buffer;
+import io.vertx.core.http.HttpMethod;
+import io.vertx.ext.web.client.HttpRequest;
+import io.vertx.ext.web.client.WebClient;
+import io.vertx.ext.web.codec.BodyCodec;
+import io.vertx.junit5.VertxExtension;
+import io.vertx.uritemplate.UriTemplate;
+import org.assertj.core.api.SoftAssertions;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.MethodSource;
+import software.amazon.awssdk.auth.credentials.AwsCredentialsProvider;
+import software.amazon.awssdk.auth.credentials.AwsSessionCredentials;
+import software.amazon.awssdk.auth.credentials.StaticCredentialsProvider;
+import software.amazon.awssdk.auth.signer.Aws4Signer;
+import software.amazon.awssdk.auth.signer.AwsS3V4Signer;
+import software.amazon.awssdk.auth.signer.params.Aws4PresignerParams;
+import software.amazon.awssdk.auth.signer.params.Aws4SignerParams;
+import software.amazon.awssdk.auth.signer.params.AwsS3V4SignerParams;
+import software.amazon.awssdk.http.SdkHttpFullRequest;
+import software.amazon.awssdk.http.SdkHttpMethod;
+import software.amazon.awssdk.regions.Region;
+
+import java.io.ByteArrayInputStream;
+import java.time.Clock;
+import java.time.Instant;
+import java.time.ZoneOffset;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.function.Supplier;
+import java.util.stream.Collectors;
+
+import static com.venikkin.vertx.ext.web.client.aws.AwsSigningTestFixture.ACCESS_KEY_ID;
+import static com.venikkin.vertx.ext.web.client.aws.AwsSigningTestFixture.SECRET_ACCESS_KEY;
+import static org.junit.jupiter.params.ParameterizedTest.ARGUMENTS_PLACEHOLDER;
+import static org.junit.jupiter.params.ParameterizedTest.DISPLAY_NAME_PLACEHOLDER;
+
+@ExtendWith(VertxExtension.class)
+class AwsSigningEngineTest {
+
+    private static final String HOST = "123456.execute-api.eu-west-1.amazonaws.com";
+    private static final Clock CLOCK = Clock.fixed(Instant.parse("2023-01-20T12:34:56Z"), ZoneOffset.UTC);
+    private static final AwsCredentialsProvider BASIC_CREDENTIALS = AwsSigningTestFixture.CREDENTIALS;
+    private static final AwsCredentialsProvider SESSION_CREDENTIALS = StaticCredentialsProvider.create(
+            AwsSessionCredentials.create(ACCESS_KEY_ID, SECRET_ACCESS_KEY, "session/token="));
+
+    // one engine for all examples, so the thread-confined digest and mac are reused between signatures
+    private static final AwsSigningEngine ENGINE = new AwsSigningEngine(AwsSigningCrypto.jca());
+
+    private static WebClient client;
+
+    @BeforeAll
+    static void init(final Vertx vertx) {
+        client = WebClient.create(vertx);
+    }
+
+    static List<Example> requests() {
+        final List<Example> examples = new ArrayList<>();
+        examples.add(example("GET", BASIC_CREDENTIALS, null, () ->
+                client.get(443, HOST, "/dev/secureEcho").ssl(true)));
+        examples.add(example("GET with query", BASIC_CREDENTIALS, null, () ->
+                client.get(443, HOST, "/dev/secureEcho").ssl(true)
+                        .addQueryParam("testParam", "testValue")
+                        .addQueryParam("b", "2")
+                        .addQueryParam("b", "1")));
+        examples.add(example("GET with query in uri", BASIC_CREDENTIALS, null, () ->
+                client.get(443, HOST, "/dev/secureEcho?z=last&a=first").ssl(true)));
+        examples.add(example("GET with reserved characters", BASIC_CREDENTIALS, null, () ->
+                client.get(443, HOST, "/dev/some%20path/a*b~c").ssl(true)
+                        .addQueryParam("a b", "c/d*e~f=g&h")));
+        examples.add(example("GET on non-default port", BASIC_CREDENTIALS, null, () ->
+                client.get(8443, HOST, "/dev/secureEcho").ssl(true)));
+        examples.add(example("GET over http", BASIC_CREDENTIALS, null, () ->
+                client.get(80, HOST, "/dev/secureEcho").ssl(false)));
+        examples.add(example("GET with session credentials", SESSION_CREDENTIALS, null, () ->
+                client.get(443, HOST, "/dev/secureEcho").ssl(true)));
+        examples.add(example("POST with body", BASIC_CREDENTIALS, Buffer.buffer("Hello from a test"), () ->
+                client.post(443, HOST, "/dev/secureEcho").ssl(true)));
+        examples.add(example("PUT with empty body", SESSION_CREDENTIALS, Buffer.buffer(), () ->
+                client.put(443, HOST, "/dev/secureEcho").ssl(true)));
+        return examples;
+    }
+
+    @ParameterizedTest(name = DISPLAY_NAME_PLACEHOLDER + "[" + ARGUMENTS_PLACEHOLDER + "]")
+    @MethodSource("requests")
+    void engineSignsLikeAwsSdk(final Example example) {
+        final AwsSigningOptions signingOptions = new AwsSigningOptions()
+                .setCredentialsProvider(example.credentialsProvider)
+                .setRegion(Region.EU_WEST_1)
+                .setClock(CLOCK);
+        final HttpRequest<Buffer> request = example.requestSupplier.get();
+        final String protocol = request.ssl() ? "https" : "http";
+        final SdkHttpFullRequest expected = signWithSdk(request, protocol, example.body, signingOptions);
+
+        ENGINE.sign(signingOptions, request, protocol, ENGINE.payloadHash(example.body));
+
+        final SoftAssertions soft = new SoftAssertions();
+        for (final String header : new String[]{"Authorization", "X-Amz-Date", "Host", "X-Amz-Security-Token"}) {
+            soft.assertThat(request.headers().get(header)).as(header)
+                    .isEqualTo(expected.firstMatchingHeader(header).orElse(null));
+        }
+        soft.assertAll();
+    }
+
+    @ParameterizedTest(name = DISPLAY_NAME_PLACEHOLDER + "[" + ARGUMENTS_PLACEHOLDER + "]")
+    @MethodSource("requests")
+    void engineSignsS3LikeAwsSdk(final Example example) {
+        final AwsSigningOptions signingOptions = new AwsSigningOptions()
+                .setCredentialsProvider(example.credentialsProvider)
+                .setRegion(Region.EU_WEST_1)
+                .setServiceName("s3")
+                .setClock(CLOCK);
+        final HttpRequest<Buffer> request = example.requestSupplier.get();
+        final String protocol = request.ssl() ? "https" : "http";
+        final SdkHttpFullRequest.Builder builder = sdkRequest(request, protocol, example.body);
+        final SdkHttpFullRequest expected = AwsS3V4Signer.create().sign(builder.build(), AwsS3V4SignerParams.builder()
+                .awsCredentials(signingOptions.getCredentialsProvider().resolveCredentials())
+                .signingName(signingOptions.getServiceName())
+                .signingRegion(signingOptions.getRegion())
+                .signingClockOverride(signingOptions.getClock())
+                .enablePayloadSigning(true)
+                .build());
+
+        ENGINE.sign(signingOptions, request, protocol, ENGINE.payloadHash(example.body));
+
+        final SoftAssertions soft = new SoftAssertions();
+        for (final String header : new String[]{"Authorization", "X-Amz-Date", "Host", "X-Amz-Security-Token",
+                "X-Amz-Content-Sha256"}) {
+            soft.assertThat(request.headers().get(header)).as(header)
+                    .isEqualTo(expected.firstMatchingHeader(header).orElse(null));
+        }
+        soft.assertAll();
+    }
+
+    static List<Example> requestsWithoutBody() {
+        return requests().stream()
+                .filter(example -> example.body == null)
+                .collect(Collectors.toList());
+    }
+
+    @ParameterizedTest(name = DISPLAY_NAME_PLACEHOLDER + "[" + ARGUMENTS_PLACEHOLDER + "]")
+    @MethodSource("requestsWithoutBody")
+    void enginePresignsLikeAwsSdk(final Example example) {
+        final AwsSigningOptions signingOptions = new AwsSigningOptions()
+                .setCredentialsProvider(example.credentialsProvider)
+                .setRegion(Region.EU_WEST_1)
+                .setClock(CLOCK);
+        final HttpRequest<Buffer> request = example.requestSupplier.get();
+        final String protocol = request.ssl() ? "https" : "http";
+        final SdkHttpFullRequest expected = presignWithSdk(request, protocol, signingOptions);
+
+        final String query = ENGINE.presign(signingOptions,
+                signingOptions.getCredentialsProvider().resolveCredentials(), signingOptions.getRegion(),
+                signingOptions.getServiceName(), request.method().name(),
+                AwsSigV4.host(request.host(), request.port(), protocol), request.uri(), request.queryParams(), 60);
+        final Map<String, List<String>> actual = new QueryStringDecoder(query, false).parameters();
+
+        final SoftAssertions soft = new SoftAssertions();
+        for (final String parameter : new String[]{"X-Amz-Algorithm", "X-Amz-Credential", "X-Amz-Date",
+                "X-Amz-Expires", "X-Amz-SignedHeaders", "X-Amz-Security-Token", "X-Amz-Signature"}) {
+            soft.assertThat(actual.get(parameter)).as(parameter)
+                    .isEqualTo(expected.rawQueryParameters().get(parameter));
+        }
+        soft.assertAll();
+    }
+
+    @ParameterizedTest(name = DISPLAY_NAME_PLACEHOLDER + "[" + ARGUMENTS_PLACEHOLDER + "]")
+    @MethodSource("requests")
+    void engineSignsWithTenantOverrides(final Example example) {
+        final AwsSigningOptions clientOptions = new AwsSigningOptions()
+                .setCredentialsProvider(example.credentialsProvider == BASIC_CREDENTIALS
+                        ? SESSION_CREDENTIALS
+                        : BASIC_CREDENTIALS)
+                .setRegion(Region.EU_WEST_1)
+                .setClock(CLOCK);
+        final AwsSigningOptions tenantOptions = clientOptions.copy()
+                .setCredentialsProvider(example.credentialsProvider)
+                .setRegion(Region.US_EAST_1)
+                .setServiceName("lambda");
+        final HttpRequest<Buffer> request = example.requestSupplier.get();
+        final String protocol = request.ssl() ? "https" : "http";
+        final SdkHttpFullRequest expected = signWithSdk(request, protocol, example.body, tenantOptions);
+
+        ENGINE.sign(clientOptions, tenantOptions.getCredentialsProvider(), tenantOptions.getRegion(),
+                tenantOptions.getServiceName(), request, protocol, ENGINE.payloadHash(example.body), null);
+
+        final SoftAssertions soft = new SoftAssertions();
+        for (final String header : new String[]{"Authorization", "X-Amz-Date", "Host", "X-Amz-Security-Token"}) {
+            soft.assertThat(request.headers().get(header)).as(header)
+                    .isEqualTo(expected.firstMatchingHeader(header).orElse(null));
+        }
+        soft.assertAll();
+    }
+
+    static List<TemplateExample> templates() {
+        final List<TemplateExample> examples = new ArrayList<>();
+        examples.add(new TemplateExample("path variable", "/dev/users/{id}",
+                "/dev/users/a%20b", "id", "a b"));
+        examples.add(new TemplateExample("reserved expansion", "/dev/files{+path}",
+                "/dev/files/some/nested%20file", "path", "/some/nested file"));
+        examples.add(new TemplateExample("path segments", "/dev{/segments*}/items",
+                "/dev/a/b%2Fc/items", "segments", Arrays.asList("a", "b/c")));
+        examples.add(new TemplateExample("query expansion", "/dev/search{?q,page}",
+                "/dev/search?q=x%2Fy%20z&page=2", "q", "x/y z", "page", "2"));
+        examples.add(new TemplateExample("query literal", "/dev/users/{id}/items?limit=10{&cursor}",
+                "/dev/users/42/items?limit=10&cursor=abc", "id", "42", "cursor", "abc"));
+        examples.add(new TemplateExample("missing variable", "/dev/search{?q,page}",
+                "/dev/search?q=x", "q", "x"));
+        return examples;
+    }
+
+    @ParameterizedTest(name = DISPLAY_NAME_PLACEHOLDER + "[" + ARGUMENTS_PLACEHOLDER + "]")
+    @MethodSource("templates")
+    @SuppressWarnings("unchecked")
+    void engineSignsTemplatesLikeExpandedUris(final TemplateExample example) {
+        final AwsSigningOptions signingOptions = new AwsSigningOptions()
+                .setCredentialsProvider(BASIC_CREDENTIALS)
+                .setRegion(Region.EU_WEST_1)
+                .setClock(CLOCK);
+        final UriTemplate template = UriTemplate.of(example.template);
+        final HttpRequest<Buffer> request = client.request(HttpMethod.GET, null, 443, HOST, template)
+                .ssl(true)
+                .addQueryParam("extra", "1");
+        example.variables.forEach((name, value) -> {
+            if (value instanceof List) {
+                request.setTemplateParam(name, (List<String>) value);
+            } else {
+                request.setTemplateParam(name, (String) value);
+            }
+        });
+        final HttpRequest<Buffer> expanded = client.get(443, HOST, example.expandedUri)
+                .ssl(true)
+                .addQueryParam("extra", "1");
+        final SdkHttpFullRequest expected = signWithSdk(expanded, "https", null, signingOptions);
+
+        ENGINE.sign(signingOptions, BASIC_CREDENTIALS, Region.EU_WEST_1, signingOptions.getServiceName(),
+                request, template, "https", AwsSigV4.EMPTY_PAYLOAD_HASH, null, null);
+        // the second signature of the template is served from the parsed one
+        final HttpRequest<Buffer> again = request.copy();
+        ENGINE.sign(signingOptions, BASIC_CREDENTIALS, Region.EU_WEST_1, signingOptions.getServiceName(),
+                again, template, "https", AwsSigV4.EMPTY_PAYLOAD_HASH, null, null);
+
+        final SoftAssertions soft = new SoftAssertions();
+        soft.assertThat(request.headers().get("Authorization")).as("Authorization")
+                .isEqualTo(expected.firstMatchingHeader("Authorization").orElse(null));
+        soft.assertThat(again.headers().get("Authorization")).as("Authorization of cached template")
+                .isEqualTo(expected.firstMatchingHeader("Authorization").orElse(null));
+        soft.assertAll();
+    }
+
+    @Test
+    void engineFormatsEachSigningSecond() {
+        final Instant now = CLOCK.instant();
+        final SoftAssertions soft = new SoftAssertions();
+        // a later second replaces the cached date, an earlier one must not be served the cached value
+        for (final Instant signedAt : new Instant[]{now, now, now.plusSeconds(1), now.minusSeconds(86400), now}) {
+            final AwsSigningOptions signingOptions = new AwsSigningOptions()
+                    .setCredentialsProvider(SESSION_CREDENTIALS)
+                    .setRegion(Region.EU_WEST_1)
+                    .setClock(Clock.fixed(signedAt, ZoneOffset.UTC));
+            final HttpRequest<Buffer> request = client.get(443, HOST, "/dev/secureEcho").ssl(true);
+            final SdkHttpFullRequest expected = signWithSdk(request, "https", null, signingOptions);
+
+            ENGINE.sign(signingOptions, request, "https", AwsSigV4.EMPTY_PAYLOAD_HASH);
+
+            for (final String header : new String[]{"Authorization", "X-Amz-Date"}) {
+                soft.assertThat(request.headers().get(header)).as(header + " at " + signedAt)
+                        .isEqualTo(expected.firstMatchingHeader(header).orElse(null));
+            }
+        }
+        soft.assertAll();
+    }
+
+    @Test
+    void engineIgnoresTimeOffsetWithClock() {
+        final AwsSigningOptions signingOptions = new AwsSigningOptions()
+                .setCredentialsProvider(SESSION_CREDENTIALS)
+                .setRegion(Region.EU_WEST_1)
+                .setClock(CLOCK)
+                .setTimeOffset(3600);
+        final HttpRequest<Buffer> request = client.get(443, HOST, "/dev/secureEcho").ssl(true);
+        final SdkHttpFullRequest expected = signWithSdk(request, "https", null, signingOptions);
+
+        ENGINE.sign(signingOptions, request, "https", AwsSigV4.EMPTY_PAYLOAD_HASH);
+
+        final SoftAssertions soft = new SoftAssertions();
+        soft.assertThat(request.headers().get("X-Amz-Date")).as("X-Amz-Date")
+                .isEqualTo(AwsSigV4.AMZ_DATE_FORMAT.format(CLOCK.instant()));
+        for (final String header : new String[]{"Authorization", "X-Amz-Date"}) {
+            soft.assertThat(request.headers().get(header)).as(header)
+                    .isEqualTo(expected.firstMatchingHeader(header).orElse(null));
+        }
+        soft.assertAll();
+    }
+
+    @Test
+    void templateParamsKeepRequestSigned(final Vertx vertx) {
+        final AwsSigningWebClient signingClient = AwsSigningWebClient.create(vertx, new AwsSigningOptions()
+                .setCredentialsProvider(BASIC_CREDENTIALS)
+                .setRegion(Region.EU_WEST_1));
+        final HttpRequest<Buffer> request = signingClient.get(443, HOST, UriTemplate.of("/dev/users/{id}"));
+
+        final SoftAssertions soft = new SoftAssertions();
+        soft.assertThat(request.setTemplateParam("id", "1")).as("setTemplateParam(String)").isSameAs(request);
+        soft.assertThat(request.setTemplateParam("segments", Arrays.asList("a", "b")))
+                .as("setTemplateParam(List)").isSameAs(request);
+        soft.assertThat(request.setTemplateParam("keys", Collections.singletonMap("k", "v")))
+                .as("setTemplateParam(Map)").isSameAs(request);
+        soft.assertThat(request.as(BodyCodec.string())).as("as").isInstanceOf(AwsSigningHttpRequest.class);
+        soft.assertAll();
+    }
+
+    private static SdkHttpFullRequest.Builder sdkRequest(final HttpRequest<Buffer> request, final String protocol,
+                                                         final Buffer body) {
+        final SdkHttpFullRequest.Builder builder = SdkHttpFullRequest.builder();
+        request.queryParams().forEach(entry -> builder.appendRawQueryParameter(entry.getKey(), entry.getValue()));
+        return builder.host(request.host())
+                .port(request.port())
+                .method(SdkHttpMethod.fromValue(request.method().name()))
+                .protocol(protocol)
+                .encodedPath(request.uri())
+                .contentStreamProvider(body != null ? () -> new ByteArrayInputStream(body.getBytes()) : null);
+    }
+
+    private static SdkHttpFullRequest signWithSdk(final HttpRequest<Buffer> request, final String protocol,
+                                                  final Buffer body, final AwsSigningOptions signingOptions) {
+        return Aws4Signer.create().sign(sdkRequest(request, protocol, body).build(), Aws4SignerParams.builder()
+                .awsCredentials(signingOptions.getCredentialsProvider().resolveCredentials())
+                .signingName(signingOptions.getServiceName())
+                .signingRegion(signingOptions.getRegion())
+                .timeOffset(signingOptions.getTimeOffset())
+                .signingClockOverride(signingOptions.getClock())
+                .build());
+    }
+
+    private static SdkHttpFullRequest presignWithSdk(final HttpRequest<Buffer> request, final String protocol,
+                                                     final AwsSigningOptions signingOptions) {
+        return Aws4Signer.create().presign(sdkRequest(request, protocol, null).build(), Aws4PresignerParams.builder()
+                .awsCredentials(signingOptions.getCredentialsProvider().resolveCredentials())
+                .signingName(signingOptions.getServiceName())
+                .signingRegion(signingOptions.getRegion())
+                .signingClockOverride(signingOptions.getClock())
+                .expirationTime(signingOptions.getClock().instant().plusSeconds(60))
+                .build());
+    }
+
+    private static Example example(final String description, final AwsCredentialsProvider credentialsProvider,
+                                   final Buffer body, final Supplier<HttpRequest<Buffer>> requestSupplier) {
+        return new Example(description, credentialsProvider, body, requestSupplier);
+    }
+
+    private static class TemplateExample {
+        private final String description;
+        private final String template;
+        private final String expandedUri;
+        private final Map<String, Object> variables = new LinkedHashMap<>();
+
+        public TemplateExample(final String description, final String template, final String expandedUri,
+                               final Object... variables) {
+            this.description = description;
+            this.template = template;
+            this.expandedUri = expandedUri;
+            for (int i = 0; i < variables.length; i += 2) {
+                this.variables.put((String) variables[i], variables[i + 1]);
+            }
+        }
+
+        @Override
+        public String toString() {
+            return description;
+        }
+    }
+
+    private static class Example {
+        private final String description;
+        private final AwsCredentialsProvider credentialsProvider;
+        private final Buffer body;
+        private final Supplier<HttpRequest<Buffer>> requestSupplier;
+
+        public Example(final String description, final AwsCredentialsProvider credentialsProvider,
+                       final Buffer body, final Supplier<HttpRequest<Buffer>> requestSupplier) {
+            this.description = description;
+            this.credentialsProvider = credentialsProvider;
+            this.body = body;
+            this.requestSupplier = requestSupplier;
+        }
+
+        @Override
+        public String toString() {
+            return description;
+        }
+    }
+}
@@ -0,0 +1,145 @@
+package com.venikkin.vertx.ext.web.client.aws;
+
+import io.vertx.core.Future;
+import io.vertx.core.Handler;
+import io.vertx.core.Promise;
+import io.vertx.core.Vertx;
+import io.vertx.core.http.HttpMethod;
+import io.vertx.core.http.HttpServer;
+import io.vertx.core.http.HttpServerRequest;
+import io.vertx.core.parsetools.JsonParser;
+import io.vertx.ext.web.client.WebClient;
+import io.vertx.ext.web.client.WebClientOptions;
+import io.vertx.ext.web.codec.BodyCodec;
+import io.vertx.junit5.Timeout;
+import io.vertx.junit5.VertxExtension;
+import io.vertx.junit5.VertxTestContext;
+import org.assertj.core.api.SoftAssertions;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+@ExtendWith(VertxExtension.class)
+class AwsSigningHedgingTest {
+
+    private final static int TEST_TIMEOUT_SECS = 30;
+
+    private final AtomicInteger hits = new AtomicInteger();
+
+    @Test
+    @Timeout(value = TEST_TIMEOUT_SECS, timeUnit = TimeUnit.SECONDS)
+    void hedgeWinsAndLoserIsCancelled(final Vertx vertx, final VertxTestContext testContext) {
+        final Promise<Void> loserClosed = Promise.promise();
+        standIn(vertx, request -> {
+            if (hits.get() == 1) {
+                request.response().closeHandler(v -> loserClosed.tryComplete());
+                vertx.setTimer(5000, id -> request.response().end("primary"));
+            } else {
+                request.response().end("hedge");
+            }
+        }).compose(server -> client(vertx, server, 1.0).get("/object").send()
+                .compose(response -> loserClosed.future().map(response)))
+                .onComplete(testContext.succeeding(response -> testContext.verify(() -> {
+                    final SoftAssertions soft = new SoftAssertions();
+                    soft.assertThat(response.bodyAsString()).as("winner").isEqualTo("hedge");
+                    soft.assertThat(hits).as("attempts").hasValue(2);
+                    soft.assertAll();
+                    testContext.completeNow();
+                })));
+    }
+
+    @Test
+    @Timeout(value = TEST_TIMEOUT_SECS, timeUnit = TimeUnit.SECONDS)
+    void hedgingOverCallerWebClient(final Vertx vertx, final VertxTestContext testContext) {
+        standIn(vertx, request -> {
+            // every odd request is a primary, answered after its hedge
+            if (hits.get() % 2 == 1) {
+                vertx.setTimer(500, id -> request.response().end("primary"));
+            } else {
+                request.response().end("hedge");
+            }
+        }).compose(server -> {
+            final WebClient webClient = WebClient.create(vertx, new WebClientOptions()
+                    .setDefaultHost("localhost")
+                    .setDefaultPort(server.actualPort()));
+            // two signing clients hedge independently over the same caller's web client
+            final AwsSigningWebClient first = AwsSigningWebClient.create(vertx, webClient, hedgingOptions(1.0));
+            final AwsSigningWebClient second = AwsSigningWebClient.create(vertx, webClient, hedgingOptions(1.0));
+            return first.get("/object").send()
+                    .compose(winner -> second.get("/object").send()
+                            .map(other -> winner.bodyAsString() + "," + other.bodyAsString()));
+        }).onComplete(testContext.succeeding(winners -> testContext.verify(() -> {
+            final SoftAssertions soft = new SoftAssertions();
+            soft.assertThat(winners).as("winners").isEqualTo("hedge,hedge");
+            soft.assertThat(hits).as("attempts").hasValue(4);
+            soft.assertAll();
+            testContext.completeNow();
+        })));
+    }
+
+    @Test
+    @Timeout(value = TEST_TIMEOUT_SECS, timeUnit = TimeUnit.SECONDS)
+    void hedgesStopOnceBudgetIsSpent(final Vertx vertx, final VertxTestContext testContext) {
+        standIn(vertx, request -> vertx.setTimer(60, id -> request.response().end()))
+                // without deposits only the initial budget of ten hedges can be spent
+                .compose(server -> sendSequentially(client(vertx, server, 0.0), 12))
+                .onComplete(testContext.succeeding(v -> testContext.verify(() -> {
+                    final SoftAssertions soft = new SoftAssertions();
+                    soft.assertThat(hits).as("attempts").hasValue(12 + 10);
+                    soft.assertAll();
+                    testContext.completeNow();
+                })));
+    }
+
+    @Test
+    @Timeout(value = TEST_TIMEOUT_SECS, timeUnit = TimeUnit.SECONDS)
+    void nonIdempotentAndStreamingRequestsAreNotHedged(final Vertx vertx, final VertxTestContext testContext) {
+        standIn(vertx, request -> vertx.setTimer(100, id -> request.response().end("[]")))
+                .compose(server -> {
+                    final AwsSigningWebClient client = client(vertx, server, 1.0);
+                    return client.request(HttpMethod.POST, "/object").send()
+                            .compose(v -> client.get("/object")
+                                    .as(BodyCodec.jsonStream(JsonParser.newParser()))
+                                    .send());
+                })
+                .onComplete(testContext.succeeding(v -> testContext.verify(() -> {
+                    final SoftAssertions soft = new SoftAssertions();
+                    soft.assertThat(hits).as("attempts").hasValue(2);
+                    soft.assertAll();
+                    testContext.completeNow();
+                })));
+    }
+
+    private Future<Void> sendSequentially(final AwsSigningWebClient client, final int remaining) {
+        if (remaining == 0) {
+            return Future.succeededFuture();
+        }
+        return client.get("/object").send()
+                .<Void>mapEmpty()
+                .compose(v -> sendSequentially(client, remaining - 1));
+    }
+
+    private AwsSigningWebClient client(final Vertx vertx, final HttpServer server, final double maxHedgeRatio) {
+        return AwsSigningWebClient.create(vertx, new WebClientOptions()
+                .setDefaultHost("localhost")
+                .setDefaultPort(server.actualPort()), hedgingOptions(maxHedgeRatio));
+    }
+
+    private static AwsSigningOptions hedgingOptions(final double maxHedgeRatio) {
+        return AwsSigningTestFixture.signingOptions()
+                .setHedgingOptions(new AwsSigningHedgingOptions()
+                        .setInitialDelay(10)
+                        .setMaxHedgeRatio(maxHedgeRatio));
+    }
+
+    private Future<HttpServer> standIn(final Vertx vertx, final Handler<HttpServerRequest> handler) {
+        return vertx.createHttpServer()
+                .requestHandler(request -> {
+                    hits.incrementAndGet();
+                    handler.handle(request);
+                })
+                .listen(0);
+    }
+}
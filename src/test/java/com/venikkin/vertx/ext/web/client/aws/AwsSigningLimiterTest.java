@@ -0,0 +1,132 @@
+package com.venikkin.vertx.ext.web.client.aws;
+
+import io.vertx.core.Vertx;
+import io.vertx.ext.web.client.WebClient;
+import io.vertx.junit5.VertxExtension;
+import io.vertx.uritemplate.UriTemplate;
+import org.assertj.core.api.SoftAssertions;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeoutException;
+
+import static org.assertj.core.api.Assertions.within;
+
+// permits are granted inline, there is no Vert.x context to hop back to
+@ExtendWith(VertxExtension.class)
+class AwsSigningLimiterTest {
+
+    private static final String KEY = "GET localhost:443/pets";
+
+    @Test
+    void limitGrowsOnSuccessAndBacksOffOnThrottling() {
+        final AwsSigningLimiter limiter = new AwsSigningLimiter(new AwsSigningLimiterOptions()
+                .setInitialLimit(10)
+                .setMinLimit(4)
+                .setBackoffRatio(0.5));
+        final SoftAssertions soft = new SoftAssertions();
+
+        acquire(limiter).onResponse(200);
+        soft.assertThat(limit(limiter)).as("after success").isCloseTo(10.1, within(1e-9));
+        acquire(limiter).onResponse(429);
+        soft.assertThat(limit(limiter)).as("after throttling").isCloseTo(5.05, within(1e-9));
+        acquire(limiter).onFailure(new TimeoutException());
+        soft.assertThat(limit(limiter)).as("after timeout").isEqualTo(4.0);
+        acquire(limiter).onResponse(503);
+        soft.assertThat(limit(limiter)).as("min limit").isEqualTo(4.0);
+        acquire(limiter).onFailure(new IllegalStateException());
+        soft.assertThat(limit(limiter)).as("after other failure").isEqualTo(4.0);
+        soft.assertThat(limiter.metrics().get(KEY).getThrottled()).as("throttled").isEqualTo(3);
+        soft.assertAll();
+    }
+
+    @Test
+    void requestsOverLimitAreQueuedThenRejected() {
+        final AwsSigningLimiter limiter = new AwsSigningLimiter(new AwsSigningLimiterOptions()
+                .setInitialLimit(1)
+                .setMaxQueueSize(1));
+        final List<AwsSigningLimiter.Permit> permits = new ArrayList<>();
+        final List<Throwable> rejections = new ArrayList<>();
+        for (int i = 0; i < 3; i++) {
+            limiter.acquire(KEY, permits::add, rejections::add);
+        }
+        final SoftAssertions soft = new SoftAssertions();
+        soft.assertThat(permits).as("granted").hasSize(1);
+        soft.assertThat(limiter.metrics().get(KEY).getQueued()).as("queued").isEqualTo(1);
+        soft.assertThat(rejections).as("rejected").singleElement().isInstanceOf(AwsSigningRejectedException.class);
+
+        permits.get(0).onResponse(200);
+        soft.assertThat(permits).as("granted after release").hasSize(2);
+        soft.assertThat(limiter.metrics().get(KEY).getQueued()).as("queued after release").isEqualTo(0);
+        soft.assertThat(limiter.metrics().get(KEY).getRejected()).as("rejected count").isEqualTo(1);
+        soft.assertAll();
+    }
+
+    @Test
+    void idleEndpointsAreEvicted() {
+        final AwsSigningLimiter limiter = new AwsSigningLimiter(new AwsSigningLimiterOptions().setMaxEndpoints(2));
+        final List<AwsSigningLimiter.Permit> permits = new ArrayList<>();
+        limiter.acquire("busy", permits::add, cause -> {
+        });
+        for (int i = 0; i < 100; i++) {
+            limiter.acquire("idle-" + i, permit -> permit.onResponse(200), cause -> {
+            });
+        }
+        final SoftAssertions soft = new SoftAssertions();
+        soft.assertThat(limiter.metrics()).as("endpoints").hasSize(2).containsKey("busy");
+        soft.assertAll();
+    }
+
+    @Test
+    void templateRequestsShareEndpoint(final Vertx vertx) {
+        final AwsSigningWebClient client = AwsSigningWebClient.create(vertx, WebClient.create(vertx),
+                AwsSigningTestFixture.signingOptions().setLimiterOptions(new AwsSigningLimiterOptions()));
+        final UriTemplate template = UriTemplate.of("/pets/{id}{?owner}");
+        final SoftAssertions soft = new SoftAssertions();
+        soft.assertThat(client.limiter().endpointKey(client.get(template)
+                        .setTemplateParam("id", "1")
+                        .setTemplateParam("owner", "alice")))
+                .as("template key")
+                .isEqualTo(client.limiter().endpointKey(client.get(template).setTemplateParam("id", "2")));
+        soft.assertThat(client.limiter().endpointKey(client.get("/pets/1")))
+                .as("path key")
+                .isNotEqualTo(client.limiter().endpointKey(client.get("/pets/2")));
+        soft.assertThat(client.limiter().endpointKey(client.get(443, "localhost", "/pets?owner=alice")))
+                .as("method key")
+                .isEqualTo("GET localhost:443/pets")
+                .isNotEqualTo(client.limiter().endpointKey(client.post(443, "localhost", "/pets")));
+        soft.assertAll();
+    }
+
+    @Test
+    void initialLimitMustBeWithinBounds() {
+        final SoftAssertions soft = new SoftAssertions();
+        soft.assertThatThrownBy(() -> new AwsSigningLimiter(new AwsSigningLimiterOptions().setInitialLimit(300)))
+                .as("above max limit")
+                .isInstanceOf(IllegalArgumentException.class);
+        soft.assertThatThrownBy(() -> new AwsSigningLimiter(new AwsSigningLimiterOptions()
+                        .setInitialLimit(2)
+                        .setMinLimit(4)))
+                .as("below min limit")
+                .isInstanceOf(IllegalArgumentException.class);
+        soft.assertThatCode(() -> new AwsSigningLimiter(new AwsSigningLimiterOptions()
+                        .setInitialLimit(300)
+                        .setMaxLimit(500)))
+                .as("limits set in any order")
+                .doesNotThrowAnyException();
+        soft.assertAll();
+    }
+
+    private static AwsSigningLimiter.Permit acquire(final AwsSigningLimiter limiter) {
+        final List<AwsSigningLimiter.Permit> permits = new ArrayList<>();
+        limiter.acquire(KEY, permits::add, cause -> {
+        });
+        return permits.get(0);
+    }
+
+    private static double limit(final AwsSigningLimiter limiter) {
+        return limiter.metrics().get(KEY).getLimit();
+    }
+}
@@ -0,0 +1,24 @@
+package com.venikkin.vertx.ext.web.client.aws;
+
+import org.assertj.core.api.SoftAssertions;
+import org.junit.jupiter.api.Test;
+
+class AwsSigningLruCacheTest {
+
+    @Test
+    void cacheEvictsLeastRecentlyUsedEntry() {
+        final AwsSigningLruCache<String, Integer> cache = new AwsSigningLruCache<>(2);
+        cache.put("first", 1);
+        cache.put("second", 2);
+        // reading the first entry makes the second one the eldest
+        cache.get("first");
+        cache.put("third", 3);
+
+        final SoftAssertions soft = new SoftAssertions();
+        soft.assertThat(cache.size()).as("size").isEqualTo(2);
+        soft.assertThat(cache.get("first")).as("recently read").isEqualTo(1);
+        soft.assertThat(cache.get("second")).as("least recently used").isNull();
+        soft.assertThat(cache.get("third")).as("inserted").isEqualTo(3);
+        soft.assertAll();
+    }
+}
@@ -0,0 +1,73 @@
+package com.venikkin.vertx.ext.web.client.aws;
+
+import io.vertx.core.Future;
+import io.vertx.core.Vertx;
+import io.vertx.core.buffer.Buffer;
+import io.vertx.core.http.HttpServer;
+import io.vertx.ext.web.Router;
+import io.vertx.junit5.Timeout;
+import io.vertx.junit5.VertxExtension;
+import io.vertx.junit5.VertxTestContext;
+import org.assertj.core.api.SoftAssertions;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+// the stand-in verifies every signature, so a reused hash that does not match the body fails the request
+@ExtendWith(VertxExtension.class)
+class AwsSigningPayloadTest {
+
+    private final static int TEST_TIMEOUT_SECS = 30;
+
+    private final List<Integer> statusCodes = new ArrayList<>();
+
+    @Test
+    @Timeout(value = TEST_TIMEOUT_SECS, timeUnit = TimeUnit.SECONDS)
+    void retriesAndCopiesReuseSignedPayload(final Vertx vertx, final VertxTestContext testContext) {
+        final byte[] content = new byte[128 * 1024];
+        new Random(42).nextBytes(content);
+        final Buffer body = Buffer.buffer(content);
+        final List<AwsSigningPayload> payloads = new ArrayList<>();
+        standIn(vertx).compose(port -> {
+            final AwsSigningWebClient client =
+                    AwsSigningWebClient.create(vertx, AwsSigningTestFixture.signingOptions());
+            final AwsSigningHttpRequest<Buffer> request = client.post(port, "localhost", "/echo");
+            return send(request, body, payloads)
+                    // a retry sends the same request again
+                    .compose(v -> send(request, body, payloads))
+                    .compose(v -> send((AwsSigningHttpRequest<Buffer>) request.copy(), body, payloads))
+                    .compose(v -> send((AwsSigningHttpRequest<Buffer>) request.copy(), body.copy(), payloads));
+        }).onComplete(testContext.succeeding(v -> testContext.verify(() -> {
+            final SoftAssertions soft = new SoftAssertions();
+            soft.assertThat(statusCodes).as("status codes").containsExactly(200, 200, 200, 200);
+            soft.assertThat(payloads).as("payloads").hasSize(4);
+            if (payloads.size() == 4) {
+                soft.assertThat(payloads.get(1)).as("retry").isSameAs(payloads.get(0));
+                soft.assertThat(payloads.get(2)).as("copy").isSameAs(payloads.get(0));
+                soft.assertThat(payloads.get(3)).as("copy with another buffer").isNotSameAs(payloads.get(0));
+                soft.assertThat(payloads.get(3).hash).as("hash of the same content").isEqualTo(payloads.get(0).hash);
+            }
+            soft.assertAll();
+            testContext.completeNow();
+        })));
+    }
+
+    private Future<Void> send(final AwsSigningHttpRequest<Buffer> request, final Buffer body,
+                              final List<AwsSigningPayload> payloads) {
+        return request.sendBuffer(body).map(response -> {
+            statusCodes.add(response.statusCode());
+            payloads.add(request.payload());
+            return null;
+        });
+    }
+
+    private static Future<Integer> standIn(final Vertx vertx) {
+        final Router router = AwsSigningTestFixture.verifyingRouter(vertx);
+        router.route().handler(ctx -> ctx.response().end());
+        return AwsSigningTestFixture.listen(vertx, router).map(HttpServer::actualPort);
+    }
+}
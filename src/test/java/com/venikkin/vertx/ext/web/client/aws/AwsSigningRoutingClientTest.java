@@ -0,0 +1,127 @@
+package com.venikkin.vertx.ext.web.client.aws;
+
+import io.vertx.core.CompositeFuture;
+import io.vertx.core.Future;
+import io.vertx.core.Vertx;
+import io.vertx.core.http.HttpMethod;
+import io.vertx.core.http.HttpServer;
+import io.vertx.junit5.Timeout;
+import io.vertx.junit5.VertxExtension;
+import io.vertx.junit5.VertxTestContext;
+import org.assertj.core.api.SoftAssertions;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import software.amazon.awssdk.regions.Region;
+
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+// each region is a local stand-in with its own injected delay, answering with the region it was signed for
+@ExtendWith(VertxExtension.class)
+class AwsSigningRoutingClientTest {
+
+    private final static int TEST_TIMEOUT_SECS = 30;
+    private static final int REQUESTS = 20;
+
+    private final Map<String, AtomicInteger> hits = new ConcurrentHashMap<>();
+
+    @Test
+    @Timeout(value = TEST_TIMEOUT_SECS, timeUnit = TimeUnit.SECONDS)
+    void clientRoutesToFastestHealthyRegion(final Vertx vertx, final VertxTestContext testContext) {
+        CompositeFuture.all(
+                standIn(vertx, Region.EU_WEST_1, 150, 200),
+                standIn(vertx, Region.US_EAST_1, 5, 200),
+                standIn(vertx, Region.AP_SOUTHEAST_2, 0, 503)
+        ).compose(servers -> {
+            final AwsSigningRoutingOptions routingOptions = new AwsSigningRoutingOptions().setExplorationRate(0);
+            for (int i = 0; i < servers.size(); i++) {
+                final HttpServer server = servers.resultAt(i);
+                routingOptions.addEndpoint(new AwsSigningRegionEndpoint()
+                        .setRegion(i == 0 ? Region.EU_WEST_1 : i == 1 ? Region.US_EAST_1 : Region.AP_SOUTHEAST_2)
+                        .setHost("localhost")
+                        .setPort(server.actualPort())
+                        .setSsl(false));
+            }
+            final AwsSigningRoutingClient client = AwsSigningRoutingClient.create(vertx,
+                    AwsSigningTestFixture.signingOptions(), routingOptions);
+            return sendSequentially(client, REQUESTS).map(client);
+        }).onComplete(testContext.succeeding(client -> testContext.verify(() -> {
+            final SoftAssertions soft = new SoftAssertions();
+            // every endpoint is measured once, the fast and healthy one takes the rest
+            soft.assertThat(hits(Region.EU_WEST_1)).as("eu-west-1 hits").isEqualTo(1);
+            soft.assertThat(hits(Region.AP_SOUTHEAST_2)).as("ap-southeast-2 hits").isEqualTo(1);
+            soft.assertThat(hits(Region.US_EAST_1)).as("us-east-1 hits").isEqualTo(REQUESTS - 2);
+            soft.assertThat(hits.get("mis-scoped")).as("requests signed for another region").isNull();
+            soft.assertThat(client.preferredRegion()).as("preferred region").isEqualTo(Region.US_EAST_1);
+            soft.assertThat(client.latency(Region.EU_WEST_1)).as("eu-west-1 latency").isGreaterThan(100);
+            soft.assertThat(client.errorRate(Region.AP_SOUTHEAST_2)).as("ap-southeast-2 error rate").isEqualTo(1.0);
+            soft.assertThat(client.errorRate(Region.US_EAST_1)).as("us-east-1 error rate").isEqualTo(0.0);
+            soft.assertAll();
+            client.close();
+            testContext.completeNow();
+        })));
+    }
+
+    @Test
+    @Timeout(value = TEST_TIMEOUT_SECS, timeUnit = TimeUnit.SECONDS)
+    void clientSendsToRequestedRegion(final Vertx vertx, final VertxTestContext testContext) {
+        CompositeFuture.all(standIn(vertx, Region.EU_WEST_1, 0, 200), standIn(vertx, Region.US_EAST_1, 0, 200))
+                .compose(servers -> {
+                    final AwsSigningRoutingClient client = AwsSigningRoutingClient.create(vertx,
+                            new AwsSigningOptions().setCredentialsProvider(AwsSigningTestFixture.CREDENTIALS),
+                            new AwsSigningRoutingOptions()
+                                    .addEndpoint(new AwsSigningRegionEndpoint().setRegion(Region.EU_WEST_1)
+                                            .setHost("localhost").setPort(servers.<HttpServer>resultAt(0).actualPort())
+                                            .setSsl(false))
+                                    .addEndpoint(new AwsSigningRegionEndpoint().setRegion(Region.US_EAST_1)
+                                            .setHost("localhost").setPort(servers.<HttpServer>resultAt(1).actualPort())
+                                            .setSsl(false)));
+                    return client.request(Region.US_EAST_1, HttpMethod.GET, "/echo").send()
+                            .onComplete(ar -> client.close());
+                })
+                .onComplete(testContext.succeeding(response -> testContext.verify(() -> {
+                    final SoftAssertions soft = new SoftAssertions();
+                    soft.assertThat(response.bodyAsString()).as("region").isEqualTo(Region.US_EAST_1.id());
+                    soft.assertThat(hits(Region.US_EAST_1)).as("us-east-1 hits").isEqualTo(1);
+                    soft.assertThat(hits(Region.EU_WEST_1)).as("eu-west-1 hits").isEqualTo(0);
+                    soft.assertAll();
+                    testContext.completeNow();
+                })));
+    }
+
+    private Future<Void> sendSequentially(final AwsSigningRoutingClient client, final int remaining) {
+        if (remaining == 0) {
+            return Future.succeededFuture();
+        }
+        return client.get("/echo").send()
+                .<Void>mapEmpty()
+                .compose(v -> sendSequentially(client, remaining - 1));
+    }
+
+    private Future<HttpServer> standIn(final Vertx vertx, final Region region, final long delay,
+                                       final int statusCode) {
+        return vertx.createHttpServer()
+                .requestHandler(request -> {
+                    final String authorization = request.getHeader("Authorization");
+                    final String key = authorization != null
+                            && authorization.contains("/" + region.id() + "/execute-api/aws4_request")
+                            ? region.id()
+                            : "mis-scoped";
+                    hits.computeIfAbsent(key, k -> new AtomicInteger()).incrementAndGet();
+                    final Runnable respond = () -> request.response().setStatusCode(statusCode).end(region.id());
+                    if (delay > 0) {
+                        vertx.setTimer(delay, id -> respond.run());
+                    } else {
+                        respond.run();
+                    }
+                })
+                .listen(0);
+    }
+
+    private int hits(final Region region) {
+        final AtomicInteger count = hits.get(region.id());
+        return count != null ? count.get() : 0;
+    }
+}
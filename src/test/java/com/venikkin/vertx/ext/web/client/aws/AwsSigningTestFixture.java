@@ -0,0 +1,58 @@
+package com.venikkin.vertx.ext.web.client.aws;
+
+import io.vertx.core.Future;
+import io.vertx.core.Vertx;
+import io.vertx.core.http.HttpServer;
+import io.vertx.ext.web.Router;
+import software.amazon.awssdk.auth.credentials.AwsBasicCredentials;
+import software.amazon.awssdk.auth.credentials.AwsCredentialsProvider;
+import software.amazon.awssdk.auth.credentials.StaticCredentialsProvider;
+import software.amazon.awssdk.regions.Region;
+
+// Example credentials, signing options and local stand-ins verifying signatures, shared by the tests of this package
+final class AwsSigningTestFixture {
+
+    static final String ACCESS_KEY_ID = "AKIDEXAMPLE";
+    static final String SECRET_ACCESS_KEY = "wJalrXUtnFEMI/K7MDENG+bPxRfiCYEXAMPLEKEY";
+    static final Region REGION = Region.EU_WEST_1;
+    static final AwsCredentialsProvider CREDENTIALS =
+            StaticCredentialsProvider.create(AwsBasicCredentials.create(ACCESS_KEY_ID, SECRET_ACCESS_KEY));
+
+    private AwsSigningTestFixture() {
+    }
+
+    // signs with the example credentials in the region the stand-ins verify
+    static AwsSigningOptions signingOptions() {
+        return new AwsSigningOptions()
+                .setCredentialsProvider(CREDENTIALS)
+                .setRegion(REGION);
+    }
+
+    // knows the example access key id only
+    static Future<String> secretLookup(final String accessKeyId) {
+        return ACCESS_KEY_ID.equals(accessKeyId)
+                ? Future.succeededFuture(SECRET_ACCESS_KEY)
+                : Future.failedFuture("Unknown access key id " + accessKeyId);
+    }
+
+    static AwsSigV4VerificationOptions verificationOptions() {
+        return new AwsSigV4VerificationOptions()
+                .setRegion(REGION)
+                .setSecretLookup(AwsSigningTestFixture::secretLookup);
+    }
+
+    // every request is verified before the routes the test adds
+    static Router verifyingRouter(final Vertx vertx) {
+        return verifyingRouter(vertx, verificationOptions());
+    }
+
+    static Router verifyingRouter(final Vertx vertx, final AwsSigV4VerificationOptions verificationOptions) {
+        final Router router = Router.router(vertx);
+        router.route().handler(AwsSigV4VerificationHandler.create(vertx, verificationOptions));
+        return router;
+    }
+
+    static Future<HttpServer> listen(final Vertx vertx, final Router router) {
+        return vertx.createHttpServer().requestHandler(router).listen(0);
+    }
+}
@@ -0,0 +1,90 @@
+package com.venikkin.vertx.ext.web.client.aws;
+
+import io.vertx.core.Context;
+import io.vertx.core.Vertx;
+import io.vertx.core.http.HttpMethod;
+import io.vertx.ext.web.client.WebClientOptions;
+import io.vertx.junit5.Timeout;
+import io.vertx.junit5.VertxExtension;
+import io.vertx.junit5.VertxTestContext;
+import org.assertj.core.api.SoftAssertions;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import software.amazon.awssdk.regions.Region;
+
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+@ExtendWith(VertxExtension.class)
+class AwsSigningWarmUpTest {
+
+    private final static int TEST_TIMEOUT_SECS = 30;
+    private static final int CONNECTIONS = 4;
+
+    private final AtomicInteger connections = new AtomicInteger();
+    private final List<String> requests = new CopyOnWriteArrayList<>();
+    private final List<Boolean> resolvedOnWorker = new CopyOnWriteArrayList<>();
+
+    @Test
+    @Timeout(value = TEST_TIMEOUT_SECS, timeUnit = TimeUnit.SECONDS)
+    void warmUpResolvesCredentialsAndOpensSignedConnections(final Vertx vertx, final VertxTestContext testContext) {
+        vertx.createHttpServer()
+                .connectionHandler(connection -> connections.incrementAndGet())
+                .requestHandler(request -> {
+                    final String authorization = request.getHeader("Authorization");
+                    requests.add(request.method() + " " + request.uri() + " "
+                            + (authorization != null && authorization.startsWith("AWS4-HMAC-SHA256 ")));
+                    // responses held back a little, so every warm-up request needs a connection of its own
+                    vertx.setTimer(50, id -> request.response().setStatusCode(404).end());
+                })
+                .listen(0)
+                .compose(server -> {
+                    final AwsSigningWebClient client = AwsSigningWebClient.create(vertx, new WebClientOptions()
+                            .setDefaultHost("localhost")
+                            .setDefaultPort(server.actualPort()), new AwsSigningOptions()
+                            .setCredentialsProvider(() -> {
+                                resolvedOnWorker.add(Context.isOnWorkerThread());
+                                return AwsSigningTestFixture.CREDENTIALS.resolveCredentials();
+                            })
+                            .setCredentialsCacheTtl(60_000)
+                            .setRegion(Region.EU_WEST_1)
+                            .setCircuitBreakerOptions(new AwsSigningCircuitBreakerOptions().setFailureThreshold(1)));
+                    return client.warmUp(new AwsSigningWarmUpOptions().setConnections(CONNECTIONS)).map(client);
+                })
+                .onComplete(testContext.succeeding(client -> testContext.verify(() -> {
+                    final SoftAssertions soft = new SoftAssertions();
+                    soft.assertThat(resolvedOnWorker).as("credentials resolved on a worker").containsExactly(true);
+                    soft.assertThat(connections).as("connections").hasValue(CONNECTIONS);
+                    soft.assertThat(requests).as("requests").hasSize(CONNECTIONS).containsOnly("HEAD / true");
+                    soft.assertThat(client.circuitBreaker().states()).as("circuits").isEmpty();
+                    soft.assertAll();
+                    testContext.completeNow();
+                })));
+    }
+
+    @Test
+    @Timeout(value = TEST_TIMEOUT_SECS, timeUnit = TimeUnit.SECONDS)
+    void warmUpUsesConfiguredRequest(final Vertx vertx, final VertxTestContext testContext) {
+        vertx.createHttpServer()
+                .requestHandler(request -> {
+                    requests.add(request.method() + " " + request.uri());
+                    request.response().end();
+                })
+                .listen(0)
+                .compose(server -> AwsSigningWebClient.create(vertx, new WebClientOptions()
+                        .setDefaultHost("localhost")
+                        .setDefaultPort(server.actualPort()), AwsSigningTestFixture.signingOptions())
+                        .warmUp(new AwsSigningWarmUpOptions()
+                                .setConnections(1)
+                                .setMethod(HttpMethod.OPTIONS)
+                                .setRequestURI("/ping")))
+                .onComplete(testContext.succeeding(v -> testContext.verify(() -> {
+                    final SoftAssertions soft = new SoftAssertions();
+                    soft.assertThat(requests).as("requests").containsExactly("OPTIONS /ping");
+                    soft.assertAll();
+                    testContext.completeNow();
+                })));
+    }
+}
@@ -0,0 +1,178 @@
+package com.venikkin.vertx.ext.web.client.aws;
+
+import io.netty.handler.codec.http.QueryStringDecoder;
+import io.vertx.core.Vertx;
+import io.vertx.core.http.ServerWebSocket;
+import io.vertx.core.http.WebSocketConnectOptions;
+import io.vertx.junit5.Timeout;
+import io.vertx.junit5.VertxExtension;
+import io.vertx.junit5.VertxTestContext;
+import org.assertj.core.api.SoftAssertions;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import software.amazon.awssdk.auth.credentials.AwsBasicCredentials;
+import software.amazon.awssdk.auth.credentials.AwsCredentials;
+import software.amazon.awssdk.regions.Region;
+
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicReference;
+
+@ExtendWith(VertxExtension.class)
+class AwsSigningWebSocketTest {
+
+    private final static int TEST_TIMEOUT_SECS = 30;
+
+    private static final AwsCredentials FIRST_CREDENTIALS =
+            AwsBasicCredentials.create("AKIDFIRST", "wJalrXUtnFEMI/K7MDENG+bPxRfiCYEXAMPLEKEY");
+    private static final AwsCredentials ROTATED_CREDENTIALS =
+            AwsBasicCredentials.create("AKIDROTATED", "je7MtGbClwBF/2Zp9Utk/h3yCo8nvbEXAMPLEKEY");
+
+    // query parameters of every handshake the server accepted
+    private static final List<Map<String, List<String>>> handshakes = new CopyOnWriteArrayList<>();
+    private static final AtomicInteger closedConnections = new AtomicInteger();
+    private static final AtomicReference<ServerWebSocket> accepted = new AtomicReference<>();
+
+    private static int port;
+
+    @BeforeAll
+    static void init(final Vertx vertx, final VertxTestContext testContext) {
+        vertx.createHttpServer()
+                .webSocketHandler(webSocket -> {
+                    final boolean first = handshakes.isEmpty();
+                    handshakes.add(new QueryStringDecoder(webSocket.uri()).parameters());
+                    webSocket.closeHandler(v -> closedConnections.incrementAndGet());
+                    if (first && webSocket.path().equals("/drop-first")) {
+                        webSocket.close();
+                        return;
+                    }
+                    // the first re-signed handshake drops the current connection and is rejected itself
+                    if (webSocket.path().equals("/drop-on-rotation") && handshakes.size() == 2) {
+                        accepted.get().close();
+                        webSocket.reject(403);
+                        return;
+                    }
+                    accepted.set(webSocket);
+                    webSocket.textMessageHandler(webSocket::writeTextMessage);
+                })
+                .listen(0, testContext.succeeding(server -> {
+                    port = server.actualPort();
+                    testContext.completeNow();
+                }));
+    }
+
+    @BeforeEach
+    void reset() {
+        handshakes.clear();
+        closedConnections.set(0);
+    }
+
+    @Test
+    @Timeout(value = TEST_TIMEOUT_SECS, timeUnit = TimeUnit.SECONDS)
+    void handshakeIsSignedInQueryString(final Vertx vertx, final VertxTestContext testContext) {
+        client(vertx, new AtomicReference<>(FIRST_CREDENTIALS))
+                .connect(connectOptions("/dev?channel=orders"))
+                .onComplete(testContext.succeeding(webSocket -> webSocket
+                        .textMessageHandler(message -> {
+                            final SoftAssertions soft = new SoftAssertions();
+                            soft.assertThat(message).as("echo").isEqualTo("hello");
+                            soft.assertThat(handshakes).as("handshakes").hasSize(1);
+                            if (!handshakes.isEmpty()) {
+                                final Map<String, List<String>> query = handshakes.get(0);
+                                soft.assertThat(query.get("channel")).as("own parameter").containsExactly("orders");
+                                soft.assertThat(query.get("X-Amz-Credential")).as("credential")
+                                        .singleElement().asString().startsWith("AKIDFIRST/");
+                                soft.assertThat(query.get("X-Amz-SignedHeaders")).as("signed headers")
+                                        .containsExactly("host");
+                                soft.assertThat(query.get("X-Amz-Signature")).as("signature")
+                                        .singleElement().asString().hasSize(64);
+                            }
+                            soft.assertAll();
+                            testContext.completeNow();
+                        })
+                        .writeTextMessage("hello")));
+    }
+
+    @Test
+    @Timeout(value = TEST_TIMEOUT_SECS, timeUnit = TimeUnit.SECONDS)
+    void rotatedCredentialsReSignConnection(final Vertx vertx, final VertxTestContext testContext) {
+        final AtomicReference<AwsCredentials> credentials = new AtomicReference<>(FIRST_CREDENTIALS);
+        client(vertx, credentials)
+                .connect(connectOptions("/dev"), new AwsSigningWebSocketOptions().setCredentialsCheckInterval(50))
+                .onComplete(testContext.succeeding(webSocket -> {
+                    webSocket
+                            .connectHandler(connected -> webSocket.writeTextMessage("after rotation"))
+                            .textMessageHandler(message -> {
+                                final SoftAssertions soft = new SoftAssertions();
+                                soft.assertThat(message).as("echo").isEqualTo("after rotation");
+                                soft.assertThat(handshakes).as("handshakes").hasSize(2);
+                                if (handshakes.size() == 2) {
+                                    soft.assertThat(handshakes.get(1).get("X-Amz-Credential")).as("credential")
+                                            .singleElement().asString().startsWith("AKIDROTATED/");
+                                }
+                                soft.assertAll();
+                                testContext.completeNow();
+                            });
+                    credentials.set(ROTATED_CREDENTIALS);
+                }));
+    }
+
+    @Test
+    @Timeout(value = TEST_TIMEOUT_SECS, timeUnit = TimeUnit.SECONDS)
+    void droppedConnectionReconnects(final Vertx vertx, final VertxTestContext testContext) {
+        client(vertx, new AtomicReference<>(FIRST_CREDENTIALS))
+                .connect(connectOptions("/drop-first"), new AwsSigningWebSocketOptions().setReconnectDelay(10))
+                .onComplete(testContext.succeeding(webSocket -> webSocket
+                        .connectHandler(connected -> webSocket.writeTextMessage("after reconnect"))
+                        .textMessageHandler(message -> {
+                            final SoftAssertions soft = new SoftAssertions();
+                            soft.assertThat(message).as("echo").isEqualTo("after reconnect");
+                            soft.assertThat(handshakes).as("handshakes").hasSize(2);
+                            soft.assertThat(closedConnections.get()).as("closed connections").isEqualTo(1);
+                            soft.assertAll();
+                            testContext.completeNow();
+                        })));
+    }
+
+    @Test
+    @Timeout(value = TEST_TIMEOUT_SECS, timeUnit = TimeUnit.SECONDS)
+    void connectionDroppedDuringFailedRotationReconnects(final Vertx vertx, final VertxTestContext testContext) {
+        final AtomicReference<AwsCredentials> credentials = new AtomicReference<>(FIRST_CREDENTIALS);
+        client(vertx, credentials)
+                .connect(connectOptions("/drop-on-rotation"), new AwsSigningWebSocketOptions()
+                        .setCredentialsCheckInterval(50)
+                        .setReconnectDelay(10))
+                .onComplete(testContext.succeeding(webSocket -> {
+                    webSocket
+                            .connectHandler(connected -> webSocket.writeTextMessage("after reconnect"))
+                            .textMessageHandler(message -> {
+                                final SoftAssertions soft = new SoftAssertions();
+                                soft.assertThat(message).as("echo").isEqualTo("after reconnect");
+                                soft.assertThat(handshakes).as("handshakes").hasSize(3);
+                                soft.assertAll();
+                                testContext.completeNow();
+                            });
+                    credentials.set(ROTATED_CREDENTIALS);
+                }));
+    }
+
+    private static AwsSigningWebSocketClient client(final Vertx vertx,
+                                                    final AtomicReference<AwsCredentials> credentials) {
+        return AwsSigningWebSocketClient.create(vertx, new AwsSigningOptions()
+                .setCredentialsProvider(credentials::get)
+                .setCredentialsCacheTtl(0)
+                .setRegion(Region.EU_WEST_1));
+    }
+
+    private static WebSocketConnectOptions connectOptions(final String uri) {
+        return new WebSocketConnectOptions()
+                .setHost("localhost")
+                .setPort(port)
+                .setURI(uri);
+    }
+}
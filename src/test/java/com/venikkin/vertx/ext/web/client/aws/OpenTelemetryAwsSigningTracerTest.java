@@ -0,0 +1,151 @@
+package com.venikkin.vertx.ext.web.client.aws;
+
+import io.opentelemetry.api.OpenTelemetry;
+import io.opentelemetry.api.trace.propagation.W3CTraceContextPropagator;
+import io.opentelemetry.context.propagation.ContextPropagators;
+import io.opentelemetry.sdk.OpenTelemetrySdk;
+import io.opentelemetry.sdk.testing.exporter.InMemorySpanExporter;
+import io.opentelemetry.sdk.trace.SdkTracerProvider;
+import io.opentelemetry.sdk.trace.data.SpanData;
+import io.opentelemetry.sdk.trace.export.SimpleSpanProcessor;
+import io.opentelemetry.sdk.trace.samplers.Sampler;
+import io.vertx.core.MultiMap;
+import io.vertx.core.Vertx;
+import io.vertx.core.buffer.Buffer;
+import io.vertx.junit5.Timeout;
+import io.vertx.junit5.VertxExtension;
+import io.vertx.junit5.VertxTestContext;
+import org.assertj.core.api.SoftAssertions;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import software.amazon.awssdk.auth.credentials.AwsCredentialsProvider;
+import software.amazon.awssdk.regions.Region;
+
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.Collectors;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+@ExtendWith(VertxExtension.class)
+class OpenTelemetryAwsSigningTracerTest {
+
+    private final static int TEST_TIMEOUT_SECS = 30;
+
+    private static final AwsCredentialsProvider CREDENTIALS = AwsSigningTestFixture.CREDENTIALS;
+    private static final InMemorySpanExporter spanExporter = InMemorySpanExporter.create();
+    private static final List<MultiMap> receivedHeaders = new CopyOnWriteArrayList<>();
+
+    private static int port;
+
+    @BeforeAll
+    static void init(final Vertx vertx, final VertxTestContext testContext) {
+        vertx.createHttpServer()
+                .requestHandler(request -> {
+                    receivedHeaders.add(request.headers());
+                    request.response().end("ok");
+                })
+                .listen(0, testContext.succeeding(server -> {
+                    port = server.actualPort();
+                    testContext.completeNow();
+                }));
+    }
+
+    @BeforeEach
+    void reset() {
+        spanExporter.reset();
+        receivedHeaders.clear();
+    }
+
+    @Test
+    @Timeout(value = TEST_TIMEOUT_SECS, timeUnit = TimeUnit.SECONDS)
+    void sampledRequestRecordsSigningSpans(final Vertx vertx, final VertxTestContext testContext) {
+        client(vertx, Sampler.alwaysOn())
+                .post(port, "localhost", "/dev/echo")
+                .traceOperation("echo")
+                .sendBuffer(Buffer.buffer("Hello"), testContext.succeeding(response -> {
+                    final List<SpanData> spans = spanExporter.getFinishedSpanItems();
+                    final SpanData root = spans.stream()
+                            .filter(span -> "echo".equals(span.getName()))
+                            .findFirst()
+                            .orElse(null);
+                    final SpanData exchange = spans.stream()
+                            .filter(span -> "aws.http.exchange".equals(span.getName()))
+                            .findFirst()
+                            .orElse(null);
+
+                    final SoftAssertions soft = new SoftAssertions();
+                    soft.assertThat(response.statusCode()).as("status code").isEqualTo(200);
+                    soft.assertThat(spans.stream().map(SpanData::getName).collect(Collectors.toList())).as("spans")
+                            .containsExactlyInAnyOrder("echo", "aws.credentials.resolve", "aws.payload.hash",
+                                    "aws.signature", "aws.http.exchange");
+                    soft.assertThat(root).as("request span").isNotNull();
+                    soft.assertThat(exchange).as("exchange span").isNotNull();
+                    if (root != null && exchange != null) {
+                        soft.assertThat(spans.stream()
+                                        .filter(span -> span != root)
+                                        .map(SpanData::getParentSpanId)
+                                        .collect(Collectors.toSet()))
+                                .as("child span parents")
+                                .containsExactly(root.getSpanId());
+                        soft.assertThat(root.getAttributes().get(OpenTelemetryAwsSigningTracer.HTTP_STATUS_CODE))
+                                .as("status code attribute").isEqualTo(200L);
+                        soft.assertThat(receivedHeaders.get(0).get("traceparent")).as("propagated context")
+                                .contains(exchange.getTraceId())
+                                .contains(exchange.getSpanId());
+                    }
+                    soft.assertThat(spans.stream()
+                                    .filter(span -> "aws.payload.hash".equals(span.getName()))
+                                    .map(span -> span.getAttributes().get(OpenTelemetryAwsSigningTracer.PAYLOAD_SIZE)))
+                            .as("payload size").containsExactly(5L);
+                    soft.assertThat(spans.stream()
+                                    .filter(span -> "aws.credentials.resolve".equals(span.getName()))
+                                    .map(span -> span.getAttributes()
+                                            .get(OpenTelemetryAwsSigningTracer.CREDENTIALS_CACHE_HIT)))
+                            .as("credentials cache hit").doesNotContainNull().hasSize(1);
+                    soft.assertThat(receivedHeaders.get(0).get("Authorization")).as("authorization")
+                            .startsWith("AWS4-HMAC-SHA256 Credential=" + AwsSigningTestFixture.ACCESS_KEY_ID + "/");
+                    soft.assertAll();
+                    testContext.completeNow();
+                }));
+    }
+
+    @Test
+    @Timeout(value = TEST_TIMEOUT_SECS, timeUnit = TimeUnit.SECONDS)
+    void unsampledRequestRecordsNothing(final Vertx vertx, final VertxTestContext testContext) {
+        client(vertx, Sampler.alwaysOff())
+                .get(port, "localhost", "/dev/echo")
+                .send(testContext.succeeding(response -> {
+                    final SoftAssertions soft = new SoftAssertions();
+                    soft.assertThat(response.statusCode()).as("status code").isEqualTo(200);
+                    soft.assertThat(spanExporter.getFinishedSpanItems()).as("spans").isEmpty();
+                    soft.assertThat(receivedHeaders.get(0).get("traceparent")).as("propagated context").isNull();
+                    soft.assertThat(receivedHeaders.get(0).get("Authorization")).as("authorization").isNotNull();
+                    soft.assertAll();
+                    testContext.completeNow();
+                }));
+    }
+
+    @Test
+    void traceOperationKeepsSigningRequest(final Vertx vertx) {
+        assertThat(client(vertx, Sampler.alwaysOn()).get(port, "localhost", "/").traceOperation("get"))
+                .isInstanceOf(AwsSigningHttpRequest.class);
+    }
+
+    private static AwsSigningWebClient client(final Vertx vertx, final Sampler sampler) {
+        final OpenTelemetry openTelemetry = OpenTelemetrySdk.builder()
+                .setTracerProvider(SdkTracerProvider.builder()
+                        .addSpanProcessor(SimpleSpanProcessor.create(spanExporter))
+                        .setSampler(sampler)
+                        .build())
+                .setPropagators(ContextPropagators.create(W3CTraceContextPropagator.getInstance()))
+                .build();
+        return AwsSigningWebClient.create(vertx, new AwsSigningOptions()
+                .setCredentialsProvider(CREDENTIALS)
+                .setRegion(Region.EU_WEST_1)
+                .setTracer(new OpenTelemetryAwsSigningTracer(openTelemetry)));
+    }
+}
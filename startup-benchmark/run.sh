@@ -0,0 +1,44 @@
+#!/bin/bash
+
+# usage: run.sh <main class>, with the classpath in CLASSPATH
+set -e
+
+MAIN_CLASS=$1
+RUNS=${RUNS:-10}
+OUTPUT=../build/startup-benchmark
+
+if ! native-image --version; then
+  echo "Please install GraalVM native-image"
+  exit 1
+fi
+
+mkdir -p $OUTPUT
+native-image --no-fallback -cp "$CLASSPATH" -o $OUTPUT/aws-signing-startup "$MAIN_CLASS"
+
+# the image must run and sign exactly like the JVM, both sign the same request at a fixed instant
+JVM_SIGNATURE=$(java -cp "$CLASSPATH" "$MAIN_CLASS" verify)
+NATIVE_SIGNATURE=$($OUTPUT/aws-signing-startup verify)
+if [[ "$JVM_SIGNATURE" != AWS4-HMAC-SHA256* || "$NATIVE_SIGNATURE" != "$JVM_SIGNATURE" ]]; then
+  echo "Native image does not sign like the JVM"
+  echo "JVM:    $JVM_SIGNATURE"
+  echo "native: $NATIVE_SIGNATURE"
+  exit 1
+fi
+echo "Native image signs like the JVM: $NATIVE_SIGNATURE"
+
+measure() {
+  local label=$1
+  shift
+  "$@"
+  local total=0
+  for _ in $(seq "$RUNS"); do
+    local start
+    start=$(date +%s%N)
+    "$@" > /dev/null
+    total=$((total + $(date +%s%N) - start))
+  done
+  echo "$label: $((total / RUNS / 1000000)) ms per process, average of $RUNS runs"
+}
+
+measure "JVM" java -cp "$CLASSPATH" "$MAIN_CLASS"
+measure "native" $OUTPUT/aws-signing-startup